@@ -0,0 +1,129 @@
+/*
+ * Copyright 2017 Jurandir C. Goncalves
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package br.com.jgon.canary.persistence;
+
+import java.io.Serializable;
+import java.util.concurrent.Callable;
+
+/**
+ * Configuracao da execucao em blocos do UPDATE e DELETE em lote (GenericDAO.update/remove com {@link BulkOperation}).
+ * As chaves dos registros sao obtidas em ordem crescente, a partir do checkpoint, e cada bloco e executado em sua propria transacao.
+ *
+ * @author Jurandir C. Goncalves
+ *
+ * @version 1.0
+ *
+ */
+public class BulkOperation {
+
+	private int chunkSize = 1000;
+	private int rowsPerSecond;
+	private Serializable checkpoint;
+	private ProgressListener listener;
+	private ChunkTransaction transaction;
+
+	public int getChunkSize() {
+		return chunkSize;
+	}
+
+	/**
+	 *
+	 * @param chunkSize - quantidade de registros por bloco, default 1000
+	 * @return {@link BulkOperation}
+	 */
+	public BulkOperation setChunkSize(int chunkSize) {
+		this.chunkSize = chunkSize;
+		return this;
+	}
+
+	public int getRowsPerSecond() {
+		return rowsPerSecond;
+	}
+
+	/**
+	 *
+	 * @param rowsPerSecond - limite de registros por segundo, menor ou igual a zero sem limite (default)
+	 * @return {@link BulkOperation}
+	 */
+	public BulkOperation setRowsPerSecond(int rowsPerSecond) {
+		this.rowsPerSecond = rowsPerSecond;
+		return this;
+	}
+
+	public Serializable getCheckpoint() {
+		return checkpoint;
+	}
+
+	/**
+	 * Reinicia a execucao a partir da chave informada (exclusive), obtida em {@link BulkProgress#getCheckpoint()}
+	 * @param checkpoint - ultima chave processada
+	 * @return {@link BulkOperation}
+	 */
+	public BulkOperation setCheckpoint(Serializable checkpoint) {
+		this.checkpoint = checkpoint;
+		return this;
+	}
+
+	public ProgressListener getListener() {
+		return listener;
+	}
+
+	/**
+	 *
+	 * @param listener - notificado ao final de cada bloco (apos a transacao do bloco)
+	 * @return {@link BulkOperation}
+	 */
+	public BulkOperation setListener(ProgressListener listener) {
+		this.listener = listener;
+		return this;
+	}
+
+	public ChunkTransaction getTransaction() {
+		return transaction;
+	}
+
+	/**
+	 * Transacao de cada bloco. Quando nao informada utiliza a transacao do EntityManager (RESOURCE_LOCAL), que nao pode estar ativa.
+	 * Em JTA e obrigatorio informar uma transacao propria (ex: metodo REQUIRES_NEW), sem ela a execucao e rejeitada
+	 * @param transaction - executa o bloco em nova transacao
+	 * @return {@link BulkOperation}
+	 */
+	public BulkOperation setTransaction(ChunkTransaction transaction) {
+		this.transaction = transaction;
+		return this;
+	}
+
+	/**
+	 * Executa o bloco em sua propria transacao
+	 */
+	public interface ChunkTransaction {
+		/**
+		 *
+		 * @param chunk - operacoes do bloco
+		 * @throws Exception - erro no bloco, a transacao deve ser desfeita
+		 */
+		void execute(Callable<?> chunk) throws Exception;
+	}
+
+	/**
+	 * Progresso da execucao
+	 */
+	public interface ProgressListener {
+		/**
+		 *
+		 * @param progress - situacao apos o bloco
+		 */
+		void onChunk(BulkProgress progress);
+	}
+}
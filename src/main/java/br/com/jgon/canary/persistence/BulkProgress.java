@@ -0,0 +1,86 @@
+/*
+ * Copyright 2017 Jurandir C. Goncalves
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package br.com.jgon.canary.persistence;
+
+import java.io.Serializable;
+
+/**
+ * Situacao da execucao em blocos ({@link BulkOperation})
+ *
+ * @author Jurandir C. Goncalves
+ *
+ * @version 1.0
+ *
+ */
+public class BulkProgress implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private final int chunks;
+	private final int chunkRows;
+	private final long totalRows;
+	private final Serializable checkpoint;
+	private final long elapsedMillis;
+	private final boolean finished;
+
+	/**
+	 *
+	 * @param chunks - quantidade de blocos executados
+	 * @param chunkRows - registros alterados no ultimo bloco
+	 * @param totalRows - registros alterados
+	 * @param checkpoint - ultima chave processada
+	 * @param elapsedMillis - tempo desde o inicio da execucao
+	 * @param finished - true quando nao existem mais registros
+	 */
+	public BulkProgress(int chunks, int chunkRows, long totalRows, Serializable checkpoint, long elapsedMillis, boolean finished) {
+		this.chunks = chunks;
+		this.chunkRows = chunkRows;
+		this.totalRows = totalRows;
+		this.checkpoint = checkpoint;
+		this.elapsedMillis = elapsedMillis;
+		this.finished = finished;
+	}
+
+	public int getChunks() {
+		return chunks;
+	}
+
+	public int getChunkRows() {
+		return chunkRows;
+	}
+
+	public long getTotalRows() {
+		return totalRows;
+	}
+
+	/**
+	 *
+	 * @return ultima chave processada, utilizar em {@link BulkOperation#setCheckpoint(Serializable)} para continuar a execucao
+	 */
+	public Serializable getCheckpoint() {
+		return checkpoint;
+	}
+
+	public long getElapsedMillis() {
+		return elapsedMillis;
+	}
+
+	/**
+	 *
+	 * @return false quando interrompida (thread interrompida), podendo ser reiniciada pelo checkpoint
+	 */
+	public boolean isFinished() {
+		return finished;
+	}
+}
@@ -0,0 +1,262 @@
+/*
+ * Copyright 2017 Jurandir C. Goncalves
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package br.com.jgon.canary.persistence;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import javax.persistence.ElementCollection;
+import javax.persistence.Entity;
+import javax.persistence.ManyToMany;
+import javax.persistence.ManyToOne;
+import javax.persistence.OneToMany;
+import javax.persistence.OneToOne;
+import javax.persistence.Transient;
+
+import br.com.jgon.canary.persistence.CriteriaFilterImpl.Where;
+import br.com.jgon.canary.util.ClassMetadata;
+import br.com.jgon.canary.util.ReflectionUtil;
+
+/**
+ * Cache do total de registros da paginacao (PageCountMode.CACHED).
+ * A chave e gerada a partir das restricoes do filtro (objeto base, where e joins), desconsiderando selecao e ordenacao;
+ * filtros que nao podem ser normalizados (associacoes preenchidas, objetos repetidos ou muito profundos) nao utilizam o cache.
+ * As entradas expiram pelo tempo definido no DAO e o tamanho e limitado, removendo as menos acessadas.
+ *
+ * @author Jurandir C. Goncalves
+ *
+ * @version 1.0
+ *
+ */
+final class CountCache {
+
+	private static final int MAX_SIZE = 1024;
+	private static final int MAX_DEPTH = 4;
+	private static final char KEY_SEPARATOR = '|';
+
+	private static final Map<String, SimpleEntry<Long, Long>> CACHE = new LinkedHashMap<String, SimpleEntry<Long, Long>>(16, 0.75f, true){
+		private static final long serialVersionUID = 1L;
+		@Override
+		protected boolean removeEldestEntry(Entry<String, SimpleEntry<Long, Long>> eldest) {
+			return size() > MAX_SIZE;
+		}
+	};
+
+	private CountCache() {
+
+	}
+
+	/**
+	 *
+	 * @param key - chave gerada por {@link #key(Class, CriteriaFilterImpl)}
+	 * @return {@link Long} - total em cache ou null caso nao exista ou esteja expirado
+	 */
+	static Long get(String key) {
+		synchronized (CACHE) {
+			SimpleEntry<Long, Long> entry = CACHE.get(key);
+			if(entry == null){
+				return null;
+			}
+			if(entry.getValue() < System.currentTimeMillis()){
+				CACHE.remove(key);
+				return null;
+			}
+			return entry.getKey();
+		}
+	}
+
+	/**
+	 *
+	 * @param key - chave gerada por {@link #key(Class, CriteriaFilterImpl)}
+	 * @param count - total de registros
+	 * @param ttl - tempo de expiracao em milissegundos
+	 */
+	static void put(String key, Long count, long ttl) {
+		synchronized (CACHE) {
+			CACHE.put(key, new SimpleEntry<Long, Long>(count, System.currentTimeMillis() + ttl));
+		}
+	}
+
+	/**
+	 * Remove os totais da entidade, utilizado apos inclusao, alteracao ou exclusao
+	 * @param entityClass - classe da entidade
+	 */
+	static void invalidate(Class<?> entityClass) {
+		String prefix = entityClass.getName() + KEY_SEPARATOR;
+		synchronized (CACHE) {
+			for(Iterator<String> it = CACHE.keySet().iterator(); it.hasNext(); ){
+				if(it.next().startsWith(prefix)){
+					it.remove();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gera a chave normalizada do filtro
+	 * @param entityClass - classe da entidade
+	 * @param criteriaFilter - filtro
+	 * @return {@link String} - null quando a chave nao puder ser determinada pelos valores (total nao utiliza o cache)
+	 */
+	static String key(Class<?> entityClass, CriteriaFilterImpl<?> criteriaFilter) {
+		StringBuilder sb = new StringBuilder(128);
+		sb.append(entityClass.getName()).append(KEY_SEPARATOR);
+
+		Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+		if(!appendValue(sb, criteriaFilter.getObjBase(), visited, 0)){
+			return null;
+		}
+		sb.append(KEY_SEPARATOR);
+
+		for(Entry<String, List<SimpleEntry<Where, ?>>> entry : criteriaFilter.getWhereRestriction().getRestrictions().entrySet()){
+			sb.append(entry.getKey()).append('[');
+			for(SimpleEntry<Where, ?> se : entry.getValue()){
+				sb.append(se.getKey()).append('=');
+				if(!appendValue(sb, se.getValue(), visited, 0)){
+					return null;
+				}
+				sb.append(';');
+			}
+			sb.append(']');
+		}
+		sb.append(KEY_SEPARATOR);
+
+		for(Entry<String, Where> entry : criteriaFilter.getListWhere().entrySet()){
+			sb.append(entry.getKey()).append('=').append(entry.getValue()).append(';');
+		}
+		sb.append(KEY_SEPARATOR);
+
+		for(Entry<String, JoinMapper> entry : criteriaFilter.getListJoin().entrySet()){
+			sb.append(entry.getKey()).append('=')
+				.append(entry.getValue().getJoinType()).append(',')
+				.append(entry.getValue().getForce()).append(';');
+		}
+		sb.append(KEY_SEPARATOR);
+		sb.append(criteriaFilter.getListGroupBy());
+
+		return sb.toString();
+	}
+
+	/**
+	 * Adiciona o valor normalizado, objetos complexos sao percorridos pelos atributos nao nulos
+	 * @param sb - chave
+	 * @param value - valor
+	 * @param visited - objetos ja percorridos
+	 * @param depth - nivel atual
+	 * @return false quando o valor nao puder ser normalizado: muito profundo, repetido (referencia ciclica)
+	 * ou com associacao preenchida, que poderia ser carregada sob demanda (lazy)
+	 */
+	private static boolean appendValue(StringBuilder sb, Object value, Set<Object> visited, int depth) {
+		if(value == null){
+			sb.append("null");
+			return true;
+		}
+		Class<?> klass = value.getClass();
+		if(value instanceof String){
+			// tamanho como prefixo, evita colisao com os separadores
+			sb.append(((String) value).length()).append(':').append(value);
+		}else if(ReflectionUtil.isPrimitive(klass) || value instanceof Number || value instanceof Enum || klass.getName().startsWith("java.time.")){
+			sb.append(value);
+		}else if(value instanceof Date){
+			sb.append(((Date) value).getTime());
+		}else if(value instanceof Calendar){
+			sb.append(((Calendar) value).getTimeInMillis());
+		}else if(value instanceof Collection){
+			sb.append('[');
+			for(Object o : (Collection<?>) value){
+				if(!appendValue(sb, o, visited, depth + 1)){
+					return false;
+				}
+				sb.append(',');
+			}
+			sb.append(']');
+		}else if(klass.isArray()){
+			sb.append('[');
+			for(int i=0; i < Array.getLength(value); i++){
+				if(!appendValue(sb, Array.get(value, i), visited, depth + 1)){
+					return false;
+				}
+				sb.append(',');
+			}
+			sb.append(']');
+		}else if(depth >= MAX_DEPTH || !visited.add(value)){
+			return false;
+		}else{
+			sb.append(klass.getName()).append('{');
+			for(Field fld : ClassMetadata.of(klass).getFields()){
+				if(Modifier.isStatic(fld.getModifiers()) || Modifier.isTransient(fld.getModifiers()) || fld.isAnnotationPresent(Transient.class)){
+					continue;
+				}
+				Object fldValue = ReflectionUtil.getAttributteValue(value, fld);
+				if(fldValue == null){
+					continue;
+				}
+				if(isAssociation(fld)){
+					//colecao vazia nao gera restricao; as demais associacoes nao sao percorridas (evita o carregamento lazy)
+					if(isEmptyCollection(fldValue)){
+						continue;
+					}
+					return false;
+				}
+				sb.append(fld.getName()).append('=');
+				if(!appendValue(sb, fldValue, visited, depth + 1)){
+					return false;
+				}
+				sb.append(';');
+			}
+			sb.append('}');
+		}
+		return true;
+	}
+
+	/**
+	 *
+	 * @param fld - atributo
+	 * @return true para relacionamentos (entidade ou colecao)
+	 */
+	private static boolean isAssociation(Field fld) {
+		return fld.isAnnotationPresent(ManyToOne.class)
+				|| fld.isAnnotationPresent(OneToOne.class)
+				|| fld.isAnnotationPresent(OneToMany.class)
+				|| fld.isAnnotationPresent(ManyToMany.class)
+				|| fld.isAnnotationPresent(ElementCollection.class)
+				|| fld.getType().isAnnotationPresent(Entity.class)
+				|| ReflectionUtil.isCollection(fld.getType());
+	}
+
+	/**
+	 *
+	 * @param value - valor do atributo
+	 * @return true para colecao vazia do java.util (nao gerenciada pelo provedor) ou array vazio
+	 */
+	private static boolean isEmptyCollection(Object value) {
+		if(value.getClass().isArray()){
+			return Array.getLength(value) == 0;
+		}
+		return value instanceof Collection && value.getClass().getName().startsWith("java.util.") && ((Collection<?>) value).isEmpty();
+	}
+}
@@ -21,6 +21,7 @@ import java.util.Calendar;
 import java.util.Date;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -43,6 +44,7 @@ import br.com.jgon.canary.persistence.filter.CriteriaFilterMetamodel;
 import br.com.jgon.canary.persistence.filter.CriteriaFilterUpdate;
 import br.com.jgon.canary.util.DateUtil;
 import br.com.jgon.canary.util.MessageSeverity;
+import br.com.jgon.canary.util.PageCountMode;
 
 /**
  * Define os filtros que serao utilizados para construir a criteria 
@@ -63,6 +65,12 @@ class CriteriaFilterImpl<T> implements CriteriaFilterMetamodel<T>, CriteriaFilte
 	private static final String regexPatternDateTimeOrNumber = "((" + regexPatternDateTime + ")|[0-9]+)";
 	private static final String regexPatternMultiDateTimeOrNumber = "(([a-zA-Z0-9,\\s_-\u00C0-\u00FF]+)|[" + regexPatternDateTime + ",]+)";
 	
+	private static final Pattern patternDate = Pattern.compile(regexPatternDate);
+	private static final Pattern patternDateTimeValue = Pattern.compile("^" + regexPatternDateTime + "$");
+	private static final Pattern patternAlphaValue = Pattern.compile("^[a-zA-Z0-9]" + regexPatternAlpha + "$");
+	private static final Pattern patternBetweenSeparator = Pattern.compile("\\s(btwn|between)\\s");
+	private static final Pattern patternMultiWhere = Pattern.compile("^(<|<=|=|!=|>=|>|)" + regexPatternDateTimeOrNumber +  "(\\s?&\\s?(<|<=|=|!=|>=|>|)" + regexPatternDateTimeOrNumber + "){1,}$");
+	
 	private Logger logger = LoggerFactory.getLogger(CriteriaFilterImpl.class);
 	/**
 	 * Filtro de restricao
@@ -110,10 +118,13 @@ class CriteriaFilterImpl<T> implements CriteriaFilterMetamodel<T>, CriteriaFilte
 		
 		public String exp;
 		public RegexWhere regexWhere;
+		//expressao compilada uma unica vez
+		final Pattern pattern;
 		
 		private Where(RegexWhere regexWhere, String exp) {
 			this.exp = exp;
 			this.regexWhere = regexWhere;
+			this.pattern = exp == null ? null : Pattern.compile(exp);
 		}
 	}	
 	/**
@@ -139,6 +150,8 @@ class CriteriaFilterImpl<T> implements CriteriaFilterMetamodel<T>, CriteriaFilte
 	}	
 			
 	private boolean collectionSelectionControl = true;
+	private CollectionFetch collectionFetch = CollectionFetch.SELECT;
+	private PageCountMode countMode = PageCountMode.EXACT;
 	
 	private Map<String, Where> listWhere = new LinkedHashMap<String, Where>(0);
 	private WhereRestriction whereRestriction = new WhereRestriction();
@@ -167,7 +180,36 @@ class CriteriaFilterImpl<T> implements CriteriaFilterMetamodel<T>, CriteriaFilte
 		this.objClass = objClass;
 	}
 	/**
-	 * 
+	 * Copia do filtro, alteracoes na copia (selecao, restricoes, ordenacao, joins) nao alteram este filtro.
+	 * O objeto base e os valores das restricoes sao compartilhados
+	 * @return {@link CriteriaFilterImpl}
+	 */
+	CriteriaFilterImpl<T> copy(){
+		CriteriaFilterImpl<T> copy = new CriteriaFilterImpl<T>(objBase, objClass);
+		copy.collectionSelectionControl = collectionSelectionControl;
+		copy.collectionFetch = collectionFetch;
+		copy.countMode = countMode;
+		copy.listWhere.putAll(listWhere);
+		for(Map.Entry<String, List<SimpleEntry<Where, ?>>> entry : whereRestriction.getRestrictions().entrySet()){
+			copy.whereRestriction.addAll(entry.getKey(), new LinkedList<SimpleEntry<Where, ?>>(entry.getValue()));
+		}
+		//a selecao e alterada ao montar a consulta (colecoes relacionadas)
+		for(Map.Entry<String, SimpleEntry<SelectAggregate, String>> entry : listSelection.entrySet()){
+			copy.listSelection.put(entry.getKey(), new SimpleEntry<SelectAggregate, String>(entry.getValue()));
+		}
+		for(Map.Entry<Class<?>, Map<String, SimpleEntry<SelectAggregate, String>>> entry : collectionSelection.entrySet()){
+			copy.collectionSelection.put(entry.getKey(), new LinkedHashMap<String, SimpleEntry<SelectAggregate, String>>(entry.getValue()));
+		}
+		copy.listOrder.putAll(listOrder);
+		copy.listGroupBy.addAll(listGroupBy);
+		for(Map.Entry<String, JoinMapper> entry : listJoin.entrySet()){
+			copy.listJoin.put(entry.getKey(), new JoinMapper(entry.getValue().getJoinType(), entry.getValue().getFetch(), entry.getValue().getForce()));
+		}
+		copy.listUpdate.putAll(listUpdate);
+		return copy;
+	}
+	/**
+	 *
 	 * @return
 	 */
 	public boolean isCollectionSelectionControl() {
@@ -180,6 +222,40 @@ class CriteriaFilterImpl<T> implements CriteriaFilterMetamodel<T>, CriteriaFilte
 	public void setCollectionSelectionControl(boolean collectionSelectionControl) {
 		this.collectionSelectionControl = collectionSelectionControl;
 	}
+	/**
+	 * 
+	 * @return
+	 */
+	public CollectionFetch getCollectionFetch() {
+		return collectionFetch;
+	}
+	/**
+	 * 
+	 * @param collectionFetch
+	 * @return
+	 */
+	@Override
+	public CriteriaFilterImpl<T> setCollectionFetch(CollectionFetch collectionFetch) {
+		this.collectionFetch = collectionFetch == null ? CollectionFetch.SELECT : collectionFetch;
+		return this;
+	}
+	/**
+	 * 
+	 * @return
+	 */
+	public PageCountMode getCountMode() {
+		return countMode;
+	}
+	/**
+	 * 
+	 * @param countMode
+	 * @return
+	 */
+	@Override
+	public CriteriaFilterImpl<T> setCountMode(PageCountMode countMode) {
+		this.countMode = countMode == null ? PageCountMode.EXACT : countMode;
+		return this;
+	}
 	/**
 	 * 
 	 * @return
@@ -598,21 +674,6 @@ class CriteriaFilterImpl<T> implements CriteriaFilterMetamodel<T>, CriteriaFilte
 	public <E> CriteriaFilterImpl<T> addWhereIn(String field, List<E> values){
 		return addWhereListValues(field, Where.IN, values);
 	}
-	
-	/**
-	 * 
-	 * @param regexToAnalyse
-	 * @param search
-	 * @return
-	 */
-	private boolean containsRegex(RegexWhere[] regexToAnalyse, RegexWhere rgxSearch){
-		for(RegexWhere rgx : regexToAnalyse){
-			if(rgx.equals(rgxSearch)){
-				return true;
-			}
-		}
-		return false;
-	}
 	@Override
 	public CriteriaFilterImpl<T> addWhereRegex(String field, Class<?> fieldType, String value, RegexWhere[] regexToAnalyse, RegexWhere defaultIfNotMatch) throws ApplicationException{
 		boolean added = configWhereRegex(field, fieldType, value, regexToAnalyse, defaultIfNotMatch);
@@ -634,90 +695,78 @@ class CriteriaFilterImpl<T> implements CriteriaFilterMetamodel<T>, CriteriaFilte
 	 * @throws ApplicationException
 	 */
 	private boolean configWhereRegex(String field, Class<?> fieldType, String value, RegexWhere[] regexToAnalyse, RegexWhere defaultIfNotMatch) throws ApplicationException{
-		Where where = null;
-		for(Where wh : Where.values()){
-			if(wh.exp != null && (regexToAnalyse == null || containsRegex(regexToAnalyse, wh.regexWhere)) && checkRegex(value, wh.exp)){
-				where = wh;
-				break;
-			}
-		}
-		if(where != null){
-			Pattern p = Pattern.compile(where.exp);
-			Matcher m = p.matcher(value);
-			
-			if(m.find()){
-				if(where.equals(Where.IS_NULL)){
-					this.addWhereIsNull(field);
-				}else if(where.equals(Where.IS_NOT_NULL)){
-					this.addWhereIsNotNull(field);
-				}else if(where.equals(Where.BETWEEN)){
-					String[] val = m.group().split("\\s(btwn|between)\\s");
-					if(NumberUtils.isCreatable(val[0])){
-						this.whereRestriction.add(field, Where.BETWEEN, new Number[] {NumberUtils.createNumber(val[0]), NumberUtils.createNumber(val[1])});
+		WhereExpression expression = WhereExpression.parse(value, regexToAnalyse);
+		if(expression != null){
+			Where where = expression.getWhere();
+			if(where.equals(Where.IS_NULL)){
+				this.addWhereIsNull(field);
+			}else if(where.equals(Where.IS_NOT_NULL)){
+				this.addWhereIsNotNull(field);
+			}else if(where.equals(Where.BETWEEN)){
+				String[] val = patternBetweenSeparator.split(expression.getValue());
+				if(NumberUtils.isCreatable(val[0])){
+					this.whereRestriction.add(field, Where.BETWEEN, new Number[] {NumberUtils.createNumber(val[0]), NumberUtils.createNumber(val[1])});
+					return true;
+				}else{
+					Date dt1, dt2;
+					dt1 = DateUtil.parseDate(val[0]);
+					dt2 = DateUtil.parseDate(val[1]);
+					if(patternDate.matcher(val[1]).matches()){
+							dt2 = DateUtils.setHours(dt2, 23);
+							dt2 = DateUtils.setMinutes(dt2, 59);
+							dt2 = DateUtils.setSeconds(dt2, 59);
+							dt2 = DateUtils.setMilliseconds(dt2, 999);
+					}
+					addWhereBetween(field, dt1, dt2);
+					return true;
+				}
+			}else if(where.equals(Where.IN) || where.equals(Where.NOT_IN)){
+				String[] val = expression.getValue().replace(" ", "").split("\\,");
+				if(val[0] != null && (Date.class.isAssignableFrom(fieldType) || Calendar.class.isAssignableFrom(fieldType))){// || fieldType.equals(Temporal.class) || val[0].matches(regexPatternDateTime))){
+					Date[] dates = new Date[val.length];
+					for(int i=0; i < val.length; i++){
+						dates[i] = DateUtil.parseDate(val[i]);
+					}
+					if(where.equals(Where.IN)){
+						addWhereIn(field, dates);
 						return true;
 					}else{
-						Date dt1, dt2;
-						dt1 = DateUtil.parseDate(val[0]);
-						dt2 = DateUtil.parseDate(val[1]);
-						if(val[1].matches(regexPatternDate)){
-								dt2 = DateUtils.setHours(dt2, 23);
-								dt2 = DateUtils.setMinutes(dt2, 59);
-								dt2 = DateUtils.setSeconds(dt2, 59);
-								dt2 = DateUtils.setMilliseconds(dt2, 999);
-						}
-						addWhereBetween(field, dt1, dt2);
+						addWhereNotIn(field, dates);
 						return true;
 					}
-				}else if(where.equals(Where.IN) || where.equals(Where.NOT_IN)){
-					String[] val = m.group().replace(" ", "").split("\\,");
-					if(val[0] != null && (Date.class.isAssignableFrom(fieldType) || Calendar.class.isAssignableFrom(fieldType))){// || fieldType.equals(Temporal.class) || val[0].matches(regexPatternDateTime))){
-						Date[] dates = new Date[val.length];
-						for(int i=0; i < val.length; i++){
-							dates[i] = DateUtil.parseDate(val[i]);
-						}
-						if(where.equals(Where.IN)){
-							addWhereIn(field, dates);
-							return true;
-						}else{
-							addWhereNotIn(field, dates);
-							return true;
-						}
-					}else{
-						if(where.equals(Where.IN)){
-							addWhereIn(field, val);
-							return true;
-						}else{
-							addWhereNotIn(field, val);
-							return true;
-						}
-					}
 				}else{
-					String val = m.group();
-					if(Date.class.isAssignableFrom(fieldType) || Calendar.class.isAssignableFrom(fieldType)){// val.matches(regexPatternDateTime)){
-						Date dt = DateUtil.parseDate(m.group());
-						if(val.matches(regexPatternDate) && (where.equals(Where.LESS_THAN) || where.equals(Where.LESS_THAN_OR_EQUAL_TO))){
-							DateUtils.setHours(dt, 23);
-							DateUtils.setMinutes(dt, 59);
-							DateUtils.setSeconds(dt, 59);
-							DateUtils.setMilliseconds(dt, 999);
-						}
-						this.whereRestriction.add(field, where, dt);
-						return true;
-					}else if (Number.class.isAssignableFrom(fieldType)){
-						this.whereRestriction.add(field, where, NumberUtils.createNumber(val));
+					if(where.equals(Where.IN)){
+						addWhereIn(field, val);
 						return true;
 					}else{
-						this.whereRestriction.add(field, where, val);
+						addWhereNotIn(field, val);
 						return true;
 					}
 				}
+			}else{
+				String val = expression.getValue();
+				if(Date.class.isAssignableFrom(fieldType) || Calendar.class.isAssignableFrom(fieldType)){// val.matches(regexPatternDateTime)){
+					Date dt = DateUtil.parseDate(val);
+					if(patternDate.matcher(val).matches() && (where.equals(Where.LESS_THAN) || where.equals(Where.LESS_THAN_OR_EQUAL_TO))){
+						DateUtils.setHours(dt, 23);
+						DateUtils.setMinutes(dt, 59);
+						DateUtils.setSeconds(dt, 59);
+						DateUtils.setMilliseconds(dt, 999);
+					}
+					this.whereRestriction.add(field, where, dt);
+					return true;
+				}else if (Number.class.isAssignableFrom(fieldType)){
+					this.whereRestriction.add(field, where, NumberUtils.createNumber(val));
+					return true;
+				}else{
+					this.whereRestriction.add(field, where, val);
+					return true;
+				}
 			}
 		}else{
 			boolean found = false;
 			if(ArrayUtils.contains(regexToAnalyse, RegexWhere.MULTI)){
-				final String multiWhere = "^(<|<=|=|!=|>=|>|)" + regexPatternDateTimeOrNumber +  "(\\s?&\\s?(<|<=|=|!=|>=|>|)" + regexPatternDateTimeOrNumber + "){1,}$";
-				Pattern p = Pattern.compile(multiWhere);
-				Matcher m = p.matcher(value);
+				Matcher m = patternMultiWhere.matcher(value);
 
 				if(m.find()){
 					found= true;
@@ -741,10 +790,10 @@ class CriteriaFilterImpl<T> implements CriteriaFilterMetamodel<T>, CriteriaFilte
 			}
 
 			if(!found && defaultIfNotMatch != null){
-				if(defaultIfNotMatch.equals(RegexWhere.EQUAL) && value.matches("^" + regexPatternDateTime + "$")){
+				if(defaultIfNotMatch.equals(RegexWhere.EQUAL) && patternDateTimeValue.matcher(value).matches()){
 					this.whereRestriction.add(field, Where.EQUAL, DateUtil.parseDate(value));
 					return true;
-				}else if(defaultIfNotMatch.equals(RegexWhere.EQUAL) && value.matches("^[a-zA-Z0-9]" + regexPatternAlpha + "$")){
+				}else if(defaultIfNotMatch.equals(RegexWhere.EQUAL) && patternAlphaValue.matcher(value).matches()){
 					this.whereRestriction.add(field, Where.EQUAL, value);
 					return true;
 				}else{
@@ -787,17 +836,6 @@ class CriteriaFilterImpl<T> implements CriteriaFilterMetamodel<T>, CriteriaFilte
 		}
 		return this;
 	}
-	/**
-	 * 
-	 * @param value
-	 * @param regex
-	 * @return
-	 */
-	private boolean checkRegex(String value, String regex){
-		Pattern p = Pattern.compile(regex);
-		Matcher m = p.matcher(value);
-		return m.find();
-	}
 	@Override
 	public <E> CriteriaFilterImpl<T> addWhereIn(Attribute<?, ?> attribute, List<E> values){
 		return addWhereListValues(attribute.getName(), Where.IN, values);
@@ -13,6 +13,7 @@
  */
 package br.com.jgon.canary.persistence;
 
+import java.lang.reflect.Array;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.math.BigInteger;
@@ -20,23 +21,32 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.AbstractMap.SimpleEntry;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 
 import javax.persistence.Embeddable;
 import javax.persistence.Entity;
 import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Id;
 import javax.persistence.ManyToMany;
 import javax.persistence.ManyToOne;
 import javax.persistence.OneToMany;
 import javax.persistence.OneToOne;
 import javax.persistence.Transient;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaDelete;
 import javax.persistence.criteria.CriteriaQuery;
@@ -46,10 +56,12 @@ import javax.persistence.criteria.From;
 import javax.persistence.criteria.Join;
 import javax.persistence.criteria.JoinType;
 import javax.persistence.criteria.Order;
+import javax.persistence.criteria.ParameterExpression;
 import javax.persistence.criteria.Path;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 import javax.persistence.criteria.Selection;
+import javax.persistence.metamodel.SingularAttribute;
 
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -58,7 +70,9 @@ import org.slf4j.LoggerFactory;
 import br.com.jgon.canary.exception.ApplicationException;
 import br.com.jgon.canary.persistence.CriteriaFilterImpl.SelectAggregate;
 import br.com.jgon.canary.persistence.CriteriaFilterImpl.Where;
+import br.com.jgon.canary.util.ClassMetadata;
 import br.com.jgon.canary.util.CollectionUtil;
+import br.com.jgon.canary.util.KeysetCursor;
 import br.com.jgon.canary.util.MessageSeverity;
 import br.com.jgon.canary.util.ReflectionUtil;
 
@@ -74,6 +88,11 @@ import br.com.jgon.canary.util.ReflectionUtil;
 class CriteriaManager<T> {
 		
 	public static final String ALIAS_ATTR_FORCED_ID = "ATTR_FORCED_ID";
+	//limite de itens do IN em alguns bancos de dados (ex: Oracle)
+	private static final int IN_PADDING_MAX_SIZE = 1000;
+	private static final List<Class<?>> BETWEEN_TYPES = Arrays.<Class<?>>asList(Integer.class, Long.class, Short.class, Float.class, Double.class, Date.class, LocalDate.class, LocalDateTime.class, BigInteger.class);
+	private static final Set<Where> OTHER_FIELD = EnumSet.of(Where.EQUAL_OTHER_FIELD, Where.NOT_EQUAL_OTHER_FIELD, Where.LESS_THAN_OTHER_FIELD, 
+			Where.LESS_THAN_OR_EQUAL_TO_OTHER_FIELD, Where.GREATER_THAN_OTHER_FIELD, Where.GREATER_THAN_OR_EQUAL_TO_OTHER_FIELD);
 	private EntityManager entityManager;
 	private CriteriaFilterImpl<T> criteriaFilter;
 	private CriteriaAssociations criteriaAssociations;
@@ -84,6 +103,12 @@ class CriteriaManager<T> {
 	private CriteriaBuilder criteriaBuilder;
 	private CriteriaQuery<?> criteriaQuery;
 	private Class<T> entityClass;
+	private boolean countQuery;
+	private List<ParameterExpression<?>> parameterList;
+	private List<Object> parameterValues;
+	private StringBuilder shape;
+	private boolean cacheable;
+	private CriteriaQueryCache.Template template;
 	
 	private Logger logger = LoggerFactory.getLogger(CriteriaManager.class);
 		
@@ -97,13 +122,38 @@ class CriteriaManager<T> {
 	 * @throws ApplicationException 
 	 */
 	public CriteriaManager(EntityManager entityManager, Class<T> entityClass, Class<?> queryClass, Class<?> resultClass, CriteriaFilterImpl<T> criteriaFilter) throws ApplicationException {
+		this(entityManager, entityClass, queryClass, resultClass, criteriaFilter, false, false);
+	}
+	
+	/**
+	 * 
+	 * @param entityManager
+	 * @param entityClass
+	 * @param queryClass
+	 * @param resultClass
+	 * @param criteriaFilter
+	 * @param queryCache - true para reutilizar a consulta pelo formato do filtro ({@link CriteriaQueryCache}), os valores
+	 * sao informados como parametros e a consulta deve ser criada por {@link #createQuery(EntityManager)}
+	 * @param parameters - true para informar os valores das restricoes como parametros ({@link ParameterExpression}), mantendo
+	 * o mesmo SQL para o mesmo formato de filtro
+	 * @throws ApplicationException 
+	 */
+	public CriteriaManager(EntityManager entityManager, Class<T> entityClass, Class<?> queryClass, Class<?> resultClass, CriteriaFilterImpl<T> criteriaFilter, boolean queryCache, boolean parameters) throws ApplicationException {
 		this.entityManager = entityManager;
 		this.queryClass = queryClass;
 		this.criteriaFilter = criteriaFilter;
 		this.criteriaAssociations = new CriteriaAssociations();
 		this.entityClass = entityClass;
 		this.resultClass = resultClass;
-		createCriteria();
+		if(queryCache){
+			createCachedCriteria();
+		}else{
+			if(parameters){
+				this.parameterList = new ArrayList<ParameterExpression<?>>();
+				this.parameterValues = new ArrayList<Object>();
+			}
+			createCriteria();
+		}
 	}
 	
 	/**
@@ -114,10 +164,40 @@ class CriteriaManager<T> {
 	 * @throws ApplicationException
 	 */
 	public CriteriaManager(EntityManager entityManager, Class<T> entityClass, CriteriaFilterImpl<T> criteriaFilterUpdate) throws ApplicationException {
+		this(entityManager, entityClass, criteriaFilterUpdate, false);
+	}
+	
+	/**
+	 * 
+	 * @param entityManager
+	 * @param entityClass
+	 * @param criteriaFilterUpdate
+	 * @param parameters - true para informar os valores das restricoes como parametros ({@link ParameterExpression})
+	 * @throws ApplicationException
+	 */
+	public CriteriaManager(EntityManager entityManager, Class<T> entityClass, CriteriaFilterImpl<T> criteriaFilterUpdate, boolean parameters) throws ApplicationException {
 		this.entityManager = entityManager;
 		this.criteriaFilter = criteriaFilterUpdate;
 		this.criteriaAssociations = new CriteriaAssociations();
 		this.entityClass = entityClass;
+		if(parameters){
+			this.parameterList = new ArrayList<ParameterExpression<?>>();
+			this.parameterValues = new ArrayList<Object>();
+		}
+	}
+	
+	/**
+	 * Gerenciador de uma consulta ja criada, sem filtro e sem parametros
+	 * @param entityManager
+	 * @param criteriaQuery - consulta
+	 * @param rootEntry - {@link Root} da entidade na consulta
+	 */
+	public CriteriaManager(EntityManager entityManager, CriteriaQuery<?> criteriaQuery, Root<T> rootEntry) {
+		this.entityManager = entityManager;
+		this.criteriaQuery = criteriaQuery;
+		this.rootEntry = rootEntry;
+		this.criteriaBuilder = entityManager.getCriteriaBuilder();
+		this.criteriaAssociations = new CriteriaAssociations();
 	}
 	
 	public Root<T> getRootEntry(){
@@ -132,14 +212,269 @@ class CriteriaManager<T> {
 		return this.criteriaAssociations;
 	}
 
+	/**
+	 * Consulta (JPA Criteria). Quando obtida do cache ({@link CriteriaQueryCache}) a consulta e recriada, sem utilizar o cache
+	 * @return {@link CriteriaQuery}
+	 * @throws ApplicationException
+	 */
 	@SuppressWarnings("unchecked")
 	public <E> CriteriaQuery<E> getCriteriaQuery() throws ApplicationException{
 		if(this.criteriaQuery == null){
+			if(this.template != null){
+				this.template = null;
+				this.parameterList = new ArrayList<ParameterExpression<?>>();
+				this.parameterValues = new ArrayList<Object>();
+			}
 			this.createCriteria();
 		}
 		return (CriteriaQuery<E>) this.criteriaQuery;
 	}
 	
+	/**
+	 * 
+	 * @return true quando o retorno da consulta for {@link Tuple}
+	 */
+	public boolean isTupleQuery(){
+		return Tuple.class.equals(template != null ? template.getResultType() : criteriaQuery.getResultType());
+	}
+	
+	/**
+	 * Cria a consulta no {@link EntityManager} informado, com os valores dos parametros.
+	 * Quando obtida do cache utiliza a named query registrada em {@link CriteriaQueryCache}
+	 * @param entityManager - {@link EntityManager} que executa a consulta
+	 * @return {@link TypedQuery}
+	 * @throws ApplicationException
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public <E> TypedQuery<E> createQuery(EntityManager entityManager) throws ApplicationException{
+		if(template != null){
+			TypedQuery<E> query = entityManager.createNamedQuery(template.getQueryName(), (Class<E>) template.getResultType());
+			for(int i=0; i < template.getParameterCount(); i++){
+				query.setParameter(template.getParameterName(i), parameterValues.get(i));
+			}
+			return query;
+		}
+		TypedQuery<E> query = entityManager.createQuery(this.<E>getCriteriaQuery());
+		for(Entry<ParameterExpression<?>, Object> entry : getParameters().entrySet()){
+			query.setParameter((ParameterExpression) entry.getKey(), entry.getValue());
+		}
+		return query;
+	}
+	
+	/**
+	 * Valores dos parametros da consulta, vazio quando os valores sao literais
+	 * @return {@link Map}
+	 */
+	public Map<ParameterExpression<?>, Object> getParameters(){
+		Map<ParameterExpression<?>, Object> parameters = new LinkedHashMap<ParameterExpression<?>, Object>();
+		if(parameterList != null){
+			for(int i=0; i < parameterList.size(); i++){
+				parameters.put(parameterList.get(i), parameterValues.get(i));
+			}
+		}
+		return parameters;
+	}
+	
+	/**
+	 * Obtem a consulta do cache pelo formato do filtro, caso nao exista cria a consulta com parametros e adiciona ao cache.
+	 * Consultas com colecoes relacionadas ou restricoes com expressoes nao sao armazenadas.
+	 * Nenhum objeto da JPA Criteria e compartilhado: no cache fica somente a named query, executada com os valores deste filtro
+	 * @throws ApplicationException
+	 */
+	private void createCachedCriteria() throws ApplicationException {
+		EntityManagerFactory entityManagerFactory = entityManager.getEntityManagerFactory();
+		String key = criteriaFilter == null ? null : configShape();
+		if(key != null){
+			this.template = CriteriaQueryCache.get(entityManagerFactory, key);
+			if(template != null && template.getParameterCount() == parameterValues.size()){
+				this.criteriaBuilder = entityManager.getCriteriaBuilder();
+				return;
+			}
+			this.template = null;
+		}
+		
+		this.parameterList = new ArrayList<ParameterExpression<?>>();
+		this.parameterValues = new ArrayList<Object>();
+		createCriteria();
+		
+		if(key != null && listCollectionRelation.isEmpty()){
+			try {
+				CriteriaQueryCache.put(entityManagerFactory, key, entityManager.createQuery(criteriaQuery), criteriaQuery.getResultType(), parameterList);
+			} catch (RuntimeException e) {
+				//provedor sem suporte a named query criada a partir da JPA Criteria, a consulta segue sem cache
+				logger.warn("[createCachedCriteria]", e);
+			}
+		}
+	}
+	
+	/**
+	 * Percorre as restricoes do filtro sem criar a consulta, obtendo o formato (operacoes, caminhos e tipos) e os valores dos parametros
+	 * @return {@link String} - formato do filtro ou null caso a consulta nao possa ser reutilizada
+	 * @throws ApplicationException
+	 */
+	private String configShape() throws ApplicationException {
+		this.parameterValues = new ArrayList<Object>();
+		this.shape = new StringBuilder(256);
+		this.cacheable = true;
+		try {
+			shape.append(entityClass.getName()).append('|')
+				.append(queryClass.getName()).append('|')
+				.append(resultClass.getName()).append('|')
+				.append(criteriaFilter.isCollectionSelectionControl()).append('|')
+				.append(criteriaFilter.getListSelection()).append('|');
+			for(Entry<String, JoinMapper> entry : criteriaFilter.getListJoin().entrySet()){
+				shape.append(entry.getKey()).append('=')
+					.append(entry.getValue().getJoinType()).append(',')
+					.append(entry.getValue().getFetch()).append(',')
+					.append(entry.getValue().getForce()).append(';');
+			}
+			shape.append('|').append(criteriaFilter.getListOrder())
+				.append('|').append(criteriaFilter.getListGroupBy())
+				.append('|');
+			
+			T obj = criteriaFilter.getObjBase();
+			if(obj != null){
+				configPredicates(obj, null, null);
+			}
+			configComplexPredicates(entityClass, null, null);
+			
+			return cacheable ? shape.toString() : null;
+		} finally {
+			this.shape = null;
+		}
+	}
+	
+	/**
+	 * Valor da restricao: parametro quando a consulta utiliza parametros, caso contrario literal
+	 * @param value - valor
+	 * @return {@link Expression}
+	 */
+	@SuppressWarnings("unchecked")
+	private <V> Expression<V> value(V value){
+		if(parameterList == null){
+			return criteriaBuilder.literal(value);
+		}
+		//parametros nomeados, utilizados na named query do cache (CriteriaQueryCache)
+		ParameterExpression<V> parameter = (ParameterExpression<V>) criteriaBuilder.parameter(parameterType(value), "p".concat(String.valueOf(parameterList.size())));
+		parameterList.add(parameter);
+		parameterValues.add(value);
+		return parameter;
+	}
+	
+	/**
+	 * 
+	 * @param value - valor
+	 * @return tipo do parametro
+	 */
+	private Class<?> parameterType(Object value){
+		if(value instanceof Collection){
+			return Collection.class;
+		}else if(value instanceof Enum){
+			return ((Enum<?>) value).getDeclaringClass();
+		}
+		return value.getClass();
+	}
+	
+	/**
+	 * Valores da restricao, na ordem em que sao informados como parametros da consulta (p0..pn).
+	 * Unica definicao dos valores, utilizada tanto no formato do filtro quanto na criacao da consulta
+	 * @param attributeClass - tipo do atributo
+	 * @param operation - operacao
+	 * @param value - valor
+	 * @param stringValue - valor texto sem o caractere %
+	 * @return {@link List}
+	 */
+	private List<Object> predicateValues(Class<?> attributeClass, Where operation, Object value, String stringValue){
+		List<Object> values = new ArrayList<Object>(2);
+		switch (operation) {
+			case LIKE_EXACT:
+			case LIKE_NOT_EXACT:
+			case ILIKE_EXACT:
+			case ILIKE_NOT_EXACT:
+				values.add(stringValue);
+				break;
+			case LIKE_MATCH_END:
+			case LIKE_NOT_MATCH_END:
+			case ILIKE_MATCH_END:
+			case ILIKE_NOT_MATCH_END:
+				values.add("%".concat(stringValue));
+				break;
+			case LIKE_MATCH_START:
+			case LIKE_NOT_MATCH_START:
+			case ILIKE_MATCH_START:
+			case ILIKE_NOT_MATCH_START:
+				values.add(stringValue.concat("%"));
+				break;
+			case LIKE_MATCH_ANYWHERE:
+			case LIKE_NOT_MATCH_ANYWHERE:
+			case ILIKE_MATCH_ANYWHERE:
+			case ILIKE_NOT_MATCH_ANYWHERE:
+				values.add("%".concat(stringValue).concat("%"));
+				break;
+			case IN:
+			case NOT_IN:
+				values.add(padInValues((Collection<?>) value));
+				break;
+			case NOT_EQUAL:
+				if(value instanceof Collection){
+					for(Object wValue: (Collection<?>) value){
+						values.add(attributeClass.equals(String.class) ? wValue.toString() : wValue);
+					}
+				}else if(value != null){
+					values.add(value);
+				}
+				break;
+			case BETWEEN:
+				if(BETWEEN_TYPES.contains(attributeClass)){
+					values.add(Array.get(value, 0));
+					values.add(Array.get(value, 1));
+				}
+				break;
+			case LESS_THAN:
+			case LESS_THAN_OR_EQUAL_TO:
+			case GREATER_THAN:
+			case GREATER_THAN_OR_EQUAL_TO:
+				if(!(value instanceof Expression)){
+					values.add(value);
+				}
+				break;
+			case EQUAL:
+				if(value instanceof Collection){
+					for(Object wValue: (Collection<?>) value){
+						values.add(attributeClass.equals(String.class) ? wValue.toString().toUpperCase() : wValue);
+					}
+				}else if(value != null){
+					values.add(value);
+				}
+				break;
+			default:
+				//IS_NULL, IS_NOT_NULL e *_OTHER_FIELD nao possuem valores
+				break;
+		}
+		return values;
+	}
+	
+	/**
+	 * Destino dos valores da restricao: no formato do filtro registra o tipo e o valor do parametro,
+	 * na criacao da consulta obtem o parametro ou literal ({@link #value(Object)}).
+	 * Listas do IN sem parametros nao possuem expressao (null), sao informadas diretamente no IN
+	 * @param values - valores ({@link #predicateValues(Class, Where, Object, String)})
+	 * @return expressoes dos valores, na mesma ordem
+	 */
+	private Expression<?>[] values(List<Object> values){
+		Expression<?>[] expressions = new Expression<?>[values.size()];
+		for(int i=0; i < expressions.length; i++){
+			Object v = values.get(i);
+			if(shape != null){
+				shape.append(',').append(parameterType(v).getName());
+				parameterValues.add(v);
+			}else if(parameterList != null || !(v instanceof Collection)){
+				expressions[i] = value(v);
+			}
+		}
+		return expressions;
+	}
+	
 	/**
 	 * 
 	 * @param queryClass
@@ -182,8 +517,105 @@ class CriteriaManager<T> {
 		//SELECT
 		query.select(configSelections(rootEntry));
 		
-		List<Predicate> predicates = new ArrayList<Predicate>();
 		//WHERE 
+		configWhere(query, obj);
+		
+		//GROUP BY
+		configGroupBy(query);
+		
+		//ORDER
+		if (criteriaFilter != null && !criteriaFilter.getListOrder().isEmpty()) {
+			List<Order> listOrder = new LinkedList<Order>();
+			
+			for(String key : criteriaFilter.getListOrder().keySet()){
+				SimpleEntry<String, From<?, ?>> assocAux = configAssociation(rootEntry, key);
+				
+				br.com.jgon.canary.persistence.CriteriaFilterImpl.Order ord = criteriaFilter.getListOrder().get(key);
+				if(ord.equals(br.com.jgon.canary.persistence.CriteriaFilterImpl.Order.ASC)){
+					listOrder.add(criteriaBuilder.asc(assocAux.getValue().get(assocAux.getKey())));
+				}else{
+					listOrder.add(criteriaBuilder.desc(assocAux.getValue().get(assocAux.getKey())));
+				}
+			}
+			
+			query.orderBy(listOrder);
+		}
+	
+		criteriaQuery = query;
+	}
+
+	/**
+	 * Cria a consulta COUNT independente da consulta principal, com root e joins proprios.
+	 * Sao criados os joins forcados, os necessarios para as restricoes e os joins INNER da selecao e da ordenacao
+	 * (restringem o resultado da consulta principal); joins LEFT da selecao e da ordenacao sao ignorados
+	 * e os joins fetch sao convertidos em joins simples. A consulta principal nao e alterada.
+	 * @param distinct - true para utilizar countDistinct
+	 * @return {@link CriteriaQuery}
+	 * @throws ApplicationException - erro ao configurar restricoes
+	 */
+	public CriteriaQuery<Long> getCriteriaCount(boolean distinct) throws ApplicationException {
+		this.criteriaBuilder = entityManager.getCriteriaBuilder();
+		this.countQuery = true;
+		
+		CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+		this.rootEntry = query.from(entityClass);
+		
+		this.configForcedAssociations();
+		this.configRestrictiveAssociations();
+		
+		//WHERE
+		configWhere(query, criteriaFilter.getObjBase());
+		
+		//GROUP BY
+		configGroupBy(query);
+		
+		//SELECT - campo chave quando unico, caso contrario a entidade
+		List<Field> flds = ReflectionUtil.listAttributesByAnnotation(entityClass, Id.class);
+		Expression<?> countExpression = flds.size() == 1 ? rootEntry.get(flds.get(0).getName()) : rootEntry;
+		query.select(distinct ? criteriaBuilder.countDistinct(countExpression) : criteriaBuilder.count(countExpression));
+		
+		return query;
+	}
+	
+	/**
+	 * Cria a consulta de existencia independente da consulta principal, nos mesmos moldes do COUNT
+	 * ({@link #getCriteriaCount(boolean)}), porem sem agrupamento e com selecao minima (campo chave quando unico, caso contrario a entidade).
+	 * Deve ser executada com limite de um registro.
+	 * @return {@link CriteriaQuery}
+	 * @throws ApplicationException - erro ao configurar restricoes
+	 */
+	public CriteriaQuery<?> getCriteriaExists() throws ApplicationException {
+		this.criteriaBuilder = entityManager.getCriteriaBuilder();
+		this.countQuery = true;
+		
+		List<Field> flds = ReflectionUtil.listAttributesByAnnotation(entityClass, Id.class);
+		CriteriaQuery<Object> query = criteriaBuilder.createQuery(Object.class);
+		this.rootEntry = query.from(entityClass);
+		
+		this.configForcedAssociations();
+		this.configRestrictiveAssociations();
+		
+		//WHERE
+		configWhere(query, criteriaFilter.getObjBase());
+		
+		//SELECT
+		if(flds.size() == 1){
+			query.select(rootEntry.get(flds.get(0).getName()));
+		}else{
+			query.select(rootEntry);
+		}
+		
+		return query;
+	}
+	
+	/**
+	 * Configura as restricoes do WHERE
+	 * @param query - {@link CriteriaQuery}
+	 * @param obj - objeto base
+	 * @throws ApplicationException
+	 */
+	private void configWhere(CriteriaQuery<?> query, T obj) throws ApplicationException {
+		List<Predicate> predicates = new ArrayList<Predicate>();
 		if (obj != null) {
 			predicates.addAll(configPredicates(obj, null, rootEntry));
 		}
@@ -193,8 +625,13 @@ class CriteriaManager<T> {
 		if(!predicates.isEmpty()){
 			query.where(predicates.toArray(new Predicate[] {}));
 		}
-		
-		//GROUP BY
+	}
+	
+	/**
+	 * Configura o GROUP BY
+	 * @param query - {@link CriteriaQuery}
+	 */
+	private void configGroupBy(CriteriaQuery<?> query) {
 		if(criteriaFilter != null && !criteriaFilter.getListGroupBy().isEmpty()){
 			List<Expression<?>> listGroupBy = new LinkedList<Expression<?>>();
 			
@@ -206,28 +643,83 @@ class CriteriaManager<T> {
 			
 			query.groupBy(listGroupBy);
 		}
-		
-		//ORDER
-		if (criteriaFilter != null && !criteriaFilter.getListOrder().isEmpty()) {
-			List<Order> listOrder = new LinkedList<Order>();
+	}
+
+	/**
+	 * Configura a ordenacao e a restricao da paginacao por chave (keyset) com base nos valores do ultimo registro da pagina anterior.
+	 * Os nulos sao posicionados explicitamente apos os demais valores, em qualquer direcao (ORDER BY CASE WHEN o1 IS NULL ..., o1),
+	 * e a restricao gera (o1 &gt; v1 OR o1 IS NULL) OR (o1 = v1 AND o2 &gt; v2) ..., respeitando a direcao de cada ordenacao;
+	 * para v1 nulo a comparacao e substituida por o1 IS NULL
+	 * @param lastValues - valores do cursor, na mesma ordem de {@link CriteriaFilterImpl#getListOrder()}, vazio para a primeira pagina
+	 * @throws ApplicationException - quantidade de valores diferente da quantidade de ordenacoes
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void configKeyset(List<String> lastValues) throws ApplicationException {
+		boolean seek = lastValues != null && !lastValues.isEmpty();
+		if(seek && lastValues.size() != criteriaFilter.getListOrder().size()){
+			throw new ApplicationException(MessageSeverity.ERROR, "keyset.cursor-invalid", lastValues.toString());
+		}
+		CriteriaQuery<?> query = getCriteriaQuery();
+
+		List<Path> paths = new ArrayList<Path>(criteriaFilter.getListOrder().size());
+		List<Boolean> nullables = new ArrayList<Boolean>(criteriaFilter.getListOrder().size());
+		List<Object> values = new ArrayList<Object>(criteriaFilter.getListOrder().size());
+		List<Order> listOrder = new LinkedList<Order>();
+		for(Entry<String, br.com.jgon.canary.persistence.CriteriaFilterImpl.Order> entry : criteriaFilter.getListOrder().entrySet()){
+			SimpleEntry<String, From<?, ?>> assocAux = configAssociation(rootEntry, entry.getKey());
+			Path path = assocAux.getValue().get(assocAux.getKey());
+			//somente o id da entidade principal nao pode ser nulo
+			boolean nullable = !(assocAux.getValue() == rootEntry && path.getModel() instanceof SingularAttribute && ((SingularAttribute) path.getModel()).isId());
+			paths.add(path);
+			nullables.add(nullable);
+			if(seek){
+				values.add(KeysetCursor.convert(lastValues.get(values.size()), path.getJavaType()));
+			}
 			
-			for(String key : criteriaFilter.getListOrder().keySet()){
-				SimpleEntry<String, From<?, ?>> assocAux = configAssociation(rootEntry, key);
-				
-				br.com.jgon.canary.persistence.CriteriaFilterImpl.Order ord = criteriaFilter.getListOrder().get(key);
+			if(nullable){
+				listOrder.add(criteriaBuilder.asc(criteriaBuilder.<Integer>selectCase().when(criteriaBuilder.isNull(path), 1).otherwise(0)));
+			}
+			if(entry.getValue().equals(br.com.jgon.canary.persistence.CriteriaFilterImpl.Order.ASC)){
+				listOrder.add(criteriaBuilder.asc(path));
+			}else{
+				listOrder.add(criteriaBuilder.desc(path));
+			}
+		}
+		query.orderBy(listOrder);
+		if(!seek){
+			return;
+		}
+
+		List<Predicate> orPredicates = new ArrayList<Predicate>(paths.size());
+		int idx = 0;
+		for(br.com.jgon.canary.persistence.CriteriaFilterImpl.Order ord : criteriaFilter.getListOrder().values()){
+			//apos um valor nulo existem somente nulos no mesmo atributo
+			if(values.get(idx) != null){
+				List<Predicate> andPredicates = new ArrayList<Predicate>(idx + 1);
+				for(int j=0; j < idx; j++){
+					andPredicates.add(values.get(j) == null ? criteriaBuilder.isNull(paths.get(j)) : criteriaBuilder.equal(paths.get(j), values.get(j)));
+				}
+				Predicate next;
 				if(ord.equals(br.com.jgon.canary.persistence.CriteriaFilterImpl.Order.ASC)){
-					listOrder.add(criteriaBuilder.asc(assocAux.getValue().get(assocAux.getKey())));
+					next = criteriaBuilder.greaterThan((Expression<Comparable>) paths.get(idx), (Comparable) values.get(idx));
 				}else{
-					listOrder.add(criteriaBuilder.desc(assocAux.getValue().get(assocAux.getKey())));
+					next = criteriaBuilder.lessThan((Expression<Comparable>) paths.get(idx), (Comparable) values.get(idx));
 				}
+				andPredicates.add(nullables.get(idx) ? criteriaBuilder.or(next, criteriaBuilder.isNull(paths.get(idx))) : next);
+				orPredicates.add(criteriaBuilder.and(andPredicates.toArray(new Predicate[] {})));
 			}
-			
-			query.orderBy(listOrder);
+			idx++;
+		}
+
+		//ultimo registro com todos os valores nulos: nao existem registros posteriores
+		Predicate keyset = orPredicates.isEmpty() ? criteriaBuilder.disjunction() : criteriaBuilder.or(orPredicates.toArray(new Predicate[] {}));
+		if(query.getRestriction() != null){
+			query.where(query.getRestriction(), keyset);
+		}else{
+			query.where(keyset);
 		}
-	
-		criteriaQuery = query;
 	}
-	
+
 	/**
 	 * 
 	 * @since 24/06/2019
@@ -253,6 +745,48 @@ class CriteriaManager<T> {
 		}
 	}
 	
+	/**
+	 * Joins da selecao e da ordenacao que restringem o resultado da consulta principal, utilizados no COUNT e na verificacao
+	 * de existencia para que correspondam as paginas. O caminho e criado ate a ultima associacao INNER (default quando nao configurada);
+	 * associacoes somente LEFT nao alteram o total e nao sao criadas. Colecoes da selecao consultadas separadamente sao ignoradas
+	 */
+	private void configRestrictiveAssociations() {
+		Set<String> keys = new LinkedHashSet<String>();
+		for(String key : criteriaFilter.getListSelection().keySet()){
+			Field field = ClassMetadata.of(entityClass).getField(key.contains(".") ? key.substring(0, key.indexOf(".")) : key);
+			if(field == null || !ReflectionUtil.isCollection(field.getType()) || !criteriaFilter.isCollectionSelectionControl()){
+				keys.add(key);
+			}
+		}
+		keys.addAll(criteriaFilter.getListOrder().keySet());
+		
+		for(String key : keys){
+			String[] assAux = key.split("\\.");
+			//mesmas associacoes de configAssociation(From, String): o ultimo atributo somente quando unico e entidade
+			int associations = assAux.length - 1;
+			if(assAux.length == 1 && !key.contains("*") && rootEntry.get(key).getJavaType().isAnnotationPresent(Entity.class)){
+				associations = 1;
+			}
+			
+			int lastInner = -1;
+			String nomeAs = null;
+			for(int i=0; i < associations; i++){
+				nomeAs = nomeAs == null ? assAux[i] : nomeAs.concat(".").concat(assAux[i]);
+				JoinMapper joinMapper = criteriaFilter.getListJoin().get(nomeAs);
+				if(joinMapper == null || JoinType.INNER.equals(joinMapper.getJoinType())){
+					lastInner = i;
+				}
+			}
+			
+			From<?, ?> lastFrom = rootEntry;
+			String lastAttribute = null;
+			for(int i=0; i <= lastInner; i++){
+				lastFrom = configAssociation(assAux[i], lastAttribute, lastFrom);
+				lastAttribute = lastAttribute == null ? assAux[i] : lastAttribute.concat(".").concat(assAux[i]);
+			}
+		}
+	}
+	
 	/**
 	 * 
 	 * @throws ApplicationException
@@ -334,12 +868,7 @@ class CriteriaManager<T> {
 			for(String key: criteriaFilter.getListSelection().keySet()){
 				
 				//--- ADICIONADO PARA VERIFICAR COLECAO
-				Field field = null;
-				if(key.contains(".")){
-					field = ReflectionUtil.getAttribute(entityClass, key.substring(0, key.indexOf(".")));
-				}else{
-					field = ReflectionUtil.getAttribute(entityClass, key);
-				}
+				Field field = ClassMetadata.of(entityClass).getField(key.contains(".") ? key.substring(0, key.indexOf(".")) : key);
 
 				if(field != null && ReflectionUtil.isCollection(field.getType()) && criteriaFilter.isCollectionSelectionControl()) {
 					SimpleEntry<SelectAggregate, String> selectionAux = criteriaFilter.getListSelection().get(key);
@@ -347,7 +876,7 @@ class CriteriaManager<T> {
 					int idxDot = selectionAux.getValue().indexOf(".");
 					boolean addCollection = true;
 					if(!entityClass.equals(resultClass)){						
-						Field fldResult = ReflectionUtil.getAttribute(resultClass, idxDot >= 0 ? selectionAux.getValue().substring(0, idxDot) : selectionAux.getValue());
+						Field fldResult = ClassMetadata.of(resultClass).getField(idxDot >= 0 ? selectionAux.getValue().substring(0, idxDot) : selectionAux.getValue());
 						addCollection = ReflectionUtil.isCollection(fldResult.getType());
 					}
 					
@@ -492,11 +1021,18 @@ class CriteriaManager<T> {
 	private From<?, ?> configAssociation(String attribute, String parentAttribute, From<?, ?> parentEntry){
 		String nomeAs = StringUtils.isBlank(parentAttribute) ? attribute : parentAttribute.concat(".").concat(attribute);
 		
+		if(shape != null){
+			//somente o formato do filtro, sem criar a consulta
+			shape.append("JOIN:").append(nomeAs).append(';');
+			return null;
+		}
+		
 		if(criteriaFilter != null && !criteriaAssociations.exists(nomeAs)){
 			JoinMapper joinMapper = criteriaFilter.getListJoin().get(nomeAs);
 			Join<?, ?> childEntry;
 			
-			if(joinMapper == null || !joinMapper.getFetch()){
+			// no COUNT (e na verificacao de existencia) o fetch nao e permitido, o join e mantido por restringir o resultado
+			if(joinMapper == null || !joinMapper.getFetch() || countQuery){
 				childEntry = parentEntry.join(attribute, joinMapper == null ? JoinType.INNER : joinMapper.getJoinType());
 			}else{
 				childEntry = (Join<?, ?>) parentEntry.fetch(attribute, joinMapper == null ? JoinType.INNER : joinMapper.getJoinType());
@@ -520,17 +1056,19 @@ class CriteriaManager<T> {
 	 */
 	private <E> List<Predicate> configPredicates(E obj, String attributeParent, From<?, ?> pathEntry) throws ApplicationException{
 		List<Predicate> predicates = new ArrayList<Predicate>();
+		if(shape != null){
+			shape.append('{').append(attributeParent).append(';');
+		}
 		
 		Object auxObj;
 		String attributeName;
 		Boolean isEntityType;
 		
-		List<Field> listFields = ReflectionUtil.listAttributes(obj);
+		List<Field> listFields = ClassMetadata.of(obj.getClass()).getFields();
 		
 		for (Field field : listFields) {
 			// Verifiando se o metodo não é transiente
 			if (checkField(field) && !ReflectionUtil.existAnnotation(field, Transient.class)) {
-				field.setAccessible(true);
 				
 				attributeName = StringUtils.isBlank(attributeParent) ? field.getName() : attributeParent.concat(".").concat(field.getName());
 				
@@ -557,7 +1095,7 @@ class CriteriaManager<T> {
 				}
 				
 				try {
-					auxObj = obj != null ? field.get(obj) : null;
+					auxObj = obj != null ? ClassMetadata.accessor(field).get(obj) : null;
 				} catch (Exception e) {
 					logger.error("[configPredicates]", e);
 					throw new ApplicationException(MessageSeverity.ERROR, "error.field.access", field.getName(), obj.getClass().getName());
@@ -632,6 +1170,9 @@ class CriteriaManager<T> {
 				}
 			}
 		}
+		if(shape != null){
+			shape.append('}');
+		}
 		return predicates;
 	}
 	
@@ -647,11 +1188,23 @@ class CriteriaManager<T> {
 	@SuppressWarnings({"unchecked", "rawtypes"})
 	private <E> void applyPredicate(From<?, ?> pathEntry, List<Predicate> predicates, String attributeName, Class<?> attributeClass, Where operation, E value){
 		boolean isStringType = attributeClass.equals(String.class);
-		String stringValue = null;
-		if(isStringType && value != null){
-			stringValue = ((String) value).replace("%", "");
-		}else if (value != null){
-			stringValue = value.toString().replace("%", "");
+		//atributos texto tambem recebem listas (EQUAL e NOT_EQUAL)
+		String stringValue = value != null ? value.toString().replace("%", "") : null;
+		
+		if(shape != null){
+			shape.append(attributeName).append(':').append(operation);
+			if(OTHER_FIELD.contains(operation)){
+				//nome do outro campo faz parte do formato
+				shape.append('=').append(value);
+			}else if(value instanceof Expression){
+				cacheable = false;
+			}
+		}
+		
+		Expression<?>[] values = values(predicateValues(attributeClass, operation, value, stringValue));
+		if(shape != null){
+			shape.append(';');
+			return;
 		}
 		
 		Expression<?> pathExpression = pathEntry.get(attributeName);
@@ -672,65 +1225,64 @@ class CriteriaManager<T> {
 				}*/
 				break;
 			case LIKE_EXACT:
-				predicates.add(criteriaBuilder.like((Expression<String>) pathExpression, stringValue));
+				predicates.add(criteriaBuilder.like((Expression<String>) pathExpression, (Expression<String>) values[0]));
 				break;
 			case LIKE_NOT_EXACT:
-				predicates.add(criteriaBuilder.notLike((Expression<String>) pathExpression, stringValue));
+				predicates.add(criteriaBuilder.notLike((Expression<String>) pathExpression, (Expression<String>) values[0]));
 				break;
 			case LIKE_MATCH_END:
-				predicates.add(criteriaBuilder.like((Expression<String>) pathExpression, "%".concat(stringValue)));
+				predicates.add(criteriaBuilder.like((Expression<String>) pathExpression, (Expression<String>) values[0]));
 				break;
 			case LIKE_MATCH_START:
-				predicates.add(criteriaBuilder.like((Expression<String>) pathExpression, stringValue .concat("%")));
+				predicates.add(criteriaBuilder.like((Expression<String>) pathExpression, (Expression<String>) values[0]));
 				break;
 			case LIKE_MATCH_ANYWHERE:
-				predicates.add(criteriaBuilder.like((Expression<String>) pathExpression, "%".concat(stringValue).concat("%")));
+				predicates.add(criteriaBuilder.like((Expression<String>) pathExpression, (Expression<String>) values[0]));
 				break;
 			case LIKE_NOT_MATCH_END:
-				predicates.add(criteriaBuilder.notLike((Expression<String>) pathExpression, "%".concat(stringValue)));
+				predicates.add(criteriaBuilder.notLike((Expression<String>) pathExpression, (Expression<String>) values[0]));
 				break;
 			case LIKE_NOT_MATCH_START:
-				predicates.add(criteriaBuilder.notLike((Expression<String>) pathExpression, stringValue .concat("%")));
+				predicates.add(criteriaBuilder.notLike((Expression<String>) pathExpression, (Expression<String>) values[0]));
 				break;
 			case LIKE_NOT_MATCH_ANYWHERE:
-				predicates.add(criteriaBuilder.notLike((Expression<String>) pathExpression, "%".concat(stringValue).concat("%")));
+				predicates.add(criteriaBuilder.notLike((Expression<String>) pathExpression, (Expression<String>) values[0]));
 				break;
 			case ILIKE_EXACT:
-				predicates.add(criteriaBuilder.like(criteriaBuilder.upper((Expression<String>) pathExpression), criteriaBuilder.upper(criteriaBuilder.literal(stringValue))));
+				predicates.add(criteriaBuilder.like(criteriaBuilder.upper((Expression<String>) pathExpression), criteriaBuilder.upper((Expression<String>) values[0])));
 				break;
 			case ILIKE_NOT_EXACT:
-				predicates.add(criteriaBuilder.notLike(criteriaBuilder.upper((Expression<String>) pathExpression), criteriaBuilder.upper(criteriaBuilder.literal(stringValue))));
+				predicates.add(criteriaBuilder.notLike(criteriaBuilder.upper((Expression<String>) pathExpression), criteriaBuilder.upper((Expression<String>) values[0])));
 				break;
 			case ILIKE_MATCH_END:
-				predicates.add(criteriaBuilder.like(criteriaBuilder.upper((Expression<String>) pathExpression), criteriaBuilder.upper(criteriaBuilder.literal("%".concat(stringValue)))));
+				predicates.add(criteriaBuilder.like(criteriaBuilder.upper((Expression<String>) pathExpression), criteriaBuilder.upper((Expression<String>) values[0])));
 				break;
 			case ILIKE_MATCH_START:
-				predicates.add(criteriaBuilder.like(criteriaBuilder.upper((Expression<String>) pathExpression), criteriaBuilder.upper(criteriaBuilder.literal(stringValue.concat("%")))));
+				predicates.add(criteriaBuilder.like(criteriaBuilder.upper((Expression<String>) pathExpression), criteriaBuilder.upper((Expression<String>) values[0])));
 				break;
 			case ILIKE_MATCH_ANYWHERE:
-				predicates.add(criteriaBuilder.like(criteriaBuilder.upper((Expression<String>) pathExpression), criteriaBuilder.upper(criteriaBuilder.literal("%".concat(stringValue).concat("%")))));
+				predicates.add(criteriaBuilder.like(criteriaBuilder.upper((Expression<String>) pathExpression), criteriaBuilder.upper((Expression<String>) values[0])));
 				break;
 			case ILIKE_NOT_MATCH_END:
-				predicates.add(criteriaBuilder.notLike(criteriaBuilder.upper((Expression<String>) pathExpression), criteriaBuilder.upper(criteriaBuilder.literal("%".concat(stringValue)))));
+				predicates.add(criteriaBuilder.notLike(criteriaBuilder.upper((Expression<String>) pathExpression), criteriaBuilder.upper((Expression<String>) values[0])));
 				break;
 			case ILIKE_NOT_MATCH_START:
-				predicates.add(criteriaBuilder.notLike(criteriaBuilder.upper((Expression<String>) pathExpression), criteriaBuilder.upper(criteriaBuilder.literal(stringValue.concat("%")))));
+				predicates.add(criteriaBuilder.notLike(criteriaBuilder.upper((Expression<String>) pathExpression), criteriaBuilder.upper((Expression<String>) values[0])));
 				break;
 			case ILIKE_NOT_MATCH_ANYWHERE:
-				predicates.add(criteriaBuilder.notLike(criteriaBuilder.upper((Expression<String>) pathExpression), criteriaBuilder.upper(criteriaBuilder.literal("%".concat(stringValue.concat("%"))))));
+				predicates.add(criteriaBuilder.notLike(criteriaBuilder.upper((Expression<String>) pathExpression), criteriaBuilder.upper((Expression<String>) values[0])));
 				break;
 			case IN:
-				predicates.add(pathExpression.in((Collection<?>) value));
+				predicates.add(inPredicate(pathExpression, (Collection<?>) value, values[0]));
 				break;
 			case NOT_IN:
-				predicates.add(criteriaBuilder.not(pathExpression.in((Collection<?>) value)));
+				predicates.add(criteriaBuilder.not(inPredicate(pathExpression, (Collection<?>) value, values[0])));
 				break;			
 			case NOT_EQUAL:
 				if(value instanceof Collection){
-					Collection<?> listNe = (Collection<?>) value;
-					for(Object wValue: listNe){
+					for(Expression<?> wValue: values){
 						if(isStringType){
-							predicates.add(criteriaBuilder.notEqual(criteriaBuilder.upper((Expression<String>) pathExpression), criteriaBuilder.upper(criteriaBuilder.literal(wValue.toString()))));
+							predicates.add(criteriaBuilder.notEqual(criteriaBuilder.upper((Expression<String>) pathExpression), criteriaBuilder.upper((Expression<String>) wValue)));
 						}else{
 							predicates.add(criteriaBuilder.notEqual(pathExpression, wValue));
 						}
@@ -738,76 +1290,51 @@ class CriteriaManager<T> {
 				//Permite somente not equal diferente de null
 				}else if (value!= null) {
 					if(isStringType){
-						predicates.add(criteriaBuilder.notEqual(pathExpression, (String) value));
+						predicates.add(criteriaBuilder.notEqual(pathExpression, values[0]));
 					}else{
-						predicates.add(criteriaBuilder.notEqual(pathExpression, value));
+						predicates.add(criteriaBuilder.notEqual(pathExpression, values[0]));
 					}
 				}
 				break;
 			case BETWEEN:
-				if(attributeClass.equals(Integer.class)){
-					Integer[] between = (Integer[]) value;
-					predicates.add(criteriaBuilder.between(((Expression<Integer>) pathExpression), between[0], between[1]));
-				}else if(attributeClass.equals(Long.class)){
-					Long[] between = (Long[]) value;
-					predicates.add(criteriaBuilder.between(((Expression<Long>) pathExpression), between[0], between[1]));
-				}else if(attributeClass.equals(Short.class)){
-					Short[] between = (Short[]) value;
-					predicates.add(criteriaBuilder.between(((Expression<Short>) pathExpression), between[0], between[1]));
-				}else if(attributeClass.equals(Float.class)){
-					Float[] between = (Float[]) value;
-					predicates.add(criteriaBuilder.between(((Expression<Float>) pathExpression), between[0], between[1]));
-				}else if(attributeClass.equals(Double.class)){
-					Double[] between = (Double[]) value;
-					predicates.add(criteriaBuilder.between(((Expression<Double>) pathExpression), between[0], between[1]));
-				}else if(attributeClass.equals(Date.class)){
-					Date[] between = (Date[]) value;
-					predicates.add(criteriaBuilder.between(((Expression<Date>) pathExpression), between[0], between[1]));
-				}else if(attributeClass.equals(LocalDate.class)){
-					LocalDate[] between = (LocalDate[]) value;
-					predicates.add(criteriaBuilder.between(((Expression<LocalDate>) pathExpression), between[0], between[1]));
-				}else if(attributeClass.equals(LocalDateTime.class)){
-					LocalDateTime[] between = (LocalDateTime[]) value;
-					predicates.add(criteriaBuilder.between(((Expression<LocalDateTime>) pathExpression), between[0], between[1]));
-				}else if(attributeClass.equals(BigInteger.class)){
-					BigInteger[] between = (BigInteger[]) value;
-					predicates.add(criteriaBuilder.between(((Expression<BigInteger>) pathExpression), between[0], between[1]));
+				if(BETWEEN_TYPES.contains(attributeClass)){
+					predicates.add(criteriaBuilder.between(((Expression<Comparable>) pathExpression), (Expression<Comparable>) values[0], (Expression<Comparable>) values[1]));
 				}
 				break;
 			case LESS_THAN:
 				if(value instanceof Date){
-					predicates.add(criteriaBuilder.lessThan(((Expression<Date>) pathExpression), (Date) value));
+					predicates.add(criteriaBuilder.lessThan((Expression<Date>) pathExpression, (Expression<Date>) values[0]));
 				}else if(value instanceof Expression){
 					predicates.add(criteriaBuilder.lessThan((Expression) pathExpression, (Expression) value));
 				}else{
-					predicates.add(criteriaBuilder.lt(((Expression<Number>) pathExpression), (Number) value));
+					predicates.add(criteriaBuilder.lt(((Expression<Number>) pathExpression), (Expression<Number>) values[0]));
 				}
 				break;
 			case LESS_THAN_OR_EQUAL_TO:
 				if(value instanceof Date){
-					predicates.add(criteriaBuilder.lessThanOrEqualTo(((Expression<Date>) pathExpression), (Date) value));
+					predicates.add(criteriaBuilder.lessThanOrEqualTo((Expression<Date>) pathExpression, (Expression<Date>) values[0]));
 				}else if(value instanceof Expression){
 					predicates.add(criteriaBuilder.lessThanOrEqualTo((Expression) pathExpression, (Expression) value));
 				}else{
-					predicates.add(criteriaBuilder.le(((Expression<Number>) pathExpression), (Number) value));
+					predicates.add(criteriaBuilder.le(((Expression<Number>) pathExpression), (Expression<Number>) values[0]));
 				}
 				break;
 			case GREATER_THAN:
 				if(value instanceof Date){
-					predicates.add(criteriaBuilder.greaterThan((Expression<Date>) pathExpression, (Date) value));
+					predicates.add(criteriaBuilder.greaterThan((Expression<Date>) pathExpression, (Expression<Date>) values[0]));
 				}else if(value instanceof Expression){
 					predicates.add(criteriaBuilder.greaterThan((Expression) pathExpression, (Expression) value));
 				}else{
-					predicates.add(criteriaBuilder.gt(((Expression<Number>) pathExpression), (Number) value));
+					predicates.add(criteriaBuilder.gt(((Expression<Number>) pathExpression), (Expression<Number>) values[0]));
 				}
 				break;
 			case GREATER_THAN_OR_EQUAL_TO:
 				if(value instanceof Date){
-					predicates.add(criteriaBuilder.greaterThanOrEqualTo(((Expression<Date>) pathExpression), (Date) value));
+					predicates.add(criteriaBuilder.greaterThanOrEqualTo((Expression<Date>) pathExpression, (Expression<Date>) values[0]));
 				}else if(value instanceof Expression){
 					predicates.add(criteriaBuilder.greaterThanOrEqualTo((Expression) pathExpression, (Expression) value));
 				}else{
-					predicates.add(criteriaBuilder.ge(((Expression<Number>) pathExpression), (Number) value));
+					predicates.add(criteriaBuilder.ge(((Expression<Number>) pathExpression), (Expression<Number>) values[0]));
 				}
 				break;
 			case EQUAL_OTHER_FIELD: 
@@ -867,10 +1394,9 @@ class CriteriaManager<T> {
 			case EQUAL:
 			default:
 				if(value instanceof Collection){
-					Collection<?> list = (Collection<?>) value;
-					for(Object wValue: list){
+					for(Expression<?> wValue: values){
 						if(isStringType){
-							predicates.add(criteriaBuilder.equal(criteriaBuilder.upper((Expression<String>) pathExpression), wValue.toString().toUpperCase()));
+							predicates.add(criteriaBuilder.equal(criteriaBuilder.upper((Expression<String>) pathExpression), wValue));
 						}else{
 							predicates.add(criteriaBuilder.equal(pathExpression, wValue));
 						}
@@ -878,15 +1404,38 @@ class CriteriaManager<T> {
 				//Permite somente equal diferente de null
 				}else if (value!= null){
 					if(isStringType){
-						predicates.add(criteriaBuilder.equal(pathExpression, (String) value));
+						predicates.add(criteriaBuilder.equal(pathExpression, values[0]));
 					}else{
-						predicates.add(criteriaBuilder.equal(pathExpression, value));
+						predicates.add(criteriaBuilder.equal(pathExpression, values[0]));
 					}
 				}
 				break;
 			}
 	}
 		
+	/**
+	 * IN com a lista como parametro (completada ate a proxima potencia de 2) quando a consulta utiliza parametros
+	 * @param pathExpression - atributo
+	 * @param values - valores
+	 * @param parameter - parametro da lista ou null quando a consulta nao utiliza parametros
+	 * @return {@link Predicate}
+	 */
+	private Predicate inPredicate(Expression<?> pathExpression, Collection<?> values, Expression<?> parameter){
+		if(parameter == null){
+			return pathExpression.in(values);
+		}
+		return pathExpression.in(parameter);
+	}
+	
+	/**
+	 * Completa a lista do IN ate a proxima potencia de 2, limitando a quantidade de formatos de SQL gerados
+	 * @param values - valores
+	 * @return {@link List}
+	 */
+	private List<Object> padInValues(Collection<?> values){
+		return DAOUtil.padInValues(new ArrayList<Object>(values), IN_PADDING_MAX_SIZE);
+	}
+	
 	/**
 	 * Configura os campos com clausulas de restricao complexas
 	 * @param obj
@@ -898,12 +1447,15 @@ class CriteriaManager<T> {
 	 */
 	private <E> List<Predicate> configComplexPredicates(Class<E> obj, String attributeParent, From<?, ?> pathEntry){
 		List<Predicate> predicates = new ArrayList<Predicate>();
+		if(shape != null){
+			shape.append('[').append(attributeParent).append(';');
+		}
 	
 		String attributeName;
 		Boolean isEntityType;
 		Boolean isCollectionEntity;
 		
-		List<Field> listFields = ReflectionUtil.listAttributes(obj);
+		List<Field> listFields = ClassMetadata.of(obj).getFields();
 		
 		for (Field field : listFields) {
 			// Verificando se o metodo não é transiente
@@ -968,6 +1520,9 @@ class CriteriaManager<T> {
 			}
 		}
 		
+		if(shape != null){
+			shape.append(']');
+		}
 		return predicates;
 	}
 	/**
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2017 Jurandir C. Goncalves
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package br.com.jgon.canary.persistence;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Query;
+import javax.persistence.criteria.ParameterExpression;
+
+/**
+ * Cache das consultas (JPA Criteria) por formato do filtro.
+ * A chave considera somente a estrutura do filtro (operacoes do where, selecao, joins, ordenacao e agrupamento),
+ * os valores sao informados como parametros ({@link ParameterExpression}) a cada execucao.
+ * A consulta e registrada como named query no {@link EntityManagerFactory} ({@link EntityManagerFactory#addNamedQuery(String, Query)}),
+ * sendo mantidos em cache somente o nome, o tipo de retorno e a ordem dos parametros (imutaveis), separados por {@link EntityManagerFactory}.
+ * O tamanho e limitado, removendo as menos acessadas.
+ *
+ * @author Jurandir C. Goncalves
+ *
+ * @version 1.0
+ *
+ */
+public final class CriteriaQueryCache {
+
+	private static final int MAX_SIZE = 512;
+	private static final String QUERY_NAME_PREFIX = CriteriaQueryCache.class.getName().concat(":");
+
+	private static final AtomicLong HITS = new AtomicLong();
+	private static final AtomicLong MISSES = new AtomicLong();
+
+	private static final Map<EntityManagerFactory, Map<String, Template>> CACHE = new WeakHashMap<EntityManagerFactory, Map<String, Template>>();
+
+	private CriteriaQueryCache() {
+
+	}
+
+	/**
+	 *
+	 * @param entityManagerFactory - {@link EntityManagerFactory} da consulta
+	 * @param key - formato do filtro
+	 * @return {@link Template} - consulta em cache ou null caso nao exista
+	 */
+	static Template get(EntityManagerFactory entityManagerFactory, String key) {
+		Template template;
+		synchronized (CACHE) {
+			Map<String, Template> templates = CACHE.get(entityManagerFactory);
+			template = templates == null ? null : templates.get(key);
+		}
+		if(template == null){
+			MISSES.incrementAndGet();
+		}else{
+			HITS.incrementAndGet();
+		}
+		return template;
+	}
+
+	/**
+	 * Registra a consulta como named query e adiciona ao cache
+	 * @param entityManagerFactory - {@link EntityManagerFactory} da consulta
+	 * @param key - formato do filtro
+	 * @param query - consulta criada a partir da JPA Criteria, sem paginacao
+	 * @param resultType - tipo de retorno da consulta
+	 * @param parameters - parametros na ordem de criacao das restricoes, todos nomeados
+	 */
+	static void put(EntityManagerFactory entityManagerFactory, String key, Query query, Class<?> resultType, List<ParameterExpression<?>> parameters) {
+		//o nome deriva do formato: ao ser adicionada novamente, apos removida do cache, a named query e substituida pela mesma consulta
+		String queryName = QUERY_NAME_PREFIX.concat(key);
+		entityManagerFactory.addNamedQuery(queryName, query);
+		
+		String[] parameterNames = new String[parameters.size()];
+		for(int i=0; i < parameterNames.length; i++){
+			parameterNames[i] = parameters.get(i).getName();
+		}
+		Template template = new Template(queryName, resultType, parameterNames);
+		synchronized (CACHE) {
+			Map<String, Template> templates = CACHE.get(entityManagerFactory);
+			if(templates == null){
+				templates = new LinkedHashMap<String, Template>(16, 0.75f, true){
+					private static final long serialVersionUID = 1L;
+					@Override
+					protected boolean removeEldestEntry(Entry<String, Template> eldest) {
+						return size() > MAX_SIZE;
+					}
+				};
+				CACHE.put(entityManagerFactory, templates);
+			}
+			templates.put(key, template);
+		}
+	}
+
+	/**
+	 *
+	 * @return quantidade de consultas obtidas do cache
+	 */
+	public static long getHits() {
+		return HITS.get();
+	}
+
+	/**
+	 *
+	 * @return quantidade de consultas criadas por nao existirem no cache
+	 */
+	public static long getMisses() {
+		return MISSES.get();
+	}
+
+	/**
+	 *
+	 * @return quantidade de consultas em cache
+	 */
+	public static int getSize() {
+		synchronized (CACHE) {
+			int size = 0;
+			for(Map<String, Template> templates : CACHE.values()){
+				size += templates.size();
+			}
+			return size;
+		}
+	}
+
+	/**
+	 * Remove as consultas e reinicia as estatisticas. As named queries ja registradas permanecem no {@link EntityManagerFactory}
+	 */
+	public static void clear() {
+		synchronized (CACHE) {
+			CACHE.clear();
+		}
+		HITS.set(0);
+		MISSES.set(0);
+	}
+
+	/**
+	 * Consulta registrada como named query, os parametros estao na ordem de criacao das restricoes
+	 */
+	static final class Template {
+		private final String queryName;
+		private final Class<?> resultType;
+		private final String[] parameterNames;
+
+		Template(String queryName, Class<?> resultType, String[] parameterNames) {
+			this.queryName = queryName;
+			this.resultType = resultType;
+			this.parameterNames = parameterNames;
+		}
+
+		String getQueryName() {
+			return queryName;
+		}
+
+		Class<?> getResultType() {
+			return resultType;
+		}
+
+		int getParameterCount() {
+			return parameterNames.length;
+		}
+
+		String getParameterName(int index) {
+			return parameterNames[index];
+		}
+	}
+}
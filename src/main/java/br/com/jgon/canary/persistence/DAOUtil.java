@@ -16,8 +16,14 @@ package br.com.jgon.canary.persistence;
 import java.lang.reflect.Field;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import javax.persistence.EmbeddedId;
 import javax.persistence.Id;
@@ -27,6 +33,7 @@ import javax.persistence.OneToMany;
 
 import br.com.jgon.canary.exception.ApplicationRuntimeException;
 import br.com.jgon.canary.persistence.filter.QueryAttribute;
+import br.com.jgon.canary.util.FieldAccessor;
 import br.com.jgon.canary.util.MessageFactory;
 import br.com.jgon.canary.util.MessageSeverity;
 import br.com.jgon.canary.util.ReflectionUtil;
@@ -88,4 +95,93 @@ public class DAOUtil {
 		}
 		return (Class<? extends Collection<?>>) fld.getType();
 	}
+	
+	/**
+	 * Completa a lista de valores da clausula IN, repetindo o ultimo valor, ate a proxima potencia de 2 (limitada a maxSize).
+	 * Reduz a quantidade de formatos distintos de SQL gerados para o cache de statements.
+	 * @param <E> - tipo
+	 * @param values - valores
+	 * @param maxSize - tamanho maximo, menor ou igual a zero para nao limitar
+	 * @return {@link List}
+	 */
+	public static <E> List<E> padInValues(List<E> values, int maxSize){
+		if(values.isEmpty()){
+			return values;
+		}
+		int size = Integer.highestOneBit(values.size());
+		if(size < values.size()){
+			size <<= 1;
+		}
+		if(maxSize > 0 && size > maxSize){
+			size = Math.max(maxSize, values.size());
+		}
+		if(size == values.size()){
+			return values;
+		}
+		List<E> listPadded = new ArrayList<E>(size);
+		listPadded.addAll(values);
+		E last = values.get(values.size() - 1);
+		while(listPadded.size() < size){
+			listPadded.add(last);
+		}
+		return listPadded;
+	}
+	
+	/**
+	 * Associa os itens da colecao relacionada aos objetos pai pelo id. Os itens sao agrupados pelo id do pai,
+	 * percorrendo uma unica vez cada lista; a ordem dos itens e mantida
+	 * @param parents - objetos pai
+	 * @param parentIds - id de cada objeto pai, na mesma ordem
+	 * @param children - resultado da consulta da colecao, com o id do pai e a colecao preenchidos
+	 * @param collectionAccessor - atributo da colecao
+	 * @param idAccessor - atributo id
+	 * @throws IllegalAccessException - erro ao acessar atributo
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	static void joinCollection(List<?> parents, List<?> parentIds, List<?> children, FieldAccessor collectionAccessor, FieldAccessor idAccessor) throws IllegalAccessException {
+		Map<Object, List<Collection<?>>> mapCollection = new HashMap<Object, List<Collection<?>>>(parents.size() * 2);
+		for(Object child : children){
+			Collection<?> colAux = (Collection<?>) collectionAccessor.get(child);
+			if(colAux == null) {
+				continue;
+			}
+			Object idAux = idAccessor.get(child);
+			List<Collection<?>> listGroup = mapCollection.get(idAux);
+			if(listGroup == null) {
+				listGroup = new ArrayList<Collection<?>>(1);
+				mapCollection.put(idAux, listGroup);
+			}
+			listGroup.add(colAux);
+		}
+		
+		Iterator<?> itId = parentIds.iterator();
+		for(Object parent : parents){
+			List<Collection<?>> listGroup = mapCollection.get(itId.next());
+			if(listGroup != null) {
+				Collection col = (Collection<?>) collectionAccessor.get(parent);
+				if(col == null){
+					col = instanceCollection(collectionAccessor.getType());
+					collectionAccessor.set(parent, col);
+				}
+				for(Collection<?> colAux : listGroup) {
+					col.addAll(colAux);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * 
+	 * @param fldClass  atributo para verificar e instnciar a colecao
+	 * @return {@link Collection}
+	 */
+	static <E> Collection<E> instanceCollection(Class<E> fldClass){
+		if(fldClass.isAssignableFrom(List.class)){
+			return new ArrayList<E>();
+		}else if(fldClass.isAssignableFrom(Set.class)){
+			return new HashSet<E>();
+		} else {
+			return new ArrayList<E>();
+		}
+	}
 }
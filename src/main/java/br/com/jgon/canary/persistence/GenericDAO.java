@@ -15,53 +15,83 @@ package br.com.jgon.canary.persistence;
 
 import java.io.Serializable;
 import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.util.AbstractMap.SimpleEntry;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import javax.persistence.EmbeddedId;
+import javax.persistence.Entity;
 import javax.persistence.EntityManager;
+import javax.persistence.EntityTransaction;
 import javax.persistence.Id;
-import javax.persistence.ManyToMany;
 import javax.persistence.NoResultException;
-import javax.persistence.OneToMany;
 import javax.persistence.Query;
 import javax.persistence.Tuple;
-import javax.persistence.TupleElement;
 import javax.persistence.TypedQuery;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaDelete;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.JoinType;
 import javax.persistence.criteria.Order;
+import javax.persistence.criteria.ParameterExpression;
+import javax.persistence.criteria.Path;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 import javax.persistence.criteria.Selection;
 import javax.transaction.Transactional;
 
-import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.ClassUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import br.com.jgon.canary.exception.ApplicationException;
+import br.com.jgon.canary.exception.ApplicationRuntimeException;
 import br.com.jgon.canary.persistence.CriteriaFilterImpl.SelectAggregate;
+import br.com.jgon.canary.persistence.CriteriaFilterImpl.Where;
 import br.com.jgon.canary.persistence.exception.RemoveEntityException;
 import br.com.jgon.canary.persistence.exception.SaveEntityException;
 import br.com.jgon.canary.persistence.exception.UpdateEntityException;
 import br.com.jgon.canary.persistence.filter.CriteriaFilter;
+import br.com.jgon.canary.persistence.filter.CriteriaFilter.CollectionFetch;
 import br.com.jgon.canary.persistence.filter.CriteriaFilterDelete;
 import br.com.jgon.canary.persistence.filter.CriteriaFilterMetamodel;
 import br.com.jgon.canary.persistence.filter.CriteriaFilterUpdate;
-import br.com.jgon.canary.persistence.filter.QueryAttribute;
+import br.com.jgon.canary.util.ClassMetadata;
 import br.com.jgon.canary.util.CollectionUtil;
+import br.com.jgon.canary.util.FieldAccessor;
+import br.com.jgon.canary.util.KeysetCursor;
+import br.com.jgon.canary.util.KeysetPage;
 import br.com.jgon.canary.util.MessageSeverity;
 import br.com.jgon.canary.util.Page;
+import br.com.jgon.canary.util.PageCountMode;
 import br.com.jgon.canary.util.ReflectionUtil;
 
 /**
@@ -80,16 +110,31 @@ public abstract class GenericDAO<T, K extends Serializable>{
 	protected static final String ERROR_FIND_LIST_KEY = "error.find-list";
 	protected static final String ERROR_CRITERIA = "error.criteria";
 	protected static final String ERROR_FIELD_DOES_NOT_EXIST = "error.field-does-not-exist";
+	//suporte do provedor ao cursor (getResultStream/stream) por implementacao de EntityManager, utilizado em stream()
+	private static final Map<Class<?>, Boolean> PROVIDER_RESULT_STREAM = new ConcurrentHashMap<Class<?>, Boolean>();
 			
 	private Logger logger = LoggerFactory.getLogger(GenericDAO.class);
+	/**
+	 * Operacoes em lote
+	 */
+	private enum WriteOperation {
+		SAVE,
+		UPDATE,
+		SAVE_OR_UPDATE
+	}
 	/**
 	 * 
 	 */
 	private Field fieldId;
+	/**
+	 * 
+	 */
+	private FieldAccessor fieldIdAccessor;
 	
 	public GenericDAO(){
 		this.fieldId = DAOUtil.getFieldId(getPrimaryClass());
 		fieldId.setAccessible(true);
+		this.fieldIdAccessor = ClassMetadata.accessor(fieldId);
 	}
 	/**
 	 * 
@@ -115,6 +160,7 @@ public abstract class GenericDAO<T, K extends Serializable>{
 	public T save(T obj) throws SaveEntityException {
 		try {
 			getEntityManager().persist(obj);
+			CountCache.invalidate(getPrimaryClass());
 			return obj;
 		} catch (Exception e) {
 			logger.error("[save]", e);
@@ -157,13 +203,173 @@ public abstract class GenericDAO<T, K extends Serializable>{
 	@Transactional(Transactional.TxType.MANDATORY)
 	public T update(T obj) throws UpdateEntityException {
 		try {
-			return getEntityManager().merge(obj);
+			T objMerged = getEntityManager().merge(obj);
+			CountCache.invalidate(getPrimaryClass());
+			return objMerged;
 		} catch (Exception e) {
 			logger.error("[update]", e);
 			throw new UpdateEntityException(e, getPrimaryClass());
 		}
 	}
 
+	/**
+	 * Persiste as entidades em blocos de {@link #getWriteBatchSize()}, na ordem informada. Ao final de cada bloco executa flush e clear.
+	 * O clear desanexa todas as entidades do {@link EntityManager}, inclusive as carregadas antes da chamada (as alteracoes pendentes
+	 * sao gravadas no flush): alteracoes feitas apos a chamada nessas entidades nao sao gravadas, devem ser obtidas novamente (find ou merge).
+	 * @param objs - objetos a serem persistidos
+	 * @return {@link Long} - quantidade de objetos persistidos
+	 * @throws SaveEntityException - erro ao salvar
+	 */
+	@Transactional(Transactional.TxType.MANDATORY)
+	public long saveAll(Iterable<T> objs) throws SaveEntityException {
+		try {
+			return writeAll(objs.iterator(), WriteOperation.SAVE);
+		} catch (Exception e) {
+			logger.error("[saveAll]", e);
+			throw new SaveEntityException(e, getPrimaryClass());
+		}
+	}
+	/**
+	 * Mesmo comportamento de {@link #saveAll(Iterable)}, inclusive o clear do {@link EntityManager} a cada bloco
+	 * @param objs - objetos a serem persistidos, o {@link Stream} nao e fechado
+	 * @return {@link Long} - quantidade de objetos persistidos
+	 * @throws SaveEntityException - erro ao salvar
+	 */
+	@Transactional(Transactional.TxType.MANDATORY)
+	public long saveAll(Stream<T> objs) throws SaveEntityException {
+		try {
+			return writeAll(objs.iterator(), WriteOperation.SAVE);
+		} catch (Exception e) {
+			logger.error("[saveAll]", e);
+			throw new SaveEntityException(e, getPrimaryClass());
+		}
+	}
+	/**
+	 * Atualiza as entidades em blocos de {@link #getWriteBatchSize()}, na ordem informada. Ao final de cada bloco executa flush e clear.
+	 * O clear desanexa todas as entidades do {@link EntityManager}, inclusive as carregadas antes da chamada (as alteracoes pendentes
+	 * sao gravadas no flush): alteracoes feitas apos a chamada nessas entidades nao sao gravadas, devem ser obtidas novamente (find ou merge).
+	 * @param objs - objetos a serem atualizados
+	 * @return {@link Long} - quantidade de objetos atualizados
+	 * @throws UpdateEntityException - erro ao atualizar
+	 */
+	@Transactional(Transactional.TxType.MANDATORY)
+	public long updateAll(Iterable<T> objs) throws UpdateEntityException {
+		try {
+			return writeAll(objs.iterator(), WriteOperation.UPDATE);
+		} catch (Exception e) {
+			logger.error("[updateAll]", e);
+			throw new UpdateEntityException(e, getPrimaryClass());
+		}
+	}
+	/**
+	 * Mesmo comportamento de {@link #updateAll(Iterable)}, inclusive o clear do {@link EntityManager} a cada bloco
+	 * @param objs - objetos a serem atualizados, o {@link Stream} nao e fechado
+	 * @return {@link Long} - quantidade de objetos atualizados
+	 * @throws UpdateEntityException - erro ao atualizar
+	 */
+	@Transactional(Transactional.TxType.MANDATORY)
+	public long updateAll(Stream<T> objs) throws UpdateEntityException {
+		try {
+			return writeAll(objs.iterator(), WriteOperation.UPDATE);
+		} catch (Exception e) {
+			logger.error("[updateAll]", e);
+			throw new UpdateEntityException(e, getPrimaryClass());
+		}
+	}
+	/**
+	 * Persiste (chave nula) ou atualiza as entidades em blocos de {@link #getWriteBatchSize()}, na ordem informada. Ao final de cada bloco executa flush e clear.
+	 * O clear desanexa todas as entidades do {@link EntityManager}, inclusive as carregadas antes da chamada (as alteracoes pendentes
+	 * sao gravadas no flush): alteracoes feitas apos a chamada nessas entidades nao sao gravadas, devem ser obtidas novamente (find ou merge).
+	 * @param objs - objetos a serem persistidos ou atualizados
+	 * @return {@link Long} - quantidade de objetos persistidos ou atualizados
+	 * @throws SaveEntityException - erro ao salvar ou atualizar
+	 */
+	@Transactional(Transactional.TxType.MANDATORY)
+	public long saveOrUpdateAll(Iterable<T> objs) throws SaveEntityException {
+		try {
+			return writeAll(objs.iterator(), WriteOperation.SAVE_OR_UPDATE);
+		} catch (Exception e) {
+			logger.error("[saveOrUpdateAll]", e);
+			throw new SaveEntityException(e, getPrimaryClass());
+		}
+	}
+	/**
+	 * Mesmo comportamento de {@link #saveOrUpdateAll(Iterable)}, inclusive o clear do {@link EntityManager} a cada bloco
+	 * @param objs - objetos a serem persistidos ou atualizados, o {@link Stream} nao e fechado
+	 * @return {@link Long} - quantidade de objetos persistidos ou atualizados
+	 * @throws SaveEntityException - erro ao salvar ou atualizar
+	 */
+	@Transactional(Transactional.TxType.MANDATORY)
+	public long saveOrUpdateAll(Stream<T> objs) throws SaveEntityException {
+		try {
+			return writeAll(objs.iterator(), WriteOperation.SAVE_OR_UPDATE);
+		} catch (Exception e) {
+			logger.error("[saveOrUpdateAll]", e);
+			throw new SaveEntityException(e, getPrimaryClass());
+		}
+	}
+	/**
+	 * Executa a operacao em blocos, mantendo a ordem informada (dependencias entre as entidades, ex: chave estrangeira).
+	 * O agrupamento das instrucoes por tipo para o batch JDBC fica a cargo do provedor (ex: hibernate.order_inserts e hibernate.order_updates)
+	 * @param it - objetos
+	 * @param operation - operacao
+	 * @return {@link Long} - quantidade de objetos
+	 * @throws Exception - erro na operacao, flush ou clear
+	 */
+	private long writeAll(Iterator<T> it, WriteOperation operation) throws Exception {
+		EntityManager entityManager = getEntityManager();
+		int batchSize = Math.max(getWriteBatchSize(), 1);
+		List<T> batch = new ArrayList<T>(batchSize);
+		long total = 0;
+		int batchNumber = 0;
+		try {
+			while(it.hasNext()){
+				batch.add(it.next());
+				if(batch.size() == batchSize || !it.hasNext()){
+					long start = System.nanoTime();
+					for(T obj : batch){
+						boolean isSave = operation.equals(WriteOperation.SAVE) 
+								|| (operation.equals(WriteOperation.SAVE_OR_UPDATE) && (fieldId == null || ReflectionUtil.getAttributteValue(obj, fieldId) == null));
+						if(isSave){
+							entityManager.persist(obj);
+						}else{
+							entityManager.merge(obj);
+						}
+					}
+					entityManager.flush();
+					entityManager.clear();
+					
+					total += batch.size();
+					afterWriteBatch(++batchNumber, batch.size(), (System.nanoTime() - start) / 1000000);
+					batch.clear();
+				}
+			}
+		} finally {
+			if(total > 0){
+				CountCache.invalidate(getPrimaryClass());
+			}
+		}
+		return total;
+	}
+	/**
+	 * Quantidade de entidades por bloco em saveAll, updateAll e saveOrUpdateAll, default 50.
+	 * Recomenda-se o mesmo valor do batch JDBC do provedor (ex: hibernate.jdbc.batch_size)
+	 * @return {@link Integer}
+	 */
+	protected int getWriteBatchSize(){
+		return 50;
+	}
+	/**
+	 * Executado ao final de cada bloco de saveAll, updateAll e saveOrUpdateAll, default log (debug) do tempo do bloco
+	 * @param batch - numero do bloco, iniciando em 1
+	 * @param size - quantidade de entidades do bloco
+	 * @param millis - tempo do bloco (operacoes, flush e clear) em milissegundos
+	 */
+	protected void afterWriteBatch(int batch, int size, long millis){
+		if(logger.isDebugEnabled()){
+			logger.debug("[writeAll] {} - bloco {}: {} registros em {} ms", getPrimaryClass().getSimpleName(), batch, size, millis);
+		}
+	}
 	/**
 	 * 
 	 * @param criteriaFilterUpdate - filtro
@@ -172,9 +378,12 @@ public abstract class GenericDAO<T, K extends Serializable>{
 	 */
 	@Transactional(Transactional.TxType.MANDATORY)
 	protected int update(CriteriaFilterUpdate<T> criteriaFilterUpdate) throws ApplicationException{
-		CriteriaManager<T> criteriaManager = new CriteriaManager<T>(getEntityManager(), getPrimaryClass(), (CriteriaFilterImpl<T>) criteriaFilterUpdate);
+		CriteriaManager<T> criteriaManager = new CriteriaManager<T>(getEntityManager(), getPrimaryClass(), (CriteriaFilterImpl<T>) criteriaFilterUpdate, isParameterBindingEnabled());
 		CriteriaUpdate<T> update = criteriaManager.getCriteriaUpdate();
-		return getEntityManager().createQuery(update).executeUpdate();
+		CountCache.invalidate(getPrimaryClass());
+		Query query = getEntityManager().createQuery(update);
+		configParameters(query, criteriaManager.getParameters());
+		return query.executeUpdate();
 	}
 	/**
 	 * 
@@ -202,11 +411,256 @@ public abstract class GenericDAO<T, K extends Serializable>{
 		try {
 			T obj = find(id);
 			getEntityManager().remove(obj);
+			CountCache.invalidate(getPrimaryClass());
 		} catch (Exception e) {
 			logger.error("[remove]", e);
 			throw new RemoveEntityException(e, getPrimaryClass());
 		}
 	}	
+	/**
+	 * UPDATE em blocos: as chaves dos registros do filtro sao obtidas em ordem crescente e a alteracao e aplicada
+	 * somente a cada bloco (clausula IN), cada um em sua propria transacao ({@link BulkOperation#setTransaction(BulkOperation.ChunkTransaction)}).
+	 * Sem transacao configurada utiliza a transacao do EntityManager (RESOURCE_LOCAL), nao podendo existir transacao ativa;
+	 * em JTA a transacao deve ser informada. Caso contrario e lancada {@link ApplicationException} antes de executar qualquer bloco
+	 * @param criteriaFilterUpdate - filtro
+	 * @param operation - configuracao dos blocos, checkpoint e progresso
+	 * @return {@link BulkProgress} - situacao ao final da execucao
+	 * @throws ApplicationException - erro ao alterar, a execucao pode ser reiniciada pelo ultimo checkpoint notificado
+	 */
+	protected BulkProgress update(CriteriaFilterUpdate<T> criteriaFilterUpdate, BulkOperation operation) throws ApplicationException{
+		return executeChunked((CriteriaFilterImpl<T>) criteriaFilterUpdate, false, operation);
+	}
+	/**
+	 * DELETE em blocos, nos mesmos moldes do {@link #update(CriteriaFilterUpdate, BulkOperation)}
+	 * @param criteriaFilterDelete - filtro
+	 * @param operation - configuracao dos blocos, checkpoint e progresso
+	 * @return {@link BulkProgress} - situacao ao final da execucao
+	 * @throws ApplicationException - erro ao remover, a execucao pode ser reiniciada pelo ultimo checkpoint notificado
+	 */
+	protected BulkProgress remove(CriteriaFilterDelete<T> criteriaFilterDelete, BulkOperation operation) throws ApplicationException{
+		return executeChunked((CriteriaFilterImpl<T>) criteriaFilterDelete, true, operation);
+	}
+	/**
+	 * 
+	 * @param cf - filtro
+	 * @param delete - true para DELETE, false para UPDATE
+	 * @param operation - configuracao
+	 * @return {@link BulkProgress}
+	 * @throws ApplicationException - erro na execucao
+	 */
+	@SuppressWarnings("unchecked")
+	private BulkProgress executeChunked(final CriteriaFilterImpl<T> cf, final boolean delete, BulkOperation operation) throws ApplicationException{
+		if(fieldId == null || fieldId.isAnnotationPresent(EmbeddedId.class) || !Comparable.class.isAssignableFrom(ClassUtils.primitiveToWrapper(fieldId.getType()))){
+			ApplicationException ae = new ApplicationException(MessageSeverity.ERROR, "genericdao-bulk-id-not-supported", getPrimaryClass().getSimpleName());
+			logger.error("[executeChunked]", ae);
+			throw ae;
+		}
+		if(operation.getTransaction() == null){
+			checkChunkTransaction();
+		}
+		final int chunkSize = Math.max(operation.getChunkSize(), 1);
+		//restricoes originais da chave, restauradas apos cada bloco
+		List<SimpleEntry<Where, ?>> idRestrictions = cf.getWhereRestriction().getRestrictions(fieldId.getName());
+		final List<SimpleEntry<Where, ?>> idRestrictionsAux = idRestrictions == null ? null : new ArrayList<SimpleEntry<Where, ?>>(idRestrictions);
+		
+		long start = System.currentTimeMillis();
+		final Object[] checkpoint = new Object[] { operation.getCheckpoint() };
+		final int[] chunkRows = new int[1];
+		long totalRows = 0;
+		int chunks = 0;
+		
+		try {
+			while(!Thread.currentThread().isInterrupted()){
+				final boolean[] empty = new boolean[1];
+				executeChunk(operation, new Callable<Void>() {
+					@Override
+					public Void call() throws Exception {
+						List<K> ids = getChunkIds(cf, (K) checkpoint[0], chunkSize);
+						empty[0] = ids.isEmpty();
+						chunkRows[0] = 0;
+						if(!empty[0]){
+							cf.getWhereRestriction().remove(fieldId.getName());
+							cf.addWhereIn(fieldId.getName(), DAOUtil.padInValues(ids, chunkSize));
+							try {
+								chunkRows[0] = delete ? remove(cf) : update(cf);
+							} finally {
+								cf.getWhereRestriction().remove(fieldId.getName());
+								if(idRestrictionsAux != null){
+									cf.getWhereRestriction().addAll(fieldId.getName(), new LinkedList<SimpleEntry<Where, ?>>(idRestrictionsAux));
+								}
+							}
+							checkpoint[0] = ids.get(ids.size() - 1);
+						}
+						return null;
+					}
+				});
+				if(empty[0]){
+					return new BulkProgress(chunks, 0, totalRows, (Serializable) checkpoint[0], System.currentTimeMillis() - start, true);
+				}
+				chunks++;
+				totalRows += chunkRows[0];
+				BulkProgress progress = new BulkProgress(chunks, chunkRows[0], totalRows, (Serializable) checkpoint[0], System.currentTimeMillis() - start, false);
+				if(operation.getListener() != null){
+					operation.getListener().onChunk(progress);
+				}
+				if(operation.getRowsPerSecond() > 0){
+					long wait = (totalRows * 1000 / operation.getRowsPerSecond()) - (System.currentTimeMillis() - start);
+					if(wait > 0){
+						Thread.sleep(wait);
+					}
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ApplicationException e) {
+			throw e;
+		} catch (Exception e) {
+			logger.error("[executeChunked]", e);
+			throw new ApplicationException(MessageSeverity.ERROR, delete ? "error.remove" : "error.update", e, getPrimaryClass().getSimpleName());
+		}
+		return new BulkProgress(chunks, chunkRows[0], totalRows, (Serializable) checkpoint[0], System.currentTimeMillis() - start, false);
+	}
+	/**
+	 * Sem transacao configurada cada bloco utiliza a transacao do EntityManager, que deve ser RESOURCE_LOCAL e estar inativa.
+	 * Caso contrario os blocos participariam da transacao do chamador, perdendo o commit por bloco e o checkpoint
+	 * @throws ApplicationException - JTA ou transacao ativa
+	 */
+	private void checkChunkTransaction() throws ApplicationException{
+		boolean active;
+		try {
+			active = getEntityManager().getTransaction().isActive();
+		} catch (IllegalStateException e) {
+			//JTA
+			ApplicationException ae = new ApplicationException(MessageSeverity.ERROR, "genericdao-bulk-jta-transaction", getPrimaryClass().getSimpleName());
+			logger.error("[checkChunkTransaction]", ae);
+			throw ae;
+		}
+		if(active){
+			ApplicationException ae = new ApplicationException(MessageSeverity.ERROR, "genericdao-bulk-active-transaction", getPrimaryClass().getSimpleName());
+			logger.error("[checkChunkTransaction]", ae);
+			throw ae;
+		}
+	}
+	/**
+	 * Executa o bloco na transacao configurada, caso nao informada utiliza a transacao do EntityManager (RESOURCE_LOCAL)
+	 * @param operation - configuracao
+	 * @param chunk - bloco
+	 * @throws Exception - erro no bloco
+	 */
+	private void executeChunk(BulkOperation operation, Callable<?> chunk) throws Exception{
+		if(operation.getTransaction() != null){
+			operation.getTransaction().execute(chunk);
+			return;
+		}
+		EntityTransaction transaction = getEntityManager().getTransaction();
+		transaction.begin();
+		try {
+			chunk.call();
+			transaction.commit();
+		} catch (Exception e) {
+			if(transaction.isActive()){
+				transaction.rollback();
+			}
+			throw e;
+		}
+	}
+	/**
+	 * Chaves do proximo bloco, em ordem crescente, a partir do checkpoint (exclusive)
+	 * @param cf - filtro
+	 * @param checkpoint - ultima chave processada, null para o inicio
+	 * @param chunkSize - quantidade de chaves
+	 * @return {@link List}
+	 * @throws ApplicationException - erro ao configurar consulta
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private List<K> getChunkIds(CriteriaFilterImpl<T> cf, K checkpoint, int chunkSize) throws ApplicationException{
+		EntityManager entityManager = getEntityManager();
+		CriteriaManager<T> criteriaManager = getCountCriteriaManager(entityManager, cf);
+		CriteriaQuery<Object> query = (CriteriaQuery<Object>) criteriaManager.getCriteriaExists();
+		CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+		Path<Comparable> idPath = criteriaManager.getRootEntry().get(fieldId.getName());
+		if(checkpoint != null){
+			addRestrictionInCriteriaQuery(query, criteriaBuilder.greaterThan(idPath, (Comparable) checkpoint));
+		}
+		query.orderBy(criteriaBuilder.asc(idPath));
+		
+		TypedQuery<Object> tQuery = entityManager.createQuery(query);
+		configParameters(tQuery, criteriaManager.getParameters());
+		tQuery.setMaxResults(chunkSize);
+		return (List<K>) (List<?>) tQuery.getResultList();
+	}
+	/**
+	 * Remove pelas chaves com DELETE em lote (clausula IN dividida em blocos de {@link #getCollectionBatchSize()}), sem carregar as entidades.
+	 * Cascatas e callbacks JPA nao sao executados e o contexto de persistencia nao e atualizado,
+	 * quando necessario utilize {@link #removeAllByReference(Collection)}
+	 * @param ids - identificadores, repetidos ou nulos sao desconsiderados
+	 * @return {@link Integer} - quantidade de registros removidos
+	 * @throws RemoveEntityException - erro ao remover
+	 */
+	@Transactional(Transactional.TxType.MANDATORY)
+	public int removeAll(Collection<K> ids) throws RemoveEntityException {
+		List<K> listId = distinctIds(ids);
+		int batchSize = getCollectionBatchSize();
+		int total = 0;
+		try {
+			for(List<K> partition : CollectionUtil.partition(listId, batchSize)){
+				if(!partition.isEmpty()){
+					CriteriaFilterDelete<T> cf = getCriteriaFilterDelete()
+							.addWhereIn(fieldId.getName(), DAOUtil.padInValues(partition, batchSize));
+					total += remove(cf);
+				}
+			}
+		} catch (Exception e) {
+			logger.error("[removeAll]", e);
+			throw new RemoveEntityException(e, getPrimaryClass());
+		}
+		return total;
+	}
+	/**
+	 * Remove pelas chaves utilizando EntityManager.getReference e EntityManager.remove, mantendo cascatas e callbacks JPA.
+	 * A cada {@link #getWriteBatchSize()} entidades executa flush e clear
+	 * @param ids - identificadores, repetidos ou nulos sao desconsiderados
+	 * @return {@link Integer} - quantidade de entidades removidas
+	 * @throws RemoveEntityException - erro ao remover (ex: chave inexistente)
+	 */
+	@Transactional(Transactional.TxType.MANDATORY)
+	public int removeAllByReference(Collection<K> ids) throws RemoveEntityException {
+		EntityManager entityManager = getEntityManager();
+		int batchSize = Math.max(getWriteBatchSize(), 1);
+		int total = 0;
+		try {
+			for(K id : distinctIds(ids)){
+				entityManager.remove(entityManager.getReference(getPrimaryClass(), id));
+				if(++total % batchSize == 0){
+					entityManager.flush();
+					entityManager.clear();
+				}
+			}
+			entityManager.flush();
+		} catch (Exception e) {
+			logger.error("[removeAllByReference]", e);
+			throw new RemoveEntityException(e, getPrimaryClass());
+		} finally {
+			if(total > 0){
+				CountCache.invalidate(getPrimaryClass());
+			}
+		}
+		return total;
+	}
+	/**
+	 * 
+	 * @param ids - identificadores
+	 * @return {@link List} - sem repeticao e sem nulos, na ordem informada
+	 */
+	private List<K> distinctIds(Collection<K> ids){
+		Set<K> setId = new LinkedHashSet<K>(ids.size());
+		for(K id : ids){
+			if(id != null){
+				setId.add(id);
+			}
+		}
+		return new ArrayList<K>(setId);
+	}
 	/**
 	 * 
 	 * @param criteriaFilterDelete - filtro
@@ -215,9 +669,12 @@ public abstract class GenericDAO<T, K extends Serializable>{
 	 */
 	@Transactional(Transactional.TxType.MANDATORY)
 	protected int remove(CriteriaFilterDelete<T> criteriaFilterDelete) throws ApplicationException{
-		CriteriaManager<T> criteriaManager = new CriteriaManager<T>(getEntityManager(), getPrimaryClass(), (CriteriaFilterImpl<T>) criteriaFilterDelete);
+		CriteriaManager<T> criteriaManager = new CriteriaManager<T>(getEntityManager(), getPrimaryClass(), (CriteriaFilterImpl<T>) criteriaFilterDelete, isParameterBindingEnabled());
 		CriteriaDelete<T> delete = criteriaManager.getCriteriaDelete();
-		return getEntityManager().createQuery(delete).executeUpdate();
+		CountCache.invalidate(getPrimaryClass());
+		Query query = getEntityManager().createQuery(delete);
+		configParameters(query, criteriaManager.getParameters());
+		return query.executeUpdate();
 	}
 
 	/**
@@ -342,6 +799,122 @@ public abstract class GenericDAO<T, K extends Serializable>{
 		}
 	}
 
+	/**
+	 * Obtem as entidades pelas chaves com consultas IN divididas em blocos ({@link #getCollectionBatchSize()}),
+	 * chaves repetidas ou nulas sao desconsideradas
+	 * @param ids - identificadores
+	 * @return {@link List} - na ordem das chaves, chaves sem registro sao omitidas
+	 * @throws ApplicationException - erro ao pesquisar
+	 */
+	public List<T> findAll(Collection<K> ids) throws ApplicationException {
+		return findAll(ids, getPrimaryClass(), (List<String>) null);
+	}
+	/**
+	 * 
+	 * @param ids - identificadores
+	 * @param fields - atributos retornados
+	 * @return {@link List} - na ordem das chaves, chaves sem registro sao omitidas
+	 * @throws ApplicationException - erro ao pesquisar
+	 */
+	public List<T> findAll(Collection<K> ids, List<String> fields) throws ApplicationException {
+		return findAll(ids, getPrimaryClass(), fields);
+	}
+	/**
+	 * 
+	 * @param ids - identificadores
+	 * @param resultClass - classe que indica o tipo de objeto de retorno, deve possuir o atributo chave
+	 * @param fields - campos retornados
+	 * @param <E> - classe de retorno
+	 * @return {@link List} - na ordem das chaves, chaves sem registro sao omitidas
+	 * @throws ApplicationException - erro ao pesquisar
+	 */
+	public <E> List<E> findAll(Collection<K> ids, Class<E> resultClass, String[] fields) throws ApplicationException {
+		return findAll(ids, resultClass, CollectionUtil.convertArrayToList(fields));
+	}
+	/**
+	 * 
+	 * @param ids - identificadores
+	 * @param resultClass - classe que indica o tipo de objeto de retorno, deve possuir o atributo chave
+	 * @param fields - campos retornados
+	 * @param <E> - classe de retorno
+	 * @return {@link List} - na ordem das chaves, chaves sem registro sao omitidas
+	 * @throws ApplicationException - erro ao pesquisar
+	 */
+	public <E> List<E> findAll(Collection<K> ids, Class<E> resultClass, List<String> fields) throws ApplicationException {
+		return new ArrayList<E>(findAllMap(ids, resultClass, fields).values());
+	}
+	/**
+	 * 
+	 * @param ids - identificadores
+	 * @return {@link Map} - chave e entidade, na ordem das chaves
+	 * @throws ApplicationException - erro ao pesquisar
+	 */
+	public Map<K, T> findAllMap(Collection<K> ids) throws ApplicationException {
+		return findAllMap(ids, getPrimaryClass(), (List<String>) null);
+	}
+	/**
+	 * 
+	 * @param ids - identificadores
+	 * @param resultClass - classe que indica o tipo de objeto de retorno, deve possuir o atributo chave
+	 * @param fields - campos retornados, o atributo chave e incluido quando nao informado
+	 * @param <E> - classe de retorno
+	 * @return {@link Map} - chave e objeto, na ordem das chaves, chaves sem registro sao omitidas
+	 * @throws ApplicationException - erro ao pesquisar
+	 */
+	@SuppressWarnings("unchecked")
+	public <E> Map<K, E> findAllMap(Collection<K> ids, Class<E> resultClass, List<String> fields) throws ApplicationException {
+		Class<E> resultClassAux = resultClass == null ? (Class<E>) getPrimaryClass() : resultClass;
+		
+		List<K> listId = distinctIds(ids);
+		Map<K, E> mapReturn = new LinkedHashMap<K, E>(listId.size());
+		if(listId.isEmpty()){
+			return mapReturn;
+		}
+		
+		FieldAccessor accessor = fieldIdAccessor;
+		if(!resultClassAux.equals(getPrimaryClass())){
+			Field fld = ReflectionUtil.getAttribute(resultClassAux, fieldId.getName());
+			if(fld == null){
+				ApplicationException ae = new ApplicationException(MessageSeverity.ERROR, ERROR_FIELD_DOES_NOT_EXIST, new String[] { fieldId.getName(), resultClassAux.getSimpleName() });
+				logger.error("[findAllMap]", ae);
+				throw ae;
+			}
+			accessor = ClassMetadata.accessor(fld);
+		}
+		
+		List<String> fieldsAux = fields;
+		if(fields != null && !fields.isEmpty() && !fields.contains(fieldId.getName())){
+			fieldsAux = new ArrayList<String>(fields);
+			fieldsAux.add(fieldId.getName());
+		}
+		
+		int batchSize = getCollectionBatchSize();
+		Map<Object, E> mapResult = new HashMap<Object, E>(listId.size() * 2);
+		try {
+			for(List<K> partition : CollectionUtil.partition(listId, batchSize)){
+				CriteriaFilter<T> cf = getCriteriaFilter()
+						.addSelect(resultClassAux, fieldsAux)
+						.addWhereIn(fieldId.getName(), DAOUtil.padInValues(partition, batchSize));
+				for(E ret : getResultList(resultClassAux, cf, null, null)){
+					mapResult.put(accessor.get(ret), ret);
+				}
+			}
+		} catch (ApplicationException e) {
+			throw e;
+		} catch (Exception e) {
+			logger.error("[findAllMap]", e);
+			throw new ApplicationException(MessageSeverity.ERROR, ERROR_FIND_LIST_KEY, new String[] { getPrimaryClass().getSimpleName() });
+		}
+		
+		for(K id : listId){
+			E ret = mapResult.get(id);
+			if(ret != null){
+				mapReturn.put(id, ret);
+			}
+		}
+		return mapReturn;
+	}
+
 	/**
 	 * 
 	 * @return Class - classe da entidade
@@ -375,6 +948,32 @@ public abstract class GenericDAO<T, K extends Serializable>{
 			query.setMaxResults(qtde);
 		}
 	}
+	/**
+	 * 
+	 * @param query - {@link Query}
+	 * @param pagina - numero da pagina
+	 * @param qtde - quantidade de registros por pagina
+	 * @param extraResults - registros alem da pagina
+	 */
+	private void configPaginacao(Query query, Integer pagina, Integer qtde, int extraResults){
+		configPaginacao(query, pagina, qtde);
+		if(extraResults > 0 && qtde != null && qtde > 0){
+			query.setMaxResults(qtde + extraResults);
+		}
+	}
+	/**
+	 * Informa os valores dos parametros da consulta
+	 * @param query - {@link Query}
+	 * @param parameters - parametros, null quando a consulta nao utiliza parametros
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private void configParameters(Query query, Map<ParameterExpression<?>, Object> parameters){
+		if(parameters != null){
+			for(Entry<ParameterExpression<?>, Object> entry : parameters.entrySet()){
+				query.setParameter((ParameterExpression) entry.getKey(), entry.getValue());
+			}
+		}
+	}
 	
 	/**
 	 * 
@@ -429,9 +1028,8 @@ public abstract class GenericDAO<T, K extends Serializable>{
 			if(resultClass == null){
 				resultClass = (Class<E>) getPrimaryClass();
 			}
-			CriteriaManager<T> criteriaManager = getCriteriaManager(resultClass, (CriteriaFilterImpl<T>) criteriaFilter);
-			CriteriaQuery<?> query = criteriaManager.getCriteriaQuery();
-			List<SimpleEntry<?, E>> returnList = getPreparedResultList(resultClass, query, pagina, qtde);
+			CriteriaManager<T> criteriaManager = getCachedCriteriaManager(resultClass, (CriteriaFilterImpl<T>) criteriaFilter);
+			List<SimpleEntry<?, E>> returnList = getPreparedResultList(resultClass, criteriaManager, pagina, qtde, 0);
 						
 			return checkTupleResultList(criteriaManager.getListCollectionRelation(), returnList);
 		} catch (ApplicationException e) {
@@ -442,6 +1040,169 @@ public abstract class GenericDAO<T, K extends Serializable>{
 		}
 	}
 	
+	/**
+	 * Consulta sob demanda, sem carregar todo o resultado em memoria (ex: exportacao), utiliza {@link #getStreamFetchSize()}
+	 * @param criteriaFilter - filtro de pesquisa {@link CriteriaFilter}
+	 * @param resultClass - classe que indica o tipo de objeto de retorno
+	 * @return {@link Stream} - deve ser fechado apos o uso (try-with-resources)
+	 * @throws ApplicationException - erro ao pesquisar
+	 */
+	protected <E> Stream<E> stream(CriteriaFilter<T> criteriaFilter, Class<E> resultClass) throws ApplicationException {
+		return stream(criteriaFilter, resultClass, getStreamFetchSize());
+	}
+	
+	/**
+	 * Consulta sob demanda, sem carregar todo o resultado em memoria (ex: exportacao).
+	 * Utiliza o cursor do provedor (getResultStream da JPA 2.2 ou stream do Hibernate) quando disponivel, caso contrario
+	 * consulta em blocos de fetchSize registros com paginacao por chave ({@link #getResultKeyset(Class, CriteriaFilter, String, int)}):
+	 * a ordenacao e complementada pelo id e cada bloco inicia apos o ultimo registro do bloco anterior. O filtro informado nao e alterado.
+	 * Os registros sao convertidos e as colecoes relacionadas carregadas a cada bloco de fetchSize registros; entidades retornadas sao
+	 * desanexadas do {@link EntityManager} para manter o uso de memoria constante.
+	 * Erros durante a leitura sao lancados como {@link ApplicationRuntimeException}.
+	 * Os registros sao lidos durante o consumo do {@link Stream}: o {@link EntityManager} (getSearchEntityManager) deve permanecer aberto
+	 * ate o fechamento, utilizar um EntityManager estendido ou gerenciado pela aplicacao, ou manter a transacao aberta.
+	 * Retornado por um servico REST o {@link Stream} e lido na escrita da resposta ({@link br.com.jgon.canary.ws.rest.util.json.JsonStreamingOutput}),
+	 * apos o termino do metodo e da sua transacao
+	 * @param criteriaFilter - filtro de pesquisa {@link CriteriaFilter}
+	 * @param resultClass - classe que indica o tipo de objeto de retorno
+	 * @param fetchSize - quantidade de registros obtidos do banco de dados a cada leitura
+	 * @return {@link Stream} - deve ser fechado apos o uso (try-with-resources)
+	 * @throws ApplicationException - erro ao pesquisar
+	 */
+	@SuppressWarnings("unchecked")
+	protected <E> Stream<E> stream(CriteriaFilter<T> criteriaFilter, Class<E> resultClass, int fetchSize) throws ApplicationException {
+		if(resultClass == null){
+			resultClass = (Class<E>) getPrimaryClass();
+		}
+		final int blockSize = fetchSize > 0 ? fetchSize : getStreamFetchSize();
+		final Class<E> returnClass = resultClass;
+		final CriteriaManager<T> criteriaManager;
+		final Stream<?> providerStream;
+		EntityManager searchEntityManager = getSearchEntityManager();
+		//sem cursor no provedor a consulta nao e criada, os blocos sao consultados por chave
+		if(Boolean.FALSE.equals(PROVIDER_RESULT_STREAM.get(searchEntityManager.getClass()))){
+			criteriaManager = null;
+			providerStream = null;
+		}else{
+			criteriaManager = getCachedCriteriaManager(resultClass, (CriteriaFilterImpl<T>) criteriaFilter);
+			TypedQuery<?> tQuery = criteriaManager.createQuery(searchEntityManager);
+			tQuery.setHint("org.hibernate.fetchSize", blockSize);
+			tQuery.setHint("eclipselink.jdbc.fetch-size", blockSize);
+			providerStream = getProviderResultStream(tQuery);
+			PROVIDER_RESULT_STREAM.put(searchEntityManager.getClass(), providerStream != null);
+		}
+		//sem selecao a consulta retorna as entidades gerenciadas
+		final boolean detach = ((CriteriaFilterImpl<T>) criteriaFilter).getListSelection().isEmpty() && returnClass.isAnnotationPresent(Entity.class);
+		final Iterator<?> rows = providerStream != null ? providerStream.iterator() : null;
+		
+		Iterator<E> iterator = new Iterator<E>() {
+			private Iterator<E> block = Collections.emptyIterator();
+			private TupleMapper<E> mapper;
+			private String cursor;
+			private boolean finished;
+			
+			@Override
+			public boolean hasNext() {
+				while(!block.hasNext() && !finished){
+					block = nextBlock().iterator();
+				}
+				return block.hasNext();
+			}
+			
+			@Override
+			public E next() {
+				if(!hasNext()){
+					throw new NoSuchElementException();
+				}
+				return block.next();
+			}
+			
+			private List<E> nextBlock() {
+				try {
+					List<E> listReturn;
+					if(rows != null){
+						List<SimpleEntry<?, E>> listBlock = new ArrayList<SimpleEntry<?, E>>(blockSize);
+						while(listBlock.size() < blockSize && rows.hasNext()){
+							Object row = rows.next();
+							if(row instanceof Tuple && !ReflectionUtil.isPrimitive(returnClass)){
+								if(mapper == null){
+									mapper = getTupleMapper((Tuple) row, returnClass);
+								}
+								listBlock.add(mapper.map((Tuple) row));
+							}else{
+								listBlock.add(new SimpleEntry<Object, E>(null, (E) (row instanceof Tuple ? ((Tuple) row).get(0) : row)));
+							}
+						}
+						finished = listBlock.size() < blockSize;
+						listReturn = checkTupleResultList(criteriaManager.getListCollectionRelation(), listBlock);
+					}else{
+						KeysetPage<E> keysetPage = getResultKeyset(returnClass, criteriaFilter, cursor, blockSize);
+						cursor = keysetPage.getNextCursor();
+						finished = cursor == null;
+						listReturn = new ArrayList<E>(keysetPage.getElements());
+					}
+					
+					if(detach){
+						for(E obj : listReturn){
+							getSearchEntityManager().detach(obj);
+						}
+					}
+					return listReturn;
+				} catch (ApplicationException e) {
+					throw new ApplicationRuntimeException(e);
+				} catch (Exception e) {
+					logger.error("[stream]", e);
+					throw new ApplicationRuntimeException(new ApplicationException(MessageSeverity.ERROR, ERROR_FIND_LIST_KEY, new String[] { getPrimaryClass().getSimpleName() }));
+				}
+			}
+		};
+		
+		Stream<E> stream = StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false);
+		if(providerStream != null){
+			stream = stream.onClose(new Runnable() {
+				@Override
+				public void run() {
+					providerStream.close();
+				}
+			});
+		}
+		return stream;
+	}
+	
+	/**
+	 * Cursor do provedor: getResultStream (JPA 2.2) ou stream (Hibernate 5.2)
+	 * @param query - {@link TypedQuery}
+	 * @return {@link Stream} ou null quando o provedor nao possuir suporte
+	 */
+	private Stream<?> getProviderResultStream(TypedQuery<?> query) {
+		for(String methodName : new String[] {"getResultStream", "stream"}){
+			try {
+				Method method = query.getClass().getMethod(methodName);
+				if(Stream.class.isAssignableFrom(method.getReturnType())){
+					return (Stream<?>) method.invoke(query);
+				}
+			} catch (NoSuchMethodException e) {
+				continue;
+			} catch (InvocationTargetException e) {
+				if(e.getCause() instanceof RuntimeException){
+					throw (RuntimeException) e.getCause();
+				}
+				throw new IllegalStateException(e.getCause());
+			} catch (IllegalAccessException e) {
+				logger.warn("[getProviderResultStream]", e);
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * Quantidade de registros obtidos do banco de dados a cada leitura em {@link #stream(CriteriaFilter, Class)}, default 1000
+	 * @return {@link Integer}
+	 */
+	protected int getStreamFetchSize(){
+		return 1000;
+	}
+	
 	/**
 	 * 
 	 * @param resultClass - classe de retorno
@@ -501,47 +1262,40 @@ public abstract class GenericDAO<T, K extends Serializable>{
 	@SuppressWarnings({"unchecked", "rawtypes"})
 	private <E> List<E> checkTupleResultList(Map<String, CriteriaFilterImpl<?>> listCollectionRelation, List<SimpleEntry<?, E>> returnList) throws InstantiationException, IllegalAccessException, ApplicationException{
 		//------------ ADICIONADO PARA TRATAR COLLECTION
-		if(listCollectionRelation != null && !listCollectionRelation.isEmpty()){
-			Field fldAux = null;
+		if(listCollectionRelation != null && !listCollectionRelation.isEmpty() && !returnList.isEmpty()){
+			FieldAccessor fldAux = null;
+			ClassMetadata primaryMetadata = ClassMetadata.of(getPrimaryClass());
 						
 			//ID DO OBJETO
-			List<K> listId= new ArrayList<K>();
+			List<Object> listRowId = new ArrayList<Object>(returnList.size());
+			List<E> listParent = new ArrayList<E>(returnList.size());
+			Set<K> setId = new LinkedHashSet<K>();
 			for(SimpleEntry<?, E> ret: returnList){
+				listParent.add(ret.getValue());
 				Object idAux;
 				if(ret.getKey() != null){
 					idAux = ret.getKey();
 				}else{
-					idAux = fieldId.get(ret);
+					idAux = fieldIdAccessor.get(ret.getValue());
 				}
-				
-				if(!listId.contains(ret.getKey())) {
-					listId.add((K) idAux);
+				listRowId.add(idAux);
+				if(idAux != null) {
+					setId.add((K) idAux);
 				}
 			}
+			List<K> listId = new ArrayList<K>(setId);
 						
 			for(String k : listCollectionRelation.keySet()){
-				fldAux = ReflectionUtil.getAttribute(getPrimaryClass(), k);
-				fldAux.setAccessible(true);
+				fldAux = primaryMetadata.getAccessor(k);
 				
-				CriteriaFilterImpl<T> cf = (CriteriaFilterImpl<T>) listCollectionRelation.get(k)
-						.addSelect(fieldId.getName())
-						.addWhereIn(fieldId.getName(), listId);
+				//copia para nao alterar o filtro da colecao relacionada
+				CriteriaFilterImpl<T> cf = (CriteriaFilterImpl<T>) listCollectionRelation.get(k).copy()
+						.addSelect(fieldId.getName());
 									
-				List<?> listAux = getResultList(cf, null, null);
+				List<?> listAux = getCollectionRelationResultList(cf, listId);
 			
 				if(listAux != null && !listAux.isEmpty() ) {
-					for(SimpleEntry<?, E> se : returnList){
-						for(Object retList: listAux){
-							if(se.getKey().equals(fieldId.get(retList))) {//fieldId.get(se.getValue()) != null &&fieldId.get(se.getValue()).equals(fieldId.get(retList))){
-								Collection col = (Collection<?>) fldAux.get(se.getValue());
-								if(col == null){
-									col = instanceCollection(fldAux.getType());
-									fldAux.set(se.getValue(), col);
-								}
-								col.addAll((Collection<?>) fldAux.get(retList));
-							}
-						}
-					}
+					DAOUtil.joinCollection(listParent, listRowId, listAux, fldAux, fieldIdAccessor);
 				}
 			}
 		}
@@ -553,9 +1307,141 @@ public abstract class GenericDAO<T, K extends Serializable>{
 		
 		return listReturn;
 	}
+	/**
+	 * Executa a consulta da colecao relacionada, dividindo os ids em blocos de {@link #getCollectionBatchSize()}.
+	 * Os blocos sao executados em paralelo quando {@link #getCollectionExecutor()} e {@link #getCollectionEntityManagerSupplier()} sao informados,
+	 * cada bloco com o seu proprio {@link EntityManager}. As colecoes aninhadas sao consultadas na thread atual
+	 * @param cf - filtro da colecao relacionada
+	 * @param listId - ids dos objetos pai
+	 * @return {@link List}
+	 * @throws ApplicationException - erro ao pesquisar
+	 */
+	private List<T> getCollectionRelationResultList(CriteriaFilterImpl<T> cf, List<K> listId) throws ApplicationException {
+		if(listId.isEmpty()){
+			return new ArrayList<T>(0);
+		}
+		int batchSize = getCollectionBatchSize();
+		List<List<K>> listPartition = CollectionUtil.partition(listId, batchSize);
+		
+		List<CriteriaManager<T>> listCriteriaManager = new ArrayList<CriteriaManager<T>>(listPartition.size());
+		for(List<K> partition : listPartition){
+			listCriteriaManager.add(getCachedCriteriaManager(getPrimaryClass(), cf.copy().addWhereIn(fieldId.getName(), DAOUtil.padInValues(partition, batchSize))));
+		}
+		
+		ExecutorService executor = getCollectionExecutor();
+		final Supplier<EntityManager> entityManagerSupplier = getCollectionEntityManagerSupplier();
+		if(executor == null || entityManagerSupplier == null || listCriteriaManager.size() == 1){
+			List<T> listReturn = new ArrayList<T>();
+			for(CriteriaManager<T> criteriaManager : listCriteriaManager){
+				listReturn.addAll(getResultListByCriteriaManager(getPrimaryClass(), criteriaManager));
+			}
+			return listReturn;
+		}
+		
+		List<Future<List<SimpleEntry<?, T>>>> listFuture = new ArrayList<Future<List<SimpleEntry<?, T>>>>(listCriteriaManager.size());
+		for(final CriteriaManager<T> criteriaManager : listCriteriaManager){
+			listFuture.add(executor.submit(new Callable<List<SimpleEntry<?, T>>>() {
+				@Override
+				public List<SimpleEntry<?, T>> call() throws Exception {
+					EntityManager entityManager = entityManagerSupplier.get();
+					try {
+						return getPreparedResultList(getPrimaryClass(), criteriaManager.createQuery(entityManager), criteriaManager.isTupleQuery(), null, null, 0);
+					} finally {
+						entityManager.close();
+					}
+				}
+			}));
+		}
+		
+		List<T> listReturn = new ArrayList<T>();
+		try {
+			for(int i=0; i < listFuture.size(); i++){
+				listReturn.addAll(checkTupleResultList(listCriteriaManager.get(i).getListCollectionRelation(), listFuture.get(i).get()));
+			}
+		} catch (InterruptedException e) {
+			cancelAll(listFuture);
+			Thread.currentThread().interrupt();
+			logger.error("[getCollectionRelationResultList]", e);
+			throw new ApplicationException(MessageSeverity.ERROR, ERROR_FIND_LIST_KEY, new String[] { getPrimaryClass().getSimpleName() });
+		} catch (ExecutionException e) {
+			cancelAll(listFuture);
+			if(e.getCause() instanceof ApplicationException){
+				throw (ApplicationException) e.getCause();
+			}
+			logger.error("[getCollectionRelationResultList]", e.getCause());
+			throw new ApplicationException(MessageSeverity.ERROR, ERROR_FIND_LIST_KEY, new String[] { getPrimaryClass().getSimpleName() });
+		} catch (ApplicationException e) {
+			cancelAll(listFuture);
+			throw e;
+		} catch (Exception e) {
+			cancelAll(listFuture);
+			logger.error("[getCollectionRelationResultList]", e);
+			throw new ApplicationException(MessageSeverity.ERROR, ERROR_FIND_LIST_KEY, new String[] { getPrimaryClass().getSimpleName() });
+		}
+		return listReturn;
+	}
+	
+	/**
+	 * 
+	 * @param listFuture - tarefas a cancelar, as iniciadas fecham o proprio {@link EntityManager}
+	 */
+	private void cancelAll(List<? extends Future<?>> listFuture){
+		for(Future<?> future : listFuture){
+			future.cancel(true);
+		}
+	}
+	
+	/**
+	 * Quantidade maxima de ids por consulta de colecao relacionada, findAll e removeAll (clausula IN), default 500.
+	 * Menor ou igual a zero para nao dividir a consulta.
+	 * @return {@link Integer}
+	 */
+	protected int getCollectionBatchSize(){
+		return 500;
+	}
+	
+	/**
+	 * Executor utilizado para consultar os blocos de colecao relacionada em paralelo, default null (sequencial).
+	 * Utilizado somente com {@link #getCollectionEntityManagerSupplier()}, cada bloco e consultado com o seu proprio {@link EntityManager}
+	 * @return {@link ExecutorService}
+	 */
+	protected ExecutorService getCollectionExecutor(){
+		return null;
+	}
+	
+	/**
+	 * Fornece um novo {@link EntityManager} para cada bloco de colecao relacionada executado em paralelo, default null (sequencial).
+	 * O {@link EntityManager} fornecido e fechado apos a consulta do bloco (ex: entityManagerFactory::createEntityManager),
+	 * entidades retornadas pelo bloco ficam desanexadas (detached)
+	 * @return {@link Supplier}
+	 */
+	protected Supplier<EntityManager> getCollectionEntityManagerSupplier(){
+		return null;
+	}
+	
+	/**
+	 * 
+	 * @param resultClass - classe de retorno
+	 * @param criteriaManager - {@link CriteriaManager} ja configurado
+	 * @return {@link List}
+	 * @throws ApplicationException - erro ao pesquisar
+	 */
+	private <E> List<E> getResultListByCriteriaManager(Class<E> resultClass, CriteriaManager<T> criteriaManager) throws ApplicationException {
+		try {
+			List<SimpleEntry<?, E>> returnList = getPreparedResultList(resultClass, criteriaManager, null, null, 0);
+			return checkTupleResultList(criteriaManager.getListCollectionRelation(), returnList);
+		} catch (ApplicationException e) {
+			throw e;
+		} catch (Exception e) {
+			logger.error("[getResultListByCriteriaManager]", e);
+			throw new ApplicationException(MessageSeverity.ERROR, ERROR_FIND_LIST_KEY, new String[] { getPrimaryClass().getSimpleName() });
+		}
+	}
+	
 	/**
 	 * 
 	 * @param criteriaManager - {@link CriteriaManager}
+	 * @param collectionFetch - modo de carga das colecoes {@link CollectionFetch}
 	 * @param result - objeto para verificar colecao
 	 * @return E - objeto com colecao associada
 	 * @throws InstantiationException - erro ao instanciar
@@ -563,40 +1449,49 @@ public abstract class GenericDAO<T, K extends Serializable>{
 	 * @throws ApplicationException - erro generico ao pesquisar
 	 */
 	@SuppressWarnings({"unchecked", "rawtypes"})
-	private <E> E checkTupleSingleResult(CriteriaManager<T> criteriaManager, SimpleEntry<?, E> result) throws InstantiationException, IllegalAccessException, ApplicationException{
+	private <E> E checkTupleSingleResult(CriteriaManager<T> criteriaManager, CollectionFetch collectionFetch, SimpleEntry<?, E> result) throws InstantiationException, IllegalAccessException, ApplicationException{
 		if(result == null){
 			return null;
 		}
+		if(CollectionFetch.JOIN.equals(collectionFetch)){
+			return joinCollectionRelation(criteriaManager.getListCollectionRelation(), result);
+		}
+		if(CollectionFetch.BATCH.equals(collectionFetch)){
+			List<SimpleEntry<?, E>> returnList = new ArrayList<SimpleEntry<?, E>>(1);
+			returnList.add(result);
+			return checkTupleResultList(criteriaManager.getListCollectionRelation(), returnList).get(0);
+		}
 		E ret = result.getValue();
 		if(!criteriaManager.getListCollectionRelation().isEmpty()){
-			Field fldAux = null;
+			FieldAccessor fldAux = null;
+			ClassMetadata primaryMetadata = ClassMetadata.of(getPrimaryClass());
 			
 			T objAux;
 			for(String k : criteriaManager.getListCollectionRelation().keySet()){
-				fldAux = ReflectionUtil.getAttribute(getPrimaryClass(), k);
-				fldAux.setAccessible(true);	
+				fldAux = primaryMetadata.getAccessor(k);
 				
 				objAux = getPrimaryClass().newInstance();
 				if(result.getKey() == null){
-					fieldId.set(objAux, fieldId.get(ret));
+					fieldIdAccessor.set(objAux, fieldIdAccessor.get(ret));
 				}else{
-					fieldId.set(objAux, result.getKey());
+					fieldIdAccessor.set(objAux, result.getKey());
 				}
 				
-				CriteriaFilterImpl<T> cf = (CriteriaFilterImpl<T>) criteriaManager.getListCollectionRelation().get(k);
+				CriteriaFilterImpl<T> cf = ((CriteriaFilterImpl<T>) criteriaManager.getListCollectionRelation().get(k)).copy();
 				cf.setObjBase(objAux);
 				
+				//NOVA ENTRADA PARA NAO ALTERAR A SELECAO DO FILTRO ORIGINAL
 				Map<String, SimpleEntry<SelectAggregate, String>> selAux= cf.getListSelection();
-				for(String key : selAux.keySet()) {
-					String valueAux = selAux.get(key).getValue(); 
-					selAux.get(key).setValue(valueAux.replace(k.concat("."), ""));
+				for(Map.Entry<String, SimpleEntry<SelectAggregate, String>> entry : selAux.entrySet()) {
+					String valueAux = entry.getValue().getValue(); 
+					entry.setValue(new SimpleEntry<SelectAggregate, String>(entry.getValue().getKey(), valueAux.replace(k.concat("."), "")));
 				}
 				
-				List<?> resultCollection = getResultList(DAOUtil.getCollectionClass(fldAux), cf, null, null);
+				List<?> resultCollection = getResultList(DAOUtil.getCollectionClass(fldAux.getField()), cf, null, null);
 
 				Collection col = (Collection<?>) fldAux.get(ret);
 				if(col == null){
-					col = instanceCollection(fldAux.getType());
+					col = DAOUtil.instanceCollection(fldAux.getType());
 					fldAux.set(ret, col);
 				}
 				col.addAll(resultCollection);
@@ -604,19 +1499,92 @@ public abstract class GenericDAO<T, K extends Serializable>{
 		}
 		return ret;
 	}
+	
 	/**
-	 * 
-	 * @param fldClass  atributo para verificar e instnciar a colecao
-	 * @return {@link Collection}
+	 * Carrega as colecoes do objeto em uma unica consulta (LEFT JOIN), os itens repetidos pelo produto cartesiano
+	 * sao removidos pelo id do item, incluido na selecao. Colecoes com restricoes proprias ou cujo item nao possui id
+	 * sao consultadas como no {@link CollectionFetch#BATCH}. Os filtros das colecoes relacionadas nao sao alterados
+	 * @param listCollectionRelation - colecoes relacionadas
+	 * @param result - objeto para verificar colecao
+	 * @return E - objeto com colecao associada
+	 * @throws InstantiationException - erro ao instanciar
+	 * @throws IllegalAccessException - erro ao acessar atributo
+	 * @throws ApplicationException - erro generico ao pesquisar
 	 */
-	private <E> Collection<E> instanceCollection(Class<E> fldClass){
-		if(fldClass.isAssignableFrom(List.class)){
-			return new ArrayList<E>();
-		}else if(fldClass.isAssignableFrom(Set.class)){
-			return new HashSet<E>();
-		} else {
-			return new ArrayList<E>();
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private <E> E joinCollectionRelation(Map<String, CriteriaFilterImpl<?>> listCollectionRelation, SimpleEntry<?, E> result) throws InstantiationException, IllegalAccessException, ApplicationException{
+		E ret = result.getValue();
+		if(listCollectionRelation.isEmpty()){
+			return ret;
+		}
+		ClassMetadata primaryMetadata = ClassMetadata.of(getPrimaryClass());
+		
+		CriteriaFilterImpl<T> cfJoin = new CriteriaFilterImpl<T>(getPrimaryClass());
+		cfJoin.setCollectionSelectionControl(false);
+		Map<String, FieldAccessor> listItemId = new LinkedHashMap<String, FieldAccessor>();
+		Map<String, CriteriaFilterImpl<?>> listBatch = new LinkedHashMap<String, CriteriaFilterImpl<?>>();
+		
+		for(Map.Entry<String, CriteriaFilterImpl<?>> entry : listCollectionRelation.entrySet()){
+			CriteriaFilterImpl<?> cf = entry.getValue();
+			Field itemId = DAOUtil.getFieldId(DAOUtil.getCollectionClass(primaryMetadata.getField(entry.getKey())));
+			if(itemId == null || !cf.getListWhere().isEmpty() || !cf.getWhereRestriction().getRestrictions().isEmpty()){
+				listBatch.put(entry.getKey(), cf);
+				continue;
+			}
+			String itemIdPath = entry.getKey().concat(".").concat(itemId.getName());
+			for(Map.Entry<String, SimpleEntry<SelectAggregate, String>> sel : cf.getListSelection().entrySet()){
+				cfJoin.getListSelection().put(sel.getKey(), new SimpleEntry<SelectAggregate, String>(sel.getValue()));
+			}
+			if(!cfJoin.getListSelection().containsKey(itemIdPath)){
+				cfJoin.addSelect(itemIdPath, itemIdPath);
+			}
+			//colecao vazia nao deve remover os itens das demais colecoes
+			for(String key : cfJoin.getListSelection().keySet()){
+				String path = null;
+				for(String attr : key.split("\\.")){
+					path = path == null ? attr : path.concat(".").concat(attr);
+					if(!cfJoin.getListJoin().containsKey(path)){
+						cfJoin.addJoin(path, JoinType.LEFT);
+					}
+				}
+			}
+			listItemId.put(entry.getKey(), ClassMetadata.accessor(itemId));
 		}
+		
+		if(!listItemId.isEmpty()){
+			cfJoin.addWhereEqual(fieldId.getName(), result.getKey() != null ? result.getKey() : fieldIdAccessor.get(ret));
+			List<SimpleEntry<?, T>> listRow = getPreparedResultList(getPrimaryClass(), getCachedCriteriaManager(getPrimaryClass(), cfJoin), null, null, 0);
+			
+			for(Map.Entry<String, FieldAccessor> entry : listItemId.entrySet()){
+				FieldAccessor fldAux = primaryMetadata.getAccessor(entry.getKey());
+				Map<Object, Object> mapItem = new LinkedHashMap<Object, Object>();
+				for(SimpleEntry<?, T> row : listRow){
+					Collection<?> colRow = (Collection<?>) fldAux.get(row.getValue());
+					if(colRow != null){
+						for(Object item : colRow){
+							Object idItem = entry.getValue().get(item);
+							if(idItem != null && !mapItem.containsKey(idItem)){
+								mapItem.put(idItem, item);
+							}
+						}
+					}
+				}
+				
+				Collection col = (Collection<?>) fldAux.get(ret);
+				if(col == null){
+					col = DAOUtil.instanceCollection(fldAux.getType());
+					fldAux.set(ret, col);
+				}
+				col.addAll(mapItem.values());
+			}
+		}
+		
+		if(!listBatch.isEmpty()){
+			List<SimpleEntry<?, E>> returnList = new ArrayList<SimpleEntry<?, E>>(1);
+			returnList.add(result);
+			checkTupleResultList(listBatch, returnList);
+		}
+		return ret;
 	}
 	/**
 	 * 
@@ -728,17 +1696,56 @@ public abstract class GenericDAO<T, K extends Serializable>{
 	 * @return {@link CriteriaManager}
 	 * @throws ApplicationException - erro ao configurar gerenciador
 	 */
-	@SuppressWarnings("unchecked")
 	private <E> CriteriaManager<T> getCriteriaManager(Class<E> resultClass, CriteriaFilterImpl<T> criteriaFilter) throws ApplicationException {
+		return getCriteriaManager(getSearchEntityManager(), resultClass, criteriaFilter);
+	}
+	
+	/**
+	 * 
+	 * @param entityManager - {@link EntityManager} utilizado na criacao da consulta
+	 * @param resultClass - classe que indica o tipo de objeto de retorno
+	 * @param criteriaFilter - filtro de pesquisa {@link CriteriaFilter}
+	 * @return {@link CriteriaManager}
+	 * @throws ApplicationException - erro ao configurar gerenciador
+	 */
+	private <E> CriteriaManager<T> getCriteriaManager(EntityManager entityManager, Class<E> resultClass, CriteriaFilterImpl<T> criteriaFilter) throws ApplicationException {
+		return getCriteriaManager(entityManager, resultClass, criteriaFilter, false, false);
+	}
+	
+	/**
+	 * Gerenciador que utiliza o cache de consultas quando habilitado em {@link #isQueryCacheEnabled()}
+	 * e parametros quando habilitado em {@link #isParameterBindingEnabled()}.
+	 * A consulta deve ser criada por {@link CriteriaManager#createQuery(EntityManager)}
+	 * @param resultClass - classe que indica o tipo de objeto de retorno
+	 * @param criteriaFilter - filtro de pesquisa {@link CriteriaFilter}
+	 * @return {@link CriteriaManager}
+	 * @throws ApplicationException - erro ao configurar gerenciador
+	 */
+	private <E> CriteriaManager<T> getCachedCriteriaManager(Class<E> resultClass, CriteriaFilterImpl<T> criteriaFilter) throws ApplicationException {
+		return getCriteriaManager(getSearchEntityManager(), resultClass, criteriaFilter, isQueryCacheEnabled(), isParameterBindingEnabled());
+	}
+	
+	/**
+	 * 
+	 * @param entityManager - {@link EntityManager} utilizado na criacao da consulta
+	 * @param resultClass - classe que indica o tipo de objeto de retorno
+	 * @param criteriaFilter - filtro de pesquisa {@link CriteriaFilter}
+	 * @param queryCache - true para utilizar o cache de consultas {@link CriteriaQueryCache}
+	 * @param parameters - true para informar os valores das restricoes como parametros
+	 * @return {@link CriteriaManager}
+	 * @throws ApplicationException - erro ao configurar gerenciador
+	 */
+	@SuppressWarnings("unchecked")
+	private <E> CriteriaManager<T> getCriteriaManager(EntityManager entityManager, Class<E> resultClass, CriteriaFilterImpl<T> criteriaFilter, boolean queryCache, boolean parameters) throws ApplicationException {
 		if(resultClass == null){
 			resultClass = (Class<E>) getPrimaryClass();
 		}
 		boolean isTuple = criteriaFilter != null && !((CriteriaFilterImpl<T>) criteriaFilter).getListSelection().isEmpty() && !ReflectionUtil.isPrimitive(resultClass);
 
 		if(isTuple){	
-			return new CriteriaManager<T>(getSearchEntityManager(), getPrimaryClass(), getPrimaryClass(), resultClass, (CriteriaFilterImpl<T>) criteriaFilter);
+			return new CriteriaManager<T>(entityManager, getPrimaryClass(), getPrimaryClass(), resultClass, (CriteriaFilterImpl<T>) criteriaFilter, queryCache, parameters);
 		}else{
-			return new CriteriaManager<T>(getSearchEntityManager(), getPrimaryClass(), resultClass, resultClass, (CriteriaFilterImpl<T>) criteriaFilter);
+			return new CriteriaManager<T>(entityManager, getPrimaryClass(), resultClass, resultClass, (CriteriaFilterImpl<T>) criteriaFilter, queryCache, parameters);
 		}
 	}
 	
@@ -767,27 +1774,76 @@ public abstract class GenericDAO<T, K extends Serializable>{
 	 * @return {@link List}
 	 * @throws ApplicationException - erro ao pesquisar
 	 */
-	@SuppressWarnings("unchecked")
 	private <E> List<SimpleEntry<?, E>> getPreparedResultList(Class<E> resultClass, CriteriaQuery<?> criteriaQuery, Integer pagina, Integer qtde) throws ApplicationException {
+		return getPreparedResultList(resultClass, criteriaQuery, pagina, qtde, 0);
+	}
+	/**
+	 * 
+	 * @param resultClass - classe que indica o tipo de objeto de retorno
+	 * @param criteriaQuery - {@link CriteriaQuery}
+	 * @param pagina - numero da pagina
+	 * @param qtde - quantidade de registros por pagina
+	 * @param extraResults - registros alem da pagina, sem alterar o deslocamento (ex: 1 para identificar a proxima pagina)
+	 * @return {@link List}
+	 * @throws ApplicationException - erro ao pesquisar
+	 */
+	private <E> List<SimpleEntry<?, E>> getPreparedResultList(Class<E> resultClass, CriteriaQuery<?> criteriaQuery, Integer pagina, Integer qtde, int extraResults) throws ApplicationException {
+		return getPreparedResultList(resultClass, getSearchEntityManager().createQuery(criteriaQuery), criteriaQuery.getResultType().equals(Tuple.class), pagina, qtde, extraResults);
+	}
+	/**
+	 * 
+	 * @param resultClass - classe que indica o tipo de objeto de retorno
+	 * @param criteriaManager - {@link CriteriaManager} ja configurado, a consulta e criada por {@link CriteriaManager#createQuery(EntityManager)}
+	 * @param pagina - numero da pagina
+	 * @param qtde - quantidade de registros por pagina
+	 * @param extraResults - registros alem da pagina, sem alterar o deslocamento (ex: 1 para identificar a proxima pagina)
+	 * @return {@link List}
+	 * @throws ApplicationException - erro ao pesquisar
+	 */
+	private <E> List<SimpleEntry<?, E>> getPreparedResultList(Class<E> resultClass, CriteriaManager<T> criteriaManager, Integer pagina, Integer qtde, int extraResults) throws ApplicationException {
+		return getPreparedResultList(resultClass, criteriaManager.createQuery(getSearchEntityManager()), criteriaManager.isTupleQuery(), pagina, qtde, extraResults);
+	}
+	/**
+	 * 
+	 * @param resultClass - classe que indica o tipo de objeto de retorno
+	 * @param typedQuery - consulta com os parametros informados
+	 * @param isTuple - true quando o retorno da consulta for {@link Tuple}
+	 * @param pagina - numero da pagina
+	 * @param qtde - quantidade de registros por pagina
+	 * @param extraResults - registros alem da pagina, sem alterar o deslocamento (ex: 1 para identificar a proxima pagina)
+	 * @return {@link List}
+	 * @throws ApplicationException - erro ao pesquisar
+	 */
+	@SuppressWarnings("unchecked")
+	private <E> List<SimpleEntry<?, E>> getPreparedResultList(Class<E> resultClass, TypedQuery<?> typedQuery, boolean isTuple, Integer pagina, Integer qtde, int extraResults) throws ApplicationException {
 		try {
-			boolean isTuple = criteriaQuery.getResultType().equals(Tuple.class);
 			List<SimpleEntry<?, E>> listReturn = new LinkedList<SimpleEntry<?, E>>();
 			
 			if(isTuple){
-				CriteriaQuery<Tuple> query = (CriteriaQuery<Tuple>) criteriaQuery;
-				TypedQuery<Tuple> tQuery = getSearchEntityManager().createQuery(query);
-				configPaginacao(tQuery, pagina, qtde);
+				TypedQuery<Tuple> tQuery = (TypedQuery<Tuple>) typedQuery;
+				configPaginacao(tQuery, pagina, qtde, extraResults);
 				List<Tuple> tuple = tQuery.getResultList();
 				
-				for(Tuple t: tuple){
-					listReturn.add(tupleToResultClass(t, resultClass));
+				if(!tuple.isEmpty()){
+					if(resultClass == null){
+						resultClass = (Class<E>) getPrimaryClass();
+					}
+					if(ReflectionUtil.isPrimitive(resultClass)){
+						for(Tuple t: tuple){
+							listReturn.add(new SimpleEntry<Object, E>(null, (E) t.get(0)));
+						}
+					}else{
+						TupleMapper<E> mapper = getTupleMapper(tuple.get(0), resultClass);
+						for(Tuple t: tuple){
+							listReturn.add(mapper.map(t));
+						}
+					}
 				}
 				
 				return listReturn;
 			}else{
-				CriteriaQuery<E> query = (CriteriaQuery<E>) criteriaQuery;
-				TypedQuery<E> tQuery = getSearchEntityManager().createQuery(query);
-				configPaginacao(tQuery, pagina, qtde);
+				TypedQuery<E> tQuery = (TypedQuery<E>) typedQuery;
+				configPaginacao(tQuery, pagina, qtde, extraResults);
 				for(E oRet : tQuery.getResultList()){
 					listReturn.add(new SimpleEntry<Object, E>(null, oRet));
 				}
@@ -857,11 +1913,10 @@ public abstract class GenericDAO<T, K extends Serializable>{
 			if(resultClass == null){
 				resultClass = (Class<E>) getPrimaryClass();
 			}
-			CriteriaManager<T> criteriaManager = getCriteriaManager(resultClass, (CriteriaFilterImpl<T>) criteriaFilter); 
-			CriteriaQuery<?> query = criteriaManager.getCriteriaQuery();
+			CriteriaManager<T> criteriaManager = getCachedCriteriaManager(resultClass, (CriteriaFilterImpl<T>) criteriaFilter); 
 			
-			SimpleEntry<?, E> result = getPreparedSingleResult(resultClass, query);
-			return checkTupleSingleResult(criteriaManager, result);
+			SimpleEntry<?, E> result = getPreparedSingleResult(resultClass, criteriaManager);
+			return checkTupleSingleResult(criteriaManager, criteriaFilter != null ? ((CriteriaFilterImpl<T>) criteriaFilter).getCollectionFetch() : null, result);
 		} catch (ApplicationException e) {
 			throw e;
 		} catch (NoResultException nre){
@@ -871,38 +1926,66 @@ public abstract class GenericDAO<T, K extends Serializable>{
 			throw new ApplicationException(MessageSeverity.ERROR, ERROR_FIND_KEY, new String[] { getPrimaryClass().getSimpleName() });
 		}
 	}
-
+
+	/**
+	 * 
+	 * @param resultClass - classe que indica o tipo de objeto de retorno
+	 * @param criteriaQuery - {@link CriteriaQuery}
+	 * @return E
+	 * @throws ApplicationException - erro ao pesquisar
+	 */
+	protected <E> E getSingleResult(Class<E> resultClass, CriteriaQuery<?> criteriaQuery) throws ApplicationException {
+		return getPreparedSingleResult(resultClass, criteriaQuery).getValue();
+	}
+	/**
+	 * 
+	 * @param resultClass - classe que indica o tipo de objeto de retorno
+	 * @param criteriaQuery - {@link CriteriaQuery}
+	 * @return E
+	 * @throws ApplicationException - erro ao pesquisar
+	 */
+	private <E> SimpleEntry<?, E> getPreparedSingleResult(Class<E> resultClass, CriteriaQuery<?> criteriaQuery) throws ApplicationException {
+		return getPreparedSingleResult(resultClass, criteriaQuery, null);
+	}
 	/**
 	 * 
 	 * @param resultClass - classe que indica o tipo de objeto de retorno
 	 * @param criteriaQuery - {@link CriteriaQuery}
+	 * @param parameters - valores dos parametros da consulta {@link CriteriaManager#getParameters()}
 	 * @return E
 	 * @throws ApplicationException - erro ao pesquisar
 	 */
-	protected <E> E getSingleResult(Class<E> resultClass, CriteriaQuery<?> criteriaQuery) throws ApplicationException {
-		return getPreparedSingleResult(resultClass, criteriaQuery).getValue();
+	private <E> SimpleEntry<?, E> getPreparedSingleResult(Class<E> resultClass, CriteriaQuery<?> criteriaQuery, Map<ParameterExpression<?>, Object> parameters) throws ApplicationException {
+		TypedQuery<?> tQuery = getSearchEntityManager().createQuery(criteriaQuery);
+		configParameters(tQuery, parameters);
+		return getPreparedSingleResult(resultClass, tQuery, criteriaQuery.getResultType().equals(Tuple.class));
 	}
 	/**
 	 * 
 	 * @param resultClass - classe que indica o tipo de objeto de retorno
-	 * @param criteriaQuery - {@link CriteriaQuery}
+	 * @param criteriaManager - {@link CriteriaManager} ja configurado, a consulta e criada por {@link CriteriaManager#createQuery(EntityManager)}
+	 * @return E
+	 * @throws ApplicationException - erro ao pesquisar
+	 */
+	private <E> SimpleEntry<?, E> getPreparedSingleResult(Class<E> resultClass, CriteriaManager<T> criteriaManager) throws ApplicationException {
+		return getPreparedSingleResult(resultClass, criteriaManager.createQuery(getSearchEntityManager()), criteriaManager.isTupleQuery());
+	}
+	/**
+	 * 
+	 * @param resultClass - classe que indica o tipo de objeto de retorno
+	 * @param typedQuery - consulta com os parametros informados
+	 * @param isTuple - true quando o retorno da consulta for {@link Tuple}
 	 * @return E
 	 * @throws ApplicationException - erro ao pesquisar
 	 */
 	@SuppressWarnings("unchecked")
-	private <E> SimpleEntry<?, E> getPreparedSingleResult(Class<E> resultClass, CriteriaQuery<?> criteriaQuery) throws ApplicationException {
+	private <E> SimpleEntry<?, E> getPreparedSingleResult(Class<E> resultClass, TypedQuery<?> typedQuery, boolean isTuple) throws ApplicationException {
 		try {
-			boolean isTuple = criteriaQuery.getResultType().equals(Tuple.class);
-			
 			if(isTuple){
-				CriteriaQuery<Tuple> query = (CriteriaQuery<Tuple>) criteriaQuery;
-				TypedQuery<Tuple> tQuery = getSearchEntityManager().createQuery(query);
-				Tuple tuple = tQuery.getSingleResult();
+				Tuple tuple = ((TypedQuery<Tuple>) typedQuery).getSingleResult();
 				return tupleToResultClass(tuple, resultClass);
 			}else{
-				CriteriaQuery<E> query = (CriteriaQuery<E>) criteriaQuery;
-				TypedQuery<E> tQuery = getSearchEntityManager().createQuery(query);
-				return new SimpleEntry<Object, E>(null, tQuery.getSingleResult());
+				return new SimpleEntry<Object, E>(null, ((TypedQuery<E>) typedQuery).getSingleResult());
 			}
 		} catch (ApplicationException e) {
 			throw e;
@@ -954,128 +2037,18 @@ public abstract class GenericDAO<T, K extends Serializable>{
 			return new SimpleEntry<Object, E>(null, (E) tuple.get(0));
 		}
 		
-		E objReturn;
-		
-		objReturn = resultClass.newInstance();
-			
-		SimpleEntry<?, E> seReturn = null;
-		
-		for(TupleElement<?> te : tuple.getElements()){
-			if(StringUtils.isBlank(te.getAlias())) {
-				ApplicationException ae = new ApplicationException(MessageSeverity.ERROR, "genericdao-tuple-alias-not-found", resultClass.getName());
-				logger.error("[tupleToResultClass]", ae.getMessage());
-				throw ae;
-			}
-			
-			if(te.getAlias().contains(".")){
-				if(tuple.get(te) == null) {
-					continue;
-				}
-				String[] subObj = te.getAlias().split("\\.");
-				Object objAux = objReturn;
-				for(int i=0; i < subObj.length; i++){
-					Field fldAux = ReflectionUtil.getAttribute(objAux.getClass(), subObj[i]);
-				
-					if(fldAux == null){
-						ApplicationException ae = new ApplicationException(MessageSeverity.ERROR, ERROR_FIELD_DOES_NOT_EXIST, new String[] { subObj[i], objAux.getClass().getSimpleName() });
-						logger.error("[tupleToResultClass]", ae.getMessage());
-						throw ae;
-					}
-					fldAux.setAccessible(true);
-					if(i == subObj.length - 1){
-						fldAux.set(objAux, tuple.get(te));
-					}else{
-						Object objTemp = fldAux.get(objAux);
-						if(objTemp == null){
-							if(ReflectionUtil.isCollection(fldAux.getType())){
-								objTemp = createCollectionInstance(fldAux.getType());
-							}else{
-								objTemp = fldAux.getType().newInstance();
-							}
-							fldAux.set(objAux, objTemp);
-						}
-						if(objTemp instanceof Collection 
-								&& (fldAux.isAnnotationPresent(QueryAttribute.class) 
-										|| fldAux.isAnnotationPresent(OneToMany.class)
-										|| fldAux.isAnnotationPresent(ManyToMany.class))){
-							
-							Object objInCollection = null;
-							if(!((Collection<?>) objTemp).isEmpty()){
-								objInCollection = ((Collection<?>) objTemp).toArray()[	((Collection<?>) objTemp).size() -1 ];
-							}else{
-								objInCollection = getObjectCollectionInstance(fldAux);
-								if(objInCollection != null){
-									((Collection<Object>) objTemp).add(objInCollection);
-								}
-							}
-							objTemp = objInCollection;
-						}
-						objAux = objTemp;
-					}
-				}
-			}else{
-				if(te.getAlias().equals(CriteriaManager.ALIAS_ATTR_FORCED_ID)){
-					seReturn = new SimpleEntry<Object, E>(tuple.get(te), objReturn);
-				}else{
-					if(te.getAlias().equals(fieldId.getName())){
-						seReturn = new SimpleEntry<Object, E>(tuple.get(te), objReturn);
-					}
-					try {
-						ReflectionUtil.setFieldValue(objReturn, te.getAlias(), tuple.get(te));
-					} catch (Exception e) {
-						logger.error("[tupleToResultClass]", e);
-						throw new ApplicationException(MessageSeverity.ERROR, "genericdao-field-not-found", resultClass.getName(), te.getAlias());
-					}
-				}
-			}
-		}
-		if(seReturn == null){
-			return new SimpleEntry<Object, E>(null, objReturn);
-		}else{
-			return seReturn;
-		}
-	}
-	/**
-	 * 
-	 * @param fld - campo para analise
-	 * @return {@link Object}
-	 * @throws ApplicationException - objeto nao e colecao
-	 * @throws InstantiationException - erro ao instanciar
-	 * @throws IllegalAccessException - erro ao acessar atributo
-	 */
-	private Object getObjectCollectionInstance(Field fld) throws ApplicationException{
-		Class<?> classAux = DAOUtil.getCollectionClass(fld);
-		if(classAux == null){
-			ApplicationException ae = new ApplicationException(MessageSeverity.ERROR, "query-mapper.field-collection-not-definied", fld.getDeclaringClass().getName() + "." + fld.getName()); 
-			logger.error("[getObjectCollectionInstance]", ae.getMessage());
-			throw ae; 
-		}else{
-			try {
-				return classAux.newInstance();
-			} catch (Exception e) {
-				logger.error("[getObjectCollectionInstance]", e);
-				throw new ApplicationException(MessageSeverity.ERROR, "error.instantiation", classAux.getName());
-			}
-		}		
+		return getTupleMapper(tuple, resultClass).map(tuple);
 	}
 	
 	/**
 	 * 
-	 * @param klass - tipo de colecao
-	 * @return {@link Collection}
-	 * @throws ApplicationException - erro ao instanciar colecao
+	 * @param tuple - {@link Tuple} utilizada para identificar os alias da selecao
+	 * @param resultClass - classe que indica o tipo de objeto de retorno
+	 * @return {@link TupleMapper}
+	 * @throws ApplicationException - alias nao informado
 	 */
-	private Collection<Object> createCollectionInstance(Class<?> klass) throws ApplicationException{
-		if(klass.isAssignableFrom(List.class)){
-			return new ArrayList<Object>();
-		}else if(klass.isAssignableFrom(Set.class)){
-			return new HashSet<Object>();
-		} else if(klass.isAssignableFrom(Collection.class)){
-			return new HashSet<Object>();
-		} 
-		ApplicationException ae = new ApplicationException(MessageSeverity.ERROR, "error.collection-instance", new String[] {klass.getName()});
-		logger.error("[createCollectionInstance]", ae.getMessage());
-		throw ae;
+	private <E> TupleMapper<E> getTupleMapper(Tuple tuple, Class<E> resultClass) throws ApplicationException {
+		return TupleMapper.getInstance(resultClass, fieldId.getName(), tuple.getElements());
 	}
 	
 	/**
@@ -1203,6 +2176,13 @@ public abstract class GenericDAO<T, K extends Serializable>{
 	protected CriteriaFilterUpdate<T> getCriteriaFilterUpdate(){
 		return new CriteriaFilterImpl<T>(getPrimaryClass());
 	}
+	/**
+	 * 
+	 * @return {@link CriteriaFilterDelete}
+	 */
+	protected CriteriaFilterDelete<T> getCriteriaFilterDelete(){
+		return new CriteriaFilterImpl<T>(getPrimaryClass());
+	}
 	/**
 	 * 
 	 * @param objRef - objeto de referencia
@@ -1365,7 +2345,45 @@ public abstract class GenericDAO<T, K extends Serializable>{
 	public <E> Page<E> paginate(T obj, Class<E> resultClass, Map<String, String> fieldAlias, String[] sort, int pagina, int qtde) throws ApplicationException{
 		return paginate(obj, resultClass, fieldAlias, CollectionUtil.convertArrayToList(sort), pagina, qtde);
 	}
-	
+	/**
+	 * Paginacao por chave (keyset), nao executa COUNT nem OFFSET
+	 * @param obj - objeto de referencia da pesquisa
+	 * @param sort - ordenacao
+	 * @param cursor - cursor retornado pela pagina anterior ({@link KeysetPage#getNextCursor()}), null para a primeira pagina
+	 * @param qtde - quantidade de registros por pagina
+	 * @return {@link KeysetPage}
+	 * @throws ApplicationException - erro ao paginar
+	 */
+	public KeysetPage<T> paginateKeyset(T obj, List<String> sort, String cursor, int qtde) throws ApplicationException{
+		CriteriaFilterImpl<T> cf = (CriteriaFilterImpl<T>) getCriteriaFilter(obj);
+		cf.addOrder(sort);
+		return getResultKeyset(getPrimaryClass(), cf, cursor, qtde);
+	}
+	/**
+	 * Paginacao por chave (keyset), nao executa COUNT nem OFFSET
+	 * @param obj - objeto de referencia da pesquisa
+	 * @param resultClass - classe que indica o tipo de objeto de retorno
+	 * @param fields - campos retornados
+	 * @param sort - ordenacao
+	 * @param cursor - cursor retornado pela pagina anterior ({@link KeysetPage#getNextCursor()}), null para a primeira pagina
+	 * @param qtde - quantidade de registros por pagina
+	 * @return {@link KeysetPage}
+	 * @throws ApplicationException - erro ao paginar
+	 */
+	public <E> KeysetPage<E> paginateKeyset(T obj, Class<E> resultClass, List<String> fields, List<String> sort, String cursor, int qtde) throws ApplicationException{
+		CriteriaFilterImpl<T> cf = (CriteriaFilterImpl<T>) getCriteriaFilter(obj);
+
+		if(resultClass == null){
+			cf.addSelect(fields);
+			cf.addOrder(sort);
+		}else{
+			cf.addSelect(resultClass, fields);
+			cf.addOrder(resultClass, sort);
+		}
+
+		return getResultKeyset(resultClass, cf, cursor, qtde);
+	}
+
 	/**
 	 * 
 	 * @param obj - objeto de referencia da pesquisa
@@ -1486,13 +2504,51 @@ public abstract class GenericDAO<T, K extends Serializable>{
 		return list(null, null, fields, sort, pagina, qtde);
 	}
 	/**
-	 * 
+	 * Verifica a existencia sem COUNT: selecao minima, sem ordenacao e limitada a um registro
 	 * @param criteriaFilter - {@link CriteriaFilter}
 	 * @return {@link Boolean}
 	 * @throws ApplicationException - erro ao verificar se existe registro
 	 */
 	protected boolean getResultExists(CriteriaFilter<T> criteriaFilter) throws ApplicationException{
-		return this.getResultCount(criteriaFilter) > 0;
+		return getResultExists(getSearchEntityManager(), criteriaFilter);
+	}
+	/**
+	 * Verifica a existencia para cada filtro, utilizando o mesmo {@link EntityManager}
+	 * @param criteriaFilters - filtros
+	 * @return {@link BitSet} - posicao do filtro marcada quando existe registro
+	 * @throws ApplicationException - erro ao verificar se existe registro
+	 */
+	protected BitSet getResultExists(List<CriteriaFilter<T>> criteriaFilters) throws ApplicationException{
+		EntityManager entityManager = getSearchEntityManager();
+		BitSet result = new BitSet(criteriaFilters.size());
+		for(int i=0; i < criteriaFilters.size(); i++){
+			if(getResultExists(entityManager, criteriaFilters.get(i))){
+				result.set(i);
+			}
+		}
+		return result;
+	}
+	/**
+	 * 
+	 * @param entityManager - {@link EntityManager}
+	 * @param criteriaFilter - {@link CriteriaFilter}
+	 * @return {@link Boolean}
+	 * @throws ApplicationException - erro ao verificar se existe registro
+	 */
+	private boolean getResultExists(EntityManager entityManager, CriteriaFilter<T> criteriaFilter) throws ApplicationException{
+		CriteriaManager<T> criteriaManager = getCountCriteriaManager(entityManager, (CriteriaFilterImpl<T>) criteriaFilter);
+		try {
+			TypedQuery<?> query = entityManager.createQuery(criteriaManager.getCriteriaExists());
+			configParameters(query, criteriaManager.getParameters());
+			query.setMaxResults(1);
+			return !query.getResultList().isEmpty();
+		} catch (IllegalArgumentException e) {
+			logger.error("[getResultExists]", e);
+			throw new ApplicationException(MessageSeverity.ERROR, "message", new String[] { e.getMessage() });
+		} catch (RuntimeException e) {
+			logger.error("[getResultExists]", e);
+			throw new ApplicationException(MessageSeverity.ERROR, ERROR_FIND_KEY, new String[] { getPrimaryClass().getSimpleName() });
+		}
 	}
 	/**
 	 * 
@@ -1504,6 +2560,19 @@ public abstract class GenericDAO<T, K extends Serializable>{
 		CriteriaFilter<T> cf = getCriteriaFilter(objRef);
 		return this.getResultExists(cf);
 	}
+	/**
+	 * 
+	 * @param objRefs - objetos de referencia
+	 * @return {@link BitSet} - posicao do objeto marcada quando existe registro
+	 * @throws ApplicationException - erro ao verificar se existe registro
+	 */
+	public BitSet exists(List<T> objRefs) throws ApplicationException{
+		List<CriteriaFilter<T>> cfs = new ArrayList<CriteriaFilter<T>>(objRefs.size());
+		for(T objRef : objRefs){
+			cfs.add(getCriteriaFilter(objRef));
+		}
+		return this.getResultExists(cfs);
+	}
 	
 	/**
 	 * 
@@ -1527,7 +2596,9 @@ public abstract class GenericDAO<T, K extends Serializable>{
 		return this.getResultCount(cf, false);
 	}
 	/**
-	 * <b>COUNT</b> utilizando o campo chave da entidade (root) ou em ultimo caso a entidade (root)
+	 * <b>COUNT</b> utilizando o campo chave da entidade (root) ou em ultimo caso a entidade (root).
+	 * A selecao e a ordenacao da consulta sao alteradas durante a execucao e restauradas ao final, portanto a consulta
+	 * nao deve ser compartilhada entre threads; quando houver {@link CriteriaFilter} utilize {@link #getResultCount(CriteriaFilter, boolean)}
 	 * @param criteriaQuery - {@link CriteriaQuery}
 	 * @param root - {@link Root}
 	 * @param distinct - true para utilizar countDistinct
@@ -1540,31 +2611,28 @@ public abstract class GenericDAO<T, K extends Serializable>{
 		Selection<?> sel = criteriaQuery.getSelection();
 		//ORDER
 		List<Order> orderList = new ArrayList<Order>(criteriaQuery.getOrderList());
-		criteriaQuery.getOrderList().clear();
-		//GROUP
-		//List<Expression<?>> groupList = new ArrayList<Expression<?>>(criteriaQuery.getGroupList());
-		//criteriaQuery.getGroupList().clear();
-
-		criteriaQuery.select(configCount(root, distinct));
-
-		Long count = getSingleResult(Long.class, criteriaQuery);
-		
-		criteriaQuery.select((Selection) sel);
-		criteriaQuery.orderBy(orderList);
+		try {
+			criteriaQuery.orderBy(new ArrayList<Order>(0));
+			criteriaQuery.select(configCount(root, distinct));
 	
-		return count;
+			return getSingleResult(Long.class, criteriaQuery);
+		} finally {
+			criteriaQuery.select((Selection) sel);
+			criteriaQuery.orderBy(orderList);
+		}
 	}
 	/**
-	 * 
+	 * <b>COUNT</b> com consulta propria, criada a partir do filtro: joins forcados, utilizados nas restricoes ou INNER da selecao
+	 * e da ordenacao, sem ordenacao e sem fetch
 	 * @param criteriaFilter - {@link CriteriaFilter}
 	 * @param distinct - {@link Boolean}
 	 * @return {@link Long}
 	 * @throws ApplicationException - erro ao contar
 	 */
 	protected Long getResultCount(CriteriaFilter<T> criteriaFilter, boolean distinct) throws ApplicationException{
-		CriteriaManager<T> criteriaManager = getCriteriaManager(getPrimaryClass(), (CriteriaFilterImpl<T>) criteriaFilter);	
-		CriteriaQuery<?> query = criteriaManager.getCriteriaQuery();
-		return getResultCount(query, criteriaManager.getRootEntry(), distinct);
+		CriteriaManager<T> criteriaManager = getCountCriteriaManager(getSearchEntityManager(), (CriteriaFilterImpl<T>) criteriaFilter);
+		CriteriaQuery<Long> query = criteriaManager.getCriteriaCount(distinct);
+		return getPreparedSingleResult(Long.class, query, criteriaManager.getParameters()).getValue();
 	}
 	/**
 	 * COUNT com distinct false
@@ -1575,6 +2643,19 @@ public abstract class GenericDAO<T, K extends Serializable>{
 	protected Long getResultCount(CriteriaFilter<T> criteriaFilter) throws ApplicationException{
 		return getResultCount(criteriaFilter, false);
 	}
+	/**
+	 * 
+	 * @param entityManager - {@link EntityManager} utilizado na criacao da consulta
+	 * @param criteriaFilter - filtro de pesquisa {@link CriteriaFilter}
+	 * @return {@link CriteriaManager} - utilizar {@link CriteriaManager#getCriteriaCount(boolean)}
+	 * @throws ApplicationException - erro ao configurar gerenciador
+	 */
+	private CriteriaManager<T> getCountCriteriaManager(EntityManager entityManager, CriteriaFilterImpl<T> criteriaFilter) throws ApplicationException{
+		if(criteriaFilter == null){
+			criteriaFilter = (CriteriaFilterImpl<T>) getCriteriaFilter();
+		}
+		return new CriteriaManager<T>(entityManager, getPrimaryClass(), criteriaFilter, isParameterBindingEnabled() || isQueryCacheEnabled());
+	}
 	/**
 	 * 
 	 * @param root - {@link Root}
@@ -1659,10 +2740,9 @@ public abstract class GenericDAO<T, K extends Serializable>{
 	 */
 	protected <E> Page<E> getResultPaginate(Class<E> returnClass, CriteriaFilter<T> criteriaFilter, int page, int limit) throws ApplicationException{
 
-		CriteriaManager<T> criteriaManager = getCriteriaManager(returnClass, (CriteriaFilterImpl<T>) criteriaFilter);	
-		CriteriaQuery<?> query = criteriaManager.getCriteriaQuery();
+		CriteriaManager<T> criteriaManager = getCachedCriteriaManager(returnClass, (CriteriaFilterImpl<T>) criteriaFilter);	
 		
-		return getResultPaginate(returnClass, query, criteriaManager.getRootEntry(), criteriaManager.getListCollectionRelation(), page, limit);
+		return getResultPaginate(returnClass, criteriaManager, criteriaManager.getListCollectionRelation(), (CriteriaFilterImpl<T>) criteriaFilter, page, limit);
 	}
 
 	/**
@@ -1684,26 +2764,59 @@ public abstract class GenericDAO<T, K extends Serializable>{
 			}
 		}
 		
-		return getResultPaginate(returnClass, criteriaQuery, root,  null,  page, limit);
+		return getResultPaginate(returnClass, new CriteriaManager<T>(getSearchEntityManager(), criteriaQuery, root), null, null, page, limit);
 	}
 	/**
 	 * 
 	 * @param returnClass - classe de retorno
-	 * @param criteriaQuery - {@link CriteriaQuery}
+	 * @param criteriaManager - {@link CriteriaManager} da consulta
 	 * @param listCollectionRelation - coleções relacionadas
-	 * @param root - {@link Root}
+	 * @param criteriaFilter - filtro de pesquisa, define o modo de obtencao do total {@link PageCountMode}
 	 * @param page - número da página
 	 * @param limit - quantidade de registros por página
 	 * @return {@link Page}
 	 * @throws ApplicationException - erro ao paginar
 	 */
-	private <E> Page<E> getResultPaginate(Class<E> returnClass, CriteriaQuery<?> criteriaQuery, Root<T> root, Map<String, CriteriaFilterImpl<?>> listCollectionRelation,  int page, int limit) throws ApplicationException{
-		Long qtdeReg = this.getResultCount(criteriaQuery, root, false);
+	private <E> Page<E> getResultPaginate(Class<E> returnClass, CriteriaManager<T> criteriaManager, Map<String, CriteriaFilterImpl<?>> listCollectionRelation, CriteriaFilterImpl<T> criteriaFilter, int page, int limit) throws ApplicationException{
+		PageCountMode countMode = criteriaFilter == null ? PageCountMode.EXACT : criteriaFilter.getCountMode();
+		Long qtdeReg = null;
+		String countKey = null;
+		
+		if(countMode.equals(PageCountMode.ESTIMATED)){
+			qtdeReg = getEstimatedCount(criteriaFilter);
+		}else if(countMode.equals(PageCountMode.CACHED)){
+			countKey = CountCache.key(getPrimaryClass(), criteriaFilter);
+			qtdeReg = countKey == null ? null : CountCache.get(countKey);
+		}
+		
+		if(qtdeReg == null && !countMode.equals(PageCountMode.NONE)){
+			if(criteriaFilter != null && getPaginateExecutor() != null && getPaginateEntityManagerSupplier() != null){
+				return getResultPaginateParallel(returnClass, criteriaManager, listCollectionRelation, criteriaFilter, countKey, page, limit);
+			}
+			countMode = PageCountMode.EXACT;
+			qtdeReg = criteriaFilter == null ? this.getResultCount(criteriaManager.getCriteriaQuery(), criteriaManager.getRootEntry(), false) : this.getResultCount(criteriaFilter, false);
+			if(countKey != null){
+				CountCache.put(countKey, qtdeReg, getCountCacheTtl());
+			}
+		}
 		
 		Page<E> paginacao = new Page<E>(qtdeReg, limit, page);
+		paginacao.setCountMode(countMode);
 		
-		if(qtdeReg > 0){			
-			List<SimpleEntry<?, E>> returnList = getPreparedResultList(returnClass, criteriaQuery, page, limit);
+		//com total exato e possivel evitar a consulta quando nao houver registros
+		if(!countMode.equals(PageCountMode.EXACT) || qtdeReg > 0){
+			List<SimpleEntry<?, E>> returnList;
+			if(countMode.equals(PageCountMode.NONE)){
+				// um registro a mais indica a existencia da proxima pagina
+				returnList = getPreparedResultList(returnClass, criteriaManager, page, limit, 1);
+				boolean hasNext = limit > 0 && returnList.size() > limit;
+				if(hasNext){
+					returnList.remove(returnList.size() - 1);
+				}
+				paginacao.setHasNext(hasNext);
+			}else{
+				returnList = getPreparedResultList(returnClass, criteriaManager, page, limit, 0);
+			}
 			
 			try {
 				paginacao.setElements(checkTupleResultList(listCollectionRelation, returnList));
@@ -1716,4 +2829,251 @@ public abstract class GenericDAO<T, K extends Serializable>{
 		}		
 		return paginacao;
 	}
+	
+	/**
+	 * Executa o COUNT em paralelo com a consulta da pagina. O COUNT utiliza consulta propria, criada com o
+	 * {@link EntityManager} obtido de {@link #getPaginateEntityManagerSupplier()}, e executada no {@link #getPaginateExecutor()}.
+	 * Quando o total for zero as colecoes relacionadas nao sao consultadas.
+	 * @param returnClass - classe de retorno
+	 * @param criteriaManager - {@link CriteriaManager} da consulta da pagina
+	 * @param listCollectionRelation - coleções relacionadas
+	 * @param criteriaFilter - filtro de pesquisa
+	 * @param countKey - chave do total em cache, null se nao utilizar cache
+	 * @param page - número da página
+	 * @param limit - quantidade de registros por página
+	 * @return {@link Page}
+	 * @throws ApplicationException - erro ao paginar
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private <E> Page<E> getResultPaginateParallel(Class<E> returnClass, CriteriaManager<T> criteriaManager, Map<String, CriteriaFilterImpl<?>> listCollectionRelation, CriteriaFilterImpl<T> criteriaFilter, String countKey, int page, int limit) throws ApplicationException{
+		final EntityManager countEntityManager = getPaginateEntityManagerSupplier().get();
+		//define quem fecha o EntityManager: a tarefa, quando iniciada, ou este metodo, quando a tarefa for cancelada antes de iniciar
+		final AtomicBoolean countOwner = new AtomicBoolean();
+		Future<Long> countFuture;
+		try {
+			CriteriaManager<T> countManager = getCountCriteriaManager(countEntityManager, criteriaFilter);
+			final CriteriaQuery<Long> countQuery = countManager.getCriteriaCount(false);
+			final Map<ParameterExpression<?>, Object> countParameters = countManager.getParameters();
+			
+			countFuture = getPaginateExecutor().submit(new Callable<Long>() {
+				@Override
+				public Long call() throws Exception {
+					if(!countOwner.compareAndSet(false, true)){
+						return null;
+					}
+					try {
+						TypedQuery<Long> query = countEntityManager.createQuery(countQuery);
+						configParameters(query, countParameters);
+						return query.getSingleResult();
+					} finally {
+						countEntityManager.close();
+					}
+				}
+			});
+		} catch (ApplicationException | RuntimeException e) {
+			if(countOwner.compareAndSet(false, true)){
+				countEntityManager.close();
+			}
+			throw e;
+		}
+		
+		List<SimpleEntry<?, E>> returnList;
+		Long qtdeReg;
+		try {
+			returnList = getPreparedResultList(returnClass, criteriaManager, page, limit, 0);
+			qtdeReg = countFuture.get();
+		} catch (InterruptedException e) {
+			cancelCount(countFuture, countEntityManager, countOwner);
+			Thread.currentThread().interrupt();
+			logger.error("[getResultPaginate]", e);
+			throw new ApplicationException(MessageSeverity.ERROR, ERROR_FIND_LIST_KEY, new String[] { getPrimaryClass().getSimpleName() });
+		} catch (ExecutionException e) {
+			logger.error("[getResultPaginate]", e.getCause());
+			throw new ApplicationException(MessageSeverity.ERROR, ERROR_FIND_LIST_KEY, new String[] { getPrimaryClass().getSimpleName() });
+		} catch (ApplicationException | RuntimeException e) {
+			cancelCount(countFuture, countEntityManager, countOwner);
+			throw e;
+		}
+		
+		if(countKey != null){
+			CountCache.put(countKey, qtdeReg, getCountCacheTtl());
+		}
+		
+		Page<E> paginacao = new Page<E>(qtdeReg, limit, page);
+		paginacao.setCountMode(PageCountMode.EXACT);
+		
+		if(qtdeReg > 0){
+			try {
+				paginacao.setElements(checkTupleResultList(listCollectionRelation, returnList));
+			} catch (ApplicationException e) {
+				throw e;
+			} catch (Exception e) {
+				logger.error("[getResultPaginate]", e);
+				throw new ApplicationException(MessageSeverity.ERROR, ERROR_FIND_LIST_KEY, new String[] { getPrimaryClass().getSimpleName() });
+			}
+		}
+		return paginacao;
+	}
+	
+	/**
+	 * Cancela o COUNT executado em paralelo. Quando a tarefa nao chegou a ser iniciada o {@link EntityManager} e fechado aqui,
+	 * caso contrario a propria tarefa o fecha ao terminar
+	 * @param countFuture - tarefa do COUNT
+	 * @param countEntityManager - {@link EntityManager} do COUNT
+	 * @param countOwner - indica se o {@link EntityManager} ja foi assumido pela tarefa
+	 */
+	private void cancelCount(Future<Long> countFuture, EntityManager countEntityManager, AtomicBoolean countOwner){
+		countFuture.cancel(true);
+		if(countOwner.compareAndSet(false, true)){
+			countEntityManager.close();
+		}
+	}
+	
+	/**
+	 * Habilita o cache das consultas por formato do filtro ({@link CriteriaQueryCache}), default false.
+	 * Com o cache os valores das restricoes sao informados como parametros e a consulta e registrada como named query
+	 * no EntityManagerFactory, reutilizada pelas execucoes com o mesmo formato de filtro
+	 * @return {@link Boolean}
+	 */
+	protected boolean isQueryCacheEnabled(){
+		return false;
+	}
+	
+	/**
+	 * Informa os valores das restricoes como parametros ({@link ParameterExpression}) em vez de literais, default false.
+	 * O SQL gerado passa a depender somente do formato do filtro, favorecendo o cache de statements (JDBC) e de planos do banco de dados.
+	 * As listas do IN sao completadas ate a proxima potencia de 2 para limitar a quantidade de formatos
+	 * @return {@link Boolean}
+	 */
+	protected boolean isParameterBindingEnabled(){
+		return false;
+	}
+	
+	/**
+	 * Executor utilizado para executar o COUNT da paginacao em paralelo com a consulta da pagina, default null (sequencial).
+	 * Recomenda-se um executor com numero limitado de threads. Utilizado somente com {@link #getPaginateEntityManagerSupplier()}
+	 * @return {@link ExecutorService}
+	 */
+	protected ExecutorService getPaginateExecutor(){
+		return null;
+	}
+	
+	/**
+	 * Fornece um novo {@link EntityManager} para o COUNT executado em paralelo, default null (sequencial).
+	 * O {@link EntityManager} fornecido e fechado apos a consulta (ex: entityManagerFactory::createEntityManager)
+	 * @return {@link Supplier}
+	 */
+	protected Supplier<EntityManager> getPaginateEntityManagerSupplier(){
+		return null;
+	}
+	
+	/**
+	 * Total estimado utilizado em PageCountMode.ESTIMATED (ex: estatisticas do banco de dados), default null.
+	 * Quando retornar null e executada a consulta COUNT
+	 * @param criteriaFilter - filtro de pesquisa {@link CriteriaFilter}
+	 * @return {@link Long}
+	 */
+	protected Long getEstimatedCount(CriteriaFilter<T> criteriaFilter){
+		return null;
+	}
+	
+	/**
+	 * Tempo de expiracao, em milissegundos, do total em cache utilizado em PageCountMode.CACHED, default 60 segundos
+	 * @return {@link Long}
+	 */
+	protected long getCountCacheTtl(){
+		return 60000L;
+	}
+	
+	/**
+	 * Paginacao por chave (keyset). A ordenacao e complementada pelo id da entidade para garantir unicidade
+	 * e os atributos de ordenacao devem estar presentes no retorno para a geracao do proximo cursor.
+	 * Valores nulos sao posicionados apos os demais e o cursor somente e aceito com a mesma ordenacao.
+	 * O filtro informado nao e alterado
+	 * @param returnClass - classe que indica o tipo de objeto de retorno
+	 * @param criteriaFilter - filtro de pesquisa {@link CriteriaFilter}
+	 * @param cursor - cursor retornado pela pagina anterior, null para a primeira pagina
+	 * @param limit - quantidade de registros por pagina
+	 * @return {@link KeysetPage}
+	 * @throws ApplicationException - erro ao paginar
+	 */
+	protected <E> KeysetPage<E> getResultKeyset(Class<E> returnClass, CriteriaFilter<T> criteriaFilter, String cursor, int limit) throws ApplicationException{
+		//ordenacao e selecao do id complementadas na copia, o filtro informado pode ser reutilizado (ex: total, paginacao)
+		CriteriaFilterImpl<T> cf = ((CriteriaFilterImpl<T>) criteriaFilter).copy();
+		String idName = fieldId.getName();
+
+		if(!cf.getListOrder().containsKey(idName)){
+			cf.addOrderAsc(idName);
+		}
+		if(!cf.getListSelection().isEmpty() && !cf.getListSelection().containsKey(idName)
+				&& ReflectionUtil.existAttribute(returnClass == null ? getPrimaryClass() : returnClass, idName)){
+			cf.addSelect(idName);
+		}
+
+		String sort = getKeysetSort(cf);
+		CriteriaManager<T> criteriaManager = getCriteriaManager(returnClass, cf);
+		criteriaManager.configKeyset(KeysetCursor.decode(cursor, sort));
+
+		// um registro a mais indica a existencia da proxima pagina
+		List<SimpleEntry<?, E>> returnList = getPreparedResultList(returnClass, criteriaManager.getCriteriaQuery(), null, limit + 1);
+
+		String nextCursor = null;
+		if(returnList.size() > limit){
+			returnList.remove(returnList.size() - 1);
+
+			SimpleEntry<?, E> last = returnList.get(returnList.size() - 1);
+			List<Object> lastValues = new ArrayList<Object>(cf.getListOrder().size());
+			for(String key : cf.getListOrder().keySet()){
+				lastValues.add(getKeysetValue(cf, last, key, idName));
+			}
+			nextCursor = KeysetCursor.encode(lastValues, sort);
+		}
+
+		try {
+			return new KeysetPage<E>(checkTupleResultList(criteriaManager.getListCollectionRelation(), returnList), limit, cursor, nextCursor);
+		} catch (ApplicationException e) {
+			throw e;
+		} catch (Exception e) {
+			logger.error("[getResultKeyset]", e);
+			throw new ApplicationException(MessageSeverity.ERROR, ERROR_FIND_LIST_KEY, new String[] { getPrimaryClass().getSimpleName() });
+		}
+	}
+	
+	/**
+	 * Ordenacao da paginacao por chave, vinculada ao cursor
+	 * @param cf - filtro de pesquisa
+	 * @return {@link String} - ex: "nome ASC,id ASC"
+	 */
+	private String getKeysetSort(CriteriaFilterImpl<T> cf){
+		StringBuilder sb = new StringBuilder();
+		for(Entry<String, CriteriaFilterImpl.Order> entry : cf.getListOrder().entrySet()){
+			if(sb.length() > 0){
+				sb.append(',');
+			}
+			sb.append(entry.getKey()).append(' ').append(entry.getValue());
+		}
+		return sb.toString();
+	}
+	
+	/**
+	 * Retorna o valor do atributo de ordenacao no registro informado
+	 * @param cf - filtro de pesquisa
+	 * @param row - registro
+	 * @param key - atributo de ordenacao
+	 * @param idName - nome do atributo id
+	 * @return {@link Object} - null quando o valor do atributo for nulo
+	 * @throws ApplicationException - atributo nao encontrado no retorno
+	 */
+	private Object getKeysetValue(CriteriaFilterImpl<T> cf, SimpleEntry<?, ?> row, String key, String idName) throws ApplicationException{
+		if(key.equals(idName) && row.getKey() != null){
+			return row.getKey();
+		}
+		SimpleEntry<SelectAggregate, String> selection = cf.getListSelection().get(key);
+		String attribute = selection == null ? key : selection.getValue();
+		Object value = ReflectionUtil.getAttributteValue(row.getValue(), attribute);
+		if(value == null && !ReflectionUtil.existAttribute(row.getValue().getClass(), attribute.contains(".") ? attribute.substring(0, attribute.indexOf('.')) : attribute)){
+			throw new ApplicationException(MessageSeverity.ERROR, "genericdao-keyset-value-not-found", key);
+		}
+		return value;
+	}
 }
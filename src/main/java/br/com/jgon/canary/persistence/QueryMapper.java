@@ -34,6 +34,7 @@ import org.slf4j.LoggerFactory;
 
 import br.com.jgon.canary.exception.ApplicationException;
 import br.com.jgon.canary.persistence.filter.QueryAttribute;
+import br.com.jgon.canary.util.ClassMetadata;
 import br.com.jgon.canary.util.MessageSeverity;
 import br.com.jgon.canary.util.ReflectionUtil;
 
@@ -75,7 +76,7 @@ abstract class QueryMapper {
 						Class<?> testClass = responseClass;
 						do{
 							idxEnd = fNome.indexOf(".", idxStr);
-							fldCheck = ReflectionUtil.getAttribute(testClass, fNome.substring(idxStr, idxEnd < 0 ? fNome.length() - idxStr : idxEnd));
+							fldCheck = ClassMetadata.of(testClass).getField(fNome.substring(idxStr, idxEnd < 0 ? fNome.length() - idxStr : idxEnd));
 							if(fldCheck == null){
 								break;
 							}
@@ -84,7 +85,7 @@ abstract class QueryMapper {
 						}while(idxStr >= 0);
 					}
 					
-					fldCheck = fldCheck != null ? fldCheck :  ReflectionUtil.getAttribute(responseClass, fNome);
+					fldCheck = fldCheck != null ? fldCheck :  ClassMetadata.of(responseClass).getField(fNome);
 					if(fldCheck != null && !isPrimitive(fldCheck.getType())){
 						retorno.addAll(verificaCampoObject(fldCheck, fNome.contains(".") ? fNome.substring(0, fNome.lastIndexOf(".")) : fNome));
 					}else{
@@ -117,7 +118,7 @@ abstract class QueryMapper {
 		}
 		
 		List<SimpleEntry<String, String>> retorno = new ArrayList<SimpleEntry<String, String>>(0);
-		for(Field fldCheckAux : ReflectionUtil.listAttributes(fldCheck.getType())){
+		for(Field fldCheckAux : ClassMetadata.of(fldCheck.getType()).getFields()){
 			if(isModifierValid(fldCheckAux)){
 				SimpleEntry<String, String> campoVerificado = verificaCampo(fldCheck.getType(), fldCheckAux.getName()); 
 				if(campoVerificado != null){
@@ -181,7 +182,7 @@ abstract class QueryMapper {
 		}
 		
 		StringBuilder sb = new StringBuilder();
-		List<Field> fieldClass = ReflectionUtil.listAttributes(klass);
+		List<Field> fieldClass = ClassMetadata.of(klass).getFields();
 
 		for(Field fl : fieldClass){
 			/*if(fl.isAnnotationPresent(QueryMapperIgnore.class) || fl.isAnnotationPresent(Transient.class)){
@@ -0,0 +1,381 @@
+/*
+ * Copyright 2017 Jurandir C. Goncalves
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package br.com.jgon.canary.persistence;
+
+import java.lang.reflect.Field;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.persistence.ManyToMany;
+import javax.persistence.OneToMany;
+import javax.persistence.Tuple;
+import javax.persistence.TupleElement;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import br.com.jgon.canary.exception.ApplicationException;
+import br.com.jgon.canary.persistence.filter.QueryAttribute;
+import br.com.jgon.canary.util.ClassMetadata;
+import br.com.jgon.canary.util.FieldAccessor;
+import br.com.jgon.canary.util.MessageSeverity;
+import br.com.jgon.canary.util.ReflectionUtil;
+
+/**
+ * Plano de conversao de {@link Tuple} para a classe de retorno.
+ * O plano e montado na primeira execucao de cada combinacao (classe de retorno, alias da selecao) e reutilizado para todas as linhas.
+ *
+ * @author Jurandir C. Goncalves
+ *
+ * @version 1.0
+ *
+ * @param <E> - tipo de retorno
+ */
+final class TupleMapper<E> {
+
+	private static final int MAX_CACHE_SIZE = 512;
+
+	private static final Logger logger = LoggerFactory.getLogger(TupleMapper.class);
+
+	@SuppressWarnings("serial")
+	private static final Map<Key, TupleMapper<?>> CACHE = Collections.synchronizedMap(new LinkedHashMap<Key, TupleMapper<?>>(16, 0.75f, true){
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Key, TupleMapper<?>> eldest) {
+			return size() > MAX_CACHE_SIZE;
+		}
+	});
+
+	private final Class<E> resultClass;
+	private final Step[] steps;
+
+	/**
+	 *
+	 * @param resultClass - classe de retorno
+	 * @param idName - nome do atributo id da entidade
+	 * @param aliases - alias da selecao, na ordem da tupla
+	 * @throws ApplicationException - alias nao informado
+	 */
+	private TupleMapper(Class<E> resultClass, String idName, String[] aliases) throws ApplicationException {
+		this.resultClass = resultClass;
+		this.steps = new Step[aliases.length];
+
+		ClassMetadata metadata = ClassMetadata.of(resultClass);
+
+		for(int i=0; i < aliases.length; i++){
+			String alias = aliases[i];
+			if(StringUtils.isBlank(alias)) {
+				ApplicationException ae = new ApplicationException(MessageSeverity.ERROR, "genericdao-tuple-alias-not-found", resultClass.getName());
+				logger.error("[TupleMapper]", ae.getMessage());
+				throw ae;
+			}
+
+			if(alias.contains(".")){
+				steps[i] = new Step(alias, false, null, compilePath(alias.split("\\.")));
+			}else if(alias.equals(CriteriaManager.ALIAS_ATTR_FORCED_ID)){
+				steps[i] = new Step(alias, true, null, null);
+			}else{
+				steps[i] = new Step(alias, alias.equals(idName), metadata.getAccessor(alias), null);
+			}
+		}
+	}
+
+	/**
+	 * Retorna o plano de conversao, montando-o caso nao exista em cache
+	 * @param <E> - tipo de retorno
+	 * @param resultClass - classe de retorno
+	 * @param idName - nome do atributo id da entidade
+	 * @param elements - elementos da tupla
+	 * @return {@link TupleMapper}
+	 * @throws ApplicationException - alias nao informado
+	 */
+	@SuppressWarnings("unchecked")
+	static <E> TupleMapper<E> getInstance(Class<E> resultClass, String idName, List<TupleElement<?>> elements) throws ApplicationException {
+		String[] aliases = new String[elements.size()];
+		for(int i=0; i < aliases.length; i++){
+			aliases[i] = elements.get(i).getAlias();
+		}
+
+		Key key = new Key(resultClass, idName, aliases);
+		TupleMapper<E> mapper = (TupleMapper<E>) CACHE.get(key);
+		if(mapper == null){
+			mapper = new TupleMapper<E>(resultClass, idName, aliases);
+			CACHE.put(key, mapper);
+		}
+		return mapper;
+	}
+
+	/**
+	 *
+	 * @param tuple - {@link Tuple}
+	 * @return {@link SimpleEntry} - chave: id do registro, valor: objeto de retorno
+	 * @throws InstantiationException - erro ao instanciar objeto
+	 * @throws IllegalAccessException - erro ao acessar atributo
+	 * @throws ApplicationException - erro ao atribuir valor
+	 */
+	SimpleEntry<?, E> map(Tuple tuple) throws ApplicationException, InstantiationException, IllegalAccessException {
+		E objReturn = resultClass.newInstance();
+		Object key = null;
+		boolean hasKey = false;
+
+		for(int i=0; i < steps.length; i++){
+			Step step = steps[i];
+			Object value = tuple.get(i);
+
+			if(step.path != null){
+				if(value != null) {
+					setPathValue(objReturn, step.path, value);
+				}
+				continue;
+			}
+
+			if(step.key){
+				key = value;
+				hasKey = true;
+			}
+			if(step.accessor != null){
+				try {
+					step.accessor.set(objReturn, value);
+				} catch (Exception e) {
+					logger.error("[map]", e);
+					throw new ApplicationException(MessageSeverity.ERROR, "genericdao-field-not-found", resultClass.getName(), step.alias);
+				}
+			}
+		}
+
+		return new SimpleEntry<Object, E>(hasKey ? key : null, objReturn);
+	}
+
+	/**
+	 *
+	 * @param objReturn - objeto de retorno
+	 * @param path - caminho do atributo
+	 * @param value - valor
+	 * @throws ApplicationException - atributo nao encontrado
+	 * @throws InstantiationException - erro ao instanciar objeto
+	 * @throws IllegalAccessException - erro ao acessar atributo
+	 */
+	@SuppressWarnings("unchecked")
+	private void setPathValue(Object objReturn, PathNode[] path, Object value) throws ApplicationException, InstantiationException, IllegalAccessException {
+		Object objAux = objReturn;
+		for(int i=0; i < path.length; i++){
+			PathNode node = path[i].resolve(objAux);
+
+			if(i == path.length - 1){
+				node.accessor.set(objAux, value);
+			}else{
+				Object objTemp = node.accessor.get(objAux);
+				if(objTemp == null){
+					if(node.collection){
+						objTemp = createCollectionInstance(node.accessor.getType());
+					}else{
+						objTemp = node.accessor.getType().newInstance();
+					}
+					node.accessor.set(objAux, objTemp);
+				}
+				if(node.collectionRelation && objTemp instanceof Collection){
+					Object objInCollection = null;
+					if(!((Collection<?>) objTemp).isEmpty()){
+						objInCollection = ((Collection<?>) objTemp).toArray()[((Collection<?>) objTemp).size() -1 ];
+					}else{
+						objInCollection = getObjectCollectionInstance(node.accessor.getField());
+						if(objInCollection != null){
+							((Collection<Object>) objTemp).add(objInCollection);
+						}
+					}
+					objTemp = objInCollection;
+				}
+				objAux = objTemp;
+			}
+		}
+	}
+
+	/**
+	 * Resolve os atributos do caminho a partir da classe de retorno.
+	 * Quando o tipo do objeto intermediario nao pode ser determinado, o atributo e resolvido na execucao.
+	 * @param names - nomes dos atributos
+	 * @return {@link PathNode}
+	 */
+	private PathNode[] compilePath(String[] names){
+		PathNode[] path = new PathNode[names.length];
+		Class<?> klass = resultClass;
+		for(int i=0; i < names.length; i++){
+			FieldAccessor accessor = klass == null ? null : ClassMetadata.of(klass).getAccessor(names[i]);
+			path[i] = accessor == null ? new PathNode(names[i]) : new PathNode(names[i], accessor);
+
+			if(accessor == null){
+				klass = null;
+			}else if(path[i].collectionRelation){
+				try {
+					klass = DAOUtil.getCollectionClass(accessor.getField());
+				} catch (RuntimeException e) {
+					// tipo da colecao resolvido na execucao
+					klass = null;
+				}
+			}else if(path[i].collection){
+				klass = null;
+			}else{
+				klass = accessor.getType();
+			}
+		}
+		return path;
+	}
+
+	/**
+	 *
+	 * @param fld - campo para analise
+	 * @return {@link Object}
+	 * @throws ApplicationException - objeto nao e colecao
+	 */
+	static Object getObjectCollectionInstance(Field fld) throws ApplicationException{
+		Class<?> classAux = DAOUtil.getCollectionClass(fld);
+		if(classAux == null){
+			ApplicationException ae = new ApplicationException(MessageSeverity.ERROR, "query-mapper.field-collection-not-definied", fld.getDeclaringClass().getName() + "." + fld.getName());
+			logger.error("[getObjectCollectionInstance]", ae.getMessage());
+			throw ae;
+		}else{
+			try {
+				return classAux.newInstance();
+			} catch (Exception e) {
+				logger.error("[getObjectCollectionInstance]", e);
+				throw new ApplicationException(MessageSeverity.ERROR, "error.instantiation", classAux.getName());
+			}
+		}
+	}
+
+	/**
+	 *
+	 * @param klass - tipo de colecao
+	 * @return {@link Collection}
+	 * @throws ApplicationException - erro ao instanciar colecao
+	 */
+	static Collection<Object> createCollectionInstance(Class<?> klass) throws ApplicationException{
+		if(klass.isAssignableFrom(List.class)){
+			return new ArrayList<Object>();
+		}else if(klass.isAssignableFrom(Set.class)){
+			return new HashSet<Object>();
+		} else if(klass.isAssignableFrom(Collection.class)){
+			return new HashSet<Object>();
+		}
+		ApplicationException ae = new ApplicationException(MessageSeverity.ERROR, "error.collection-instance", new String[] {klass.getName()});
+		logger.error("[createCollectionInstance]", ae.getMessage());
+		throw ae;
+	}
+
+	/**
+	 * Passo do plano, um por elemento da tupla
+	 */
+	private static final class Step {
+		private final String alias;
+		private final boolean key;
+		private final FieldAccessor accessor;
+		private final PathNode[] path;
+
+		private Step(String alias, boolean key, FieldAccessor accessor, PathNode[] path) {
+			this.alias = alias;
+			this.key = key;
+			this.accessor = accessor;
+			this.path = path;
+		}
+	}
+
+	/**
+	 * Atributo de um alias composto (ex: endereco.cidade.nome)
+	 */
+	private static final class PathNode {
+		private final String name;
+		private final FieldAccessor accessor;
+		private final boolean collection;
+		private final boolean collectionRelation;
+
+		private PathNode(String name) {
+			this.name = name;
+			this.accessor = null;
+			this.collection = false;
+			this.collectionRelation = false;
+		}
+
+		private PathNode(String name, FieldAccessor accessor) {
+			this.name = name;
+			this.accessor = accessor;
+			this.collection = ReflectionUtil.isCollection(accessor.getType());
+			this.collectionRelation = accessor.getField().isAnnotationPresent(QueryAttribute.class)
+					|| accessor.getField().isAnnotationPresent(OneToMany.class)
+					|| accessor.getField().isAnnotationPresent(ManyToMany.class);
+		}
+
+		/**
+		 *
+		 * @param obj - objeto que contem o atributo
+		 * @return {@link PathNode}
+		 * @throws ApplicationException - atributo nao encontrado
+		 */
+		private PathNode resolve(Object obj) throws ApplicationException {
+			if(accessor != null){
+				return this;
+			}
+			FieldAccessor fldAux = ClassMetadata.of(obj.getClass()).getAccessor(name);
+			if(fldAux == null){
+				ApplicationException ae = new ApplicationException(MessageSeverity.ERROR, GenericDAO.ERROR_FIELD_DOES_NOT_EXIST, new String[] { name, obj.getClass().getSimpleName() });
+				logger.error("[resolve]", ae.getMessage());
+				throw ae;
+			}
+			return new PathNode(name, fldAux);
+		}
+	}
+
+	/**
+	 * Chave do cache: classe de retorno, atributo id e alias da selecao
+	 */
+	private static final class Key {
+		private final Class<?> resultClass;
+		private final String idName;
+		private final String[] aliases;
+		private final int hash;
+
+		private Key(Class<?> resultClass, String idName, String[] aliases) {
+			this.resultClass = resultClass;
+			this.idName = idName;
+			this.aliases = aliases;
+			this.hash = 31 * (31 * resultClass.hashCode() + (idName == null ? 0 : idName.hashCode())) + Arrays.hashCode(aliases);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(this == obj){
+				return true;
+			}
+			if(!(obj instanceof Key)){
+				return false;
+			}
+			Key other = (Key) obj;
+			return resultClass.equals(other.resultClass)
+					&& StringUtils.equals(idName, other.idName)
+					&& Arrays.equals(aliases, other.aliases);
+		}
+	}
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2017 Jurandir C. Goncalves
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package br.com.jgon.canary.persistence;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.regex.Matcher;
+
+import org.apache.commons.lang3.ArrayUtils;
+
+import br.com.jgon.canary.persistence.CriteriaFilterImpl.Where;
+import br.com.jgon.canary.persistence.filter.CriteriaWhere.RegexWhere;
+
+/**
+ * Expressao do filtro (ex: "&gt;=2020-01-01", "(1,2,3)", "*abc*") ja identificada: operacao e valor.
+ * A identificacao percorre os {@link Where} uma unica vez por expressao, o resultado e mantido em cache
+ * com tamanho limitado, removendo as menos acessadas.
+ *
+ * @author Jurandir C. Goncalves
+ *
+ * @version 1.0
+ *
+ */
+final class WhereExpression {
+
+	private static final int MAX_SIZE = 1024;
+	//expressoes maiores (ex: listas extensas no IN) nao sao mantidas em cache
+	private static final int MAX_VALUE_LENGTH = 256;
+	private static final WhereExpression NONE = new WhereExpression(null, null);
+
+	private static final Map<List<Object>, WhereExpression> CACHE = new LinkedHashMap<List<Object>, WhereExpression>(16, 0.75f, true){
+		private static final long serialVersionUID = 1L;
+		@Override
+		protected boolean removeEldestEntry(Entry<List<Object>, WhereExpression> eldest) {
+			return size() > MAX_SIZE;
+		}
+	};
+
+	private final Where where;
+	private final String value;
+
+	/**
+	 *
+	 * @param where - operacao
+	 * @param value - valor da expressao, sem o operador
+	 */
+	private WhereExpression(Where where, String value) {
+		this.where = where;
+		this.value = value;
+	}
+
+	/**
+	 * Identifica a operacao da expressao
+	 * @param expression - expressao
+	 * @param regexToAnalyse - operacoes consideradas, null para todas
+	 * @return {@link WhereExpression} - null caso nenhuma operacao seja identificada
+	 */
+	static WhereExpression parse(String expression, RegexWhere[] regexToAnalyse) {
+		if(expression.length() > MAX_VALUE_LENGTH){
+			return match(expression, regexToAnalyse);
+		}
+		//copia das operacoes, o array informado pode ser alterado apos a chamada
+		List<Object> key = Arrays.<Object>asList(expression, regexToAnalyse == null ? null : Arrays.asList(regexToAnalyse.clone()));
+		WhereExpression whereExpression;
+		synchronized (CACHE) {
+			whereExpression = CACHE.get(key);
+		}
+		if(whereExpression == null){
+			whereExpression = match(expression, regexToAnalyse);
+			synchronized (CACHE) {
+				CACHE.put(key, whereExpression == null ? NONE : whereExpression);
+			}
+		}
+		return whereExpression == NONE ? null : whereExpression;
+	}
+
+	/**
+	 *
+	 * @param expression - expressao
+	 * @param regexToAnalyse - operacoes consideradas, null para todas
+	 * @return {@link WhereExpression} - primeira operacao, na ordem do {@link Where}, ou null
+	 */
+	private static WhereExpression match(String expression, RegexWhere[] regexToAnalyse) {
+		for(Where wh : Where.values()){
+			if(wh.pattern != null && (regexToAnalyse == null || ArrayUtils.contains(regexToAnalyse, wh.regexWhere))){
+				Matcher m = wh.pattern.matcher(expression);
+				if(m.find()){
+					return new WhereExpression(wh, m.group());
+				}
+			}
+		}
+		return null;
+	}
+
+	Where getWhere() {
+		return where;
+	}
+
+	/**
+	 *
+	 * @return valor da expressao, sem o operador (ex: 2020-01-01 em "&gt;=2020-01-01")
+	 */
+	String getValue() {
+		return value;
+	}
+}
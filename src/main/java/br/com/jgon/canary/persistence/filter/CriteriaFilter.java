@@ -22,6 +22,7 @@ import java.util.Map;
 import javax.persistence.criteria.JoinType;
 
 import br.com.jgon.canary.exception.ApplicationException;
+import br.com.jgon.canary.util.PageCountMode;
 
 /**
  * Define os filtros da consulta
@@ -34,6 +35,31 @@ import br.com.jgon.canary.exception.ApplicationException;
  */
 public interface CriteriaFilter<T> extends CriteriaWhere<T>{
 	
+	/**
+	 * Modo de carga das colecoes relacionadas presentes na selecao
+	 * 
+	 * @author Jurandir C. Goncalves
+	 * 
+	 * @version 1.0
+	 * 
+	 */
+	public enum CollectionFetch{
+		/**
+		 * Uma consulta por colecao para cada objeto retornado (padrao)
+		 */
+		SELECT,
+		/**
+		 * Uma consulta por colecao para todos os objetos retornados, filtrando pelos ids (clausula IN)
+		 */
+		BATCH,
+		/**
+		 * Consulta de um unico objeto (ex: find): uma consulta para todas as colecoes (LEFT JOIN), os itens repetidos
+		 * pelo produto cartesiano sao removidos pelo id do item. Colecoes com restricoes proprias ou cujo item nao possui id
+		 * sao consultadas como no BATCH. Nas listas equivale ao BATCH
+		 */
+		JOIN
+	}
+	
 	/**
 	 * 
 	 * @param returnType
@@ -643,5 +669,19 @@ public interface CriteriaFilter<T> extends CriteriaWhere<T>{
 	 * @return
 	 */
 	public CriteriaFilter<T> addJoin(String field, JoinType joinType, boolean fetch, boolean force);
+	
+	/**
+	 * Define o modo de carga das colecoes relacionadas
+	 * @param collectionFetch
+	 * @return
+	 */
+	public CriteriaFilter<T> setCollectionFetch(CollectionFetch collectionFetch);
+	
+	/**
+	 * Define como o total de registros sera obtido na paginacao, default PageCountMode.EXACT
+	 * @param countMode
+	 * @return
+	 */
+	public CriteriaFilter<T> setCountMode(PageCountMode countMode);
 		
 }
@@ -23,6 +23,7 @@ import javax.persistence.criteria.JoinType;
 import javax.persistence.metamodel.Attribute;
 
 import br.com.jgon.canary.exception.ApplicationException;
+import br.com.jgon.canary.util.PageCountMode;
 
 /**
  * Define os filtros da consulta
@@ -1811,5 +1812,21 @@ public interface CriteriaFilterMetamodel<T> extends CriteriaFilter<T>{
 	 * @return
 	 */
 	public CriteriaFilterMetamodel<T> addWhereEqualField(Attribute<?, ?> attribute, ComplexAttribute anotherAttribute);
+	
+	/**
+	 * Define o modo de carga das colecoes relacionadas
+	 * @param collectionFetch
+	 * @return
+	 */
+	@Override
+	public CriteriaFilterMetamodel<T> setCollectionFetch(CollectionFetch collectionFetch);
+	
+	/**
+	 * Define como o total de registros sera obtido na paginacao, default PageCountMode.EXACT
+	 * @param countMode
+	 * @return
+	 */
+	@Override
+	public CriteriaFilterMetamodel<T> setCountMode(PageCountMode countMode);
 
 }
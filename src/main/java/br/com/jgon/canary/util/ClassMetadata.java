@@ -0,0 +1,153 @@
+/*
+ * Copyright 2017 Jurandir C. Goncalves
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package br.com.jgon.canary.util;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Registro, por classe, dos atributos e respectivos {@link FieldAccessor}.
+ * Os atributos da hierarquia são resolvidos uma única vez por classe.
+ *
+ * @author Jurandir C. Goncalves
+ *
+ * @version 1.0
+ *
+ */
+public final class ClassMetadata {
+
+	private static final ConcurrentMap<Class<?>, ClassMetadata> REGISTRY = new ConcurrentHashMap<Class<?>, ClassMetadata>();
+
+	private final Class<?> klass;
+	private final List<Field> fields;
+	private final Map<String, Field> fieldsByName;
+	private final ConcurrentMap<String, FieldAccessor> accessors = new ConcurrentHashMap<String, FieldAccessor>();
+
+	/**
+	 *
+	 * @param klass - classe
+	 */
+	private ClassMetadata(Class<?> klass) {
+		this.klass = klass;
+
+		List<Field> listFields = new ArrayList<Field>();
+		Class<?> classObj = klass;
+		while(classObj != null) {
+			Collections.addAll(listFields, classObj.getDeclaredFields());
+			classObj = classObj.getSuperclass();
+		}
+
+		Map<String, Field> mapFields = new HashMap<String, Field>(listFields.size() * 2);
+		for(Field fld : listFields) {
+			// prevalece o atributo da subclasse
+			if(!mapFields.containsKey(fld.getName())) {
+				mapFields.put(fld.getName(), fld);
+			}
+		}
+
+		this.fields = Collections.unmodifiableList(listFields);
+		this.fieldsByName = Collections.unmodifiableMap(mapFields);
+	}
+
+	/**
+	 * Retorna os metadados da classe, criando-os na primeira chamada
+	 * @param klass - classe
+	 * @return {@link ClassMetadata}
+	 */
+	public static ClassMetadata of(Class<?> klass) {
+		ClassMetadata metadata = REGISTRY.get(klass);
+		if(metadata == null) {
+			metadata = new ClassMetadata(klass);
+			ClassMetadata existing = REGISTRY.putIfAbsent(klass, metadata);
+			if(existing != null) {
+				metadata = existing;
+			}
+		}
+		return metadata;
+	}
+
+	/**
+	 *
+	 * @return classe
+	 */
+	public Class<?> getType() {
+		return klass;
+	}
+
+	/**
+	 * Atributos declarados na classe e superclasses, na mesma ordem de {@link ReflectionUtil#listAttributes(Class)}
+	 * @return {@link List} - lista imutavel
+	 */
+	public List<Field> getFields() {
+		return fields;
+	}
+
+	/**
+	 *
+	 * @param name - nome do atributo
+	 * @return {@link Field} ou null caso nao exista
+	 */
+	public Field getField(String name) {
+		return fieldsByName.get(name);
+	}
+
+	/**
+	 *
+	 * @param name - nome do atributo
+	 * @return {@link Boolean}
+	 */
+	public boolean hasField(String name) {
+		return fieldsByName.containsKey(name);
+	}
+
+	/**
+	 *
+	 * @param name - nome do atributo
+	 * @return {@link FieldAccessor} ou null caso o atributo nao exista
+	 */
+	public FieldAccessor getAccessor(String name) {
+		FieldAccessor accessor = accessors.get(name);
+		if(accessor == null) {
+			Field fld = fieldsByName.get(name);
+			if(fld == null) {
+				return null;
+			}
+			accessor = new FieldAccessor(fld);
+			FieldAccessor existing = accessors.putIfAbsent(name, accessor);
+			if(existing != null) {
+				accessor = existing;
+			}
+		}
+		return accessor;
+	}
+
+	/**
+	 * Retorna o {@link FieldAccessor} do atributo informado
+	 * @param field - atributo
+	 * @return {@link FieldAccessor}
+	 */
+	public static FieldAccessor accessor(Field field) {
+		FieldAccessor accessor = of(field.getDeclaringClass()).getAccessor(field.getName());
+		if(accessor == null || !accessor.getField().equals(field)) {
+			return new FieldAccessor(field);
+		}
+		return accessor;
+	}
+}
@@ -194,4 +194,22 @@ public class CollectionUtil {
 		}		
 		return false;
 	}
+	
+	/**
+	 * Divide a lista em sublistas com no maximo size elementos
+	 * @param <T> - tipo
+	 * @param list - lista a ser dividida
+	 * @param size - quantidade maxima de elementos por sublista
+	 * @return {@link List}
+	 */
+	public static <T> List<List<T>> partition(List<T> list, int size){
+		if(size <= 0 || list.size() <= size){
+			return Collections.singletonList(list);
+		}
+		List<List<T>> listPartition = new ArrayList<List<T>>((list.size() + size - 1) / size);
+		for(int i=0; i < list.size(); i += size){
+			listPartition.add(list.subList(i, Math.min(i + size, list.size())));
+		}
+		return listPartition;
+	}
 }
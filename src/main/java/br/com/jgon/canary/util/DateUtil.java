@@ -1,15 +1,36 @@
 package br.com.jgon.canary.util;
 
-import java.text.ParseException;
+import java.text.ParsePosition;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.ResolverStyle;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalQueries;
 import java.util.Date;
+import java.util.Locale;
 
-import org.apache.commons.lang3.time.DateFormatUtils;
-import org.apache.commons.lang3.time.DateUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import br.com.jgon.canary.exception.ApplicationException;
 
+/**
+ * Conversao de texto para data nos formatos aceitos pelos filtros.
+ * Os formatadores ({@link DateTimeFormatter}) sao imutaveis e criados uma unica vez, podendo ser compartilhados entre threads.
+ * O formato e escolhido pela estrutura do texto (tamanho e posicao dos separadores), 
+ * caso nao identificado os formatos sao verificados na ordem, sem lancamento de excecao.
+ *
+ * @author Jurandir C. Goncalves
+ * 
+ * @version 1.0
+ *
+ */
 public abstract class DateUtil {
 
 	/**
@@ -33,27 +54,180 @@ public abstract class DateUtil {
     
     private static Logger logger = LoggerFactory.getLogger(DateUtil.class);
     
+    private static final LocalDate EPOCH = LocalDate.of(1970, 1, 1);
+    private static final String ZONE = "[XXX][XX][X]";
+    
+    private static final DateTimeFormatter ISO_DATE = formatter(builder("u-M-d"));
+    private static final DateTimeFormatter ISO_DATETIME = formatter(builder("u-M-d'T'H:m:s"));
+    private static final DateTimeFormatter ISO_DATETIME_TIME_ZONE = formatter(builder("u-M-d'T'H:m:s" + ZONE));
+    private static final DateTimeFormatter ISO_TIME = formatter(builder("H:m:s"));
+    private static final DateTimeFormatter ISO_TIME_TIME_ZONE = formatter(builder("H:m:s" + ZONE));
+    private static final DateTimeFormatter ISO_EXTENDED_MILLIS_DATETIME = formatter(builder("u-M-d'T'H:m:s.").appendValue(ChronoField.MILLI_OF_SECOND));
+    private static final DateTimeFormatter ISO_MILLIS_DATETIME = formatter(builder("u-M-d H:m:s.").appendValue(ChronoField.MILLI_OF_SECOND));
+    private static final DateTimeFormatter ASCTIME = formatter(builder("[EEEE][EEE] [MMMM][MMM] d H:m:s u"));
+    //ano com dois digitos entre 80 anos antes e 20 anos apos a data atual (mesmo comportamento do SimpleDateFormat)
+    private static final DateTimeFormatter RFC1036 = formatter(builder("[EEEE][EEE], d-[MMMM][MMM]-")
+    		.appendValueReduced(ChronoField.YEAR, 2, 4, LocalDate.now().minusYears(80))
+    		.appendPattern(" H:m:s z"));
+    private static final DateTimeFormatter RFC1123 = formatter(builder("[EEEE][EEE], d [MMMM][MMM] u H:m:s z"));
+    private static final DateTimeFormatter DD_MM_YYYY = formatter(builder("d-M-u"));
+    private static final DateTimeFormatter DD_MM_YYYY_BAR = formatter(builder("d/M/u"));
+    private static final DateTimeFormatter DD_MM_YYYY_HH_MM = formatter(builder("d-M-u H:m"));
+    private static final DateTimeFormatter DD_MM_YYYY_HH_MM_BAR = formatter(builder("d/M/u H:m"));
+    private static final DateTimeFormatter DD_MM_YYYY_HH_MM_SS = formatter(builder("d-M-u H:m:s"));
+    private static final DateTimeFormatter DD_MM_YYYY_HH_MM_SS_BAR = formatter(builder("d/M/u H:m:s"));
+    
+    /**
+     * Ordem de verificacao quando a estrutura do texto nao e identificada
+     */
+    private static final DateTimeFormatter[] FORMATTERS = new DateTimeFormatter[]{
+    		ISO_DATE,
+    		ISO_DATETIME,
+    		ISO_DATETIME_TIME_ZONE,
+    		ISO_TIME,
+    		ISO_TIME_TIME_ZONE,
+    		ISO_EXTENDED_MILLIS_DATETIME,
+    		ISO_MILLIS_DATETIME,
+    		ASCTIME,
+    		RFC1036,
+    		RFC1123,
+    		DD_MM_YYYY,
+    		DD_MM_YYYY_BAR,
+    		DD_MM_YYYY_HH_MM,
+    		DD_MM_YYYY_HH_MM_BAR,
+    		DD_MM_YYYY_HH_MM_SS,
+    		DD_MM_YYYY_HH_MM_SS_BAR};
+    
+    /**
+     * Converte o texto nos formatos ISO 8601, RFC 1123, RFC 1036, asctime, dd/MM/yyyy e dd-MM-yyyy (com hora opcional)
+     * @param dateValue - data
+     * @return {@link Date}
+     * @throws ApplicationException - formato nao suportado
+     */
 	public static Date parseDate(String dateValue) throws ApplicationException{
+		if(dateValue != null){
+			DateTimeFormatter formatter = getFormatterByShape(dateValue);
+			if(formatter != null){
+				try {
+					return toDate(formatter.parse(dateValue));
+				} catch (DateTimeException e) {
+					//estrutura semelhante, porem valor invalido para o formato, verifica os demais
+				}
+			}
+			for(DateTimeFormatter f : FORMATTERS){
+				if(f != formatter){
+					Date date = parseDate(dateValue, f);
+					if(date != null){
+						return date;
+					}
+				}
+			}
+		}
+		ApplicationException e = new ApplicationException(MessageSeverity.ERROR, "error.parse-date", String.valueOf(dateValue));
+		logger.error("[parseDate]", e);
+		throw e;
+	}
+	
+	/**
+	 * Converte o valor obtido pelo formatador, campos ausentes assumem 01/01/1970, 00:00 e o fuso horario padrao
+	 * @param temporal - valor
+	 * @return {@link Date}
+	 */
+	public static Date toDate(TemporalAccessor temporal) {
+		LocalDate date = temporal.query(TemporalQueries.localDate());
+		LocalTime time = temporal.query(TemporalQueries.localTime());
+		ZoneId zone = temporal.query(TemporalQueries.zone());
+		return Date.from(ZonedDateTime.of(date == null ? EPOCH : date, 
+				time == null ? LocalTime.MIDNIGHT : time, 
+				zone == null ? ZoneId.systemDefault() : zone).toInstant());
+	}
+	
+	/**
+	 * 
+	 * @param dateValue - data
+	 * @param formatter - formatador
+	 * @return {@link Date} - null caso o texto nao esteja no formato
+	 */
+	private static Date parseDate(String dateValue, DateTimeFormatter formatter) {
+		ParsePosition pos = new ParsePosition(0);
+		if(formatter.parseUnresolved(dateValue, pos) == null || pos.getErrorIndex() >= 0 || pos.getIndex() < dateValue.length()){
+			return null;
+		}
 		try {
-			return DateUtils.parseDate(dateValue, new String[]{DateFormatUtils.ISO_8601_EXTENDED_DATE_FORMAT.getPattern(), 
-					DateFormatUtils.ISO_8601_EXTENDED_DATETIME_FORMAT.getPattern(),
-					DateFormatUtils.ISO_8601_EXTENDED_DATETIME_TIME_ZONE_FORMAT.getPattern(),
-					DateFormatUtils.ISO_8601_EXTENDED_TIME_FORMAT.getPattern(),
-					DateFormatUtils.ISO_8601_EXTENDED_TIME_TIME_ZONE_FORMAT.getPattern(),
-					ISO_8601_EXTENDED_MILLIS_DATETIME_FORMAT,
-					ISO_8601_MILLIS_DATETIME_FORMAT,
-					PATTERN_ASCTIME,
-					PATTERN_RFC1036,
-					PATTERN_RFC1123,
-					PATTERN_DD_MM_YYYY,
-					PATTERN_DD_MM_YYYY_BAR,
-					PATTERN_DD_MM_YYYY_HH_MM,
-					PATTERN_DD_MM_YYYY_HH_MM_BAR,
-					PATTERN_DD_MM_YYYY_HH_MM_SS,
-					PATTERN_DD_MM_YYYY_HH_MM_SS_BAR});
-		} catch (ParseException e) {
-			logger.error("[parseDate]", e);
-			throw new ApplicationException(MessageSeverity.ERROR, "error.parse-date", e, dateValue);
+			return toDate(formatter.parse(dateValue));
+		} catch (DateTimeException e) {
+			return null;
 		}
 	}
+	
+	/**
+	 * Identifica o formato pelo tamanho e posicao dos separadores (ex: yyyy-MM-dd, dd/MM/yyyy HH:mm)
+	 * @param value - data
+	 * @return {@link DateTimeFormatter} - null caso nao identificado
+	 */
+	private static DateTimeFormatter getFormatterByShape(String value) {
+		int len = value.length();
+		if(len >= 10 && value.charAt(4) == '-' && value.charAt(7) == '-'){
+			if(len == 10){
+				return ISO_DATE;
+			}
+			char sep = value.charAt(10);
+			if(len == 19 && sep == 'T'){
+				return ISO_DATETIME;
+			}else if(len == 23 && value.charAt(19) == '.'){
+				return sep == 'T' ? ISO_EXTENDED_MILLIS_DATETIME : sep == ' ' ? ISO_MILLIS_DATETIME : null;
+			}else if(len > 19 && sep == 'T' && isZone(value.charAt(19))){
+				return ISO_DATETIME_TIME_ZONE;
+			}
+			return null;
+		}
+		if(len >= 8 && value.charAt(2) == ':' && value.charAt(5) == ':'){
+			return len == 8 ? ISO_TIME : isZone(value.charAt(8)) ? ISO_TIME_TIME_ZONE : null;
+		}
+		if(len >= 10 && (value.charAt(2) == '/' || value.charAt(2) == '-') && value.charAt(5) == value.charAt(2)){
+			boolean bar = value.charAt(2) == '/';
+			if(len == 10){
+				return bar ? DD_MM_YYYY_BAR : DD_MM_YYYY;
+			}else if(len == 16 && value.charAt(13) == ':'){
+				return bar ? DD_MM_YYYY_HH_MM_BAR : DD_MM_YYYY_HH_MM;
+			}else if(len == 19 && value.charAt(13) == ':' && value.charAt(16) == ':'){
+				return bar ? DD_MM_YYYY_HH_MM_SS_BAR : DD_MM_YYYY_HH_MM_SS;
+			}
+			return null;
+		}
+		if(len > 7 && value.charAt(3) == ','){
+			return value.charAt(7) == '-' ? RFC1036 : RFC1123;
+		}
+		if(len > 7 && value.charAt(3) == ' ' && value.charAt(7) == ' '){
+			return ASCTIME;
+		}
+		return null;
+	}
+	
+	/**
+	 * 
+	 * @param c - caractere
+	 * @return true se inicio do fuso horario (Z, + ou -)
+	 */
+	private static boolean isZone(char c) {
+		return c == 'Z' || c == '+' || c == '-';
+	}
+	
+	/**
+	 * Campos numericos com quantidade variavel de digitos e texto sem diferenciar maiusculas
+	 * @param pattern - padrao do {@link DateTimeFormatter}
+	 * @return {@link DateTimeFormatterBuilder}
+	 */
+	private static DateTimeFormatterBuilder builder(String pattern) {
+		return new DateTimeFormatterBuilder().parseCaseInsensitive().appendPattern(pattern);
+	}
+	
+	/**
+	 * 
+	 * @param builder - definicao do formato
+	 * @return {@link DateTimeFormatter} - locale padrao, datas inexistentes (ex: 31/02) e valores fora do intervalo sao rejeitados
+	 */
+	private static DateTimeFormatter formatter(DateTimeFormatterBuilder builder) {
+		return builder.toFormatter(Locale.getDefault()).withResolverStyle(ResolverStyle.STRICT);
+	}
 }
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2017 Jurandir C. Goncalves
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package br.com.jgon.canary.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * Acesso direto (get/set) a um atributo, utilizando {@link MethodHandle} pre-construido
+ *
+ * @author Jurandir C. Goncalves
+ *
+ * @version 1.0
+ *
+ */
+public final class FieldAccessor {
+
+	private static final MethodType TYPE_GETTER = MethodType.methodType(Object.class, Object.class);
+	private static final MethodType TYPE_SETTER = MethodType.methodType(void.class, Object.class, Object.class);
+
+	private final Field field;
+	private final MethodHandle getter;
+	private final MethodHandle setter;
+
+	/**
+	 *
+	 * @param field - atributo
+	 */
+	FieldAccessor(Field field) {
+		this.field = field;
+		field.setAccessible(true);
+
+		MethodHandles.Lookup lookup = MethodHandles.lookup();
+		boolean isStatic = Modifier.isStatic(field.getModifiers());
+
+		MethodHandle get;
+		try {
+			get = lookup.unreflectGetter(field);
+			if(isStatic) {
+				get = MethodHandles.dropArguments(get, 0, Object.class);
+			}
+			get = get.asType(TYPE_GETTER);
+		} catch (IllegalAccessException e) {
+			get = null;
+		}
+		this.getter = get;
+
+		MethodHandle set;
+		try {
+			set = lookup.unreflectSetter(field);
+			if(isStatic) {
+				set = MethodHandles.dropArguments(set, 0, Object.class);
+			}
+			set = set.asType(TYPE_SETTER);
+		} catch (IllegalAccessException e) {
+			// atributo final static
+			set = null;
+		}
+		this.setter = set;
+	}
+
+	/**
+	 *
+	 * @return {@link Field}
+	 */
+	public Field getField() {
+		return field;
+	}
+
+	/**
+	 *
+	 * @return nome do atributo
+	 */
+	public String getName() {
+		return field.getName();
+	}
+
+	/**
+	 *
+	 * @return tipo do atributo
+	 */
+	public Class<?> getType() {
+		return field.getType();
+	}
+
+	/**
+	 * Retorna o valor do atributo
+	 * @param <T> - tipo do retorno
+	 * @param obj - objeto
+	 * @return T
+	 * @throws IllegalAccessException - atributo sem acesso de leitura
+	 * @throws IllegalArgumentException - objeto nao e instancia da classe do atributo
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T get(Object obj) throws IllegalArgumentException, IllegalAccessException {
+		if(getter == null) {
+			return (T) field.get(obj);
+		}
+		try {
+			return (T) getter.invokeExact(obj);
+		} catch (ClassCastException e) {
+			throw new IllegalArgumentException(e.getMessage(), e);
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Atribui valor ao atributo
+	 * @param obj - objeto
+	 * @param value - valor
+	 * @throws IllegalAccessException - atributo sem acesso de escrita
+	 * @throws IllegalArgumentException - valor incompativel com o tipo do atributo
+	 */
+	public void set(Object obj, Object value) throws IllegalArgumentException, IllegalAccessException {
+		if(setter == null) {
+			field.set(obj, value);
+			return;
+		}
+		try {
+			setter.invokeExact(obj, value);
+		} catch (ClassCastException | NullPointerException e) {
+			// tipo incompativel ou null em atributo primitivo, mesmo comportamento de Field.set
+			throw new IllegalArgumentException(e.getMessage(), e);
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright 2017 Jurandir C. Goncalves
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package br.com.jgon.canary.util;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.apache.commons.lang3.ClassUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import br.com.jgon.canary.exception.ApplicationException;
+
+/**
+ * Cursor da paginacao por chave (keyset).
+ * Armazena, de forma opaca e segura para URL, os valores das colunas de ordenacao do ultimo registro retornado (inclusive nulos).
+ * O cursor e assinado (HMAC-SHA256), em conjunto com a ordenacao, para que o cliente nao altere os valores nem o reutilize
+ * com outra ordenacao; a chave e definida pela
+ * propriedade de sistema {@value #SECRET_PROPERTY}, caso nao informada e gerada uma chave por JVM
+ * (cursores deixam de ser validos apos reinicio ou entre instancias).
+ *
+ * @author Jurandir C. Goncalves
+ *
+ * @version 1.0
+ *
+ */
+public class KeysetCursor {
+
+	public static final String SECRET_PROPERTY = "canary.keyset.cursor-secret";
+
+	private static final char SEPARATOR = ':';
+	private static final char NULL_VALUE = '~';
+	private static final char NANOS_SEPARATOR = '.';
+	private static final char SIGNATURE_SEPARATOR = '.';
+	private static final String HMAC_ALGORITHM = "HmacSHA256";
+	private static final int SIGNATURE_LENGTH = 16;
+	private static final SecretKeySpec SECRET = createSecret();
+
+	/**
+	 * Gera o cursor com os valores informados
+	 * @param values - valores das colunas de ordenacao, na ordem da clausula ORDER BY
+	 * @param sort - ordenacao da consulta (ex: "nome ASC,id ASC"), o cursor somente e aceito com a mesma ordenacao
+	 * @return {@link String} - cursor codificado em Base64 (URL safe)
+	 * @throws ApplicationException - valor de tipo nao suportado
+	 */
+	public static String encode(List<?> values, String sort) throws ApplicationException {
+		StringBuilder sb = new StringBuilder();
+		for(Object value : values){
+			if(value == null){
+				sb.append(NULL_VALUE);
+			}else{
+				String valueAux = toString(value);
+				sb.append(valueAux.length()).append(SEPARATOR).append(valueAux);
+			}
+		}
+		String payload = Base64.getUrlEncoder().withoutPadding().encodeToString(sb.toString().getBytes(StandardCharsets.UTF_8));
+		return payload + SIGNATURE_SEPARATOR + Base64.getUrlEncoder().withoutPadding().encodeToString(sign(payload, sort));
+	}
+
+	/**
+	 * Retorna os valores do cursor, ainda no formato texto (null para valores nulos)
+	 * @param cursor - cursor gerado por {@link #encode(List, String)}
+	 * @param sort - ordenacao da consulta, a mesma utilizada na geracao do cursor
+	 * @return {@link List}
+	 * @throws ApplicationException - cursor invalido ou gerado para outra ordenacao
+	 */
+	public static List<String> decode(String cursor, String sort) throws ApplicationException {
+		if(StringUtils.isBlank(cursor)){
+			return Collections.emptyList();
+		}
+		try {
+			int idxSignature = cursor.lastIndexOf(SIGNATURE_SEPARATOR);
+			String payload = cursor.substring(0, idxSignature);
+			if(!MessageDigest.isEqual(sign(payload, sort), Base64.getUrlDecoder().decode(cursor.substring(idxSignature + 1)))){
+				throw new ApplicationException(MessageSeverity.ERROR, "keyset.cursor-invalid", cursor);
+			}
+			String content = new String(Base64.getUrlDecoder().decode(payload), StandardCharsets.UTF_8);
+			List<String> values = new ArrayList<String>();
+			int idx = 0;
+			while(idx < content.length()){
+				if(content.charAt(idx) == NULL_VALUE){
+					values.add(null);
+					idx++;
+					continue;
+				}
+				int idxSep = content.indexOf(SEPARATOR, idx);
+				int length = Integer.parseInt(content.substring(idx, idxSep));
+				values.add(content.substring(idxSep + 1, idxSep + 1 + length));
+				idx = idxSep + 1 + length;
+			}
+			return values;
+		} catch (RuntimeException e) {
+			throw new ApplicationException(MessageSeverity.ERROR, "keyset.cursor-invalid", cursor);
+		}
+	}
+
+	/**
+	 * Assinatura truncada do conteudo do cursor e da ordenacao
+	 * @param payload - conteudo codificado
+	 * @param sort - ordenacao da consulta
+	 * @return byte[]
+	 */
+	private static byte[] sign(String payload, String sort) {
+		try {
+			Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+			mac.init(SECRET);
+			mac.update(payload.getBytes(StandardCharsets.US_ASCII));
+			mac.update((byte) SIGNATURE_SEPARATOR);
+			return Arrays.copyOf(mac.doFinal(StringUtils.defaultString(sort).getBytes(StandardCharsets.UTF_8)), SIGNATURE_LENGTH);
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 *
+	 * @return chave da assinatura
+	 */
+	private static SecretKeySpec createSecret() {
+		String secret = System.getProperty(SECRET_PROPERTY);
+		byte[] key;
+		if(StringUtils.isNotBlank(secret)){
+			key = secret.getBytes(StandardCharsets.UTF_8);
+		}else{
+			key = new byte[32];
+			new SecureRandom().nextBytes(key);
+		}
+		return new SecretKeySpec(key, HMAC_ALGORITHM);
+	}
+
+	/**
+	 * Converte o valor do cursor para o tipo do atributo
+	 * @param value - valor texto, null para valor nulo
+	 * @param type - tipo do atributo
+	 * @return {@link Object}
+	 * @throws ApplicationException - valor invalido para o tipo
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public static Object convert(String value, Class<?> type) throws ApplicationException {
+		if(value == null){
+			return null;
+		}
+		Class<?> klass = ClassUtils.primitiveToWrapper(type);
+		try {
+			if(String.class.equals(klass)){
+				return value;
+			}else if(Long.class.equals(klass)){
+				return Long.valueOf(value);
+			}else if(Integer.class.equals(klass)){
+				return Integer.valueOf(value);
+			}else if(Short.class.equals(klass)){
+				return Short.valueOf(value);
+			}else if(Byte.class.equals(klass)){
+				return Byte.valueOf(value);
+			}else if(Double.class.equals(klass)){
+				return Double.valueOf(value);
+			}else if(Float.class.equals(klass)){
+				return Float.valueOf(value);
+			}else if(BigDecimal.class.equals(klass)){
+				return new BigDecimal(value);
+			}else if(BigInteger.class.equals(klass)){
+				return new BigInteger(value);
+			}else if(Boolean.class.equals(klass)){
+				return Boolean.valueOf(value);
+			}else if(Character.class.equals(klass)){
+				return value.charAt(0);
+			}else if(klass.isEnum()){
+				return Enum.valueOf((Class<Enum>) klass, value);
+			}else if(java.sql.Timestamp.class.equals(klass) || (Date.class.equals(klass) && value.indexOf(NANOS_SEPARATOR) >= 0)){
+				//atributos Date (TemporalType.TIMESTAMP) sao retornados como Timestamp pelo provedor
+				return toTimestamp(value);
+			}else if(java.sql.Date.class.equals(klass)){
+				return new java.sql.Date(Long.parseLong(value));
+			}else if(Date.class.isAssignableFrom(klass)){
+				return new Date(Long.parseLong(value));
+			}else if(Calendar.class.isAssignableFrom(klass)){
+				Calendar cal = Calendar.getInstance();
+				cal.setTimeInMillis(Long.parseLong(value));
+				return cal;
+			}else if(LocalDate.class.equals(klass)){
+				return LocalDate.parse(value);
+			}else if(LocalDateTime.class.equals(klass)){
+				return LocalDateTime.parse(value);
+			}else if(LocalTime.class.equals(klass)){
+				return LocalTime.parse(value);
+			}else if(Instant.class.equals(klass)){
+				return Instant.parse(value);
+			}else if(UUID.class.equals(klass)){
+				return UUID.fromString(value);
+			}
+		} catch (RuntimeException e) {
+			throw new ApplicationException(MessageSeverity.ERROR, "keyset.cursor-invalid", value);
+		}
+		throw new ApplicationException(MessageSeverity.ERROR, "keyset.type-not-supported", type.getName());
+	}
+
+	/**
+	 *
+	 * @param value - milissegundos e nanossegundos (ex: 1577836800123.123456789)
+	 * @return {@link java.sql.Timestamp}
+	 */
+	private static java.sql.Timestamp toTimestamp(String value) {
+		int idx = value.indexOf(NANOS_SEPARATOR);
+		if(idx < 0){
+			return new java.sql.Timestamp(Long.parseLong(value));
+		}
+		java.sql.Timestamp timestamp = new java.sql.Timestamp(Long.parseLong(value.substring(0, idx)));
+		timestamp.setNanos(Integer.parseInt(value.substring(idx + 1)));
+		return timestamp;
+	}
+
+	/**
+	 *
+	 * @param value - valor, nao nulo
+	 * @return {@link String}
+	 * @throws ApplicationException - valor de tipo nao suportado
+	 */
+	private static String toString(Object value) throws ApplicationException {
+		if(value instanceof java.sql.Timestamp){
+			//nanossegundos alem dos milissegundos, evitando repetir ou pular registros com a mesma data
+			return String.valueOf(((java.sql.Timestamp) value).getTime()) + NANOS_SEPARATOR + ((java.sql.Timestamp) value).getNanos();
+		}else if(value instanceof Date){
+			return String.valueOf(((Date) value).getTime());
+		}else if(value instanceof Calendar){
+			return String.valueOf(((Calendar) value).getTimeInMillis());
+		}else if(value instanceof Enum){
+			return ((Enum<?>) value).name();
+		}else if(value instanceof BigDecimal){
+			return ((BigDecimal) value).toPlainString();
+		}else if(value instanceof String
+				|| value instanceof Number
+				|| value instanceof Boolean
+				|| value instanceof Character
+				|| value instanceof LocalDate
+				|| value instanceof LocalDateTime
+				|| value instanceof LocalTime
+				|| value instanceof Instant
+				|| value instanceof UUID){
+			return value.toString();
+		}
+		throw new ApplicationException(MessageSeverity.ERROR, "keyset.type-not-supported", value.getClass().getName());
+	}
+}
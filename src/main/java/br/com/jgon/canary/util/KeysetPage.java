@@ -0,0 +1,77 @@
+/*
+ * Copyright 2017 Jurandir C. Goncalves
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package br.com.jgon.canary.util;
+
+import java.util.Collection;
+
+/**
+ * Pagina retornada pela paginacao por chave (keyset), sem total de registros
+ *
+ * @author Jurandir C. Goncalves
+ *
+ * @version 1.0
+ *
+ * @param <T> - Tipo do objeto
+ */
+public class KeysetPage<T> extends Page<T> {
+	private String cursor;
+	private String nextCursor;
+
+	public KeysetPage(){
+		super((Integer) null, (Integer) null);
+		setCountMode(PageCountMode.NONE);
+	}
+
+	public KeysetPage(Collection<T> elements, Integer elementsPerPage, String cursor, String nextCursor){
+		super((Integer) null, elementsPerPage);
+		setCountMode(PageCountMode.NONE);
+		setElements(elements);
+		this.cursor = cursor;
+		this.nextCursor = nextCursor;
+	}
+
+	/**
+	 *
+	 * @return cursor utilizado para obter a pagina, null para a primeira pagina
+	 */
+	public String getCursor() {
+		return cursor;
+	}
+
+	public void setCursor(String cursor) {
+		this.cursor = cursor;
+	}
+
+	/**
+	 *
+	 * @return cursor da proxima pagina, null caso nao exista
+	 */
+	public String getNextCursor() {
+		return nextCursor;
+	}
+
+	public void setNextCursor(String nextCursor) {
+		this.nextCursor = nextCursor;
+	}
+
+	public boolean hasNext() {
+		return nextCursor != null;
+	}
+
+	@Override
+	public Boolean getHasNext() {
+		return hasNext();
+	}
+
+}
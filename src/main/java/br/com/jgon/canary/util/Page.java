@@ -29,6 +29,8 @@ public class Page<T> {
 	private Integer currentPage;
 	private Long totalPages;
 	private Collection<T> elements;
+	private PageCountMode countMode = PageCountMode.EXACT;
+	private Boolean hasNext;
 	
 	public Page(){
 		totalElements = 0L;
@@ -52,6 +54,8 @@ public class Page<T> {
 		this.elementsPerPage = page.getElementsPerPage();
 		this.currentPage = page.getCurrentPage();
 		this.totalPages = page.getTotalPages();
+		this.countMode = page.getCountMode();
+		this.hasNext = page.hasNext;
 	}
 	
 	public Page(Long totalElementes, Integer elementsPerPage, Integer currentPage) {
@@ -106,4 +110,31 @@ public class Page<T> {
 		this.totalPages = totalPages;
 	}
 
+	/**
+	 * 
+	 * @return modo utilizado para obter o total de registros
+	 */
+	public PageCountMode getCountMode() {
+		return countMode;
+	}
+
+	public void setCountMode(PageCountMode countMode) {
+		this.countMode = countMode;
+	}
+
+	/**
+	 * Indica se existe proxima pagina, quando nao informado e calculado pelo total de paginas
+	 * @return {@link Boolean} - null caso nao seja possivel determinar
+	 */
+	public Boolean getHasNext() {
+		if(hasNext == null && currentPage != null && getTotalPages() != null){
+			return currentPage < getTotalPages();
+		}
+		return hasNext;
+	}
+
+	public void setHasNext(Boolean hasNext) {
+		this.hasNext = hasNext;
+	}
+
 }
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2017 Jurandir C. Goncalves
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *      
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package br.com.jgon.canary.util;
+
+/**
+ * Indica como o total de registros da paginacao foi obtido
+ *
+ * @author Jurandir C. Goncalves
+ * 
+ * @version 1.0
+ *
+ */
+public enum PageCountMode {
+	/**
+	 * Consulta COUNT executada a cada paginacao (padrao)
+	 */
+	EXACT,
+	/**
+	 * Sem consulta COUNT, e consultado um registro a mais para indicar a existencia da proxima pagina
+	 */
+	NONE,
+	/**
+	 * Total estimado, informado pelo DAO
+	 */
+	ESTIMATED,
+	/**
+	 * Total obtido do cache, com tempo de expiracao
+	 */
+	CACHED;
+}
@@ -23,7 +23,6 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
-import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 
 /**
@@ -189,19 +188,16 @@ public class ReflectionUtil {
 	 * @return {@link List}
 	 */
 	public static List<Field> listAttributes(Class<?> klass, String pattern){
-		List<Field> l = new ArrayList<Field>(0);
+		List<Field> f = ClassMetadata.of(klass).getFields();
 		
-		Field[] f = klass.getDeclaredFields();
- 		
-		Class<?> classObj = klass;
-		while (classObj.getSuperclass() != null){
-			classObj = classObj.getSuperclass();
-			f = ArrayUtils.addAll(f, classObj.getDeclaredFields());
+		if(REG_EXP_ALL.equals(pattern)){
+			return new ArrayList<Field>(f);
 		}
- 		
-		for (int i = 0; i < f.length; i++) {
-			if (f[i].getName().matches(pattern))
-				l.add(f[i]);
+		
+		List<Field> l = new ArrayList<Field>(0);
+		for (Field fld : f) {
+			if (fld.getName().matches(pattern))
+				l.add(fld);
 		}
    
 		return l;
@@ -214,15 +210,7 @@ public class ReflectionUtil {
 	 * @return {@link Boolean}
 	 */
 	public static boolean existAttribute(Class<?> klass, String name){
-		List<Field> listField = listAttributes(klass, name);
-		boolean exist = false;
-		for(Field fl : listField)
-			if(fl.getName().equals(name)){
-				exist = true;
-				break;
-			}
-				
-		return exist;
+		return ClassMetadata.of(klass).hasField(name);
 	}
 	/**
 	 * Verifica se o metodo existe na classe
@@ -740,8 +728,7 @@ public class ReflectionUtil {
 	 * 
 	 */
 	public static void setFieldValue(Object obj, Field field, Object value) throws IllegalArgumentException, IllegalAccessException{
-			field.setAccessible(true);
-			field.set(obj, value);
+		ClassMetadata.accessor(field).set(obj, value);
 	}
 	/**
 	 * 
@@ -752,11 +739,9 @@ public class ReflectionUtil {
 	 * @throws IllegalArgumentException 
 	 */
 	public static void setFieldValue(Object obj, String fieldName, Object value) throws IllegalArgumentException, IllegalAccessException{
-		List<Field> lFld = listAttributes(obj.getClass(), fieldName);
-		if(lFld.size() == 1){
-			Field fld = lFld.get(0);
-			fld.setAccessible(true);
-			fld.set(obj, value);
+		FieldAccessor accessor = ClassMetadata.of(obj.getClass()).getAccessor(fieldName);
+		if(accessor != null){
+			accessor.set(obj, value);
 		}
 	}
 	/**
@@ -766,15 +751,7 @@ public class ReflectionUtil {
 	 * @return {@link Field}
 	 */
 	public static Field getAttribute(Class<?> klass, String name){
-		List<Field> lFld = listAttributes(klass, name);
-		
-		for(Field fld: lFld){
-			if(fld.getName().equals(name)){
-				return fld;
-			}
-		}
-		
-		return null;
+		return ClassMetadata.of(klass).getField(name);
 	}	
 				
 	/**
@@ -825,9 +802,8 @@ public class ReflectionUtil {
 	 */
 	@SuppressWarnings("unchecked")
 	public static <T> T getAttributteValue(Object obj, Field field){
-		field.setAccessible(true);
 		try {
-			return (T) field.get(obj);
+			return (T) ClassMetadata.accessor(field).get(obj);
 		} catch (Exception e) {
 			return null;
 		}
@@ -904,16 +880,14 @@ public class ReflectionUtil {
 	 */
 	public static void setValueToNullCascade(Object obj, String... listAttributeName) throws IllegalArgumentException, IllegalAccessException{
 		if(obj != null){
-			List<Field> listField = listAttributes(obj);
+			ClassMetadata metadata = ClassMetadata.of(obj.getClass());
 			for(String attrName : listAttributeName){
 				if(attrName.contains(".")){
 					setValueToNullCascade(getAttributteValue(obj, attrName.substring(0, attrName.indexOf("."))), attrName.substring(attrName.indexOf(".") + 1));
 				}else{
-					for(Field fld : listField){
-						if(fld.getName().equals(attrName)){
-							fld.setAccessible(true);
-							fld.set(obj, null);
-						}
+					FieldAccessor accessor = metadata.getAccessor(attrName);
+					if(accessor != null){
+						accessor.set(obj, null);
 					}
 				}
 			}
@@ -14,7 +14,9 @@
 package br.com.jgon.canary.ws.rest;
 
 import java.io.IOException;
+import java.lang.reflect.Method;
 import java.util.Collections;
+import java.util.stream.Stream;
 
 import javax.ws.rs.HttpMethod;
 import javax.ws.rs.container.ContainerRequestContext;
@@ -30,8 +32,15 @@ import javax.ws.rs.ext.Provider;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import br.com.jgon.canary.util.KeysetPage;
 import br.com.jgon.canary.util.Page;
+import br.com.jgon.canary.ws.rest.link.LinkPaginate;
+import br.com.jgon.canary.ws.rest.link.LinkResource;
+import br.com.jgon.canary.ws.rest.link.LinkResources;
+import br.com.jgon.canary.ws.rest.link.LinkResponseFilter;
 import br.com.jgon.canary.ws.rest.util.DominiosRest;
+import br.com.jgon.canary.ws.rest.util.json.JsonProjectionEntity;
+import br.com.jgon.canary.ws.rest.util.json.JsonStreamingOutput;
 
 /**
  * Configura os filtros REST
@@ -66,29 +75,70 @@ public class RestFilter implements ContainerResponseFilter, ContextResolver<Obje
     public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) throws IOException {
     	//responseContext.getHeaders().add("Content-Type", responseContext.getHeaders().get("Content-Type") + ";charset=UFT-8");
     	
-    	if(responseContext.getEntity() instanceof Page){
-    		Page<?> pEntity = (Page<?>) responseContext.getEntity();
-    		if(pEntity.getElements() == null){
-    			responseContext.setEntity(Collections.EMPTY_LIST);
-    		}else{
-    			responseContext.setEntity(pEntity.getElements());
-    		}
-    		if(!responseContext.getHeaders().containsKey(DominiosRest.X_PAGINATION_TOTAL_ELEMENTS)){
-    			responseContext.getHeaders().add(DominiosRest.X_PAGINATION_TOTAL_ELEMENTS, pEntity.getTotalElements());
-    		}
-    		if(!responseContext.getHeaders().containsKey(DominiosRest.X_PAGINATION_ELEMENTS_PER_PAGE)){
-    			responseContext.getHeaders().add(DominiosRest.X_PAGINATION_ELEMENTS_PER_PAGE, pEntity.getElementsPerPage());
-    		}
-    		if(!responseContext.getHeaders().containsKey(DominiosRest.X_PAGINATION_CURRENT_PAGE)){
-    			responseContext.getHeaders().add(DominiosRest.X_PAGINATION_CURRENT_PAGE, pEntity.getCurrentPage());
+    	//entidade com projecao dos atributos (LinkResponseFilter), a projecao e mantida nos elementos da pagina
+    	JsonProjectionEntity projection = responseContext.getEntity() instanceof JsonProjectionEntity ? (JsonProjectionEntity) responseContext.getEntity() : null;
+    	Object entity = projection == null ? responseContext.getEntity() : projection.getEntity();
+    	
+    	if(entity instanceof Page){
+    		Page<?> pEntity = (Page<?>) entity;
+    		Object elements = pEntity.getElements() == null ? Collections.EMPTY_LIST : pEntity.getElements();
+    		responseContext.setEntity(projection == null ? elements : projection.withEntity(elements));
+    		if(pEntity.getCountMode() != null && !responseContext.getHeaders().containsKey(DominiosRest.X_PAGINATION_COUNT_MODE)){
+    			responseContext.getHeaders().add(DominiosRest.X_PAGINATION_COUNT_MODE, pEntity.getCountMode());
     		}
-    		if(!responseContext.getHeaders().containsKey(DominiosRest.X_PAGINATION_TOTAL_PAGE)){
-    			responseContext.getHeaders().add(DominiosRest.X_PAGINATION_TOTAL_PAGE, pEntity.getTotalPages());
+    		if(pEntity instanceof KeysetPage){
+    			//paginacao por chave nao possui total de registros nem numero de pagina
+    			if(!responseContext.getHeaders().containsKey(DominiosRest.X_PAGINATION_ELEMENTS_PER_PAGE)){
+    				responseContext.getHeaders().add(DominiosRest.X_PAGINATION_ELEMENTS_PER_PAGE, pEntity.getElementsPerPage());
+    			}
+    			if(((KeysetPage<?>) pEntity).hasNext() && !responseContext.getHeaders().containsKey(DominiosRest.X_PAGINATION_NEXT_CURSOR)){
+    				responseContext.getHeaders().add(DominiosRest.X_PAGINATION_NEXT_CURSOR, ((KeysetPage<?>) pEntity).getNextCursor());
+    			}
+    		}else{
+    			if(pEntity.getTotalElements() != null && !responseContext.getHeaders().containsKey(DominiosRest.X_PAGINATION_TOTAL_ELEMENTS)){
+    				responseContext.getHeaders().add(DominiosRest.X_PAGINATION_TOTAL_ELEMENTS, pEntity.getTotalElements());
+    			}
+    			if(!responseContext.getHeaders().containsKey(DominiosRest.X_PAGINATION_ELEMENTS_PER_PAGE)){
+    				responseContext.getHeaders().add(DominiosRest.X_PAGINATION_ELEMENTS_PER_PAGE, pEntity.getElementsPerPage());
+    			}
+    			if(!responseContext.getHeaders().containsKey(DominiosRest.X_PAGINATION_CURRENT_PAGE)){
+    				responseContext.getHeaders().add(DominiosRest.X_PAGINATION_CURRENT_PAGE, pEntity.getCurrentPage());
+    			}
+    			if(pEntity.getTotalPages() != null && !responseContext.getHeaders().containsKey(DominiosRest.X_PAGINATION_TOTAL_PAGE)){
+    				responseContext.getHeaders().add(DominiosRest.X_PAGINATION_TOTAL_PAGE, pEntity.getTotalPages());
+    			}
+    			if(pEntity.getHasNext() != null && !responseContext.getHeaders().containsKey(DominiosRest.X_PAGINATION_HAS_NEXT)){
+    				responseContext.getHeaders().add(DominiosRest.X_PAGINATION_HAS_NEXT, pEntity.getHasNext());
+    			}
     		}
     	}
     	
+    	//sem corpo na resposta, o cursor da colecao obtida por GenericDAO.stream nao seria fechado
+    	if(requestContext.getMethod().equals(HttpMethod.HEAD) 
+    			&& (responseContext.getEntity() instanceof Stream || responseContext.getEntity() instanceof JsonStreamingOutput)){
+    		JsonStreamingOutput.closeEntity(responseContext.getEntity());
+    		responseContext.setEntity(null);
+    	}
+    	
+    	//colecao obtida por GenericDAO.stream sem links configurados, escrita incremental dos itens
+    	if(responseContext.getEntity() instanceof Stream && !isLinkResponse()){
+    		responseContext.setEntity(new JsonStreamingOutput(mapper, (Stream<?>) responseContext.getEntity(), null));
+    	}
+    	
     	if(requestContext.getMethod().equals(HttpMethod.POST) && responseContext.getStatusInfo().equals(Status.OK)){
     		responseContext.setStatusInfo(Response.Status.CREATED);
     	}
     }
+    
+    /**
+     * 
+     * @return true se o metodo possui configuracao de links, tratado por {@link LinkResponseFilter}
+     */
+    private boolean isLinkResponse(){
+    	Method method = resourceInfo == null ? null : resourceInfo.getResourceMethod();
+    	return method != null 
+    			&& (method.isAnnotationPresent(LinkResource.class)
+    			|| method.isAnnotationPresent(LinkResources.class)
+    			|| method.isAnnotationPresent(LinkPaginate.class));
+    }
 }
\ No newline at end of file
@@ -42,6 +42,17 @@ public @interface LinkPaginate {
 	 * @return
 	 */
 	String limitParamName();
+	/**
+	 * Modo de paginacao, default LinkPaginateMode.PAGE
+	 * Em LinkPaginateMode.CURSOR somente os links self e next sao gerados, sem necessidade do total de registros
+	 * @return
+	 */
+	LinkPaginateMode mode() default LinkPaginateMode.PAGE;
+	/**
+	 * Parametro responsavel por receber o cursor da proxima pagina, utilizado em LinkPaginateMode.CURSOR
+	 * @return
+	 */
+	String cursorParamName() default "cursor";
 	/**
 	 * Define o nome do atributo que contem a colecao paginada
 	 * Default: nome da entidade ou annotation JsonRootName + Items
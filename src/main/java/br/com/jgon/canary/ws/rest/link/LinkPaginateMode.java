@@ -0,0 +1,30 @@
+/*
+ * Copyright 2017 Jurandir C. Goncalves
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *      
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package br.com.jgon.canary.ws.rest.link;
+
+/**
+ * Indica como os links de paginacao serao gerados
+ * PAGE - por numero de pagina (first, prev, next, last)
+ * CURSOR - por cursor da paginacao por chave (keyset), somente next, sem total de registros
+ *
+ * @author Jurandir C. Goncalves
+ * 
+ * @version 1.0
+ *
+ */
+public enum LinkPaginateMode {
+
+	PAGE,
+	CURSOR;
+}
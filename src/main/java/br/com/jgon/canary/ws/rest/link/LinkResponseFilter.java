@@ -3,8 +3,10 @@ package br.com.jgon.canary.ws.rest.link;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
+import java.net.URI;
 import java.util.AbstractMap.SimpleEntry;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -13,43 +15,52 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-import javax.ws.rs.DefaultValue;
 import javax.ws.rs.Path;
-import javax.ws.rs.QueryParam;
 import javax.ws.rs.container.ContainerRequestContext;
 import javax.ws.rs.container.ContainerResponseContext;
 import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.core.Context;
 import javax.ws.rs.core.Link;
 import javax.ws.rs.core.Link.Builder;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriBuilder;
 import javax.ws.rs.core.UriInfo;
+import javax.ws.rs.ext.ContextResolver;
 import javax.ws.rs.ext.Provider;
+import javax.ws.rs.ext.Providers;
 
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.fasterxml.jackson.annotation.JsonRootName;
+import com.fasterxml.jackson.databind.ObjectMapper;
 //import com.google.common.base.CaseFormat;
 
 import br.com.jgon.canary.exception.ApplicationException;
 import br.com.jgon.canary.exception.ApplicationRuntimeException;
 import br.com.jgon.canary.util.CollectionUtil;
+import br.com.jgon.canary.util.KeysetPage;
 import br.com.jgon.canary.util.MessageSeverity;
 import br.com.jgon.canary.util.Page;
 import br.com.jgon.canary.util.ReflectionUtil;
-import br.com.jgon.canary.ws.rest.param.WSFieldParam;
-import br.com.jgon.canary.ws.rest.param.WSParamFormat;
+import br.com.jgon.canary.ws.rest.param.WSMethodMetadata;
 import br.com.jgon.canary.ws.rest.util.DominiosRest;
-import br.com.jgon.canary.ws.rest.util.HalJsonRootName;
 import br.com.jgon.canary.ws.rest.util.ResponseError;
 import br.com.jgon.canary.ws.rest.util.json.JsonCollectionLinkEntity;
 import br.com.jgon.canary.ws.rest.util.json.JsonHALLinkEntity;
 import br.com.jgon.canary.ws.rest.util.json.JsonLinkEntity;
+import br.com.jgon.canary.ws.rest.util.json.JsonProjection;
+import br.com.jgon.canary.ws.rest.util.json.JsonProjectionEntity;
+import br.com.jgon.canary.ws.rest.util.json.JsonStreamingOutput;
 
 /**
  * Provider que habilita a inclusao de links na response
@@ -62,15 +73,24 @@ import br.com.jgon.canary.ws.rest.util.json.JsonLinkEntity;
 @Provider
 public class LinkResponseFilter implements ContainerResponseFilter {
 
-	private static final String REGEX_REQUEST_PATH_PARAMETERS = "\\{[a-z-A-Z]+\\}";
-	private static final String REGEX_PATH_PARAMETERS_REQ = "[^\\#\\$]\\{[a-z-A-Z]+\\}";
-	private static final String REGEX_PATH_PARAMETERS_ENTITY = "(\\#|\\$)\\{[a-z-A-Z\\.]+\\}";
-	private static final String REGEX_REPLACE_PARAM = "\\#|\\$|\\{|\\}";
-	private static final String REGEX_LINK_TEMPLATE = "(^\\{[a-zA-Z_-]+\\})|([^\\#\\$]\\{[a-zA-Z_-]+\\})";
 	public static final String MEDIA_TYPE_APPLICATION_HAL_JSON = "application/hal+json";
+	/**
+	 * Propriedade de sistema com a quantidade minima de itens da colecao para gerar os links em paralelo, desabilitado por padrao (0).
+	 * Os atributos dos itens sao lidos em outras threads, os itens devem estar desanexados (detached) ou com os atributos dos links
+	 * ja carregados, sem carga lazy pelo EntityManager da requisicao
+	 */
+	public static final String PARALLEL_THRESHOLD_PROPERTY = "canary.link.parallel-threshold";
+	private static final int PARALLEL_THRESHOLD = Integer.getInteger(PARALLEL_THRESHOLD_PROPERTY, 0);
+	
+	private static final ObjectMapper DEFAULT_MAPPER = new ObjectMapper();
 	
 	private Class<?> serviceClass;
 	private Method serviceMethod;
+	//definicoes de link pre-compiladas, chave gerada por LinkTemplate.key
+	private final ConcurrentMap<List<Object>, LinkTemplate> linkTemplates = new ConcurrentHashMap<List<Object>, LinkTemplate>();
+	
+	@Context
+	private Providers providers;
 	
 	private Logger logger = LoggerFactory.getLogger(LinkResponseFilter.class);
 	
@@ -82,6 +102,43 @@ public class LinkResponseFilter implements ContainerResponseFilter {
 		super();
 		this.serviceClass = serviceClass;
 		this.serviceMethod = serviceMethod;
+		//metadados do parametro de campos resolvidos na configuracao do servico
+		WSMethodMetadata.of(serviceMethod);
+		compileLinkTemplates();
+	}
+	
+	/**
+	 * Pre-compila os links definidos no metodo (LinkResource, LinkResources e LinkPaginate), executado na configuracao do servico.
+	 * Links de outros servicos (serviceClass/serviceMethodName) sao compilados no primeiro uso
+	 */
+	private void compileLinkTemplates() {
+		Path path = serviceMethod.getAnnotation(Path.class);
+		if(path == null){
+			return;
+		}
+		List<LinkResource> linkResourceList = new ArrayList<LinkResource>();
+		if(serviceMethod.isAnnotationPresent(LinkResource.class)){
+			linkResourceList.add(serviceMethod.getAnnotation(LinkResource.class));
+		}
+		if(serviceMethod.isAnnotationPresent(LinkResources.class)){
+			linkResourceList.addAll(Arrays.asList(serviceMethod.getAnnotation(LinkResources.class).value()));
+		}
+		try{
+			for(LinkResource lr : linkResourceList){
+				getLinkTemplate(lr.pathParameters(), lr.queryParameters(), lr.serviceClass(), lr.serviceMethodName(), lr.basePath(), path, false);
+			}
+			LinkPaginate linkPaginate = serviceMethod.getAnnotation(LinkPaginate.class);
+			if(linkPaginate != null){
+				for(LinkResource lr : new LinkResource[]{linkPaginate.self(), linkPaginate.first(), linkPaginate.previous(), linkPaginate.next(), linkPaginate.last()}){
+					getLinkTemplate(lr.pathParameters(), lr.queryParameters(), lr.serviceClass(), lr.serviceMethodName(), lr.basePath(), path, linkPaginate.absolutePath());
+				}
+				PaginatorTemplate pt = linkPaginate.paginationTemplate();
+				getLinkTemplate(pt.pathParameters(), pt.queryParameters(), pt.serviceClass(), pt.serviceMethodName(), pt.basePath(), path, linkPaginate.absolutePath());
+			}
+		}catch(RuntimeException e){
+			//definicao invalida, o erro sera apresentado na geracao do link
+			logger.debug("[compileLinkTemplates]", e);
+		}
 	}
 	
 	/**
@@ -96,7 +153,12 @@ public class LinkResponseFilter implements ContainerResponseFilter {
     		try{
     			configLinks(requestContext.getUriInfo(), responseContext);
 			} catch (ApplicationException e) {
+				//a resposta nao sera escrita, libera o cursor da colecao obtida por GenericDAO.stream
+				JsonStreamingOutput.closeEntity(responseContext.getEntity());
 				throw new ApplicationRuntimeException(e);
+			} catch (RuntimeException e) {
+				JsonStreamingOutput.closeEntity(responseContext.getEntity());
+				throw e;
 			}
     	}
     }
@@ -109,12 +171,16 @@ public class LinkResponseFilter implements ContainerResponseFilter {
 	 */
     @SuppressWarnings({ "unchecked", "rawtypes" })
 	private void configLinks(UriInfo uriInfo, ContainerResponseContext responseContext) throws ApplicationException{
+    	//lidos uma unica vez na thread da requisicao, os links dos itens podem ser gerados em outras threads
+    	RequestParameters request = new RequestParameters(uriInfo);
     	LinkResource linkResource = null;
     	LinkResources linkResources = null;
     	LinkPaginate linkPaginate = null;
     	LinkFormat linkFormat = null;
     	
     	boolean isHalLinks = responseContext.getMediaType() != null && responseContext.getMediaType().toString().equals(MEDIA_TYPE_APPLICATION_HAL_JSON);
+    	//colecao obtida por GenericDAO.stream, os itens sao escritos na serializacao
+    	boolean isStream = responseContext.getEntity() instanceof Stream;
     	
     	Map<Path, List<LinkResource>> linkPaginateEntity = null;
     	
@@ -139,7 +205,7 @@ public class LinkResponseFilter implements ContainerResponseFilter {
     	List<Link> paginateLinks = new ArrayList<Link>();
     	    	
     	if(linkPaginate != null){
-    		paginateLinks.addAll(getPaginateLink(responseContext.getEntity(), linkPaginate, uriInfo, path, responseContext.getStringHeaders()));
+    		paginateLinks.addAll(getPaginateLink(responseContext.getEntity(), linkPaginate, request, path, responseContext.getStringHeaders()));
 
     		//Adiciona link na entidade somente se requisicao for hal+json
     		if(isHalLinks){
@@ -176,7 +242,7 @@ public class LinkResponseFilter implements ContainerResponseFilter {
     	//Adiciona link na entidade somente se requisicao for hal+json
     	//LINKRESOURCE
     	if(isHalLinks && linkResource != null){
-    		boolean isCollection = linkPaginate == null && (responseContext.getEntity() instanceof Collection);
+    		boolean isCollection = linkPaginate == null && (responseContext.getEntity() instanceof Collection || isStream);
     		if(isCollection){
     			List<LinkResource> linkResAux;
     			if(!linkResource.serviceClass().equals(void.class)){
@@ -193,7 +259,7 @@ public class LinkResponseFilter implements ContainerResponseFilter {
     				linkPaginateEntity.put(path, linkResAux);
     			}
     		}else{
-    			Link link = getLink(linkResource, uriInfo, null, responseContext.getEntity(), path, false);
+    			Link link = getLink(linkResource, request, null, responseContext.getEntity(), path, false);
     			if(link != null){
     				if(linkResource.target().equals(LinkTarget.ENTITY)){
     					linksEntity.add(link);
@@ -206,7 +272,7 @@ public class LinkResponseFilter implements ContainerResponseFilter {
     	//Adiciona link na entidade somente se requisicao for hal+json
     	//LINKRESOURCES
     	if(isHalLinks && linkResources != null){
-    		boolean isCollection = linkPaginate == null && (responseContext.getEntity() instanceof Collection);
+    		boolean isCollection = linkPaginate == null && (responseContext.getEntity() instanceof Collection || isStream);
     		if(isCollection){
     			linkPaginateEntity = new HashMap<Path, List<LinkResource>>();
     			List<LinkResource> linkResAux;
@@ -230,7 +296,7 @@ public class LinkResponseFilter implements ContainerResponseFilter {
     		}else{
     			Link link;
     			for(LinkResource lr : linkResources.value()){
-    				link = getLink(lr, uriInfo, null, responseContext.getEntity(), path, false);
+    				link = getLink(lr, request, null, responseContext.getEntity(), path, false);
     				if(link != null){
     					if(lr.target().equals(LinkTarget.ENTITY)){
     						linksEntity.add(link);
@@ -245,7 +311,7 @@ public class LinkResponseFilter implements ContainerResponseFilter {
 					
 					if(linkResourcesAux != null){
 						for(LinkResource lr : linkResourcesAux.value()){
-							link = getLink(lr, uriInfo, null, responseContext.getEntity(), pathAux, false);
+							link = getLink(lr, request, null, responseContext.getEntity(), pathAux, false);
 							if(link != null){
 								if(lr.target().equals(LinkTarget.ENTITY)){
 									linksEntity.add(link);
@@ -258,7 +324,7 @@ public class LinkResponseFilter implements ContainerResponseFilter {
 					
 					LinkResource linkResourceAux =  ReflectionUtil.getAnnotation(linkResources.serviceClass(), linkResources.serviceMethodName(), LinkResource.class);
 					if(linkResourceAux != null){
-						link = getLink(linkResourceAux, uriInfo, null, responseContext.getEntity(), pathAux, false);
+						link = getLink(linkResourceAux, request, null, responseContext.getEntity(), pathAux, false);
 						if(link != null){
 							if(linkResourceAux.target().equals(LinkTarget.ENTITY)){
 								linksEntity.add(link);
@@ -279,30 +345,34 @@ public class LinkResponseFilter implements ContainerResponseFilter {
 			}
     	}
     	    	
-    	Collection<String> attrNotPresentInRequest = getRequiredParamNotPresentInRequest(serviceMethod, uriInfo);
+    	//atributos nao solicitados sao omitidos na serializacao, sem alterar a entidade
+    	JsonProjection projection = JsonProjection.of(getRequiredParamNotPresentInRequest(serviceMethod, uriInfo));
     	
     	if(!linksEntity.isEmpty() || (linkPaginateEntity != null && !linkPaginateEntity.isEmpty())){
-    		if(!(responseContext.getEntity() instanceof Collection)){
+    		if(!(responseContext.getEntity() instanceof Collection) && !isStream){
     			if(isHalLinks || (linkFormat != null && linkFormat.value().equals(LinkFormatType.HAL))){
     				JsonHALLinkEntity json = new JsonHALLinkEntity();
-        			json.setEntity(configEntityAttributes(responseContext.getEntity(), attrNotPresentInRequest));
+        			json.setEntity(responseContext.getEntity());
         			json.addAllLink(linksEntity);
         			responseContext.setEntity(json);
     			}else{
 	    			JsonLinkEntity json = new JsonLinkEntity();
-	    			json.setEntity(configEntityAttributes(responseContext.getEntity(), attrNotPresentInRequest));
+	    			json.setEntity(responseContext.getEntity());
 	    			json.addAllLink(linksEntity);
 	    			responseContext.setEntity(json);
     			}
     		}else if(linkPaginate == null){
-    			if(isHalLinks){
-    				responseContext.setEntity(getCollectionEntityLink((Collection<Object>) responseContext.getEntity(), isHalLinks, linkPaginateEntity, uriInfo, attrNotPresentInRequest));
+    			if(isStream){
+    				responseContext.setEntity(getStreamingOutput((Stream<Object>) responseContext.getEntity(), null, isHalLinks, linkPaginateEntity, request, projection, responseContext.getMediaType()));
+    			}else if(isHalLinks){
+    				responseContext.setEntity(getCollectionEntityLink((Collection<Object>) responseContext.getEntity(), isHalLinks, linkPaginateEntity, request));
     			}
     		}else{
-    			String childName;
+    			//stream: sem nome informado e obtido do primeiro item na serializacao
+    			String childName = null;
     			if(linkPaginate != null && StringUtils.isNotBlank(linkPaginate.embeddedCollectionName())){
     				childName = linkPaginate.embeddedCollectionName();
-    			}else{
+    			}else if(!isStream){
     				childName = getChildClassName((Collection<Object>) responseContext.getEntity());
     				if(StringUtils.isBlank(childName)){
     					childName = "items";
@@ -313,16 +383,20 @@ public class LinkResponseFilter implements ContainerResponseFilter {
     			    			
     			JsonCollectionLinkEntity json = new JsonCollectionLinkEntity();
     			json.setHalLink(isHalLinks || linkFormat == null || linkFormat.value().equals(LinkFormatType.HAL));
-    			if(isHalLinks){
-    				json.setEmbedded(getCollectionEntityLink((Collection<Object>) responseContext.getEntity(), isHalLinks, linkPaginateEntity, uriInfo, attrNotPresentInRequest));
+    			if(isStream){
+    				responseContext.setEntity(getStreamingOutput((Stream<Object>) responseContext.getEntity(), json, isHalLinks, isHalLinks ? linkPaginateEntity : null, request, projection, responseContext.getMediaType()));
+    			}else if(isHalLinks){
+    				json.setEmbedded(getCollectionEntityLink((Collection<Object>) responseContext.getEntity(), isHalLinks, linkPaginateEntity, request));
     			}else{
-    				json.setEmbedded(getCollectionEntity((Collection<Object>) responseContext.getEntity(), attrNotPresentInRequest));
+    				json.setEmbedded((Collection<Object>) responseContext.getEntity());
     			}
     		
     			json.addAllLink(linksEntity);
     			json.setItemsName(childName);
     			
-    			responseContext.setEntity(json);
+    			if(!isStream){
+    				responseContext.setEntity(json);
+    			}
     			
     			if(json.isHalLink()){
     				json.setTotalElements(responseContext.getHeaders().getFirst(DominiosRest.X_PAGINATION_TOTAL_ELEMENTS) == null ? null : Long.valueOf(responseContext.getHeaders().getFirst(DominiosRest.X_PAGINATION_TOTAL_ELEMENTS).toString()));
@@ -336,14 +410,13 @@ public class LinkResponseFilter implements ContainerResponseFilter {
     				responseContext.getHeaders().remove(DominiosRest.X_PAGINATION_TOTAL_PAGE);
     			}
     		}
-    	}else if(attrNotPresentInRequest != null && !attrNotPresentInRequest.isEmpty()){
-    		if(responseContext.getEntity() instanceof Collection){
-    			responseContext.setEntity(getCollectionEntity((Collection<Object>) responseContext.getEntity(), attrNotPresentInRequest));
-    		}else if(responseContext.getEntity() instanceof Page){
-    			((Page) responseContext.getEntity()).setElements(getCollectionEntity(((Page) responseContext.getEntity()).getElements(), attrNotPresentInRequest));
-    		}else{
-    			responseContext.setEntity(configEntityAttributes(responseContext.getEntity(), attrNotPresentInRequest));
-    		}
+    	}
+    	
+    	if(responseContext.getEntity() instanceof Stream){
+    		responseContext.setEntity(getStreamingOutput((Stream<Object>) responseContext.getEntity(), null, false, null, request, projection, responseContext.getMediaType()));
+    	}else if(projection != null && isProjectable(responseContext.getEntity(), responseContext.getMediaType())){
+    		//Page e tratada pelo RestFilter, mantendo a projecao
+    		responseContext.setEntity(new JsonProjectionEntity(responseContext.getEntity(), projection));
     	}
     	
     	if(!linksHeader.isEmpty()){
@@ -352,120 +425,145 @@ public class LinkResponseFilter implements ContainerResponseFilter {
     }
     
     /**
-     * Retorno o valor do parametro para configurar o link corretamente
-     * @param param
+     * A projecao e aplicada somente na serializacao json de objetos e colecoes.
+     * Texto, xml, tipos simples, {@link StreamingOutput} e {@link ResponseError} sao mantidos
      * @param entity
+     * @param mediaType
      * @return
      */
-    private String valueFromParameter(String param, Object entity){
-    	Pattern pattern = Pattern.compile(REGEX_PATH_PARAMETERS_ENTITY);
-    	Matcher m = pattern.matcher(param);
- 
-    	StringBuffer sb = new StringBuffer();
-    	
-    	while(m.find()){
-    		Object objRet = ReflectionUtil.getAttributteValue(entity, m.group().replaceAll(REGEX_REPLACE_PARAM, ""));
-    		if(objRet == null){
-    			return null;
-    		}
-    		m.appendReplacement(sb, objRet.toString());
+    private boolean isProjectable(Object entity, MediaType mediaType){
+    	if(entity == null || mediaType == null || entity instanceof ResponseError || entity instanceof StreamingOutput){
+    		return false;
     	}
-    	
-    	m.appendTail(sb);
-    	
-    	return sb.toString();
-    }
-    
-    /**
-     * Configura a entidade e seus objetos complexos filhos para null.
-     * @param entity
-     * @param listAttributes
-     * @return
-     */
-    private Object configEntityAttributes(Object entity, Collection<String> listAttributes){
-    	try {
-    		if(listAttributes != null && !listAttributes.isEmpty()){
-    			ReflectionUtil.setValueToNullCascade(entity, CollectionUtil.convertCollectionToArray(String.class, listAttributes));
-    		}
-		} catch (Exception e) {
-			// Ignora o erro se nao conseguir setar para nulo
-		}
-    	
-    	return entity;
+    	if(!"application".equalsIgnoreCase(mediaType.getType())
+    			|| !("json".equalsIgnoreCase(mediaType.getSubtype()) || mediaType.getSubtype().toLowerCase().endsWith("+json"))){
+    		return false;
+    	}
+    	if(entity instanceof Collection || entity instanceof Map || entity instanceof Object[]){
+    		return true;
+    	}
+    	Class<?> klass = entity.getClass();
+    	return !klass.isArray() && !klass.isEnum() && !klass.getName().startsWith("java.") && !klass.getName().startsWith("javax.");
     }
-    
     /**
      * Configura os links nos objetos da colecao
      * @param entityList
      * @param isHalLinks
      * @param linkResources
-     * @param uriInfo
-     * @param attrNotPresentInRequest
+     * @param request
      * @return
      * @throws ApplicationException
      */
-    private Collection<Object> getCollectionEntityLink(Collection<Object> entityList, boolean isHalLinks, Map<Path, List<LinkResource>> linkResources, UriInfo uriInfo, Collection<String> attrNotPresentInRequest) throws ApplicationException{
+    private Collection<Object> getCollectionEntityLink(Collection<Object> entityList, boolean isHalLinks, Map<Path, List<LinkResource>> linkResources, RequestParameters request) throws ApplicationException{
     	if(linkResources!=null && !linkResources.isEmpty()){
+    		if(PARALLEL_THRESHOLD > 0 && entityList.size() >= PARALLEL_THRESHOLD){
+    			return getCollectionEntityLinkParallel(entityList, isHalLinks, linkResources, request);
+    		}
     		List<Object> entityCollection = new ArrayList<Object>(entityList.size());
-    		List<Link> listLink = new ArrayList<Link>(2);
-    		if(isHalLinks){
-    			JsonHALLinkEntity json;
-    			for(Object entity : entityList){
-    				listLink.clear();
-    				for(Path path : linkResources.keySet()){
-    					for(LinkResource lr : linkResources.get(path)){
-    						listLink.add(getLink(lr, uriInfo, null, entity, path, false));
-    					}
-    				}
-    				json = new JsonHALLinkEntity();
-					json.setEntity(configEntityAttributes(entity, attrNotPresentInRequest));
-					json.addAllLink(listLink);
-
-					entityCollection.add(json);
-    			}
-    		}else{
-    			JsonLinkEntity json;
-    			for(Object entity : entityList){
-    				listLink.clear();
-    				for(Path path : linkResources.keySet()){
-    					for(LinkResource lr : linkResources.get(path)){
-    						listLink.add(getLink(lr, uriInfo, null, entity, path, false));
-    					}
-    				}
-    				json = new JsonLinkEntity();
-					json.setEntity(configEntityAttributes(entity, attrNotPresentInRequest));
-					json.addAllLink(listLink);
-
-					entityCollection.add(json);
-    			}
+    		for(Object entity : entityList){
+    			entityCollection.add(getEntityLink(entity, isHalLinks, linkResources, request));
     		}
     		return entityCollection;
     	}else{
-    		return getCollectionEntity(entityList, attrNotPresentInRequest);
+    		return entityList;
     	}
     }
     /**
-     * 
+     * Configura os links nos objetos da colecao em paralelo (ForkJoinPool comum), mantendo a ordem.
+     * Utiliza somente os parametros ja copiados da requisicao ({@link RequestParameters}), os itens nao devem depender do EntityManager (lazy)
      * @param entityList
-     * @param attrNotPresentInRequest
+     * @param isHalLinks
+     * @param linkResources
+     * @param request
      * @return
      * @throws ApplicationException
      */
-    private Collection<Object> getCollectionEntity(Collection<Object> entityList, Collection<String> attrNotPresentInRequest) throws ApplicationException{
-    	if(attrNotPresentInRequest != null && !attrNotPresentInRequest.isEmpty()){
-    		List<Object> entityCollection = new ArrayList<Object>(entityList.size());
-    		for(Object entity : entityList){
-    			entityCollection.add(configEntityAttributes(entity, attrNotPresentInRequest));
+    private Collection<Object> getCollectionEntityLinkParallel(Collection<Object> entityList, boolean isHalLinks, Map<Path, List<LinkResource>> linkResources, RequestParameters request) throws ApplicationException{
+    	try{
+    		return entityList.parallelStream().map(entity -> {
+    			try{
+    				return getEntityLink(entity, isHalLinks, linkResources, request);
+    			}catch(ApplicationException e){
+    				throw new ApplicationRuntimeException(e);
+    			}
+    		}).collect(Collectors.toList());
+    	}catch(ApplicationRuntimeException e){
+    		logger.error("[getCollectionEntityLinkParallel]", e);
+    		throw (ApplicationException) e.getCause();
+    	}
+    }
+    /**
+     * Configura os links de um objeto da colecao
+     * @param entity
+     * @param isHalLinks
+     * @param linkResources
+     * @param request
+     * @return
+     * @throws ApplicationException
+     */
+    private Object getEntityLink(Object entity, boolean isHalLinks, Map<Path, List<LinkResource>> linkResources, RequestParameters request) throws ApplicationException{
+    	if(linkResources == null || linkResources.isEmpty()){
+    		return entity;
+    	}
+    	List<Link> listLink = new ArrayList<Link>(2);
+    	for(Path path : linkResources.keySet()){
+    		for(LinkResource lr : linkResources.get(path)){
+    			listLink.add(getLink(lr, request, null, entity, path, false));
     		}
-    		return entityCollection;
+    	}
+    	if(isHalLinks){
+    		JsonHALLinkEntity json = new JsonHALLinkEntity();
+    		json.setEntity(entity);
+    		json.addAllLink(listLink);
+    		return json;
     	}else{
-    		return entityList;
-    	}    	
+    		JsonLinkEntity json = new JsonLinkEntity();
+    		json.setEntity(entity);
+    		json.addAllLink(listLink);
+    		return json;
+    	}
+    }
+    /**
+     * Substitui o stream pela escrita incremental dos itens, os links de cada item sao gerados durante a serializacao
+     * @param entityStream
+     * @param collection - dados da colecao (links e paginacao), null para array simples
+     * @param isHalLinks
+     * @param linkResources - links dos itens
+     * @param request
+     * @param projection - atributos omitidos dos itens
+     * @param mediaType
+     * @return
+     */
+    private JsonStreamingOutput getStreamingOutput(Stream<Object> entityStream, JsonCollectionLinkEntity collection, boolean isHalLinks, Map<Path, List<LinkResource>> linkResources, RequestParameters request, JsonProjection projection, MediaType mediaType){
+    	JsonStreamingOutput output = new JsonStreamingOutput(getObjectMapper(mediaType), entityStream, entity -> {
+    		try {
+    			return getEntityLink(entity, isHalLinks, linkResources, request);
+    		} catch (ApplicationException e) {
+    			logger.error("[getStreamingOutput]", e);
+    			throw new ApplicationRuntimeException(e);
+    		}
+    	}, collection);
+    	output.setProjection(projection);
+    	return output;
+    }
+    /**
+     * 
+     * @param mediaType
+     * @return {@link ObjectMapper} configurado na aplicacao (ContextResolver)
+     */
+    private ObjectMapper getObjectMapper(MediaType mediaType){
+    	if(providers != null){
+    		ContextResolver<ObjectMapper> resolver = providers.getContextResolver(ObjectMapper.class, mediaType);
+    		if(resolver != null && resolver.getContext(ObjectMapper.class) != null){
+    			return resolver.getContext(ObjectMapper.class);
+    		}
+    	}
+    	return DEFAULT_MAPPER;
     }
     /**
      * Configura o link
      * @param linkResource
-     * @param uriInfo
+     * @param request
      * @param queryParams
      * @param entity
      * @param path
@@ -473,8 +571,8 @@ public class LinkResponseFilter implements ContainerResponseFilter {
      * @return
      * @throws ApplicationException
      */
-    private Link getLink(LinkResource linkResource, UriInfo uriInfo, List<SimpleEntry<String, Object>> queryParams, Object entity, Path path, boolean forceAbsolutePath) throws ApplicationException{
-    	return getLink(linkResource.pathParameters(), linkResource.queryParameters(), linkResource.serviceClass(), linkResource.serviceMethodName(), linkResource.basePath(), linkResource.includeRequestQueryParams(), linkResource.rel(), linkResource.type(), linkResource.title(), uriInfo, queryParams, entity, path, forceAbsolutePath);
+    private Link getLink(LinkResource linkResource, RequestParameters request, List<SimpleEntry<String, Object>> queryParams, Object entity, Path path, boolean forceAbsolutePath) throws ApplicationException{
+    	return getLink(linkResource.pathParameters(), linkResource.queryParameters(), linkResource.serviceClass(), linkResource.serviceMethodName(), linkResource.basePath(), linkResource.includeRequestQueryParams(), linkResource.rel(), linkResource.type(), linkResource.title(), request, queryParams, entity, path, forceAbsolutePath);
     }
     /**
      * Configura o link
@@ -487,7 +585,7 @@ public class LinkResponseFilter implements ContainerResponseFilter {
      * @param linkRel
      * @param linkType
      * @param linkTitle
-     * @param uriInfo
+     * @param request
      * @param queryParams
      * @param entity
      * @param path
@@ -495,52 +593,41 @@ public class LinkResponseFilter implements ContainerResponseFilter {
      * @return
      * @throws ApplicationException
      */
-    private Link getLink(String[] linkPathParameters, String[] linkQueryParameter, Class<?> linkServiceClass, String linkServiceMethodName, LinkResouceBasePath linkBasePath, boolean linkIncludeQueryParams, String linkRel, String linkType, String linkTitle, UriInfo uriInfo, List<SimpleEntry<String, Object>> queryParams, Object entity, Path path, boolean forceAbsolutePath) throws ApplicationException{
+    private Link getLink(String[] linkPathParameters, String[] linkQueryParameter, Class<?> linkServiceClass, String linkServiceMethodName, LinkResouceBasePath linkBasePath, boolean linkIncludeQueryParams, String linkRel, String linkType, String linkTitle, RequestParameters request, List<SimpleEntry<String, Object>> queryParams, Object entity, Path path, boolean forceAbsolutePath) throws ApplicationException{
     	Builder builder;
 
     	List<Object> values = new LinkedList<Object>();
     	boolean linkTemplate = false;
 
-    	Pattern pattern = Pattern.compile(REGEX_REQUEST_PATH_PARAMETERS);
-    	Matcher mReqPathParam = pattern.matcher(path.toString());
-
-    	List<String> reqPathParamOrder = new LinkedList<String>();
-
-    	while(mReqPathParam.find()){
-    		String mRAux = mReqPathParam.group();
-    		reqPathParamOrder.add(mRAux.substring(1, mRAux.length() - 1));
-    	}
+    	LinkTemplate template = getLinkTemplate(linkPathParameters, linkQueryParameter, linkServiceClass, linkServiceMethodName, linkBasePath, path, forceAbsolutePath);
+    	List<String> reqPathParamOrder = template.getRequestPathParameters();
     	
     	for(String rpAux : reqPathParamOrder){
     		boolean test = true;
-    		if(linkPathParameters != null && linkPathParameters.length > 0){
-    			for(int i = 0; i < linkPathParameters.length; i++){
-    				//if(linkPathParameters[i].equals("{" + rpAux + "}")){
-    				if(StringUtils.isBlank(linkPathParameters[i])){
-    					test = false;
-    					values.add("");
-    				}else if(linkPathParameters[i].matches(REGEX_PATH_PARAMETERS_REQ) && uriInfo.getPathParameters(false).get(rpAux) != null){
-    					if(uriInfo.getPathParameters(false).get(rpAux).size() > 1){
-    						values.add(uriInfo.getPathParameters(false).get(rpAux));
-    					}else{
-    						values.add(uriInfo.getPathParameters(false).getFirst(rpAux));
-    					}
+    		for(LinkTemplate.Slot slot : template.getPathParameters()){
+    			if(slot.isBlank()){
+    				test = false;
+    				values.add("");
+    			}else if(slot.isRequest() && request.getPathParameters().get(rpAux) != null){
+    				if(request.getPathParameters().get(rpAux).size() > 1){
+    					values.add(request.getPathParameters().get(rpAux));
     				}else{
-    					test = false;
-    					if(linkPathParameters[i].matches(REGEX_LINK_TEMPLATE)){
-    						linkTemplate = true;
-    					}
-    					values.add(valueFromParameter(linkPathParameters[i], entity));
+    					values.add(request.getPathParameters().getFirst(rpAux));
     				}
-    				//	}
+    			}else{
+    				test = false;
+    				if(slot.isTemplate()){
+    					linkTemplate = true;
+    				}
+    				values.add(slot.resolve(entity));
     			}
     		}
     		if(test){
-    			if(uriInfo.getPathParameters(false).get(rpAux) != null){
-    				if(uriInfo.getPathParameters(false).get(rpAux).size() > 1){
-    					values.add(uriInfo.getPathParameters(false).get(rpAux));
+    			if(request.getPathParameters().get(rpAux) != null){
+    				if(request.getPathParameters().get(rpAux).size() > 1){
+    					values.add(request.getPathParameters().get(rpAux));
     				}else{
-    					values.add(uriInfo.getPathParameters(false).getFirst(rpAux));
+    					values.add(request.getPathParameters().getFirst(rpAux));
     				}
     			}else{
     				ApplicationException ae = new ApplicationException(MessageSeverity.ERROR, "link-response.field-not-found", rpAux);
@@ -551,57 +638,37 @@ public class LinkResponseFilter implements ContainerResponseFilter {
     	}
     	
     	//Configura os PathParams adicionados, vinculados ao objeto de retorno
-    	if(linkPathParameters != null && linkPathParameters.length > 0){
-    		for(int i = 0; i < linkPathParameters.length; i++){
-    			if(reqPathParamOrder.contains(linkPathParameters[i])){
-    				continue;
-    			}else if(StringUtils.isBlank(linkPathParameters[i])){
-    				values.add("");
-    			}else{
-    				if(linkPathParameters[i].matches(REGEX_LINK_TEMPLATE)){
-    					linkTemplate = true;
-    				}
-    				values.add(valueFromParameter(linkPathParameters[i], entity));
+    	for(LinkTemplate.Slot slot : template.getPathParameters()){
+    		if(reqPathParamOrder.contains(slot.getValue())){
+    			continue;
+    		}else if(slot.isBlank()){
+    			values.add("");
+    		}else{
+    			if(slot.isTemplate()){
+    				linkTemplate = true;
     			}
+    			values.add(slot.resolve(entity));
     		}
     	}
 
-    	UriBuilder uriBuilder = null;
-
-    	Class<?> serviceClassAux = linkServiceClass.equals(void.class) ? serviceClass : linkServiceClass;
-    	String serviceMethodName = StringUtils.isBlank(linkServiceMethodName) ? serviceMethod.getName() : linkServiceMethodName;
-
-    	if(linkBasePath.equals(LinkResouceBasePath.COMPLETE) || forceAbsolutePath){
-    		uriBuilder = uriInfo.getBaseUriBuilder().path(serviceClassAux);
-    		if(StringUtils.isNotBlank(linkServiceMethodName)){
-    			uriBuilder.path(serviceClassAux, serviceMethodName);
-    		}else{
-    			uriBuilder.path(serviceMethod);
-    		}
-    	}else if(linkBasePath.equals(LinkResouceBasePath.RESOURCE)){
-    		uriBuilder = UriBuilder.fromResource(serviceClassAux);
-    	}else if(linkBasePath.equals(LinkResouceBasePath.METHOD)){
-    		uriBuilder = UriBuilder.fromMethod(serviceClassAux, serviceMethodName);
-    	}
+    	UriBuilder uriBuilder = template.createUriBuilder(request.getBaseUri());
 
     	if(linkIncludeQueryParams){// || queryParams != null){
-    		for(String key : uriInfo.getQueryParameters().keySet()){
-    			if(uriInfo.getQueryParameters(false).get(key).size() > 1) {
-    				for(Object o : uriInfo.getQueryParameters(false).get(key)) {
+    		for(String key : request.getQueryParameters().keySet()){
+    			if(request.getQueryParameters().get(key).size() > 1) {
+    				for(Object o : request.getQueryParameters().get(key)) {
     					uriBuilder.queryParam(key, o);
     				}
-    				//uriBuilder.replaceQueryParam(key, uriInfo.getQueryParameters(false).get(key));
+    				//uriBuilder.replaceQueryParam(key, request.getQueryParameters().get(key));
     			}else {
-    				uriBuilder.replaceQueryParam(key, uriInfo.getQueryParameters(false).getFirst(key));
+    				uriBuilder.replaceQueryParam(key, request.getQueryParameters().getFirst(key));
     			}
     		}
     	}
 
-    	pattern = Pattern.compile(REGEX_LINK_TEMPLATE);
-
     	if(queryParams != null){
     		for(SimpleEntry<String, Object> qp : queryParams){
-    			Matcher m = pattern.matcher(qp.getValue().toString());
+    			Matcher m = LinkTemplate.LINK_TEMPLATE.matcher(qp.getValue().toString());
 
     			StringBuffer sb = new StringBuffer();
 
@@ -618,13 +685,8 @@ public class LinkResponseFilter implements ContainerResponseFilter {
     		}
     	}
 
-    	if(linkQueryParameter != null && linkQueryParameter.length > 0){
-    		for(int i = 0; i < linkQueryParameter.length; i++){
-    			if(StringUtils.isNotBlank(linkQueryParameter[i])){
-    				String paramName = linkQueryParameter[i].substring(0, linkQueryParameter[i].indexOf("="));
-    				uriBuilder.replaceQueryParam(paramName, valueFromParameter(linkQueryParameter[i].substring(linkQueryParameter[i].indexOf("=") + 1), entity));
-    			}
-    		}
+    	for(int i = 0; i < template.getQueryParameters().size(); i++){
+    		uriBuilder.replaceQueryParam(template.getQueryParameterNames().get(i), template.getQueryParameters().get(i).resolve(entity));
     	}
 
     	builder = Link.fromUriBuilder(uriBuilder).rel(linkRel);
@@ -653,18 +715,46 @@ public class LinkResponseFilter implements ContainerResponseFilter {
     		throw new ApplicationException("error.link-builder", e);
     	}
     }
+    /**
+     * Obtem a definicao do link pre-compilada, criada somente no primeiro uso
+     * @param linkPathParameters
+     * @param linkQueryParameter
+     * @param linkServiceClass
+     * @param linkServiceMethodName
+     * @param linkBasePath
+     * @param path
+     * @param forceAbsolutePath
+     * @return
+     */
+    private LinkTemplate getLinkTemplate(String[] linkPathParameters, String[] linkQueryParameter, Class<?> linkServiceClass, String linkServiceMethodName, LinkResouceBasePath linkBasePath, Path path, boolean forceAbsolutePath){
+    	Class<?> serviceClassAux = linkServiceClass.equals(void.class) ? serviceClass : linkServiceClass;
+    	List<Object> key = LinkTemplate.key(linkPathParameters, linkQueryParameter, serviceClassAux, linkServiceMethodName, linkBasePath, path, forceAbsolutePath);
+    	LinkTemplate template = linkTemplates.get(key);
+    	if(template == null){
+    		template = new LinkTemplate(linkPathParameters, linkQueryParameter, serviceClassAux, serviceMethod, linkServiceMethodName, linkBasePath, path, forceAbsolutePath);
+    		LinkTemplate prev = linkTemplates.putIfAbsent(key, template);
+    		if(prev != null){
+    			template = prev;
+    		}
+    	}
+    	return template;
+    }
     /**
      * Configura o link de paginacao
      * @param entity
      * @param linkPaginate
-     * @param uriInfo
+     * @param request
      * @param path
      * @param headers
      * @return
      * @throws ApplicationException
      */
-    private List<Link> getPaginateLink(Object entity, LinkPaginate linkPaginate, UriInfo uriInfo, Path path, MultivaluedMap<String, String> headers) throws ApplicationException{
+    private List<Link> getPaginateLink(Object entity, LinkPaginate linkPaginate, RequestParameters request, Path path, MultivaluedMap<String, String> headers) throws ApplicationException{
     
+    	if(linkPaginate.mode().equals(LinkPaginateMode.CURSOR)){
+    		return getCursorPaginateLink(entity, linkPaginate, request, path, headers);
+    	}
+    	
     	if(StringUtils.isBlank(linkPaginate.pageParamName())){
     		return Collections.emptyList(); 
     	}
@@ -674,12 +764,17 @@ public class LinkResponseFilter implements ContainerResponseFilter {
     	int pgAtual = 0;
     	int limitPg = 0;
     	long maxPgs = 0;
+    	//sem total de registros (PageCountMode.NONE) somente o indicador de proxima pagina
+    	Boolean hasNext = null;
     	
     	if(entity != null && entity instanceof Page){
     		Page<?> pEntity = (Page<?>) entity;
     		
     		pgAtual = pEntity.getCurrentPage();
     		limitPg = pEntity.getElementsPerPage();
+    		if(pEntity.getTotalElements() == null){
+    			hasNext = pEntity.getHasNext();
+    		}
     		
     	}else if(headers.containsKey(DominiosRest.X_PAGINATION_CURRENT_PAGE)
     				&& headers.containsKey(DominiosRest.X_PAGINATION_ELEMENTS_PER_PAGE)
@@ -688,6 +783,13 @@ public class LinkResponseFilter implements ContainerResponseFilter {
     		pgAtual = Integer.parseInt(headers.getFirst(DominiosRest.X_PAGINATION_CURRENT_PAGE));
         	limitPg = Integer.parseInt(headers.getFirst(DominiosRest.X_PAGINATION_ELEMENTS_PER_PAGE));
         	maxPgs = Long.parseLong(headers.getFirst(DominiosRest.X_PAGINATION_TOTAL_PAGE));
+    	}else if(headers.containsKey(DominiosRest.X_PAGINATION_CURRENT_PAGE)
+    				&& headers.containsKey(DominiosRest.X_PAGINATION_ELEMENTS_PER_PAGE)
+    				&& headers.containsKey(DominiosRest.X_PAGINATION_HAS_NEXT)){
+    		
+    		pgAtual = Integer.parseInt(headers.getFirst(DominiosRest.X_PAGINATION_CURRENT_PAGE));
+    		limitPg = Integer.parseInt(headers.getFirst(DominiosRest.X_PAGINATION_ELEMENTS_PER_PAGE));
+    		hasNext = Boolean.valueOf(headers.getFirst(DominiosRest.X_PAGINATION_HAS_NEXT));
     	}else{
     		//Retorna lista vazia pois não tem parâmetros de paginaçao
     		return Collections.emptyList();
@@ -696,8 +798,8 @@ public class LinkResponseFilter implements ContainerResponseFilter {
     	List<SimpleEntry<String, Object>> queryParams = new ArrayList<SimpleEntry<String, Object>>(2);
     	
     	if(StringUtils.isNotBlank(linkPaginate.limitParamName())){
-    		if(uriInfo.getQueryParameters().containsKey(linkPaginate.limitParamName())){
-    			int limit = Integer.parseInt(uriInfo.getQueryParameters(false).getFirst(linkPaginate.limitParamName()));
+    		if(request.getQueryParameters().containsKey(linkPaginate.limitParamName())){
+    			int limit = Integer.parseInt(request.getQueryParameters().getFirst(linkPaginate.limitParamName()));
     			if(limit > limitPg){
     				queryParams.add(new SimpleEntry<String, Object>(linkPaginate.limitParamName(), limitPg));
     			}
@@ -710,7 +812,7 @@ public class LinkResponseFilter implements ContainerResponseFilter {
     	
     	//SELF
     	if(!linkPaginate.disableSelf()){
-    		paginationLinks.add(getLink(linkPaginate.self(), uriInfo,  queryParams, entity, path, linkPaginate.absolutePath()));
+    		paginationLinks.add(getLink(linkPaginate.self(), request,  queryParams, entity, path, linkPaginate.absolutePath()));
     	}
     	
     	//FIRST
@@ -718,7 +820,7 @@ public class LinkResponseFilter implements ContainerResponseFilter {
     		queryParamsAux.clear();
     		queryParamsAux.addAll(queryParams);
     		queryParamsAux.add(new SimpleEntry<String, Object>(linkPaginate.pageParamName(), 1));
-    		paginationLinks.add(getLink(linkPaginate.first(), uriInfo, queryParamsAux, entity, path, linkPaginate.absolutePath()));
+    		paginationLinks.add(getLink(linkPaginate.first(), request, queryParamsAux, entity, path, linkPaginate.absolutePath()));
     	}
     	
     	//PREVIOUS
@@ -726,15 +828,15 @@ public class LinkResponseFilter implements ContainerResponseFilter {
     		queryParamsAux.clear();
     		queryParamsAux.addAll(queryParams);
     		queryParamsAux.add(new SimpleEntry<String, Object>(linkPaginate.pageParamName(), pgAtual - 1));
-    		paginationLinks.add(getLink(linkPaginate.previous(), uriInfo, queryParamsAux, entity, path, linkPaginate.absolutePath()));
+    		paginationLinks.add(getLink(linkPaginate.previous(), request, queryParamsAux, entity, path, linkPaginate.absolutePath()));
     	}
     	
     	//NEXT
-    	if(!linkPaginate.disableNext() && maxPgs > pgAtual){
+    	if(!linkPaginate.disableNext() && (hasNext == null ? maxPgs > pgAtual : hasNext)){
     		queryParamsAux.clear();
     		queryParamsAux.addAll(queryParams);
     		queryParamsAux.add(new SimpleEntry<String, Object>(linkPaginate.pageParamName(), pgAtual + 1));
-    		paginationLinks.add(getLink(linkPaginate.next(), uriInfo, queryParamsAux, entity, path, linkPaginate.absolutePath()));
+    		paginationLinks.add(getLink(linkPaginate.next(), request, queryParamsAux, entity, path, linkPaginate.absolutePath()));
     	}
     	
     	//LAST
@@ -742,7 +844,7 @@ public class LinkResponseFilter implements ContainerResponseFilter {
     		queryParamsAux.clear();
     		queryParamsAux.addAll(queryParams);
     		queryParamsAux.add(new SimpleEntry<String, Object>(linkPaginate.pageParamName(), maxPgs));
-    		paginationLinks.add(getLink(linkPaginate.last(), uriInfo, queryParamsAux, entity, path, linkPaginate.absolutePath()));
+    		paginationLinks.add(getLink(linkPaginate.last(), request, queryParamsAux, entity, path, linkPaginate.absolutePath()));
     	}
     	
     	//Pagination Template
@@ -753,11 +855,71 @@ public class LinkResponseFilter implements ContainerResponseFilter {
     		if(linkPaginate.paginationTemplate().includeLimitParamTemplate()){
     			queryParamsAux.add(new SimpleEntry<String, Object>(linkPaginate.limitParamName(), linkPaginate.paginationTemplate().limitParamName()));
     		}
-    		paginationLinks.add(getLink(linkPaginate.paginationTemplate().pathParameters(), linkPaginate.paginationTemplate().queryParameters(), linkPaginate.paginationTemplate().serviceClass(), linkPaginate.paginationTemplate().serviceMethodName(), linkPaginate.paginationTemplate().basePath(), linkPaginate.paginationTemplate().includeRequestQueryParams(), linkPaginate.paginationTemplate().rel(), linkPaginate.paginationTemplate().type(), linkPaginate.paginationTemplate().title(), uriInfo, queryParamsAux, entity, path, linkPaginate.absolutePath()));
+    		paginationLinks.add(getLink(linkPaginate.paginationTemplate().pathParameters(), linkPaginate.paginationTemplate().queryParameters(), linkPaginate.paginationTemplate().serviceClass(), linkPaginate.paginationTemplate().serviceMethodName(), linkPaginate.paginationTemplate().basePath(), linkPaginate.paginationTemplate().includeRequestQueryParams(), linkPaginate.paginationTemplate().rel(), linkPaginate.paginationTemplate().type(), linkPaginate.paginationTemplate().title(), request, queryParamsAux, entity, path, linkPaginate.absolutePath()));
     	}
         	
     	return paginationLinks;
     }
+    /**
+     * Configura os links da paginacao por cursor (keyset), somente self e next.
+     * Nao utiliza o total de registros, portanto last e template de paginacao nao sao gerados
+     * @param entity
+     * @param linkPaginate
+     * @param request
+     * @param path
+     * @param headers
+     * @return
+     * @throws ApplicationException
+     */
+    private List<Link> getCursorPaginateLink(Object entity, LinkPaginate linkPaginate, RequestParameters request, Path path, MultivaluedMap<String, String> headers) throws ApplicationException{
+    	if(StringUtils.isBlank(linkPaginate.cursorParamName())){
+    		return Collections.emptyList(); 
+    	}
+    	
+    	Integer limitPg;
+    	String cursor;
+    	String nextCursor;
+    	
+    	if(entity != null && entity instanceof KeysetPage){
+    		KeysetPage<?> pEntity = (KeysetPage<?>) entity;
+    		limitPg = pEntity.getElementsPerPage();
+    		cursor = pEntity.getCursor();
+    		nextCursor = pEntity.getNextCursor();
+    	}else if(headers.containsKey(DominiosRest.X_PAGINATION_ELEMENTS_PER_PAGE)){
+    		limitPg = Integer.valueOf(headers.getFirst(DominiosRest.X_PAGINATION_ELEMENTS_PER_PAGE));
+    		//cursor da pagina atual informado na requisicao
+    		cursor = request.getQueryParameters().getFirst(linkPaginate.cursorParamName());
+    		nextCursor = headers.getFirst(DominiosRest.X_PAGINATION_NEXT_CURSOR);
+    	}else{
+    		//Retorna lista vazia pois não tem parâmetros de paginaçao
+    		return Collections.emptyList();
+    	}
+    	
+    	List<Link> paginationLinks = new ArrayList<Link>(2);
+    	List<SimpleEntry<String, Object>> queryParams = new ArrayList<SimpleEntry<String, Object>>(2);
+    	
+    	if(StringUtils.isNotBlank(linkPaginate.limitParamName()) && limitPg != null){
+    		queryParams.add(new SimpleEntry<String, Object>(linkPaginate.limitParamName(), limitPg));
+    	}
+    	
+    	//SELF - mesma pagina, com o cursor atual (primeira pagina sem cursor)
+    	if(!linkPaginate.disableSelf()){
+    		List<SimpleEntry<String, Object>> queryParamsSelf = new ArrayList<SimpleEntry<String, Object>>(queryParams);
+    		if(StringUtils.isNotBlank(cursor)){
+    			queryParamsSelf.add(new SimpleEntry<String, Object>(linkPaginate.cursorParamName(), cursor));
+    		}
+    		paginationLinks.add(getLink(linkPaginate.self(), request, queryParamsSelf, entity, path, linkPaginate.absolutePath()));
+    	}
+    	
+    	//NEXT
+    	if(!linkPaginate.disableNext() && StringUtils.isNotBlank(nextCursor)){
+    		List<SimpleEntry<String, Object>> queryParamsNext = new ArrayList<SimpleEntry<String, Object>>(queryParams);
+    		queryParamsNext.add(new SimpleEntry<String, Object>(linkPaginate.cursorParamName(), nextCursor));
+    		paginationLinks.add(getLink(linkPaginate.next(), request, queryParamsNext, entity, path, linkPaginate.absolutePath()));
+    	}
+    	
+    	return paginationLinks;
+    }
     /**
      * @param list
      * @return
@@ -765,13 +927,7 @@ public class LinkResponseFilter implements ContainerResponseFilter {
 	private <T> String getChildClassName(Collection<T> list){
     	if(list != null){
     		for(T obj: list){
-    			Class<?> klass = obj.getClass();
-    			if(klass.isAnnotationPresent(HalJsonRootName.class)){
-    				return klass.getAnnotation(HalJsonRootName.class).value();
-    			}else if(klass.isAnnotationPresent(JsonRootName.class)){
-    				return klass.getAnnotation(JsonRootName.class).value();
-    			}
-    			return obj.getClass().getSimpleName();
+    			return JsonStreamingOutput.getRootName(obj.getClass());
     		}
     	}
     	return null;
@@ -841,80 +997,30 @@ public class LinkResponseFilter implements ContainerResponseFilter {
      * @throws ApplicationException
      */
 	private Collection<String> getRequiredParamNotPresentInRequest(Method serviceMethod, UriInfo uriInfo) throws ApplicationException {
+		WSMethodMetadata metadata = WSMethodMetadata.of(serviceMethod);
 		
-		Annotation[][] parametrosAnotados = serviceMethod.getParameterAnnotations();
-		Class<?>[] parameterTypes = serviceMethod.getParameterTypes();
-		
-		QueryParam queryParam = null;
-		WSParamFormat wsParam = null;
-		DefaultValue defValue = null;
-		
-		for(int i=0; i < parametrosAnotados.length; i++){
-			Annotation[] parametroAnotado = parametrosAnotados[i];
-			if(parameterTypes[i].equals(WSFieldParam.class)){
-				for(Annotation a : parametroAnotado){
-					if(a instanceof QueryParam){
-						queryParam = (QueryParam) a;
-					}else if( a instanceof WSParamFormat){
-						wsParam = (WSParamFormat) a;
-					}else if(a instanceof DefaultValue){
-						defValue = (DefaultValue) a;
-					}
-				}
-				break;
-			}
-		}
-		
-		if(queryParam == null || wsParam == null){
+		if(metadata.getQueryParam() == null || metadata.getParamFormat() == null){
 			return null;
 		}
 		
-		List<LinkResource> listResources = new ArrayList<LinkResource>(1);
-		listResources.addAll(paramFields(serviceMethod));
-
-		if(!listResources.isEmpty()){
-			Pattern pattern = Pattern.compile(REGEX_PATH_PARAMETERS_ENTITY);
-			Matcher matcher;
+		if(!metadata.getLinkResources().isEmpty()){
 			Set<String> listParamsRemove = new HashSet<String>();
 			
 			Set<String> listParams = new HashSet<String>();
-			if(uriInfo.getQueryParameters().containsKey(queryParam.value())){
-				listParams.addAll(uriInfo.getQueryParameters(false).get(queryParam.value()));
+			if(uriInfo.getQueryParameters().containsKey(metadata.getQueryParam().value())){
+				listParams.addAll(uriInfo.getQueryParameters(false).get(metadata.getQueryParam().value()));
 			}
 			
 			//Campos forcados na annotation
-			for(String f : wsParam.forceFields()){
-				if(!listParams.contains(f)){
-					listParams.add(f);
-				}
-			}
+			listParams.addAll(metadata.getForceFields());
 			
-			if(listParams.isEmpty() && defValue != null){
-				for(String dAux : defValue.value().split(",")){
-					listParams.add(dAux);
-				}
+			if(listParams.isEmpty()){
+				listParams.addAll(metadata.getDefaultFields());
 			}
 			
-			for(LinkResource linkResource : listResources){
-				String mGroup;
-				for(String qp : linkResource.queryParameters()){
-					matcher = pattern.matcher(qp);
-					while(matcher.find()){
-						mGroup = matcher.group().replaceAll(REGEX_REPLACE_PARAM, "");
-						if(!CollectionUtil.constainsValue(listParams, mGroup)){
-							listParamsRemove.add(mGroup);
-						}
-					}
-				}
-
-				for(String qp : linkResource.pathParameters()){
-					matcher = pattern.matcher(qp);
-					while(matcher.find()){
-						mGroup = matcher.group().replaceAll(REGEX_REPLACE_PARAM, "");
-						if(!CollectionUtil.constainsValue(listParams, mGroup)){
-							listParamsRemove.add(mGroup);
-						}
-					}
+			for(String attr : metadata.getLinkAttributes()){
+				if(!CollectionUtil.constainsValue(listParams, attr)){
+					listParamsRemove.add(attr);
 				}
 			}
 			return listParamsRemove;
@@ -922,64 +1028,6 @@ public class LinkResponseFilter implements ContainerResponseFilter {
 		return null;
 	}
 	
-	/**
-	 * Parametros exigidos no metedo para criacao do link
-	 * @param method
-	 * @return
-	 */
-	private List<LinkResource> paramFields(Method method){
-		Annotation[][] parametrosAnotados = method.getParameterAnnotations();
-		Class<?>[] parameterTypes = method.getParameterTypes();
-		
-		WSParamFormat wsAnnotation = null;
-		
-		for(int i=0; i < parametrosAnotados.length; i++){
-			Annotation[] parametroAnotado = parametrosAnotados[i];
-			if(parameterTypes[i].equals(WSFieldParam.class)){
-				for(Annotation a : parametroAnotado){
-					if(a instanceof WSParamFormat){
-						wsAnnotation = (WSParamFormat) a;
-					}
-				}
-				break;
-			}
-		}
-		
-		if(wsAnnotation != null){
-			List<LinkResource> listResources = new ArrayList<LinkResource>(1);
-
-			LinkResource lr = method.getAnnotation(LinkResource.class);
-			LinkResources lrs = method.getAnnotation(LinkResources.class);
-			LinkPaginate lp = method.getAnnotation(LinkPaginate.class);
-
-			if(lr != null){
-				listResources.add(lr);
-			}
-
-			if(lrs != null){
-				if(lrs.value().length > 0){
-					listResources.addAll(CollectionUtil.convertArrayToList(lrs.value()));
-				}
-				if(!lrs.serviceClass().equals(void.class)){
-					listResources.addAll(paramFields(ReflectionUtil.getMethod(lrs.serviceClass(), lrs.serviceMethodName())));
-				}
-			}
-
-			if(lp != null){
-				if(lp.collectionLinks().value().length > 0){
-					listResources.addAll(CollectionUtil.convertArrayToList(lp.collectionLinks().value()));
-				}
-	
-				if(!lp.collectionLinks().serviceClass().equals(void.class)){
-					listResources.addAll(paramFields(ReflectionUtil.getMethod(lp.collectionLinks().serviceClass(), lp.collectionLinks().serviceMethodName())));
-				}
-			}
-			
-			return listResources;
-		}
-		return null;
-	}
-	
 	/**
 	 * 
 	 * @param value
@@ -1008,4 +1056,41 @@ public class LinkResponseFilter implements ContainerResponseFilter {
 
 		return  sb.toString(); 
 	}
-}
\ No newline at end of file
+	
+	/**
+	 * Parametros da requisicao utilizados na geracao dos links, copiados do {@link UriInfo} na thread da requisicao.
+	 * O {@link UriInfo} e vinculado a requisicao atual e nao deve ser acessado por outras threads
+	 */
+	private static final class RequestParameters {
+		
+		private final MultivaluedMap<String, String> pathParameters;
+		private final MultivaluedMap<String, String> queryParameters;
+		private final URI baseUri;
+		
+		private RequestParameters(UriInfo uriInfo) {
+			this.pathParameters = new MultivaluedHashMap<String, String>(uriInfo.getPathParameters(false));
+			this.queryParameters = new MultivaluedHashMap<String, String>(uriInfo.getQueryParameters(false));
+			this.baseUri = uriInfo.getBaseUri();
+		}
+		
+		/**
+		 * 
+		 * @return parametros do path, sem decodificar
+		 */
+		private MultivaluedMap<String, String> getPathParameters() {
+			return pathParameters;
+		}
+		
+		/**
+		 * 
+		 * @return parametros da query, sem decodificar
+		 */
+		private MultivaluedMap<String, String> getQueryParameters() {
+			return queryParameters;
+		}
+		
+		private URI getBaseUri() {
+			return baseUri;
+		}
+	}
+}
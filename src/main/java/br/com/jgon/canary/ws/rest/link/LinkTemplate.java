@@ -0,0 +1,240 @@
+/*
+ * Copyright 2017 Jurandir C. Goncalves
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package br.com.jgon.canary.ws.rest.link;
+
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.ws.rs.Path;
+import javax.ws.rs.core.UriBuilder;
+
+import org.apache.commons.lang3.StringUtils;
+
+import br.com.jgon.canary.util.ReflectionUtil;
+
+/**
+ * Definicao do link pre-compilada (pathParameters, queryParameters e path base do servico).
+ * Criada uma unica vez por definicao, a geracao do link para cada entidade somente concatena os valores.
+ *
+ * @author Jurandir C. Goncalves
+ *
+ * @version 1.0
+ *
+ */
+final class LinkTemplate {
+
+	static final Pattern REQUEST_PATH_PARAMETERS = Pattern.compile("\\{[a-z-A-Z]+\\}");
+	static final Pattern PATH_PARAMETERS_REQ = Pattern.compile("[^\\#\\$]\\{[a-z-A-Z]+\\}");
+	static final Pattern PATH_PARAMETERS_ENTITY = Pattern.compile("(\\#|\\$)\\{[a-z-A-Z\\.]+\\}");
+	static final Pattern LINK_TEMPLATE = Pattern.compile("(^\\{[a-zA-Z_-]+\\})|([^\\#\\$]\\{[a-zA-Z_-]+\\})");
+
+	private final List<String> requestPathParameters;
+	private final List<Slot> pathParameters;
+	private final List<String> queryParameterNames;
+	private final List<Slot> queryParameters;
+	private final String basePath;
+	private final boolean absolutePath;
+
+	/**
+	 *
+	 * @param linkPathParameters - pathParameters do link
+	 * @param linkQueryParameter - queryParameters do link (nome=valor)
+	 * @param serviceClass - classe do servico do link
+	 * @param serviceMethod - metodo do servico do link, utilizado quando nao informado o nome
+	 * @param linkServiceMethodName - nome do metodo do servico do link
+	 * @param linkBasePath - tipo do path base
+	 * @param path - path da requisicao
+	 * @param forceAbsolutePath - forca o path completo
+	 */
+	LinkTemplate(String[] linkPathParameters, String[] linkQueryParameter, Class<?> serviceClass, Method serviceMethod, String linkServiceMethodName, LinkResouceBasePath linkBasePath, Path path, boolean forceAbsolutePath) {
+		List<String> reqPathParam = new ArrayList<String>();
+		Matcher mReqPathParam = REQUEST_PATH_PARAMETERS.matcher(path.value());
+		while(mReqPathParam.find()){
+			String mRAux = mReqPathParam.group();
+			reqPathParam.add(mRAux.substring(1, mRAux.length() - 1));
+		}
+		this.requestPathParameters = Collections.unmodifiableList(reqPathParam);
+
+		List<Slot> pathSlots = new ArrayList<Slot>();
+		if(linkPathParameters != null){
+			for(String lpp : linkPathParameters){
+				pathSlots.add(new Slot(lpp));
+			}
+		}
+		this.pathParameters = Collections.unmodifiableList(pathSlots);
+
+		List<String> queryNames = new ArrayList<String>();
+		List<Slot> querySlots = new ArrayList<Slot>();
+		if(linkQueryParameter != null){
+			for(String lqp : linkQueryParameter){
+				if(StringUtils.isNotBlank(lqp)){
+					queryNames.add(lqp.substring(0, lqp.indexOf("=")));
+					querySlots.add(new Slot(lqp.substring(lqp.indexOf("=") + 1)));
+				}
+			}
+		}
+		this.queryParameterNames = Collections.unmodifiableList(queryNames);
+		this.queryParameters = Collections.unmodifiableList(querySlots);
+
+		this.absolutePath = linkBasePath.equals(LinkResouceBasePath.COMPLETE) || forceAbsolutePath;
+		String serviceMethodName = StringUtils.isBlank(linkServiceMethodName) ? serviceMethod.getName() : linkServiceMethodName;
+		if(absolutePath){
+			UriBuilder uriBuilder = UriBuilder.fromResource(serviceClass);
+			if(StringUtils.isNotBlank(linkServiceMethodName)){
+				uriBuilder.path(serviceClass, serviceMethodName);
+			}else{
+				uriBuilder.path(serviceMethod);
+			}
+			this.basePath = uriBuilder.toTemplate();
+		}else if(linkBasePath.equals(LinkResouceBasePath.RESOURCE)){
+			this.basePath = UriBuilder.fromResource(serviceClass).toTemplate();
+		}else if(linkBasePath.equals(LinkResouceBasePath.METHOD)){
+			this.basePath = UriBuilder.fromMethod(serviceClass, serviceMethodName).toTemplate();
+		}else{
+			this.basePath = null;
+		}
+	}
+
+	/**
+	 * Chave da definicao do link
+	 * @param linkPathParameters
+	 * @param linkQueryParameter
+	 * @param serviceClass
+	 * @param linkServiceMethodName
+	 * @param linkBasePath
+	 * @param path
+	 * @param forceAbsolutePath
+	 * @return {@link List} - comparavel por valor
+	 */
+	static List<Object> key(String[] linkPathParameters, String[] linkQueryParameter, Class<?> serviceClass, String linkServiceMethodName, LinkResouceBasePath linkBasePath, Path path, boolean forceAbsolutePath) {
+		return Arrays.<Object>asList(Arrays.asList(linkPathParameters), Arrays.asList(linkQueryParameter), serviceClass, linkServiceMethodName, linkBasePath, path.value(), forceAbsolutePath);
+	}
+
+	/**
+	 *
+	 * @param baseUri - URI base da aplicacao, obtida da requisicao
+	 * @return {@link UriBuilder} - novo builder a partir do path base
+	 */
+	UriBuilder createUriBuilder(URI baseUri) {
+		if(basePath == null){
+			return null;
+		}
+		return absolutePath ? UriBuilder.fromUri(baseUri).path(basePath) : UriBuilder.fromPath(basePath);
+	}
+
+	/**
+	 *
+	 * @return parametros do path da requisicao, na ordem definida no {@link Path}
+	 */
+	List<String> getRequestPathParameters() {
+		return requestPathParameters;
+	}
+
+	List<Slot> getPathParameters() {
+		return pathParameters;
+	}
+
+	List<String> getQueryParameterNames() {
+		return queryParameterNames;
+	}
+
+	List<Slot> getQueryParameters() {
+		return queryParameters;
+	}
+
+	/**
+	 * Parametro do link pre-processado, valores da entidade no formato ${atributo} ou #{atributo}
+	 */
+	static final class Slot {
+		private final String value;
+		private final boolean blank;
+		private final boolean request;
+		private final boolean template;
+		private final String[] literals;
+		private final String[] attributes;
+
+		Slot(String value) {
+			this.value = value;
+			this.blank = StringUtils.isBlank(value);
+			this.request = !blank && PATH_PARAMETERS_REQ.matcher(value).matches();
+			this.template = !blank && LINK_TEMPLATE.matcher(value).matches();
+
+			List<String> lits = new ArrayList<String>();
+			List<String> attrs = new ArrayList<String>();
+			if(!blank){
+				Matcher m = PATH_PARAMETERS_ENTITY.matcher(value);
+				int idx = 0;
+				while(m.find()){
+					lits.add(value.substring(idx, m.start()));
+					//remove o prefixo (# ou $) e as chaves
+					attrs.add(m.group().substring(2, m.group().length() - 1));
+					idx = m.end();
+				}
+				lits.add(value.substring(idx));
+			}
+			this.literals = lits.toArray(new String[lits.size()]);
+			this.attributes = attrs.toArray(new String[attrs.size()]);
+		}
+
+		/**
+		 *
+		 * @param entity - objeto de retorno
+		 * @return valor com os atributos da entidade, null caso algum atributo seja nulo
+		 */
+		String resolve(Object entity) {
+			if(attributes.length == 0){
+				return value;
+			}
+			StringBuilder sb = new StringBuilder(value.length() + 16);
+			for(int i=0; i < attributes.length; i++){
+				Object objRet = ReflectionUtil.getAttributteValue(entity, attributes[i]);
+				if(objRet == null){
+					return null;
+				}
+				sb.append(literals[i]).append(objRet);
+			}
+			return sb.append(literals[attributes.length]).toString();
+		}
+
+		String getValue() {
+			return value;
+		}
+
+		boolean isBlank() {
+			return blank;
+		}
+
+		/**
+		 *
+		 * @return true se o valor e obtido dos parametros do path da requisicao
+		 */
+		boolean isRequest() {
+			return request;
+		}
+
+		/**
+		 *
+		 * @return true se o link e template (ex: {page})
+		 */
+		boolean isTemplate() {
+			return template;
+		}
+	}
+}
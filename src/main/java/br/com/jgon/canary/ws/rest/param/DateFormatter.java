@@ -34,22 +34,25 @@ import br.com.jgon.canary.util.MessageSeverity;
  */
 public class DateFormatter implements StringParameterUnmarshaller<Date> {
 
-	private SimpleDateFormat formatter;
+	//SimpleDateFormat nao e thread-safe, uma instancia por thread (mesma semantica do padrao informado em @DateFormat)
+	private ThreadLocal<SimpleDateFormat> formatter;
 	
 	@Override
 	public void setAnnotations(Annotation[] annotations) {
 		 DateFormat format = FindAnnotation.findAnnotation(annotations, DateFormat.class);
-		 if(format == null){
-			 formatter = new SimpleDateFormat("yyyy-MM-dd");
-		 }else{
-			 formatter = new SimpleDateFormat(format.value());
-		 }
+		 final String pattern = format == null ? "yyyy-MM-dd" : format.value();
+		 formatter = new ThreadLocal<SimpleDateFormat>(){
+			 @Override
+			 protected SimpleDateFormat initialValue() {
+				 return new SimpleDateFormat(pattern);
+			 }
+		 };
 	}
 
 	@Override
 	public Date fromString(String str) {
 		 try{
-            return formatter.parse(str);
+            return formatter.get().parse(str);
          }catch (ParseException e){
         	throw new ApplicationRuntimeException(MessageSeverity.ERROR, e, MessageFactory.getMessage("error.parse-date", str));
          }
@@ -0,0 +1,263 @@
+/*
+ * Copyright 2017 Jurandir C. Goncalves
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package br.com.jgon.canary.ws.rest.param;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.QueryParam;
+
+import br.com.jgon.canary.util.ReflectionUtil;
+import br.com.jgon.canary.ws.rest.link.LinkPaginate;
+import br.com.jgon.canary.ws.rest.link.LinkResource;
+import br.com.jgon.canary.ws.rest.link.LinkResources;
+
+/**
+ * Registro, por metodo de servico, do parametro {@link WSFieldParam} e dos atributos da entidade exigidos pelos links.
+ * Resolvido uma unica vez por metodo, utilizado na requisicao (WsFieldsParamFormatter) e na resposta (LinkResponseFilter).
+ *
+ * @author Jurandir C. Goncalves
+ *
+ * @version 1.0
+ *
+ */
+public final class WSMethodMetadata {
+
+	private static final ConcurrentMap<Method, WSMethodMetadata> REGISTRY = new ConcurrentHashMap<Method, WSMethodMetadata>();
+	private static final Pattern PATH_PARAMETERS_ENTITY = Pattern.compile("(\\#|\\$)\\{[a-z-A-Z\\.]+\\}");
+
+	private final int fieldParamPosition;
+	private final QueryParam queryParam;
+	private final WSParamFormat paramFormat;
+	private final List<String> forceFields;
+	private final List<String> defaultFields;
+	private final List<LinkResource> linkResources;
+	private final Set<String> linkAttributes;
+
+	/**
+	 *
+	 * @param method - metodo do servico
+	 */
+	private WSMethodMetadata(Method method) {
+		Annotation[][] parametrosAnotados = method.getParameterAnnotations();
+		Class<?>[] parameterTypes = method.getParameterTypes();
+
+		int position = -1;
+		QueryParam query = null;
+		WSParamFormat format = null;
+		DefaultValue defValue = null;
+
+		for(int i=0; i < parametrosAnotados.length; i++){
+			if(parameterTypes[i].equals(WSFieldParam.class)){
+				position = i;
+				for(Annotation a : parametrosAnotados[i]){
+					if(a instanceof QueryParam){
+						query = (QueryParam) a;
+					}else if(a instanceof WSParamFormat){
+						format = (WSParamFormat) a;
+					}else if(a instanceof DefaultValue){
+						defValue = (DefaultValue) a;
+					}
+				}
+				break;
+			}
+		}
+
+		this.fieldParamPosition = position;
+		this.queryParam = query;
+		this.paramFormat = format;
+		this.forceFields = format == null ? Collections.<String>emptyList() : Collections.unmodifiableList(Arrays.asList(format.forceFields()));
+		this.defaultFields = defValue == null ? Collections.<String>emptyList() : Collections.unmodifiableList(Arrays.asList(defValue.value().split(",")));
+
+		List<LinkResource> listResources = new ArrayList<LinkResource>(1);
+		if(format != null){
+			Set<Method> visited = new HashSet<Method>();
+			visited.add(method);
+			collectLinkResources(method, listResources, visited);
+		}
+		this.linkResources = Collections.unmodifiableList(listResources);
+
+		Set<String> attributes = new LinkedHashSet<String>();
+		for(LinkResource linkResource : listResources){
+			for(String qp : linkResource.queryParameters()){
+				addAttributes(qp, attributes);
+			}
+			for(String pp : linkResource.pathParameters()){
+				addAttributes(pp, attributes);
+			}
+		}
+		this.linkAttributes = Collections.unmodifiableSet(attributes);
+	}
+
+	/**
+	 * Retorna os metadados do metodo, criando-os na primeira chamada
+	 * @param method - metodo do servico
+	 * @return {@link WSMethodMetadata}
+	 */
+	public static WSMethodMetadata of(Method method) {
+		WSMethodMetadata metadata = REGISTRY.get(method);
+		if(metadata == null){
+			metadata = new WSMethodMetadata(method);
+			WSMethodMetadata existing = REGISTRY.putIfAbsent(method, metadata);
+			if(existing != null){
+				metadata = existing;
+			}
+		}
+		return metadata;
+	}
+
+	/**
+	 * Links do metodo, incluindo os clonados de outros servicos (serviceClass/serviceMethodName)
+	 * @param method - metodo
+	 * @param listResources - links encontrados
+	 * @param visited - metodos ja percorridos, evita referencia ciclica
+	 */
+	private static void collectLinkResources(Method method, List<LinkResource> listResources, Set<Method> visited) {
+		LinkResource lr = method.getAnnotation(LinkResource.class);
+		LinkResources lrs = method.getAnnotation(LinkResources.class);
+		LinkPaginate lp = method.getAnnotation(LinkPaginate.class);
+
+		if(lr != null){
+			listResources.add(lr);
+		}
+
+		if(lrs != null){
+			Collections.addAll(listResources, lrs.value());
+			if(!lrs.serviceClass().equals(void.class)){
+				collectLinkedResources(ReflectionUtil.getMethod(lrs.serviceClass(), lrs.serviceMethodName()), listResources, visited);
+			}
+		}
+
+		if(lp != null){
+			Collections.addAll(listResources, lp.collectionLinks().value());
+			if(!lp.collectionLinks().serviceClass().equals(void.class)){
+				collectLinkedResources(ReflectionUtil.getMethod(lp.collectionLinks().serviceClass(), lp.collectionLinks().serviceMethodName()), listResources, visited);
+			}
+		}
+	}
+
+	/**
+	 * Links do servico vinculado, considerados somente se o metodo possuir {@link WSParamFormat}
+	 * @param method - metodo vinculado
+	 * @param listResources - links encontrados
+	 * @param visited - metodos ja percorridos
+	 */
+	private static void collectLinkedResources(Method method, List<LinkResource> listResources, Set<Method> visited) {
+		if(method != null && visited.add(method) && hasParamFormat(method)){
+			collectLinkResources(method, listResources, visited);
+		}
+	}
+
+	/**
+	 *
+	 * @param method - metodo
+	 * @return true se o parametro {@link WSFieldParam} possui {@link WSParamFormat}
+	 */
+	private static boolean hasParamFormat(Method method) {
+		Annotation[][] parametrosAnotados = method.getParameterAnnotations();
+		Class<?>[] parameterTypes = method.getParameterTypes();
+		for(int i=0; i < parametrosAnotados.length; i++){
+			if(parameterTypes[i].equals(WSFieldParam.class)){
+				for(Annotation a : parametrosAnotados[i]){
+					if(a instanceof WSParamFormat){
+						return true;
+					}
+				}
+				return false;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Atributos no formato ${atributo} ou #{atributo}
+	 * @param value - parametro do link
+	 * @param attributes - atributos encontrados
+	 */
+	private static void addAttributes(String value, Set<String> attributes) {
+		Matcher matcher = PATH_PARAMETERS_ENTITY.matcher(value);
+		while(matcher.find()){
+			//remove o prefixo (# ou $) e as chaves
+			attributes.add(matcher.group().substring(2, matcher.group().length() - 1));
+		}
+	}
+
+	/**
+	 *
+	 * @return posicao do parametro {@link WSFieldParam}, -1 caso nao exista
+	 */
+	public int getFieldParamPosition() {
+		return fieldParamPosition;
+	}
+
+	/**
+	 *
+	 * @return {@link QueryParam} do parametro {@link WSFieldParam}
+	 */
+	public QueryParam getQueryParam() {
+		return queryParam;
+	}
+
+	/**
+	 *
+	 * @return {@link WSParamFormat} do parametro {@link WSFieldParam}
+	 */
+	public WSParamFormat getParamFormat() {
+		return paramFormat;
+	}
+
+	/**
+	 *
+	 * @return campos forcados em {@link WSParamFormat#forceFields()}
+	 */
+	public List<String> getForceFields() {
+		return forceFields;
+	}
+
+	/**
+	 *
+	 * @return campos do {@link DefaultValue}
+	 */
+	public List<String> getDefaultFields() {
+		return defaultFields;
+	}
+
+	/**
+	 *
+	 * @return links que utilizam atributos da entidade, vazio caso nao exista {@link WSParamFormat}
+	 */
+	public List<LinkResource> getLinkResources() {
+		return linkResources;
+	}
+
+	/**
+	 *
+	 * @return atributos da entidade exigidos pelos links
+	 */
+	public Set<String> getLinkAttributes() {
+		return linkAttributes;
+	}
+}
@@ -15,12 +15,8 @@ package br.com.jgon.canary.ws.rest.param;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
+import java.util.LinkedHashSet;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import javax.ws.rs.container.ResourceInfo;
 import javax.ws.rs.core.Context;
@@ -30,11 +26,6 @@ import org.jboss.resteasy.util.FindAnnotation;
 
 import br.com.jgon.canary.exception.ApplicationException;
 import br.com.jgon.canary.exception.ApplicationRuntimeException;
-import br.com.jgon.canary.util.CollectionUtil;
-import br.com.jgon.canary.util.ReflectionUtil;
-import br.com.jgon.canary.ws.rest.link.LinkPaginate;
-import br.com.jgon.canary.ws.rest.link.LinkResource;
-import br.com.jgon.canary.ws.rest.link.LinkResources;
 /**
  * Intercepta a requisicao para tratamento dos campos
  * 
@@ -48,9 +39,6 @@ public class WsFieldsParamFormatter implements StringParameterUnmarshaller<WSFie
 	private Class<?> returnType;
 	private String[] forceFields;
 	
-	private static final String REGEX_PATH_PARAMETERS = "(\\#|\\$)\\{[a-z-A-Z\\.]+\\}";
-	private static final String REGEX_REPLACE_PARAM = "\\#|\\$|\\{|\\}";
-	
 	@Context
 	private ResourceInfo resourceInfo;
 	
@@ -88,103 +76,16 @@ public class WsFieldsParamFormatter implements StringParameterUnmarshaller<WSFie
 	 * @return
 	 */
 	public String configRequiredParam(Method serviceMethod, String params) {
-		List<LinkResource> listResources = new ArrayList<LinkResource>(1);
-		listResources.addAll(paramFields(serviceMethod));
+		WSMethodMetadata metadata = WSMethodMetadata.of(serviceMethod);
 
-		if(!listResources.isEmpty()){
-			Pattern pattern = Pattern.compile(REGEX_PATH_PARAMETERS);
-			Matcher matcher;
-			Set<String> listFieldParam = new HashSet<String>();
+		if(!metadata.getLinkResources().isEmpty()){
+			Set<String> listFieldParam = new LinkedHashSet<String>();
 			
 			listFieldParam.add(params);
-			
-			for(LinkResource linkResource : listResources){
-				for(String qp : linkResource.queryParameters()){
-					matcher = pattern.matcher(qp);
-					while(matcher.find()){
-						listFieldParam.add(matcher.group().replaceAll(REGEX_REPLACE_PARAM, ""));
-					}
-				}
-
-				for(String qp : linkResource.pathParameters()){
-					matcher = pattern.matcher(qp);
-					while(matcher.find()){
-						listFieldParam.add(matcher.group().replaceAll(REGEX_REPLACE_PARAM, ""));
-					}
-				}
-			}
+			listFieldParam.addAll(metadata.getLinkAttributes());
 
-			StringBuilder sb = new StringBuilder();
-			listFieldParam.forEach(item -> {
-				if(sb.length() != 0){
-					sb.append(",");
-				}
-				sb.append(item);
-				
-			});
-			
-			return sb.toString();
+			return String.join(",", listFieldParam);
 		}
 		return params;
 	}
-	
-	/**
-	 * 
-	 * @param method
-	 * @return
-	 */
-	private List<LinkResource> paramFields(Method method){
-		Annotation[][] parametrosAnotados = method.getParameterAnnotations();
-		Class<?>[] parameterTypes = method.getParameterTypes();
-		
-		WSParamFormat wsAnnotation = null;
-		
-		for(int i=0; i < parametrosAnotados.length; i++){
-			Annotation[] parametroAnotado = parametrosAnotados[i];
-			if(parameterTypes[i].equals(WSFieldParam.class)){
-				for(Annotation a : parametroAnotado){
-					if(a instanceof WSParamFormat){
-						wsAnnotation = (WSParamFormat) a;
-					}
-				}
-				break;
-			}
-		}
-		
-		if(wsAnnotation != null){
-			List<LinkResource> listResources = new ArrayList<LinkResource>(1);
-
-			LinkResource lr = method.getAnnotation(LinkResource.class);
-			LinkResources lrs = method.getAnnotation(LinkResources.class);
-			LinkPaginate lp = method.getAnnotation(LinkPaginate.class);
-
-			if(lr != null){
-				listResources.add(lr);
-			}
-
-			if(lrs != null){
-				if(lrs.value().length > 0){
-					listResources.addAll(CollectionUtil.convertArrayToList(lrs.value()));
-				}
-			
-				if(!lrs.serviceClass().equals(void.class)){
-					listResources.addAll(paramFields(ReflectionUtil.getMethod(lrs.serviceClass(), lrs.serviceMethodName())));
-				}
-			}
-
-			if(lp != null){
-				if(lp.collectionLinks().value().length > 0){
-					listResources.addAll(CollectionUtil.convertArrayToList(lp.collectionLinks().value()));
-				}
-	
-				if(!lp.collectionLinks().serviceClass().equals(void.class)){
-					listResources.addAll(paramFields(ReflectionUtil.getMethod(lp.collectionLinks().serviceClass(), lp.collectionLinks().serviceMethodName())));
-				}
-			}
-			
-			return listResources;
-		}
-		
-		return null;
-	}
 }
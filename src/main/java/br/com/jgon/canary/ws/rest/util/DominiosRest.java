@@ -26,6 +26,9 @@ public abstract class DominiosRest {
 	public static final String X_PAGINATION_CURRENT_PAGE 		= "X-Pagination-Current-Page";
 	public static final String X_PAGINATION_ELEMENTS_PER_PAGE 	= "X-Pagination-Per-Page";
 	public static final String X_PAGINATION_TOTAL_PAGE 			= "X-Pagination-Page-Count";
+	public static final String X_PAGINATION_NEXT_CURSOR 		= "X-Pagination-Next-Cursor";
+	public static final String X_PAGINATION_HAS_NEXT 			= "X-Pagination-Has-Next";
+	public static final String X_PAGINATION_COUNT_MODE 			= "X-Pagination-Count-Mode";
 	public static final String LINK_HEADER = "Link";
 	
 	/**
@@ -34,6 +34,7 @@ import org.slf4j.LoggerFactory;
 
 import br.com.jgon.canary.exception.ApplicationException;
 import br.com.jgon.canary.persistence.DAOUtil;
+import br.com.jgon.canary.util.ClassMetadata;
 import br.com.jgon.canary.util.MessageSeverity;
 import br.com.jgon.canary.util.ReflectionUtil;
 
@@ -92,7 +93,7 @@ public class WSMapper {
 						do{
 							idxStr++;
 							idxEnd = fNome.indexOf(".", idxStr);
-							fldCheck = ReflectionUtil.getAttribute(testClass, fNome.substring(idxStr, idxEnd < 0 ? fNome.length() : idxEnd));
+							fldCheck = ClassMetadata.of(testClass).getField(fNome.substring(idxStr, idxEnd < 0 ? fNome.length() : idxEnd));
 							if(fldCheck == null){
 								subObject = false;
 								break;
@@ -103,7 +104,7 @@ public class WSMapper {
 						}while(idxStr >= 0);
 					}
 					
-					fldCheck = fldCheck != null ? fldCheck :  ReflectionUtil.getAttribute(responseClass, fNome.contains(":") ? fNome.substring(0, fNome.indexOf(":")) : fNome);
+					fldCheck = fldCheck != null ? fldCheck :  ClassMetadata.of(responseClass).getField(fNome.contains(":") ? fNome.substring(0, fNome.indexOf(":")) : fNome);
 					
 					WSAttribute wsMapperAttribute = null;
 					if(fldCheck != null && fldCheck.isAnnotationPresent(WSAttribute.class)){
@@ -157,7 +158,7 @@ public class WSMapper {
 		}
 		
 		List<String> retorno = new ArrayList<String>(0);
-		for(Field fldCheckAux : ReflectionUtil.listAttributes(type)){
+		for(Field fldCheckAux : ClassMetadata.of(type).getFields()){
 			if(isModifierValid(fldCheckAux)){
 				WSAttribute wsMapperAttributeFieldAux = null;
 				if(fldCheckAux.isAnnotationPresent(WSAttribute.class)){
@@ -241,7 +242,7 @@ public class WSMapper {
 		}
 		
 		StringBuilder sb = new StringBuilder();
-		List<Field> fieldClass = ReflectionUtil.listAttributes(klass);
+		List<Field> fieldClass = ClassMetadata.of(klass).getFields();
 
 		for(Field fl : fieldClass){
 			if(fl.isAnnotationPresent(WSTransient.class)){
@@ -43,7 +43,8 @@ public class JsonCollectionLinkEntitySerializer extends JsonSerializer<JsonColle
 		if(entity.getEmbedded() instanceof Collection<?>){
 			gen.writeObjectFieldStart("_embedded");
 			if(!entity.getEmbedded().isEmpty()){
-				gen.writeObjectField(entity.getItemsName(), entity.getEmbedded());
+				//utiliza o provider atual, mantendo a configuracao da serializacao (ex: JsonProjection)
+				arg2.defaultSerializeField(entity.getItemsName(), entity.getEmbedded(), gen);
 			}
 			gen.writeEndObject();
 		}else{
@@ -62,7 +63,7 @@ public class JsonCollectionLinkEntitySerializer extends JsonSerializer<JsonColle
 	 * @param gen
 	 * @throws IOException
 	 */
-	private void serializeHalLink(List<LinkEntity> listLink, JsonGenerator gen) throws IOException{
+	static void serializeHalLink(List<LinkEntity> listLink, JsonGenerator gen) throws IOException{
 		gen.writeObjectFieldStart("_links");
 		for(LinkEntity le : listLink){
 			String relValue = le.getRel();
@@ -77,7 +78,7 @@ public class JsonCollectionLinkEntitySerializer extends JsonSerializer<JsonColle
 	 * @param gen
 	 * @throws IOException
 	 */
-	private void serializeLink(List<LinkEntity> listLink, JsonGenerator gen) throws IOException{
+	static void serializeLink(List<LinkEntity> listLink, JsonGenerator gen) throws IOException{
 		gen.writeArrayFieldStart("_links");
 		for(LinkEntity le : listLink){
 			gen.writeObject(le);
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2017 Jurandir C. Goncalves
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package br.com.jgon.canary.ws.rest.util.json;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.PropertyName;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+
+/**
+ * Projecao dos atributos na serializacao.
+ * Os atributos nao solicitados (ex: "endereco.cidade") sao omitidos durante a escrita do json,
+ * sem alterar o objeto (entidades JPA gerenciadas nao sao modificadas).
+ *
+ * @author Jurandir C. Goncalves
+ *
+ * @version 1.0
+ *
+ */
+public final class JsonProjection {
+
+	static final String ATTRIBUTE = JsonProjection.class.getName();
+
+	private static final Map<ObjectMapper, ObjectMapper> MAPPERS = Collections.synchronizedMap(new WeakHashMap<ObjectMapper, ObjectMapper>());
+	private static final ObjectMapper DEFAULT_MAPPER = new ObjectMapper();
+
+	private final Node root;
+
+	/**
+	 *
+	 * @param root - arvore dos atributos omitidos
+	 */
+	private JsonProjection(Node root) {
+		this.root = root;
+	}
+
+	/**
+	 * Cria a projecao a partir dos atributos omitidos
+	 * @param excludedAttributes - atributos, niveis separados por ponto (ex: endereco.cidade)
+	 * @return {@link JsonProjection} - null caso nao exista atributo
+	 */
+	public static JsonProjection of(Collection<String> excludedAttributes) {
+		if(excludedAttributes == null || excludedAttributes.isEmpty()){
+			return null;
+		}
+		Node root = new Node();
+		for(String attr : excludedAttributes){
+			Node node = root;
+			for(String name : attr.split("\\.")){
+				node = node.child(name);
+			}
+			node.excluded = true;
+		}
+		return new JsonProjection(root);
+	}
+
+	/**
+	 * Writer com a projecao aplicada
+	 * @param mapper - configuracao da aplicacao, caso nulo utiliza a configuracao padrao
+	 * @return {@link ObjectWriter}
+	 */
+	public ObjectWriter writer(ObjectMapper mapper) {
+		return configure(mapper).writer()
+				.withAttribute(ATTRIBUTE, root)
+				.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+	}
+
+	/**
+	 * Copia da configuracao com o tratamento da projecao, criada uma unica vez por {@link ObjectMapper}
+	 * @param mapper - configuracao da aplicacao
+	 * @return {@link ObjectMapper}
+	 */
+	private static ObjectMapper configure(ObjectMapper mapper) {
+		ObjectMapper base = mapper == null ? DEFAULT_MAPPER : mapper;
+		ObjectMapper projection = MAPPERS.get(base);
+		if(projection == null){
+			projection = base.copy();
+			projection.registerModule(new SimpleModule(JsonProjection.class.getSimpleName()).setSerializerModifier(new ProjectionSerializerModifier()));
+			MAPPERS.put(base, projection);
+		}
+		return projection;
+	}
+
+	/**
+	 * Nivel da arvore de atributos
+	 */
+	static final class Node {
+		private final Map<String, Node> children = new HashMap<String, Node>();
+		private boolean excluded;
+
+		private Node child(String name) {
+			Node node = children.get(name);
+			if(node == null){
+				node = new Node();
+				children.put(name, node);
+			}
+			return node;
+		}
+
+		Node getChild(String name) {
+			return children.get(name);
+		}
+
+		boolean isExcluded() {
+			return excluded;
+		}
+	}
+
+	/**
+	 * Substitui os atributos dos beans pelo {@link ProjectionPropertyWriter}
+	 */
+	private static final class ProjectionSerializerModifier extends BeanSerializerModifier {
+		@Override
+		public List<BeanPropertyWriter> changeProperties(SerializationConfig config, BeanDescription beanDesc, List<BeanPropertyWriter> beanProperties) {
+			//nome do atributo na classe, o nome no json pode ser alterado (ex: @JsonProperty, PropertyNamingStrategy)
+			Map<String, String> attributeNames = new HashMap<String, String>();
+			for(BeanPropertyDefinition property : beanDesc.findProperties()){
+				attributeNames.put(property.getName(), property.getInternalName());
+			}
+			for(int i=0; i < beanProperties.size(); i++){
+				BeanPropertyWriter writer = beanProperties.get(i);
+				String attributeName = attributeNames.get(writer.getName());
+				beanProperties.set(i, new ProjectionPropertyWriter(writer, attributeName == null ? writer.getMember().getName() : attributeName));
+			}
+			return beanProperties;
+		}
+	}
+
+	/**
+	 * Omite o atributo quando excluido na projecao e ajusta o nivel atual da arvore para os atributos filhos
+	 */
+	private static final class ProjectionPropertyWriter extends BeanPropertyWriter {
+		private static final long serialVersionUID = 1L;
+
+		private final String attributeName;
+
+		/**
+		 *
+		 * @param base - atributo original
+		 * @param attributeName - nome do atributo na classe, utilizado na projecao
+		 */
+		ProjectionPropertyWriter(BeanPropertyWriter base, String attributeName) {
+			super(base);
+			this.attributeName = attributeName;
+		}
+
+		ProjectionPropertyWriter(ProjectionPropertyWriter base, PropertyName name) {
+			super(base, name);
+			this.attributeName = base.attributeName;
+		}
+
+		/**
+		 * Mantem a projecao nos atributos renomeados (ex: entidade com {@link com.fasterxml.jackson.annotation.JsonUnwrapped})
+		 */
+		@Override
+		protected BeanPropertyWriter _new(PropertyName newName) {
+			return new ProjectionPropertyWriter(this, newName);
+		}
+
+		@Override
+		public void serializeAsField(Object bean, JsonGenerator gen, SerializerProvider prov) throws Exception {
+			Node node = (Node) prov.getAttribute(ATTRIBUTE);
+			if(node == null){
+				super.serializeAsField(bean, gen, prov);
+				return;
+			}
+			Node child = node.getChild(attributeName);
+			if(child != null && child.isExcluded()){
+				return;
+			}
+			prov.setAttribute(ATTRIBUTE, child);
+			try {
+				super.serializeAsField(bean, gen, prov);
+			} finally {
+				prov.setAttribute(ATTRIBUTE, node);
+			}
+		}
+	}
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2017 Jurandir C. Goncalves
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package br.com.jgon.canary.ws.rest.util.json;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+/**
+ * Prepara a entidade para serializacao com projecao dos atributos
+ *
+ * @author Jurandir C. Goncalves
+ * 
+ * @version 1.0
+ *
+ */
+@JsonSerialize(using=JsonProjectionEntitySerializer.class)
+public class JsonProjectionEntity {
+
+	private final Object entity;
+	private final JsonProjection projection;
+
+	/**
+	 * 
+	 * @param entity - entidade, colecao ou entidade com links
+	 * @param projection - atributos omitidos
+	 */
+	public JsonProjectionEntity(Object entity, JsonProjection projection) {
+		super();
+		this.entity = entity;
+		this.projection = projection;
+	}
+
+	public Object getEntity() {
+		return entity;
+	}
+
+	public JsonProjection getProjection() {
+		return projection;
+	}
+	
+	/**
+	 * 
+	 * @param entity - nova entidade
+	 * @return {@link JsonProjectionEntity} - com a mesma projecao
+	 */
+	public JsonProjectionEntity withEntity(Object entity) {
+		return new JsonProjectionEntity(entity, projection);
+	}
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2017 Jurandir C. Goncalves
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package br.com.jgon.canary.ws.rest.util.json;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+/**
+ * Serializa a entidade aplicando a projecao dos atributos
+ *
+ * @author Jurandir C. Goncalves
+ * 
+ * @version 1.0
+ *
+ */
+public class JsonProjectionEntitySerializer extends JsonSerializer<JsonProjectionEntity>{
+
+	public JsonProjectionEntitySerializer() {
+		
+	}
+	
+	@Override
+	public void serialize(JsonProjectionEntity entity, JsonGenerator gen, SerializerProvider arg2) throws IOException, JsonProcessingException {
+		ObjectMapper mapper = gen.getCodec() instanceof ObjectMapper ? (ObjectMapper) gen.getCodec() : null;
+		entity.getProjection().writer(mapper).writeValue(gen, entity.getEntity());
+	}
+}
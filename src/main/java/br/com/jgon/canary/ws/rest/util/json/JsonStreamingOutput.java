@@ -0,0 +1,216 @@
+/*
+ * Copyright 2017 Jurandir C. Goncalves
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package br.com.jgon.canary.ws.rest.util.json;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.StreamingOutput;
+
+import com.fasterxml.jackson.annotation.JsonRootName;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import br.com.jgon.canary.ws.rest.util.HalJsonRootName;
+
+/**
+ * Escreve a colecao de forma incremental a partir de um {@link Stream} (ex: GenericDAO.stream).
+ * Os itens sao serializados um a um, sem montar a lista completa em memoria.
+ * Quando informado o {@link JsonCollectionLinkEntity} o formato e o mesmo do {@link JsonCollectionLinkEntitySerializer}
+ * (paginacao, _embedded e _links), caso contrario e gerado um array simples.
+ * <p>
+ * Os itens sao lidos durante a escrita da resposta, apos o termino do metodo do servico: o {@link Stream} deve utilizar um
+ * EntityManager estendido ou gerenciado pela aplicacao, ou uma transacao mantida aberta ate a escrita
+ * (o EntityManager transacional do metodo ja estara fechado). O {@link Stream} e fechado ao final da escrita; quando a resposta
+ * nao for escrita (ex: erro em outro filtro, requisicao HEAD) deve ser fechado por {@link #close()}.
+ *
+ * @author Jurandir C. Goncalves
+ *
+ * @version 1.0
+ *
+ */
+public class JsonStreamingOutput implements StreamingOutput, Closeable {
+
+	private final ObjectMapper mapper;
+	private final Stream<?> elements;
+	private final Function<Object, Object> itemMapper;
+	private final JsonCollectionLinkEntity collection;
+	private JsonProjection projection;
+	private final AtomicBoolean closed = new AtomicBoolean();
+
+	/**
+	 *
+	 * @param mapper - configuracao da serializacao
+	 * @param elements - itens
+	 * @param itemMapper - ajusta o item antes da serializacao (ex: inclusao de links), opcional
+	 */
+	public JsonStreamingOutput(ObjectMapper mapper, Stream<?> elements, Function<Object, Object> itemMapper) {
+		this(mapper, elements, itemMapper, null);
+	}
+
+	/**
+	 *
+	 * @param mapper - configuracao da serializacao
+	 * @param elements - itens
+	 * @param itemMapper - ajusta o item antes da serializacao (ex: inclusao de links), opcional
+	 * @param collection - dados da colecao (links e paginacao), o embedded e desconsiderado
+	 */
+	public JsonStreamingOutput(ObjectMapper mapper, Stream<?> elements, Function<Object, Object> itemMapper, JsonCollectionLinkEntity collection) {
+		this.mapper = mapper;
+		this.elements = elements;
+		this.itemMapper = itemMapper;
+		this.collection = collection;
+	}
+
+	public JsonProjection getProjection() {
+		return projection;
+	}
+
+	/**
+	 *
+	 * @param projection - atributos omitidos dos itens, opcional
+	 */
+	public void setProjection(JsonProjection projection) {
+		this.projection = projection;
+	}
+
+	@Override
+	public void write(OutputStream output) throws IOException, WebApplicationException {
+		JsonGenerator gen = mapper.getFactory().createGenerator(output, JsonEncoding.UTF8);
+		gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+		//em caso de erro o json fica incompleto, indicando ao cliente que a resposta nao foi finalizada
+		gen.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+		//sem flush a cada item, o buffer do gerador define o envio
+		ObjectWriter writer = projection == null ? mapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE) : projection.writer(mapper);
+		try {
+			Iterator<?> it = elements.iterator();
+			if(collection == null){
+				gen.writeStartArray();
+				while(it.hasNext()){
+					writeItem(gen, writer, it.next());
+				}
+				gen.writeEndArray();
+			}else{
+				writeCollection(gen, writer, it);
+			}
+		} finally {
+			try {
+				gen.close();
+			} finally {
+				close();
+			}
+		}
+	}
+
+	/**
+	 * Fecha o {@link Stream} de origem (ex: cursor do banco de dados), sem efeito caso ja esteja fechado
+	 */
+	@Override
+	public void close() {
+		if(closed.compareAndSet(false, true)){
+			elements.close();
+		}
+	}
+
+	/**
+	 * Fecha a entidade da resposta quando for um {@link Stream} ou {@link JsonStreamingOutput} que nao sera escrito
+	 * @param entity - entidade da resposta
+	 */
+	public static void closeEntity(Object entity) {
+		if(entity instanceof JsonStreamingOutput){
+			((JsonStreamingOutput) entity).close();
+		}else if(entity instanceof Stream){
+			((Stream<?>) entity).close();
+		}
+	}
+
+	/**
+	 *
+	 * @param gen - gerador
+	 * @param writer - serializacao dos itens
+	 * @param it - itens
+	 * @throws IOException
+	 */
+	private void writeCollection(JsonGenerator gen, ObjectWriter writer, Iterator<?> it) throws IOException {
+		gen.writeStartObject();
+		if(collection.isHalLink()
+				&& collection.getTotalElements() != null
+				&& collection.getElementsPerPage() != null
+				&& collection.getCurrentPage() != null
+				&& collection.getTotalPages() != null){
+
+			gen.writeObjectField("currentPage", collection.getCurrentPage());
+			gen.writeObjectField("elementsPerPage", collection.getElementsPerPage());
+			gen.writeObjectField("totalElements", collection.getTotalElements());
+			gen.writeObjectField("totalPages", collection.getTotalPages());
+		}
+
+		gen.writeObjectFieldStart("_embedded");
+		if(it.hasNext()){
+			Object item = it.next();
+			String itemsName = collection.getItemsName();
+			if(itemsName == null){
+				itemsName = getRootName(item.getClass()) + "Items";
+			}
+			gen.writeArrayFieldStart(itemsName);
+			writeItem(gen, writer, item);
+			while(it.hasNext()){
+				writeItem(gen, writer, it.next());
+			}
+			gen.writeEndArray();
+		}
+		gen.writeEndObject();
+
+		if(collection.isHalLink()){
+			JsonCollectionLinkEntitySerializer.serializeHalLink(collection.getListLink(), gen);
+		}else{
+			JsonCollectionLinkEntitySerializer.serializeLink(collection.getListLink(), gen);
+		}
+		gen.writeEndObject();
+	}
+
+	/**
+	 *
+	 * @param gen - gerador
+	 * @param writer - serializacao dos itens
+	 * @param item - item da colecao
+	 * @throws IOException
+	 */
+	private void writeItem(JsonGenerator gen, ObjectWriter writer, Object item) throws IOException {
+		writer.writeValue(gen, itemMapper == null ? item : itemMapper.apply(item));
+	}
+
+	/**
+	 * Nome do item na colecao
+	 * @param klass - classe do item
+	 * @return valor de {@link HalJsonRootName} ou {@link JsonRootName}, caso nao informado o nome da classe
+	 */
+	public static String getRootName(Class<?> klass) {
+		if(klass.isAnnotationPresent(HalJsonRootName.class)){
+			return klass.getAnnotation(HalJsonRootName.class).value();
+		}else if(klass.isAnnotationPresent(JsonRootName.class)){
+			return klass.getAnnotation(JsonRootName.class).value();
+		}
+		return klass.getSimpleName();
+	}
+}
@@ -0,0 +1,129 @@
+package br.com.jgon.canary.persistence;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.persistence.Entity;
+import javax.persistence.ManyToOne;
+import javax.persistence.OneToMany;
+
+import org.junit.Test;
+
+public class CountCacheTest {
+
+	@Test
+	public void sameFilterSameKey() {
+		String key = CountCache.key(Pedido.class, filter(new Pedido(1L, "abc")).addWhereIn("id", Arrays.asList(1L, 2L)));
+
+		assertNotNull(key);
+		assertEquals(key, CountCache.key(Pedido.class, filter(new Pedido(1L, "abc")).addWhereIn("id", Arrays.asList(1L, 2L))));
+	}
+
+	@Test
+	public void differentValuesDifferentKey() {
+		String key = CountCache.key(Pedido.class, filter(new Pedido(1L, "abc")));
+
+		assertNotEquals(key, CountCache.key(Pedido.class, filter(new Pedido(1L, "abd"))));
+		assertNotEquals(key, CountCache.key(Pedido.class, filter(new Pedido(2L, "abc"))));
+	}
+
+	@Test
+	public void emptyCollectionIgnored() {
+		Pedido pedido = new Pedido(1L, "abc");
+		pedido.itens = new ArrayList<Item>();
+
+		assertEquals(CountCache.key(Pedido.class, filter(new Pedido(1L, "abc"))), CountCache.key(Pedido.class, filter(pedido)));
+	}
+
+	@Test
+	public void associationNotCached() {
+		Pedido pedido = new Pedido(1L, "abc");
+		pedido.itens = new ArrayList<Item>(Arrays.asList(new Item()));
+		assertNull(CountCache.key(Pedido.class, filter(pedido)));
+
+		Item item = new Item();
+		item.pedido = new Pedido(1L, "abc");
+		assertNull(CountCache.key(Item.class, new CriteriaFilterImpl<Item>(item, Item.class)));
+	}
+
+	@Test
+	public void repeatedObjectNotCached() {
+		Valor valor = new Valor();
+		valor.valor = 10;
+
+		assertNotNull(CountCache.key(Pedido.class, filter(null).addWhereEqual("valor", valor)));
+		assertNull(CountCache.key(Pedido.class, filter(null).addWhereEqual("valor", valor).addWhereEqual("outro", valor)));
+	}
+
+	@Test
+	public void deepObjectNotCached() {
+		Valor valor = new Valor();
+		for(int i=0; i < 3; i++){
+			Valor parent = new Valor();
+			parent.filho = valor;
+			valor = parent;
+		}
+		assertNotNull(CountCache.key(Pedido.class, filter(null).addWhereEqual("valor", valor)));
+		
+		for(int i=0; i < 2; i++){
+			Valor parent = new Valor();
+			parent.valor = i;
+			parent.filho = valor;
+			valor = parent;
+		}
+
+		assertNull(CountCache.key(Pedido.class, filter(null).addWhereEqual("valor", valor)));
+	}
+
+	@Test
+	public void getPutInvalidate() {
+		String key = CountCache.key(Pedido.class, filter(new Pedido(99L, "cache")));
+		CountCache.put(key, 5L, 60000L);
+		assertEquals(Long.valueOf(5L), CountCache.get(key));
+
+		CountCache.invalidate(Pedido.class);
+		assertNull(CountCache.get(key));
+
+		CountCache.put(key, 5L, -1L);
+		assertNull(CountCache.get(key));
+	}
+
+	private CriteriaFilterImpl<Pedido> filter(Pedido pedido) {
+		return new CriteriaFilterImpl<Pedido>(pedido, Pedido.class);
+	}
+
+	@Entity
+	public static class Pedido {
+		private Long id;
+		private String descricao;
+		@OneToMany(mappedBy = "pedido")
+		private List<Item> itens;
+
+		public Pedido() {
+
+		}
+
+		public Pedido(Long id, String descricao) {
+			this.id = id;
+			this.descricao = descricao;
+		}
+	}
+
+	@Entity
+	public static class Item {
+		private Long id;
+		@ManyToOne
+		private Pedido pedido;
+	}
+
+	public static class Valor {
+		private Integer valor;
+		private Valor filho;
+	}
+}
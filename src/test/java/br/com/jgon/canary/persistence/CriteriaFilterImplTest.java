@@ -0,0 +1,68 @@
+package br.com.jgon.canary.persistence;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import javax.persistence.criteria.JoinType;
+
+import org.junit.Test;
+
+import br.com.jgon.canary.persistence.CriteriaFilterImpl.Order;
+import br.com.jgon.canary.persistence.filter.CriteriaFilter.CollectionFetch;
+
+public class CriteriaFilterImplTest {
+
+	@Test
+	public void copy() {
+		Pessoa pessoa = new Pessoa();
+		CriteriaFilterImpl<Pessoa> filter = new CriteriaFilterImpl<Pessoa>(pessoa, Pessoa.class)
+				.addSelect("nome")
+				.addWhereIn("id", Arrays.asList(1L, 2L))
+				.addOrderAsc("nome")
+				.addGroupBy("nome")
+				.addJoin("itens", JoinType.LEFT)
+				.setCollectionFetch(CollectionFetch.JOIN);
+
+		CriteriaFilterImpl<Pessoa> copy = filter.copy();
+
+		assertSame(pessoa, copy.getObjBase());
+		assertEquals(CollectionFetch.JOIN, copy.getCollectionFetch());
+		assertEquals(filter.getListSelection(), copy.getListSelection());
+		assertEquals(filter.getListOrder(), copy.getListOrder());
+		assertEquals(filter.getListGroupBy(), copy.getListGroupBy());
+		assertEquals(filter.getWhereRestriction().getRestrictions(), copy.getWhereRestriction().getRestrictions());
+		assertEquals(JoinType.LEFT, copy.getListJoin().get("itens").getJoinType());
+		assertNotSame(filter.getListJoin().get("itens"), copy.getListJoin().get("itens"));
+	}
+
+	@Test
+	public void copyIndependent() {
+		CriteriaFilterImpl<Pessoa> filter = new CriteriaFilterImpl<Pessoa>(Pessoa.class)
+				.addSelect("nome")
+				.addWhereIn("id", Arrays.asList(1L, 2L))
+				.addOrderAsc("nome");
+
+		CriteriaFilterImpl<Pessoa> copy = filter.copy()
+				.addSelect("id")
+				.addWhereIn("id", Arrays.asList(3L))
+				.addOrderAsc("id")
+				.addJoin("itens");
+		copy.getListSelection().get("nome").setValue("outro");
+
+		assertEquals(Collections.singleton("nome"), filter.getListSelection().keySet());
+		assertEquals("nome", filter.getListSelection().get("nome").getValue());
+		assertEquals(1, filter.getWhereRestriction().getRestrictions("id").size());
+		assertEquals(Collections.singletonMap("nome", Order.ASC), filter.getListOrder());
+		assertTrue(filter.getListJoin().isEmpty());
+	}
+
+	public static class Pessoa {
+		private Long id;
+		private String nome;
+	}
+}
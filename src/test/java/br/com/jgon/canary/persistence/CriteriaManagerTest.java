@@ -0,0 +1,213 @@
+package br.com.jgon.canary.persistence;
+
+import static org.junit.Assert.assertEquals;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Parameter;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import br.com.jgon.canary.persistence.CriteriaFilterImpl.Where;
+
+public class CriteriaManagerTest {
+
+	private EntityManagerFactory entityManagerFactory;
+	private EntityManager entityManager;
+	private List<String> parameters;
+
+	@Before
+	public void init() {
+		CriteriaQueryCache.clear();
+		parameters = new ArrayList<String>();
+		entityManagerFactory = proxy(EntityManagerFactory.class, null);
+		entityManager = proxy(EntityManager.class, null);
+	}
+
+	/**
+	 * Os valores obtidos pelo formato do filtro (consulta do cache) devem ter a mesma ordem dos parametros
+	 * criados na consulta (p0..pn), para todas as operacoes
+	 */
+	@Test
+	public void parameterOrder() throws Exception {
+		for(Where where : Where.values()){
+			if(where == Where.IGNORE){
+				continue;
+			}
+			CriteriaQueryCache.clear();
+
+			List<String> created = execute(where);
+			assertEquals(where.name(), 0, CriteriaQueryCache.getHits());
+			List<String> cached = execute(where);
+			assertEquals(where.name(), 1, CriteriaQueryCache.getHits());
+
+			assertEquals(where.name(), expected(where), created);
+			assertEquals(where.name(), created, cached);
+		}
+	}
+
+	@Test
+	public void parameterOrderAll() throws Exception {
+		List<String> created = executeAll();
+		List<String> cached = executeAll();
+
+		assertEquals(1, CriteriaQueryCache.getHits());
+		assertEquals(30, created.size());
+		assertEquals(created, cached);
+	}
+
+	private List<String> execute(Where where) throws Exception {
+		CriteriaFilterImpl<Pessoa> filter = new CriteriaFilterImpl<Pessoa>(Pessoa.class);
+		restriction(filter, where);
+		return execute(filter);
+	}
+
+	private List<String> executeAll() throws Exception {
+		CriteriaFilterImpl<Pessoa> filter = new CriteriaFilterImpl<Pessoa>(Pessoa.class);
+		for(Where where : Where.values()){
+			if(where != Where.IGNORE){
+				restriction(filter, where);
+			}
+		}
+		return execute(filter);
+	}
+
+	private List<String> execute(CriteriaFilterImpl<Pessoa> filter) throws Exception {
+		parameters.clear();
+		new CriteriaManager<Pessoa>(entityManager, Pessoa.class, Pessoa.class, Pessoa.class, filter, true, false).createQuery(entityManager);
+		return new ArrayList<String>(parameters);
+	}
+
+	private void restriction(CriteriaFilterImpl<Pessoa> filter, Where where) {
+		switch (where) {
+			case IS_NULL:
+			case IS_NOT_NULL:
+				filter.getWhereRestriction().add("nome", where, null);
+				break;
+			case IN:
+			case NOT_IN:
+				filter.getWhereRestriction().add("id", where, Arrays.asList(3L, 1L, 2L));
+				break;
+			case EQUAL:
+			case NOT_EQUAL:
+				filter.getWhereRestriction().add("nome", where, Arrays.asList("b", "a", "c"));
+				break;
+			case BETWEEN:
+				filter.getWhereRestriction().add("idade", where, new Integer[] {5, 1});
+				break;
+			case LESS_THAN:
+			case LESS_THAN_OR_EQUAL_TO:
+			case GREATER_THAN:
+			case GREATER_THAN_OR_EQUAL_TO:
+				filter.getWhereRestriction().add("idade", where, 10);
+				break;
+			case EQUAL_OTHER_FIELD:
+			case NOT_EQUAL_OTHER_FIELD:
+			case LESS_THAN_OTHER_FIELD:
+			case LESS_THAN_OR_EQUAL_TO_OTHER_FIELD:
+			case GREATER_THAN_OTHER_FIELD:
+			case GREATER_THAN_OR_EQUAL_TO_OTHER_FIELD:
+				filter.getWhereRestriction().add("idade", where, "id");
+				break;
+			default:
+				filter.getWhereRestriction().add("nome", where, "%abc%");
+				break;
+		}
+	}
+
+	private List<String> expected(Where where) {
+		switch (where) {
+			case IS_NULL:
+			case IS_NOT_NULL:
+			case EQUAL_OTHER_FIELD:
+			case NOT_EQUAL_OTHER_FIELD:
+			case LESS_THAN_OTHER_FIELD:
+			case LESS_THAN_OR_EQUAL_TO_OTHER_FIELD:
+			case GREATER_THAN_OTHER_FIELD:
+			case GREATER_THAN_OR_EQUAL_TO_OTHER_FIELD:
+				return Arrays.<String>asList();
+			case IN:
+			case NOT_IN:
+				return Arrays.asList("p0=[3, 1, 2, 2]");
+			case EQUAL:
+				return Arrays.asList("p0=B", "p1=A", "p2=C");
+			case NOT_EQUAL:
+				return Arrays.asList("p0=b", "p1=a", "p2=c");
+			case BETWEEN:
+				return Arrays.asList("p0=5", "p1=1");
+			case LESS_THAN:
+			case LESS_THAN_OR_EQUAL_TO:
+			case GREATER_THAN:
+			case GREATER_THAN_OR_EQUAL_TO:
+				return Arrays.asList("p0=10");
+			case LIKE_EXACT:
+			case LIKE_NOT_EXACT:
+			case ILIKE_EXACT:
+			case ILIKE_NOT_EXACT:
+				return Arrays.asList("p0=abc");
+			case LIKE_MATCH_END:
+			case LIKE_NOT_MATCH_END:
+			case ILIKE_MATCH_END:
+			case ILIKE_NOT_MATCH_END:
+				return Arrays.asList("p0=%abc");
+			case LIKE_MATCH_START:
+			case LIKE_NOT_MATCH_START:
+			case ILIKE_MATCH_START:
+			case ILIKE_NOT_MATCH_START:
+				return Arrays.asList("p0=abc%");
+			default:
+				return Arrays.asList("p0=%abc%");
+		}
+	}
+
+	/**
+	 * Implementacao vazia das interfaces da JPA, registrando os valores informados aos parametros da consulta
+	 * @param type - interface
+	 * @param name - nome do parametro ({@link javax.persistence.criteria.ParameterExpression})
+	 * @return proxy
+	 */
+	@SuppressWarnings("unchecked")
+	private <E> E proxy(Class<E> type, final String name) {
+		return (E) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {type}, new InvocationHandler() {
+			@Override
+			public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+				if(method.getName().equals("equals")){
+					return proxy == args[0];
+				}else if(method.getName().equals("hashCode")){
+					return System.identityHashCode(proxy);
+				}else if(method.getName().equals("getName") || method.getName().equals("toString")){
+					return name;
+				}else if(method.getName().equals("getEntityManagerFactory")){
+					return entityManagerFactory;
+				}else if(method.getName().equals("parameter")){
+					return proxy(method.getReturnType(), (String) args[args.length - 1]);
+				}else if(method.getName().equals("setParameter")){
+					String parameterName = args[0] instanceof Parameter ? ((Parameter<?>) args[0]).getName() : (String) args[0];
+					parameters.add(parameterName + "=" + args[1]);
+				}
+				if(method.getReturnType().isInterface()){
+					return proxy(method.getReturnType(), null);
+				}else if(method.getReturnType().equals(boolean.class)){
+					return false;
+				}else if(method.getReturnType().equals(int.class)){
+					return 0;
+				}
+				return null;
+			}
+		});
+	}
+
+	public static class Pessoa {
+		private Long id;
+		private String nome;
+		private Integer idade;
+	}
+}
@@ -0,0 +1,113 @@
+package br.com.jgon.canary.persistence;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.jgon.canary.util.ClassMetadata;
+import br.com.jgon.canary.util.FieldAccessor;
+
+/**
+ * Associacao das colecoes aos objetos pai (GenericDAO.checkTupleResultList), 20 itens por pai.
+ * {@link DAOUtil#joinCollection} deve crescer linearmente com a quantidade de pais, o laco aninhado anterior cresce com pais x itens.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DAOUtilBenchmark {
+
+	private static final int ITEMS_PER_PARENT = 20;
+
+	@Param({"250", "500", "1000"})
+	private int parents;
+
+	private final FieldAccessor itens = ClassMetadata.of(Pedido.class).getAccessor("itens");
+	private final FieldAccessor id = ClassMetadata.of(Pedido.class).getAccessor("id");
+
+	private List<Object> parentIds;
+	private List<Pedido> children;
+	private List<Pedido> listParent;
+
+	@Setup(Level.Trial)
+	public void setupTrial() {
+		parentIds = new ArrayList<Object>(parents);
+		for(long i=0; i < parents; i++){
+			parentIds.add(i);
+		}
+		//itens intercalados entre os pais, como no resultado da consulta da colecao
+		children = new ArrayList<Pedido>(parents * ITEMS_PER_PARENT);
+		for(int j=0; j < ITEMS_PER_PARENT; j++){
+			for(long i=0; i < parents; i++){
+				Pedido child = new Pedido(i);
+				child.itens = Collections.singletonList(j);
+				children.add(child);
+			}
+		}
+	}
+
+	@Setup(Level.Invocation)
+	public void setupInvocation() {
+		listParent = new ArrayList<Pedido>(parents);
+		for(Object idParent : parentIds){
+			listParent.add(new Pedido((Long) idParent));
+		}
+	}
+
+	@Benchmark
+	public Object hashJoin() throws IllegalAccessException {
+		DAOUtil.joinCollection(listParent, parentIds, children, itens, id);
+		return listParent;
+	}
+
+	@Benchmark
+	public Object nestedLoop() throws IllegalAccessException {
+		nestedLoop(listParent, children);
+		return listParent;
+	}
+
+	/**
+	 * Associacao anterior ao {@link DAOUtil#joinCollection}, percorrendo os itens para cada objeto pai
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private void nestedLoop(List<Pedido> listParent, List<Pedido> children) throws IllegalAccessException {
+		for(Pedido se : listParent){
+			for(Pedido retList : children){
+				if(id.get(se).equals(id.get(retList))){
+					Collection col = (Collection<?>) itens.get(se);
+					if(col == null){
+						col = DAOUtil.instanceCollection(itens.getType());
+						itens.set(se, col);
+					}
+					col.addAll((Collection<?>) itens.get(retList));
+				}
+			}
+		}
+	}
+
+	public static class Pedido {
+		private Long id;
+		private List<Integer> itens;
+
+		public Pedido(Long id) {
+			this.id = id;
+		}
+	}
+}
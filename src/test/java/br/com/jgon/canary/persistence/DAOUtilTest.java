@@ -0,0 +1,145 @@
+package br.com.jgon.canary.persistence;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import br.com.jgon.canary.util.ClassMetadata;
+import br.com.jgon.canary.util.FieldAccessor;
+
+public class DAOUtilTest {
+
+	@Test
+	public void padToPowerOfTwo() {
+		assertEquals(Arrays.asList(1, 2, 3, 3), DAOUtil.padInValues(Arrays.asList(1, 2, 3), 0));
+		assertEquals(Arrays.asList(1, 2, 3, 4, 5, 5, 5, 5), DAOUtil.padInValues(Arrays.asList(1, 2, 3, 4, 5), 500));
+	}
+
+	@Test
+	public void powerOfTwoUnchanged() {
+		List<Integer> values = Arrays.asList(1, 2, 3, 4);
+		assertSame(values, DAOUtil.padInValues(values, 0));
+
+		List<Integer> single = Collections.singletonList(1);
+		assertSame(single, DAOUtil.padInValues(single, 0));
+
+		List<Integer> empty = Collections.emptyList();
+		assertSame(empty, DAOUtil.padInValues(empty, 4));
+	}
+
+	@Test
+	public void limitedByMaxSize() {
+		assertEquals(6, DAOUtil.padInValues(range(5), 6).size());
+		assertEquals(500, DAOUtil.padInValues(range(300), 500).size());
+
+		//acima do limite nao reduz a lista
+		List<Integer> values = range(7);
+		assertSame(values, DAOUtil.padInValues(values, 4));
+	}
+
+	@Test
+	public void sameValues() {
+		List<Integer> values = range(300);
+		List<Integer> padded = DAOUtil.padInValues(values, 500);
+
+		assertEquals(values, padded.subList(0, values.size()));
+		assertTrue(values.containsAll(padded));
+	}
+
+	private List<Integer> range(int size) {
+		List<Integer> list = new ArrayList<Integer>(size);
+		for(int i=0; i < size; i++){
+			list.add(i);
+		}
+		return list;
+	}
+
+	@Test
+	public void joinCollection() throws Exception {
+		List<Pedido> parents = pedidos(1L, 2L, 3L, 2L, 4L);
+		List<Pedido> children = Arrays.asList(pedido(2L, "a"), pedido(1L, "b"), pedido(2L, "c"), pedido(5L, "d"), pedido(3L), pedido(1L, "e", "f"));
+
+		DAOUtil.joinCollection(parents, ids(parents), children, accessor("itens"), accessor("id"));
+
+		assertEquals(Arrays.asList("b", "e", "f"), parents.get(0).itens);
+		assertEquals(Arrays.asList("a", "c"), parents.get(1).itens);
+		//colecao vazia no resultado tambem cria a colecao do pai
+		assertEquals(Collections.emptyList(), parents.get(2).itens);
+		assertEquals(Arrays.asList("a", "c"), parents.get(3).itens);
+		assertNotSame(parents.get(1).itens, parents.get(3).itens);
+		assertNull(parents.get(4).itens);
+		for(Pedido parent : parents){
+			assertNull(parent.tags);
+		}
+	}
+
+	@Test
+	public void joinCollectionType() throws Exception {
+		List<Pedido> parents = pedidos(1L);
+		Pedido child = pedido(1L);
+		child.tags = new HashSet<String>(Arrays.asList("x", "y"));
+
+		DAOUtil.joinCollection(parents, ids(parents), Arrays.asList(child, child), accessor("tags"), accessor("id"));
+
+		assertEquals(child.tags, parents.get(0).tags);
+	}
+
+	@Test
+	public void joinExistingCollection() throws Exception {
+		List<Pedido> parents = pedidos(1L);
+		List<String> itens = new ArrayList<String>(Arrays.asList("a"));
+		parents.get(0).itens = itens;
+
+		DAOUtil.joinCollection(parents, ids(parents), Arrays.asList(pedido(1L, "b")), accessor("itens"), accessor("id"));
+
+		assertSame(itens, parents.get(0).itens);
+		assertEquals(Arrays.asList("a", "b"), itens);
+	}
+
+	private FieldAccessor accessor(String name) {
+		return ClassMetadata.of(Pedido.class).getAccessor(name);
+	}
+
+	private List<Object> ids(List<Pedido> parents) {
+		List<Object> ids = new ArrayList<Object>();
+		for(Pedido p : parents){
+			ids.add(p.id);
+		}
+		return ids;
+	}
+
+	private List<Pedido> pedidos(Long... ids) {
+		List<Pedido> list = new ArrayList<Pedido>();
+		for(Long id : ids){
+			Pedido p = new Pedido();
+			p.id = id;
+			list.add(p);
+		}
+		return list;
+	}
+
+	private Pedido pedido(Long id, String... itens) {
+		Pedido p = new Pedido();
+		p.id = id;
+		p.itens = new ArrayList<String>(Arrays.asList(itens));
+		p.tags = new HashSet<String>();
+		return p;
+	}
+
+	public static class Pedido {
+		private Long id;
+		private List<String> itens;
+		private Set<String> tags;
+	}
+}
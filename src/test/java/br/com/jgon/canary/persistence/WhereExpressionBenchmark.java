@@ -0,0 +1,91 @@
+package br.com.jgon.canary.persistence;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.jgon.canary.persistence.CriteriaFilterImpl.Where;
+import br.com.jgon.canary.persistence.filter.CriteriaWhere.RegexWhere;
+
+/**
+ * Identificacao da operacao das expressoes do filtro, expressoes de operacoes no inicio e no fim da ordem do {@link Where}.
+ * {@link WhereExpression#parse(String, RegexWhere[])} utiliza as expressoes regulares compiladas e o cache por expressao
+ * (a lista com 801 caracteres nao e mantida em cache), a identificacao anterior compila as expressoes regulares a cada chamada.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WhereExpressionBenchmark {
+
+	@Param({"=abc", ">=2020-01-01 10:20", "(1,2,3)", "*abc*", "abc!*", "1 btwn 5", "LONG_IN"})
+	private String expression;
+
+	private String value;
+
+	@Setup
+	public void setup() {
+		value = "LONG_IN".equals(expression) ? "(" + StringUtils.repeat("123,", 200) + "1)" : expression;
+	}
+
+	@Benchmark
+	public Object parse() {
+		return WhereExpression.parse(value, null);
+	}
+
+	@Benchmark
+	public Object legacy() {
+		return legacy(value, null);
+	}
+
+	/**
+	 * Identificacao anterior ao {@link WhereExpression} (CriteriaFilterImpl.configWhereRegex)
+	 */
+	private String[] legacy(String value, RegexWhere[] regexToAnalyse) {
+		Where where = null;
+		for(Where wh : Where.values()){
+			if(wh.exp != null && (regexToAnalyse == null || containsRegex(regexToAnalyse, wh.regexWhere)) && checkRegex(value, wh.exp)){
+				where = wh;
+				break;
+			}
+		}
+		if(where != null){
+			Pattern p = Pattern.compile(where.exp);
+			Matcher m = p.matcher(value);
+			if(m.find()){
+				return new String[]{where.name(), m.group()};
+			}
+		}
+		return null;
+	}
+
+	private boolean containsRegex(RegexWhere[] regexToAnalyse, RegexWhere rgxSearch) {
+		for(RegexWhere rgx : regexToAnalyse){
+			if(rgx.equals(rgxSearch)){
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean checkRegex(String value, String regex) {
+		Pattern p = Pattern.compile(regex);
+		Matcher m = p.matcher(value);
+		return m.find();
+	}
+}
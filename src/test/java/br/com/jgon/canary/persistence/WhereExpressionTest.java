@@ -0,0 +1,155 @@
+package br.com.jgon.canary.persistence;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Test;
+
+import br.com.jgon.canary.persistence.CriteriaFilterImpl.Where;
+import br.com.jgon.canary.persistence.filter.CriteriaWhere.RegexWhere;
+
+public class WhereExpressionTest {
+
+	@Test
+	public void comparison() {
+		assertParse("=abc", Where.EQUAL, "abc");
+		assertParse("=Jo\u00E3o da Silva", Where.EQUAL, "Jo\u00E3o da Silva");
+		assertParse("!=x", Where.NOT_EQUAL, "x");
+		assertParse("<10", Where.LESS_THAN, "10");
+		assertParse("<=10", Where.LESS_THAN_OR_EQUAL_TO, "10");
+		assertParse(">10", Where.GREATER_THAN, "10");
+		assertParse(">=10", Where.GREATER_THAN_OR_EQUAL_TO, "10");
+		assertParse("<2020-01-01", Where.LESS_THAN, "2020-01-01");
+		assertParse(">=2020-01-01 10:20", Where.GREATER_THAN_OR_EQUAL_TO, "2020-01-01 10:20");
+		assertParse(">=31/01/2020T10:20:30", Where.GREATER_THAN_OR_EQUAL_TO, "31/01/2020T10:20:30");
+	}
+
+	@Test
+	public void list() {
+		assertParse("(1,2,3)", Where.IN, "1,2,3");
+		assertParse("(a, b)", Where.IN, "a, b");
+		assertParse("(2020-01-01,2020-02-01)", Where.IN, "2020-01-01,2020-02-01");
+		assertParse("!(1,2)", Where.NOT_IN, "1,2");
+		assertParse("1 btwn 5", Where.BETWEEN, "1 btwn 5");
+		assertParse("2020-01-01 between 2020-02-01", Where.BETWEEN, "2020-01-01 between 2020-02-01");
+	}
+
+	@Test
+	public void like() {
+		assertParse("=%abc", Where.LIKE_EXACT, "abc");
+		assertParse("!=%abc", Where.LIKE_NOT_EXACT, "abc");
+		assertParse("%abc%", Where.LIKE_MATCH_ANYWHERE, "abc");
+		assertParse("%abc!%", Where.LIKE_MATCH_ANYWHERE, "abc");
+		assertParse("%abc", Where.LIKE_MATCH_END, "abc");
+		assertParse("abc%", Where.LIKE_MATCH_START, "abc");
+		assertParse("!%abc!%", Where.LIKE_NOT_MATCH_ANYWHERE, "abc");
+		assertParse("!%abc", Where.LIKE_NOT_MATCH_END, "abc");
+		assertParse("abc!%", Where.LIKE_NOT_MATCH_START, "abc");
+	}
+
+	@Test
+	public void ilike() {
+		assertParse("=*abc", Where.ILIKE_EXACT, "abc");
+		assertParse("!=*abc", Where.ILIKE_NOT_EXACT, "abc");
+		assertParse("*abc*", Where.ILIKE_MATCH_ANYWHERE, "abc");
+		assertParse("*abc", Where.ILIKE_MATCH_END, "abc");
+		assertParse("abc*", Where.ILIKE_MATCH_START, "abc");
+		assertParse("!*abc!*", Where.ILIKE_NOT_MATCH_ANYWHERE, "abc");
+		assertParse("!*abc", Where.ILIKE_NOT_MATCH_END, "abc");
+		assertParse("abc!*", Where.ILIKE_NOT_MATCH_START, "abc");
+	}
+
+	@Test
+	public void isNull() {
+		assertParse("null", Where.IS_NULL, "null");
+		assertParse("not null", Where.IS_NOT_NULL, "not null");
+		assertNull(WhereExpression.parse("NULL", null));
+	}
+
+	@Test
+	public void notIdentified() {
+		for(String expression : new String[] {"!=", "()", "1 btwn", "abc", "10", "", " ", "=", "%", "*", "=abc;drop", "<abc", ">=10&<20", "=a%b"}){
+			assertNull(expression, WhereExpression.parse(expression, null));
+		}
+	}
+
+	@Test
+	public void everyWhereIdentified() {
+		List<Where> found = new ArrayList<Where>();
+		for(String expression : new String[] {"=abc", "!=x", "<10", "<=10", ">10", ">=10", "(1,2)", "!(1,2)", "1 btwn 5", "null", "not null",
+				"=%abc", "!=%abc", "%abc%", "%abc", "abc%", "!%abc!%", "!%abc", "abc!%",
+				"=*abc", "!=*abc", "*abc*", "*abc", "abc*", "!*abc!*", "!*abc", "abc!*"}){
+			found.add(WhereExpression.parse(expression, null).getWhere());
+		}
+		for(Where wh : Where.values()){
+			if(wh.exp != null){
+				assertTrue(wh.name(), found.contains(wh));
+			}
+		}
+	}
+
+	@Test
+	public void subset() {
+		assertNull(WhereExpression.parse("%abc%", new RegexWhere[]{}));
+		assertNull(WhereExpression.parse("%abc%", new RegexWhere[]{RegexWhere.EQUAL}));
+		assertParse("=abc", new RegexWhere[]{RegexWhere.EQUAL}, Where.EQUAL, "abc");
+		assertNull(WhereExpression.parse("<10", new RegexWhere[]{RegexWhere.EQUAL}));
+		//sem LIKE_MATCH_ANYWHERE a expressao e identificada pela proxima operacao aceita
+		assertParse("%abc%", new RegexWhere[]{RegexWhere.LIKE_MATCH_START, RegexWhere.LIKE_MATCH_END}, Where.LIKE_MATCH_END, "ab");
+		assertParse("abc%", new RegexWhere[]{RegexWhere.LIKE_MATCH_START, RegexWhere.LIKE_MATCH_END}, Where.LIKE_MATCH_START, "abc");
+		assertParse("1 btwn 5", new RegexWhere[]{RegexWhere.IN, RegexWhere.NOT_IN, RegexWhere.BETWEEN}, Where.BETWEEN, "1 btwn 5");
+		assertNull(WhereExpression.parse("=abc", new RegexWhere[]{RegexWhere.IN, RegexWhere.NOT_IN, RegexWhere.BETWEEN}));
+	}
+
+	@Test
+	public void cached() {
+		WhereExpression whereExpression = WhereExpression.parse(">=10", null);
+		assertSame(whereExpression, WhereExpression.parse(">=10", null));
+		assertSame(whereExpression, WhereExpression.parse(">=10", null));
+		assertNull(WhereExpression.parse("abc", null));
+		assertNull(WhereExpression.parse("abc", null));
+	}
+
+	@Test
+	public void regexChangedAfterParse() {
+		RegexWhere[] regex = new RegexWhere[]{RegexWhere.EQUAL};
+		WhereExpression whereExpression = WhereExpression.parse("=xyz", regex);
+		assertEquals(Where.EQUAL, whereExpression.getWhere());
+
+		//o cache nao deve ser afetado pela alteracao do array informado
+		regex[0] = RegexWhere.IN;
+		assertNull(WhereExpression.parse("=xyz", regex));
+		assertSame(whereExpression, WhereExpression.parse("=xyz", new RegexWhere[]{RegexWhere.EQUAL}));
+		assertNull(WhereExpression.parse("=xyz", new RegexWhere[]{RegexWhere.IN}));
+	}
+
+	@Test
+	public void longExpression() {
+		String values = StringUtils.repeat("123,", 200) + "1";
+		assertParse("(" + values + ")", Where.IN, values);
+		assertParse("(" + values + ")", new RegexWhere[]{RegexWhere.IN}, Where.IN, values);
+		assertNull(WhereExpression.parse("(" + values + ")", new RegexWhere[]{RegexWhere.EQUAL}));
+
+		assertParse("%" + StringUtils.repeat("a", 300) + "%", Where.LIKE_MATCH_ANYWHERE, StringUtils.repeat("a", 300));
+		assertParse("=" + StringUtils.repeat("b", 300), Where.EQUAL, StringUtils.repeat("b", 300));
+		assertNull(WhereExpression.parse(StringUtils.repeat("c", 300), null));
+	}
+
+	private void assertParse(String expression, Where where, String value) {
+		assertParse(expression, null, where, value);
+	}
+
+	private void assertParse(String expression, RegexWhere[] regex, Where where, String value) {
+		WhereExpression whereExpression = WhereExpression.parse(expression, regex);
+		assertNotNull(expression, whereExpression);
+		assertEquals(expression, where, whereExpression.getWhere());
+		assertEquals(expression, value, whereExpression.getValue());
+	}
+}
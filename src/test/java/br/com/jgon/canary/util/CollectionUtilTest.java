@@ -0,0 +1,53 @@
+package br.com.jgon.canary.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+public class CollectionUtilTest {
+
+	@Test
+	public void partition() {
+		List<List<Integer>> listPartition = CollectionUtil.partition(Arrays.asList(1, 2, 3, 4, 5), 2);
+
+		assertEquals(Arrays.asList(Arrays.asList(1, 2), Arrays.asList(3, 4), Arrays.asList(5)), listPartition);
+	}
+
+	@Test
+	public void exactPartition() {
+		assertEquals(Arrays.asList(Arrays.asList(1, 2), Arrays.asList(3, 4)), CollectionUtil.partition(Arrays.asList(1, 2, 3, 4), 2));
+	}
+
+	@Test
+	public void singlePartition() {
+		List<Integer> list = Arrays.asList(1, 2, 3);
+		assertSame(list, CollectionUtil.partition(list, 3).get(0));
+		assertSame(list, CollectionUtil.partition(list, 0).get(0));
+		assertSame(list, CollectionUtil.partition(list, -1).get(0));
+
+		List<Integer> empty = Collections.emptyList();
+		assertEquals(Collections.singletonList(empty), CollectionUtil.partition(empty, 2));
+	}
+
+	@Test
+	public void keepOrder() {
+		List<Integer> list = new ArrayList<Integer>();
+		for(int i=0; i < 1001; i++){
+			list.add(i);
+		}
+		List<Integer> joined = new ArrayList<Integer>();
+		List<List<Integer>> listPartition = CollectionUtil.partition(list, 500);
+		for(List<Integer> partition : listPartition){
+			joined.addAll(partition);
+		}
+
+		assertEquals(3, listPartition.size());
+		assertEquals(list, joined);
+	}
+}
@@ -0,0 +1,89 @@
+package br.com.jgon.canary.util;
+
+import java.text.ParseException;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.time.DateFormatUtils;
+import org.apache.commons.lang3.time.DateUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.jgon.canary.exception.ApplicationException;
+
+/**
+ * Conversao de texto para data nos dezesseis formatos aceitos pelos filtros.
+ * {@link DateUtil#parseDate(String)} identifica o formato pela estrutura do texto, a implementacao anterior
+ * ({@link DateUtils#parseDate(String, String...)}) cria um SimpleDateFormat por formato verificado, na ordem da lista.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateUtilBenchmark {
+
+	//2020-01-31 10:20:30.123 UTC
+	private static final Date DATE = new Date(1580466030123L);
+
+	/**
+	 * Formatos na ordem da implementacao anterior
+	 */
+	private static final Map<String, String> PATTERNS = new LinkedHashMap<String, String>();
+
+	static {
+		PATTERNS.put("ISO_DATE", DateFormatUtils.ISO_8601_EXTENDED_DATE_FORMAT.getPattern());
+		PATTERNS.put("ISO_DATETIME", DateFormatUtils.ISO_8601_EXTENDED_DATETIME_FORMAT.getPattern());
+		PATTERNS.put("ISO_DATETIME_TIME_ZONE", DateFormatUtils.ISO_8601_EXTENDED_DATETIME_TIME_ZONE_FORMAT.getPattern());
+		PATTERNS.put("ISO_TIME", DateFormatUtils.ISO_8601_EXTENDED_TIME_FORMAT.getPattern());
+		PATTERNS.put("ISO_TIME_TIME_ZONE", DateFormatUtils.ISO_8601_EXTENDED_TIME_TIME_ZONE_FORMAT.getPattern());
+		PATTERNS.put("ISO_EXTENDED_MILLIS_DATETIME", DateUtil.ISO_8601_EXTENDED_MILLIS_DATETIME_FORMAT);
+		PATTERNS.put("ISO_MILLIS_DATETIME", DateUtil.ISO_8601_MILLIS_DATETIME_FORMAT);
+		PATTERNS.put("ASCTIME", DateUtil.PATTERN_ASCTIME);
+		PATTERNS.put("RFC1036", DateUtil.PATTERN_RFC1036);
+		PATTERNS.put("RFC1123", DateUtil.PATTERN_RFC1123);
+		PATTERNS.put("DD_MM_YYYY", DateUtil.PATTERN_DD_MM_YYYY);
+		PATTERNS.put("DD_MM_YYYY_BAR", DateUtil.PATTERN_DD_MM_YYYY_BAR);
+		PATTERNS.put("DD_MM_YYYY_HH_MM", DateUtil.PATTERN_DD_MM_YYYY_HH_MM);
+		PATTERNS.put("DD_MM_YYYY_HH_MM_BAR", DateUtil.PATTERN_DD_MM_YYYY_HH_MM_BAR);
+		PATTERNS.put("DD_MM_YYYY_HH_MM_SS", DateUtil.PATTERN_DD_MM_YYYY_HH_MM_SS);
+		PATTERNS.put("DD_MM_YYYY_HH_MM_SS_BAR", DateUtil.PATTERN_DD_MM_YYYY_HH_MM_SS_BAR);
+	}
+
+	private static final String[] LEGACY_PATTERNS = PATTERNS.values().toArray(new String[PATTERNS.size()]);
+
+	@Param({"ISO_DATE", "ISO_DATETIME", "ISO_DATETIME_TIME_ZONE", "ISO_TIME", "ISO_TIME_TIME_ZONE", "ISO_EXTENDED_MILLIS_DATETIME",
+		"ISO_MILLIS_DATETIME", "ASCTIME", "RFC1036", "RFC1123", "DD_MM_YYYY", "DD_MM_YYYY_BAR", "DD_MM_YYYY_HH_MM",
+		"DD_MM_YYYY_HH_MM_BAR", "DD_MM_YYYY_HH_MM_SS", "DD_MM_YYYY_HH_MM_SS_BAR"})
+	private String format;
+
+	private String value;
+
+	@Setup
+	public void setup() {
+		//FastDateFormat: mesmo tratamento do padrao (ex: fuso ZZ como +00:00) utilizado por DateUtils.parseDate
+		value = DateFormatUtils.format(DATE, PATTERNS.get(format));
+	}
+
+	@Benchmark
+	public Date parseDate() throws ApplicationException {
+		return DateUtil.parseDate(value);
+	}
+
+	@Benchmark
+	public Date legacyParseDate() throws ParseException {
+		return DateUtils.parseDate(value, LEGACY_PATTERNS);
+	}
+}
@@ -0,0 +1,88 @@
+package br.com.jgon.canary.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+import org.junit.Test;
+
+import br.com.jgon.canary.exception.ApplicationException;
+
+public class DateUtilTest {
+
+	//2020-01-31 10:20:30.123 UTC
+	private static final Date DATE = new Date(1580466030123L);
+
+	@Test
+	public void isoFormats() throws Exception {
+		assertLegacy("yyyy-MM-dd");
+		assertLegacy("yyyy-MM-dd'T'HH:mm:ss");
+		assertLegacy("yyyy-MM-dd'T'HH:mm:ssXXX");
+		assertLegacy("HH:mm:ss");
+		assertLegacy("HH:mm:ssXXX");
+		assertLegacy(DateUtil.ISO_8601_EXTENDED_MILLIS_DATETIME_FORMAT);
+		assertLegacy(DateUtil.ISO_8601_MILLIS_DATETIME_FORMAT);
+	}
+
+	@Test
+	public void httpFormats() throws Exception {
+		assertLegacy(DateUtil.PATTERN_ASCTIME);
+		assertLegacy(DateUtil.PATTERN_RFC1036);
+		assertLegacy(DateUtil.PATTERN_RFC1123);
+	}
+
+	@Test
+	public void dayMonthYearFormats() throws Exception {
+		assertLegacy(DateUtil.PATTERN_DD_MM_YYYY);
+		assertLegacy(DateUtil.PATTERN_DD_MM_YYYY_BAR);
+		assertLegacy(DateUtil.PATTERN_DD_MM_YYYY_HH_MM);
+		assertLegacy(DateUtil.PATTERN_DD_MM_YYYY_HH_MM_BAR);
+		assertLegacy(DateUtil.PATTERN_DD_MM_YYYY_HH_MM_SS);
+		assertLegacy(DateUtil.PATTERN_DD_MM_YYYY_HH_MM_SS_BAR);
+	}
+
+	@Test
+	public void singleDigitFields() throws Exception {
+		assertEquals(new SimpleDateFormat("yyyy-MM-dd").parse("2020-01-05"), DateUtil.parseDate("2020-1-5"));
+		assertEquals(new SimpleDateFormat("dd/MM/yyyy HH:mm").parse("05/01/2020 08:05"), DateUtil.parseDate("5/1/2020 8:05"));
+	}
+
+	@Test
+	public void invalidDates() {
+		assertInvalid("31/02/2020");
+		assertInvalid("29-02-2019");
+		assertInvalid("2020-02-30");
+		assertInvalid("2020-13-01");
+		assertInvalid("2020-01-31T24:10:00");
+		assertInvalid("25:00:00");
+		assertInvalid("abc");
+		assertInvalid("");
+		assertInvalid(null);
+	}
+
+	@Test
+	public void leapYear() throws Exception {
+		assertEquals(new SimpleDateFormat("dd/MM/yyyy").parse("29/02/2020"), DateUtil.parseDate("29/02/2020"));
+	}
+
+	/**
+	 * O resultado deve ser o mesmo do SimpleDateFormat (implementacao anterior) para o mesmo padrao
+	 * @param pattern - padrao do {@link SimpleDateFormat}
+	 */
+	private void assertLegacy(String pattern) throws Exception {
+		SimpleDateFormat format = new SimpleDateFormat(pattern);
+		String value = format.format(DATE);
+		assertEquals(value, format.parse(value), DateUtil.parseDate(value));
+	}
+
+	private void assertInvalid(String value) {
+		try {
+			DateUtil.parseDate(value);
+			fail(value);
+		} catch (ApplicationException e) {
+			//esperado
+		}
+	}
+}
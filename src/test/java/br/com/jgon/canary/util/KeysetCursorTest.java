@@ -0,0 +1,107 @@
+package br.com.jgon.canary.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.Test;
+
+import br.com.jgon.canary.exception.ApplicationException;
+
+public class KeysetCursorTest {
+
+	private static final String SORT = "nome ASC,id ASC";
+
+	@Test
+	public void encodeDecode() throws ApplicationException {
+		UUID uuid = UUID.randomUUID();
+		List<?> values = Arrays.asList("a:b~c", 10L, new BigDecimal("1.50"), LocalDate.of(2020, 1, 31), LocalDateTime.of(2020, 1, 31, 10, 20, 30), uuid, Boolean.TRUE);
+
+		List<String> decoded = KeysetCursor.decode(KeysetCursor.encode(values, SORT), SORT);
+
+		assertEquals(Arrays.asList("a:b~c", "10", "1.50", "2020-01-31", "2020-01-31T10:20:30", uuid.toString(), "true"), decoded);
+		assertEquals(10L, KeysetCursor.convert(decoded.get(1), long.class));
+		assertEquals(new BigDecimal("1.50"), KeysetCursor.convert(decoded.get(2), BigDecimal.class));
+		assertEquals(LocalDate.of(2020, 1, 31), KeysetCursor.convert(decoded.get(3), LocalDate.class));
+		assertEquals(uuid, KeysetCursor.convert(decoded.get(5), UUID.class));
+	}
+
+	@Test
+	public void nullValues() throws ApplicationException {
+		List<String> decoded = KeysetCursor.decode(KeysetCursor.encode(Arrays.asList(null, "", null, 5), SORT), SORT);
+
+		assertEquals(Arrays.asList(null, "", null, "5"), decoded);
+		assertNull(KeysetCursor.convert(decoded.get(0), Long.class));
+	}
+
+	@Test
+	public void timestampNanos() throws ApplicationException {
+		Timestamp timestamp = Timestamp.valueOf("2020-01-31 10:20:30.123456789");
+
+		String value = KeysetCursor.decode(KeysetCursor.encode(Arrays.asList(timestamp), SORT), SORT).get(0);
+
+		assertEquals(timestamp, KeysetCursor.convert(value, Timestamp.class));
+		Object date = KeysetCursor.convert(value, Date.class);
+		assertTrue(date instanceof Timestamp);
+		assertEquals(123456789, ((Timestamp) date).getNanos());
+	}
+
+	@Test
+	public void emptyCursor() throws ApplicationException {
+		assertTrue(KeysetCursor.decode(null, SORT).isEmpty());
+		assertTrue(KeysetCursor.decode(" ", SORT).isEmpty());
+	}
+
+	@Test
+	public void rejectOtherSort() throws ApplicationException {
+		String cursor = KeysetCursor.encode(Arrays.asList("a", 1), SORT);
+		assertInvalid(cursor, "nome DESC,id ASC");
+		assertInvalid(cursor, "");
+	}
+
+	@Test
+	public void rejectTamperedPayload() throws ApplicationException {
+		String cursor = KeysetCursor.encode(Arrays.asList("a", 1), SORT);
+		String signature = cursor.substring(cursor.lastIndexOf('.'));
+		String payload = Base64.getUrlEncoder().withoutPadding().encodeToString("1:b1:1".getBytes());
+
+		assertInvalid(payload + signature, SORT);
+	}
+
+	@Test
+	public void rejectMalformed() {
+		assertInvalid("abc", SORT);
+		assertInvalid("abc.def", SORT);
+		assertInvalid(".", SORT);
+	}
+
+	@Test
+	public void rejectInvalidValue() {
+		try {
+			KeysetCursor.convert("abc", Long.class);
+			fail();
+		} catch (ApplicationException e) {
+			//esperado
+		}
+	}
+
+	private void assertInvalid(String cursor, String sort) {
+		try {
+			KeysetCursor.decode(cursor, sort);
+			fail(cursor);
+		} catch (ApplicationException e) {
+			//esperado
+		}
+	}
+}
@@ -0,0 +1,114 @@
+package br.com.jgon.canary.util;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.ArrayUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Preenchimento de um objeto por nome de atributo (como em GenericDAO.tupleToResultClass, uma linha por operacao):
+ * {@link ClassMetadata}/{@link FieldAccessor} comparado com a busca anterior (listAttributes com regex em toda a hierarquia a cada chamada)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReflectionUtilBenchmark {
+
+	private static final String[] NAMES = new String[]{"id", "nome", "email", "ativo", "idade", "criacao", "codigo", "tipo"};
+
+	private final Object[] values = new Object[]{1L, "Ana", "ana@mail.com", Boolean.TRUE, 30, "2020-01-01", 123L, "A"};
+
+	@Benchmark
+	public Object registry() throws IllegalAccessException {
+		Registro registro = new Registro();
+		for(int i=0; i < NAMES.length; i++){
+			ReflectionUtil.setFieldValue(registro, NAMES[i], values[i]);
+		}
+		return registro;
+	}
+
+	@Benchmark
+	public Object registryGetAttribute() {
+		Field field = null;
+		for(String name : NAMES){
+			field = ReflectionUtil.getAttribute(Registro.class, name);
+		}
+		return field;
+	}
+
+	@Benchmark
+	public Object listAttributes() throws IllegalAccessException {
+		Registro registro = new Registro();
+		for(int i=0; i < NAMES.length; i++){
+			List<Field> lFld = listAttributes(registro.getClass(), NAMES[i]);
+			if(lFld.size() == 1){
+				Field fld = lFld.get(0);
+				fld.setAccessible(true);
+				fld.set(registro, values[i]);
+			}
+		}
+		return registro;
+	}
+
+	@Benchmark
+	public Object listAttributesGetAttribute() {
+		Field field = null;
+		for(String name : NAMES){
+			for(Field fld : listAttributes(Registro.class, name)){
+				if(fld.getName().equals(name)){
+					field = fld;
+				}
+			}
+		}
+		return field;
+	}
+
+	/**
+	 * Busca anterior ao {@link ClassMetadata}
+	 */
+	private static List<Field> listAttributes(Class<?> klass, String pattern) {
+		List<Field> l = new ArrayList<Field>(0);
+		Field[] f = klass.getDeclaredFields();
+		Class<?> classObj = klass;
+		while (classObj.getSuperclass() != null){
+			classObj = classObj.getSuperclass();
+			f = ArrayUtils.addAll(f, classObj.getDeclaredFields());
+		}
+		for (int i = 0; i < f.length; i++) {
+			if (f[i].getName().matches(pattern))
+				l.add(f[i]);
+		}
+		return l;
+	}
+
+	public static class Entidade {
+		protected Long id;
+		protected String criacao;
+		protected Long versao;
+	}
+
+	public static class Registro extends Entidade {
+		private String nome;
+		private String email;
+		private Boolean ativo;
+		private Integer idade;
+		private Long codigo;
+		private String tipo;
+		private String observacao;
+		private String telefone;
+	}
+}
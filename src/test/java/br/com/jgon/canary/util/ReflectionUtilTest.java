@@ -0,0 +1,182 @@
+package br.com.jgon.canary.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class ReflectionUtilTest {
+
+	@Test
+	public void listAttributes() {
+		assertEquals(Arrays.asList("idade", "peso", "endereco", "itens", "CONSTANTE", "id", "nome", "ativo", "codigo"), names(ReflectionUtil.listAttributes(Pessoa.class)));
+		assertEquals(Arrays.asList("idade", "itens", "id"), names(ReflectionUtil.listAttributes(Pessoa.class, "i.*")));
+		assertEquals(Arrays.asList("CONSTANTE", "id", "nome", "ativo", "codigo"), names(ReflectionUtil.listAttributes(Base.class)));
+		assertTrue(ReflectionUtil.listAttributes(Object.class).isEmpty());
+	}
+
+	@Test
+	public void getAttribute() {
+		assertSame(Pessoa.class, ReflectionUtil.getAttribute(Pessoa.class, "idade").getDeclaringClass());
+		assertSame(Base.class, ReflectionUtil.getAttribute(Pessoa.class, "id").getDeclaringClass());
+		assertSame(Base.class, ReflectionUtil.getAttribute(Pessoa.class, "CONSTANTE").getDeclaringClass());
+		assertEquals("codigo", ReflectionUtil.getAttribute(Pessoa.class, "codigo").getName());
+		assertNull(ReflectionUtil.getAttribute(Pessoa.class, "naoExiste"));
+		assertNull(ReflectionUtil.getAttribute(Pessoa.class, "i.*"));
+
+		assertTrue(ReflectionUtil.existAttribute(Pessoa.class, "peso"));
+		assertFalse(ReflectionUtil.existAttribute(Pessoa.class, "naoExiste"));
+	}
+
+	@Test
+	public void shadowedAttribute() {
+		assertSame(Sombra.class, ReflectionUtil.getAttribute(Sombra.class, "nome").getDeclaringClass());
+	}
+
+	@Test
+	public void getAttributeValue() throws Exception {
+		Pessoa pessoa = pessoa();
+
+		assertEquals(1L, value(pessoa, "id"));
+		assertEquals("Ana", value(pessoa, "nome"));
+		assertEquals(true, value(pessoa, "ativo"));
+		assertEquals("A", value(pessoa, "codigo"));
+		assertEquals("C", value(pessoa, "CONSTANTE"));
+		assertEquals(30, value(pessoa, "idade"));
+		assertEquals(60.5d, value(pessoa, "peso"));
+		assertSame(pessoa.endereco, value(pessoa, "endereco"));
+		assertEquals(Arrays.asList("a", "b"), value(pessoa, "itens"));
+
+		assertEquals("Rua A", ReflectionUtil.getAttributteValue(pessoa, "endereco.rua"));
+		assertNull(ReflectionUtil.getAttributteValue(new Pessoa(), "endereco.rua"));
+	}
+
+	@Test
+	public void setFieldValue() throws Exception {
+		Pessoa pessoa = new Pessoa();
+		Endereco endereco = new Endereco("Rua B");
+		ReflectionUtil.setFieldValue(pessoa, "id", 10L);
+		ReflectionUtil.setFieldValue(pessoa, "nome", "Ana");
+		ReflectionUtil.setFieldValue(pessoa, "ativo", Boolean.TRUE);
+		ReflectionUtil.setFieldValue(pessoa, "idade", null);
+		ReflectionUtil.setFieldValue(pessoa, "peso", 1.5d);
+		ReflectionUtil.setFieldValue(pessoa, "endereco", endereco);
+		ReflectionUtil.setFieldValue(pessoa, "naoExiste", "sem efeito");
+
+		assertEquals(Long.valueOf(10L), pessoa.id);
+		assertEquals("Ana", pessoa.nome);
+		assertTrue(pessoa.ativo);
+		assertNull(pessoa.idade);
+		assertEquals(1.5d, pessoa.peso, 0d);
+		assertSame(endereco, pessoa.endereco);
+	}
+
+	@Test
+	public void setInvalidValue() throws Exception {
+		Field peso = ReflectionUtil.getAttribute(Pessoa.class, "peso");
+		assertInvalidValue(peso, null);
+		assertInvalidValue(peso, "abc");
+		assertInvalidValue(ReflectionUtil.getAttribute(Pessoa.class, "nome"), 1);
+	}
+
+	@Test
+	public void setValueToNullCascade() throws Exception {
+		Pessoa pessoa = pessoa();
+		ReflectionUtil.setValueToNullCascade(pessoa, "nome", "endereco.rua", "naoExiste");
+
+		assertNull(pessoa.nome);
+		assertNull(pessoa.endereco.rua);
+		assertEquals(Long.valueOf(1L), pessoa.id);
+	}
+
+	@Test
+	public void metadataCached() {
+		assertSame(ClassMetadata.of(Pessoa.class), ClassMetadata.of(Pessoa.class));
+		assertTrue(ClassMetadata.of(Pessoa.class).hasField("id"));
+		assertFalse(ClassMetadata.of(Pessoa.class).hasField("naoExiste"));
+	}
+
+	/**
+	 * Valor incompativel com o tipo do atributo deve lancar a mesma excecao de Field.set
+	 */
+	private void assertInvalidValue(Field field, Object value) throws IllegalAccessException {
+		try {
+			ReflectionUtil.setFieldValue(new Pessoa(), field, value);
+			fail();
+		} catch (IllegalArgumentException e) {
+			//esperado
+		}
+	}
+
+	private Object value(Object obj, String name) {
+		return ReflectionUtil.getAttributteValue(obj, ReflectionUtil.getAttribute(obj.getClass(), name));
+	}
+
+	private List<String> names(List<Field> fields) {
+		List<String> names = new ArrayList<String>();
+		for(Field field : fields){
+			names.add(field.getName());
+		}
+		return names;
+	}
+
+	private Pessoa pessoa() {
+		Pessoa pessoa = new Pessoa();
+		pessoa.id = 1L;
+		pessoa.nome = "Ana";
+		pessoa.ativo = true;
+		pessoa.idade = 30;
+		pessoa.peso = 60.5d;
+		pessoa.endereco = new Endereco("Rua A");
+		pessoa.itens = new ArrayList<String>(Arrays.asList("a", "b"));
+		return pessoa;
+	}
+
+	public static class Base {
+		public static final String CONSTANTE = "C";
+		protected Long id;
+		protected String nome;
+		protected boolean ativo;
+		private final String codigo = "A";
+
+		public String getCodigo() {
+			return codigo;
+		}
+	}
+
+	public static class Pessoa extends Base {
+		private Integer idade;
+		private double peso;
+		private Endereco endereco;
+		private List<String> itens;
+
+		public Endereco getEndereco() {
+			return endereco;
+		}
+	}
+
+	public static class Sombra extends Base {
+		private String nome;
+	}
+
+	public static class Endereco {
+		private String rua;
+
+		public Endereco(String rua) {
+			this.rua = rua;
+		}
+
+		public String getRua() {
+			return rua;
+		}
+	}
+}
@@ -0,0 +1,112 @@
+package br.com.jgon.canary.ws.rest.link;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import br.com.jgon.canary.ws.rest.link.LinkTemplate.Slot;
+
+public class LinkTemplateTest {
+
+	private final Pessoa pessoa = new Pessoa(1L, "abc", new Pessoa(2L, "def", new Pessoa(3L, null, null)));
+
+	@Test
+	public void resolve() {
+		assertEquals("1", new Slot("${id}").resolve(pessoa));
+		assertEquals("1", new Slot("#{id}").resolve(pessoa));
+		assertEquals("abc", new Slot("${nome}").resolve(pessoa));
+		assertEquals("pre-1", new Slot("pre-${id}").resolve(pessoa));
+		assertEquals("1-pos", new Slot("${id}-pos").resolve(pessoa));
+		assertEquals("1/abc", new Slot("${id}/${nome}").resolve(pessoa));
+		assertEquals("11", new Slot("#{id}${id}").resolve(pessoa));
+		assertEquals("a1babcc", new Slot("a${id}b#{nome}c").resolve(pessoa));
+	}
+
+	@Test
+	public void resolveAssociation() {
+		assertEquals("2", new Slot("${pessoa.id}").resolve(pessoa));
+		assertEquals("def", new Slot("${pessoa.nome}").resolve(pessoa));
+		assertEquals("x3", new Slot("x${pessoa.pessoa.id}").resolve(pessoa));
+	}
+
+	@Test
+	public void resolveNull() {
+		assertNull(new Slot("${ausente}").resolve(pessoa));
+		assertNull(new Slot("${id}/${vazio}").resolve(pessoa));
+		assertNull(new Slot("${pessoa.ausente}").resolve(pessoa));
+		assertNull(new Slot("${id}").resolve(null));
+	}
+
+	@Test
+	public void resolveLiteral() {
+		assertEquals("literal", new Slot("literal").resolve(pessoa));
+		assertEquals("literal", new Slot("literal").resolve(null));
+		assertEquals("{id}", new Slot("{id}").resolve(pessoa));
+		assertEquals("a{id}", new Slot("a{id}").resolve(pessoa));
+		assertEquals("", new Slot("").resolve(pessoa));
+		assertEquals("$id", new Slot("$id").resolve(pessoa));
+		assertEquals("#{}", new Slot("#{}").resolve(pessoa));
+		assertEquals("${id", new Slot("${id").resolve(pessoa));
+	}
+
+	@Test
+	public void specialCharactersLiteral() {
+		//o valor nao e interpretado como referencia de grupo (appendReplacement)
+		Pessoa pessoa = new Pessoa(1L, "a$1\\b", null);
+
+		assertEquals("nome-a$1\\b", new Slot("nome-${nome}").resolve(pessoa));
+	}
+
+	@Test
+	public void flags() {
+		Slot slot = new Slot(" ");
+		assertTrue(slot.isBlank());
+		assertFalse(slot.isRequest());
+		assertFalse(slot.isTemplate());
+
+		slot = new Slot("a{id}");
+		assertTrue(slot.isRequest());
+		assertTrue(slot.isTemplate());
+
+		slot = new Slot("{page}");
+		assertFalse(slot.isRequest());
+		assertTrue(slot.isTemplate());
+
+		slot = new Slot("${id}");
+		assertFalse(slot.isBlank());
+		assertFalse(slot.isRequest());
+		assertFalse(slot.isTemplate());
+	}
+
+	public static class Pessoa {
+		private Long id;
+		private String nome;
+		private String vazio;
+		private Pessoa pessoa;
+
+		public Pessoa(Long id, String nome, Pessoa pessoa) {
+			this.id = id;
+			this.nome = nome;
+			this.pessoa = pessoa;
+		}
+
+		public Long getId() {
+			return id;
+		}
+
+		public String getNome() {
+			return nome;
+		}
+
+		public String getVazio() {
+			return vazio;
+		}
+
+		public Pessoa getPessoa() {
+			return pessoa;
+		}
+	}
+}
@@ -0,0 +1,157 @@
+package br.com.jgon.canary.ws.rest.util.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategy;
+
+public class JsonProjectionTest {
+
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	@Test
+	public void noAttributes() {
+		assertNull(JsonProjection.of(null));
+		assertNull(JsonProjection.of(Collections.<String>emptyList()));
+	}
+
+	@Test
+	public void rootAttribute() throws Exception {
+		assertEquals("{\"id\":1,\"endereco\":{\"rua\":\"A\",\"cidade\":\"B\"},\"itens\":[]}", write(pessoa(), "nome"));
+	}
+
+	@Test
+	public void nestedAttribute() throws Exception {
+		assertEquals("{\"id\":1,\"nome\":\"Ana\",\"endereco\":{\"rua\":\"A\"},\"itens\":[]}", write(pessoa(), "endereco.cidade"));
+	}
+
+	@Test
+	public void collectionAttribute() throws Exception {
+		Pessoa pessoa = pessoa();
+		pessoa.itens.add(new Item(1, "x"));
+		pessoa.itens.add(new Item(2, "y"));
+
+		assertEquals("{\"id\":1,\"nome\":\"Ana\",\"endereco\":{\"rua\":\"A\",\"cidade\":\"B\"},\"itens\":[{\"descricao\":\"x\"},{\"descricao\":\"y\"}]}", write(pessoa, "itens.id"));
+		assertEquals("[{\"id\":1},{\"id\":2}]", write(pessoa.itens, "descricao"));
+	}
+
+	@Test
+	public void renamedAttribute() throws Exception {
+		Renomeado renomeado = new Renomeado();
+		renomeado.nomeCompleto = "Ana";
+		renomeado.codigo = 1;
+
+		assertEquals("{\"id\":1}", write(renomeado, "nomeCompleto"));
+
+		ObjectMapper snakeCase = new ObjectMapper().setPropertyNamingStrategy(PropertyNamingStrategy.SNAKE_CASE);
+		assertEquals("{\"nome_completo\":\"Ana\"}", JsonProjection.of(Arrays.asList("codigo")).writer(snakeCase).writeValueAsString(renomeado));
+	}
+
+	@Test
+	public void entityNotChanged() throws Exception {
+		Pessoa pessoa = pessoa();
+		write(pessoa, "nome", "endereco.cidade");
+
+		assertEquals("Ana", pessoa.getNome());
+		assertEquals("B", pessoa.getEndereco().getCidade());
+		assertEquals("{\"id\":1,\"nome\":\"Ana\",\"endereco\":{\"rua\":\"A\",\"cidade\":\"B\"},\"itens\":[]}", mapper.writeValueAsString(pessoa));
+	}
+
+	@Test
+	public void projectionEntity() throws Exception {
+		JsonProjectionEntity entity = new JsonProjectionEntity(pessoa(), JsonProjection.of(Arrays.asList("endereco", "itens")));
+
+		assertEquals("{\"id\":1,\"nome\":\"Ana\"}", mapper.writeValueAsString(entity));
+	}
+
+	private String write(Object value, String... excluded) throws Exception {
+		return JsonProjection.of(Arrays.asList(excluded)).writer(mapper).writeValueAsString(value);
+	}
+
+	private Pessoa pessoa() {
+		Pessoa pessoa = new Pessoa();
+		pessoa.id = 1;
+		pessoa.nome = "Ana";
+		pessoa.endereco = new Endereco();
+		pessoa.endereco.rua = "A";
+		pessoa.endereco.cidade = "B";
+		return pessoa;
+	}
+
+	public static class Pessoa {
+		private Integer id;
+		private String nome;
+		private Endereco endereco;
+		private List<Item> itens = new ArrayList<Item>();
+
+		public Integer getId() {
+			return id;
+		}
+
+		public String getNome() {
+			return nome;
+		}
+
+		public Endereco getEndereco() {
+			return endereco;
+		}
+
+		public List<Item> getItens() {
+			return itens;
+		}
+	}
+
+	public static class Endereco {
+		private String rua;
+		private String cidade;
+
+		public String getRua() {
+			return rua;
+		}
+
+		public String getCidade() {
+			return cidade;
+		}
+	}
+
+	public static class Item {
+		private Integer id;
+		private String descricao;
+
+		public Item(Integer id, String descricao) {
+			this.id = id;
+			this.descricao = descricao;
+		}
+
+		public Integer getId() {
+			return id;
+		}
+
+		public String getDescricao() {
+			return descricao;
+		}
+	}
+
+	public static class Renomeado {
+		@JsonProperty("id")
+		private Integer codigo;
+		private String nomeCompleto;
+
+		public Integer getCodigo() {
+			return codigo;
+		}
+
+		public String getNomeCompleto() {
+			return nomeCompleto;
+		}
+	}
+}
@@ -0,0 +1,48 @@
+package br.com.jgon.canary.ws.rest.util.json;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class JsonStreamingOutputTest {
+
+	@Test
+	public void writeAndClose() throws Exception {
+		AtomicInteger closed = new AtomicInteger();
+		JsonStreamingOutput output = new JsonStreamingOutput(new ObjectMapper(), Stream.of(1, 2, 3).onClose(closed::incrementAndGet), null);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		output.write(out);
+		output.close();
+
+		assertEquals("[1,2,3]", out.toString("UTF-8"));
+		assertEquals(1, closed.get());
+	}
+
+	@Test
+	public void closeNotWritten() {
+		AtomicInteger closed = new AtomicInteger();
+		JsonStreamingOutput output = new JsonStreamingOutput(new ObjectMapper(), Stream.of(1).onClose(closed::incrementAndGet), null);
+
+		JsonStreamingOutput.closeEntity(output);
+		output.close();
+
+		assertEquals(1, closed.get());
+	}
+
+	@Test
+	public void closeStreamEntity() {
+		AtomicInteger closed = new AtomicInteger();
+		JsonStreamingOutput.closeEntity(Stream.of(1).onClose(closed::incrementAndGet));
+		JsonStreamingOutput.closeEntity("texto");
+		JsonStreamingOutput.closeEntity(null);
+
+		assertEquals(1, closed.get());
+	}
+}